@@ -0,0 +1,114 @@
+package com.homeexpress.home_express_api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Dedicated executors for background work that must stay off Tomcat request threads.
+ * Each pool is bounded so a slow downstream cannot exhaust memory or threads.
+ */
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Worker pool used by the outbox dispatcher to deliver messages in parallel.
+     * When saturated the polling thread delivers itself, which naturally slows claiming.
+     */
+    @Bean(name = "outboxExecutor")
+    public ThreadPoolTaskExecutor outboxExecutor(
+            @Value("${outbox.workers:4}") int workers,
+            @Value("${outbox.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("outbox-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Email workers. The request thread only enqueues, so the pool rejects instead of
+     * running on the caller when full; the email is then logged as FAILED.
+     */
+    @Bean(name = "emailExecutor")
+    public ThreadPoolTaskExecutor emailExecutor(
+            @Value("${email.workers:4}") int workers,
+            @Value("${email.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("email-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes login attempts to the audit table. Audit rows are best effort: when the queue
+     * is full the oldest pending row is dropped rather than slowing down logins.
+     */
+    @Bean(name = "loginAuditExecutor")
+    public ThreadPoolTaskExecutor loginAuditExecutor(
+            @Value("${security.login-attempt.audit-queue-capacity:5000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("login-audit-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardOldestPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single thread for the stats rollup backfill, which can take minutes and must not hold a
+     * scheduler thread. Nothing queues: a second backfill is rejected while one runs. Shutdown
+     * interrupts it; it resumes from the last finished month on the next start.
+     */
+    @Bean(name = "statsRollupExecutor")
+    public ThreadPoolTaskExecutor statsRollupExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("stats-rollup-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * BCrypt workers, kept below the core count so login/registration bursts cannot take all
+     * CPU from other endpoints. The queue is only a few hashes deep per worker (0 = 4 x workers),
+     * so a burst is rejected with a 429 instead of parking request threads behind it.
+     */
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${security.password.hash-workers:0}") int workers,
+            @Value("${security.password.hash-queue-capacity:0}") int queueCapacity) {
+        int poolSize = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity > 0 ? queueCapacity : poolSize * 4);
+        executor.setPrestartAllCoreThreads(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,31 @@
+package com.homeexpress.home_express_api.config;
+
+import com.homeexpress.home_express_api.entity.UserRole;
+
+import java.security.Principal;
+
+/**
+ * Immutable principal built by {@link JwtAuthenticationFilter} from the access token claims
+ * alone. Entities (User, Customer, Transport) are loaded only by code that actually needs them.
+ *
+ * @param customerId set for CUSTOMER tokens (shares the user's primary key)
+ * @param transportId set for TRANSPORT tokens (shares the user's primary key)
+ * @param sessionId the login session the token was issued for; null for older tokens
+ */
+public record AuthenticatedUser(
+        Long userId,
+        String email,
+        UserRole role,
+        Long customerId,
+        Long transportId,
+        String sessionId) implements Principal {
+
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+
+    public boolean hasRole(UserRole expected) {
+        return role == expected;
+    }
+}
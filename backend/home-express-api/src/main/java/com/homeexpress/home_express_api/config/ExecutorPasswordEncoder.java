@@ -0,0 +1,159 @@
+package com.homeexpress.home_express_api.config;
+
+import com.homeexpress.home_express_api.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt {@link PasswordEncoder} that runs every hash on the {@code passwordHashExecutor}
+ * instead of the calling request thread, so at most that pool's workers burn CPU on BCrypt.
+ * A hash that cannot be queued, or does not finish within
+ * {@code security.password.hash-timeout-ms}, fails with {@link TooManyRequestsException}.
+ * <p>
+ * Unless {@code security.password.bcrypt-cost} is set, the cost is calibrated at startup to
+ * the highest value whose hash takes at most {@code security.password.target-hash-ms} on this
+ * machine. Existing hashes keep verifying whatever their cost.
+ * <p>
+ * Metrics: {@code password.hash.duration} (tag {@code operation}: encode / matches),
+ * {@code password.hash.queue.wait} and {@code password.hash.rejected}.
+ */
+@Slf4j
+public class ExecutorPasswordEncoder implements PasswordEncoder {
+
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolTaskExecutor executor;
+    private final long timeoutMs;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejected;
+
+    public ExecutorPasswordEncoder(PasswordEncoder delegate, ThreadPoolTaskExecutor executor, long timeoutMs,
+                                   MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeoutMs = timeoutMs;
+        this.encodeTimer = Timer.builder("password.hash.duration")
+                .description("Time spent computing password hashes")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash.duration")
+                .description("Time spent computing password hashes")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("password.hash.queue.wait")
+                .description("Time password hashes wait for a worker")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Password hashes refused because the workers were saturated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * BCrypt encoder with the configured or calibrated cost, wrapped to run on {@code executor}.
+     */
+    public static ExecutorPasswordEncoder create(SecurityConfigProperties.PasswordConfig config,
+                                                 ThreadPoolTaskExecutor executor, MeterRegistry meterRegistry) {
+        int cost = config.getBcryptCost() > 0
+                ? config.getBcryptCost()
+                : calibrateCost(config.getMinCost(), config.getMaxCost(), config.getTargetHashMs());
+        log.info("Password hashing: BCrypt cost {}, {} worker(s)", cost, executor.getCorePoolSize());
+        return new ExecutorPasswordEncoder(new BCryptPasswordEncoder(cost), executor, config.getHashTimeoutMs(),
+                meterRegistry);
+    }
+
+    /**
+     * Time a hash at {@code minCost} and pick the highest cost (each step doubles the work)
+     * expected to stay within {@code targetMs}. The first rounds also warm up the JIT.
+     */
+    static int calibrateCost(int minCost, int maxCost, long targetMs) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minCost);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long started = System.nanoTime();
+            encoder.encode("calibration-" + i);
+            best = Math.min(best, System.nanoTime() - started);
+        }
+        double measuredMs = Math.max(best / 1_000_000.0, 0.001);
+
+        int cost = minCost;
+        double expectedMs = measuredMs;
+        while (cost < maxCost && expectedMs * 2 <= targetMs) {
+            cost++;
+            expectedMs *= 2;
+        }
+        log.info("BCrypt cost {} took {} ms; using cost {} (~{} ms, target {} ms)",
+                minCost, Math.round(measuredMs), cost, Math.round(expectedMs), targetMs);
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Timer timer, Supplier<T> work) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                queueWaitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return work.get();
+                } finally {
+                    timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw busy();
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Drops it if still queued; a running hash finishes on its own
+            future.cancel(true);
+            rejected.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for password hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private TooManyRequestsException busy() {
+        return new TooManyRequestsException("Server is busy. Please try again in a moment.", 1);
+    }
+}
@@ -1,15 +1,11 @@
 package com.homeexpress.home_express_api.config;
 
-import com.homeexpress.home_express_api.entity.Customer;
-import com.homeexpress.home_express_api.entity.Transport;
-import com.homeexpress.home_express_api.repository.CustomerRepository;
-import com.homeexpress.home_express_api.repository.TransportRepository;
+import com.homeexpress.home_express_api.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,82 +24,62 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     // NOTE: filter nay chay moi request de extract JWT token tu header
     // neu valid thi set SecurityContext de Spring Security biet user da login
-    
-    @Autowired
-    private JwtTokenProvider jwtTokenProvider;
-    
-    @Autowired
-    private CustomerRepository customerRepository;
-    
-    @Autowired
-    private TransportRepository transportRepository;
-    
+    // Token chi duoc parse 1 lan va principal duoc dung tu claims - khong query DB
+    // Revocation check chi la bloom filter trong memory, chi query DB khi filter bao "co the da revoke"
+    // Check revocation truoc khi cache token, de token da bi evict khong duoc cache lai
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationService tokenRevocationService;
+
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, TokenRevocationService tokenRevocationService) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
     @Override
-    protected void doFilterInternal(HttpServletRequest request, 
-                                    HttpServletResponse response, 
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        
+
         try {
-            // 1. lay JWT tu Authorization header
+            // 1. lay JWT tu Authorization header / cookie
             String jwt = getJwtFromRequest(request);
-            logger.info("JWT extracted: " + (jwt != null ? "FOUND" : "NULL"));
-            
-            // 2. neu co token va valid
+
+            // 2. neu co token thi verify + doc claims trong 1 lan parse
             if (StringUtils.hasText(jwt)) {
-                if (jwtTokenProvider.validateToken(jwt)) {
-                    logger.info("JWT is VALID");
-                    // 3. extract user info tu token
-                    Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
-                    String role = jwtTokenProvider.getRoleFromToken(jwt);
-                    logger.info("User ID: " + userId + ", Role: " + role);
-                    
-                    // 4. load user entity based on role
-                    Object principal = userId; // default to userId
-                    
-                    if ("CUSTOMER".equals(role)) {
-                        Optional<Customer> customerOpt = customerRepository.findByUser_UserId(userId);
-                        if (customerOpt.isPresent()) {
-                            principal = customerOpt.get();
-                        }
-                    } else if ("TRANSPORT".equals(role)) {
-                        Optional<Transport> transportOpt = transportRepository.findByUser_UserId(userId);
-                        if (transportOpt.isPresent()) {
-                            principal = transportOpt.get();
-                        }
-                    }
-                    
-                    // 5. tao Authentication object
+                Optional<AuthenticatedUser> principal = jwtTokenProvider.authenticate(jwt, tokenRevocationService::isRevoked);
+                if (principal.isPresent()) {
+                    AuthenticatedUser user = principal.get();
+
+                    // 3. tao Authentication object
                     // chu y: authorities phai co prefix "ROLE_" de Spring Security nhan dang
-                    SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role);
-                    UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(principal, null, Collections.singletonList(authority));
-                    
-                    // 6. set request details (IP, user agent)
+                    SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.role().name());
+                    UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(user, null, Collections.singletonList(authority));
+
+                    // 4. set request details (IP, user agent)
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    // 7. set vao SecurityContext - tu day Spring Security biet user da login
+
+                    // 5. set vao SecurityContext - tu day Spring Security biet user da login
                     SecurityContextHolder.getContext().setAuthentication(authentication);
-                    logger.info("Authentication set in SecurityContext");
-                } else {
-                    logger.error("JWT is INVALID");
+                } else if (logger.isDebugEnabled()) {
+                    logger.debug("Rejected JWT for " + request.getRequestURI());
                 }
-            } else {
-                logger.info("No JWT found in request");
             }
         } catch (Exception ex) {
             // log loi nhung ko throw - de request tiep tuc
             // neu token invalid thi cu de 401 Unauthorized tu security config
             logger.error("Could not set user authentication in security context", ex);
         }
-        
-        // 7. tiep tuc filter chain
+
+        // 6. tiep tuc filter chain
         filterChain.doFilter(request, response);
     }
-    
+
     // helper: extract JWT tu "Authorization: Bearer <token>" header
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
-        
+
         // format: "Bearer eyJhbGciOiJIUzI1NiIs..."
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
             return bearerToken.substring(7); // cat bo "Bearer "
@@ -117,7 +93,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     .findFirst()
                     .orElse(null);
         }
-        
+
         return null;
     }
 }
@@ -1,5 +1,6 @@
 package com.homeexpress.home_express_api.config;
 
+import com.homeexpress.home_express_api.entity.UserRole;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,6 +8,8 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 @Component
 public class JwtTokenProvider {
@@ -18,39 +21,131 @@ public class JwtTokenProvider {
     private final long jwtExpirationMs = 86400000L; // 24 hours
     private final long refreshTokenExpirationMs = 604800000L; // 7 days
 
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public JwtTokenProvider(VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_CUSTOMER_ID = "customerId";
+    private static final String CLAIM_TRANSPORT_ID = "transportId";
+    private static final String CLAIM_SESSION_ID = "sid";
+
     // Tao JWT token
+    // customerId/transportId duoc nhung san (dung chung khoa chinh voi user) de filter khoi query DB
     public String generateToken(Long userId, String email, String role) {
+        return generateToken(userId, email, role, null);
+    }
+
+    // sessionId (claim "sid") cho phep thu hoi token theo session, xem TokenRevocationService
+    public String generateToken(Long userId, String email, String role, String sessionId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userId.toString()) // User ID
-                .claim("email", email)
-                .claim("role", role)
+                .claim(CLAIM_EMAIL, email)
+                .claim(CLAIM_ROLE, role);
+        if (UserRole.CUSTOMER.name().equals(role)) {
+            builder.claim(CLAIM_CUSTOMER_ID, userId);
+        } else if (UserRole.TRANSPORT.name().equals(role)) {
+            builder.claim(CLAIM_TRANSPORT_ID, userId);
+        }
+        if (sessionId != null) {
+            builder.claim(CLAIM_SESSION_ID, sessionId);
+        }
+
+        return builder
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(secretKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    // Lay user ID tu token
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
+    /**
+     * Verify an access token once and build the principal from its claims.
+     * Refresh tokens (no role claim) and unknown roles are rejected. Tokens seen before
+     * are served from {@link VerifiedTokenCache} until they expire.
+     *
+     * @return the principal, or empty if the token is invalid, expired or not an access token
+     */
+    public Optional<AuthenticatedUser> authenticate(String token) {
+        return authenticate(token, principal -> false);
+    }
+
+    /**
+     * Same as {@link #authenticate(String)}, but a principal for which {@code revoked} holds is
+     * rejected and never cached, and a cached one is dropped. Otherwise a token evicted on
+     * revocation would be verified and cached again by the next request.
+     */
+    public Optional<AuthenticatedUser> authenticate(String token, Predicate<AuthenticatedUser> revoked) {
+        AuthenticatedUser cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            if (revoked.test(cached)) {
+                verifiedTokenCache.evict(token);
+                return Optional.empty();
+            }
+            return Optional.of(cached);
+        }
+
+        Claims claims;
+        try {
+            claims = parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (role == null) {
+            return Optional.empty();
+        }
+        try {
+            UserRole userRole = UserRole.valueOf(role);
+            Long userId = Long.parseLong(claims.getSubject());
+            AuthenticatedUser principal = new AuthenticatedUser(
+                    userId,
+                    claims.get(CLAIM_EMAIL, String.class),
+                    userRole,
+                    userRole == UserRole.CUSTOMER ? longClaim(claims, CLAIM_CUSTOMER_ID, userId) : null,
+                    userRole == UserRole.TRANSPORT ? longClaim(claims, CLAIM_TRANSPORT_ID, userId) : null,
+                    claims.get(CLAIM_SESSION_ID, String.class));
+            if (revoked.test(principal)) {
+                return Optional.empty();
+            }
+            if (claims.getExpiration() != null) {
+                verifiedTokenCache.put(token, principal, claims.getExpiration().getTime());
+            }
+            return Optional.of(principal);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Claims parseClaims(String token) {
+        return Jwts.parser()
                 .verifyWith(secretKey)
                 .build()
                 .parseSignedClaims(token)
                 .getPayload();
+    }
 
-        return Long.parseLong(claims.getSubject());
+    // Token cu (truoc khi nhung claim) van dung duoc: fallback ve userId
+    private Long longClaim(Claims claims, String name, Long fallback) {
+        Number value = claims.get(name, Number.class);
+        return value != null ? value.longValue() : fallback;
+    }
+
+    // Lay user ID tu token
+    public Long getUserIdFromToken(String token) {
+        return Long.parseLong(parseClaims(token).getSubject());
     }
 
     // Validate token
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
@@ -59,7 +154,16 @@ public class JwtTokenProvider {
 
     // Generate access token
     public String generateAccessToken(Long userId, String email, String role) {
-        return generateToken(userId, email, role);
+        return generateToken(userId, email, role, null);
+    }
+
+    public String generateAccessToken(Long userId, String email, String role, String sessionId) {
+        return generateToken(userId, email, role, sessionId);
+    }
+
+    // Get access token expiration
+    public long getAccessTokenExpiration() {
+        return jwtExpirationMs;
     }
 
     // Generate refresh token
@@ -80,15 +184,14 @@ public class JwtTokenProvider {
         return refreshTokenExpirationMs;
     }
 
+    // Bo cac access token da cache cua user (goi khi revoke sessions)
+    public void evictCachedTokens(Long userId) {
+        verifiedTokenCache.evictUser(userId);
+    }
+
     // Get role from token
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.get("role", String.class);
+        return parseClaims(token).get(CLAIM_ROLE, String.class);
     }
 
     // Get token type
@@ -0,0 +1,84 @@
+package com.homeexpress.home_express_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homeexpress.home_express_api.service.RateLimitService;
+import com.homeexpress.home_express_api.util.AuthenticationUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rejects requests to rate limited routes with 429 once the caller's bucket is empty.
+ * Runs after {@link JwtAuthenticationFilter} so authenticated callers are limited per user;
+ * anonymous callers are limited per client IP.
+ * <p>
+ * Created by {@link SecurityConfig} (not a component) so it only runs inside the security chain.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimitService rateLimitService;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitService rateLimitService, ObjectMapper objectMapper) {
+        this.rateLimitService = rateLimitService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RateLimitService.Decision decision = rateLimitService.tryConsume(path, resolveSubject(request));
+
+        if (decision != null) {
+            response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+            if (!decision.allowed()) {
+                writeTooManyRequests(response, decision.retryAfterSeconds());
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String resolveSubject(HttpServletRequest request) {
+        Long userId = AuthenticationUtils.getUserId(SecurityContextHolder.getContext().getAuthentication());
+        if (userId != null) {
+            return "u:" + userId;
+        }
+        // Not X-Forwarded-For: clients can forge it. Behind a trusted proxy Tomcat has already
+        // rewritten remoteAddr (server.forward-headers-strategy)
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void writeTooManyRequests(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("message", "Too many requests. Please try again later.");
+        body.put("timestamp", LocalDateTime.now().toString());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,78 @@
+package com.homeexpress.home_express_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured pool with a primary and one pool per read replica, routed by
+ * {@link ReplicaRoutingDataSource}. Only active with {@code app.datasource.replicas.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(value = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReadReplicaProperties replicaProperties,
+                                                             Environment environment) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        String username = StringUtils.hasText(replicaProperties.getUsername())
+                ? replicaProperties.getUsername()
+                : dataSourceProperties.determineUsername();
+        String password = StringUtils.hasText(replicaProperties.getPassword())
+                ? replicaProperties.getPassword()
+                : dataSourceProperties.determinePassword();
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaProperties.getUrls()) {
+            if (!StringUtils.hasText(url)) {
+                continue;
+            }
+            HikariDataSource replica = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            // cung cau hinh pool voi primary, roi ghi de url va read-only
+            Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(replica));
+            replica.setJdbcUrl(url.trim());
+            replica.setReadOnly(true);
+            replica.setPoolName("replica-" + replicas.size());
+            replicas.add(replica);
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas, replicaProperties.getMaxLagMs(),
+                replicaProperties.getLagQuery());
+    }
+
+    /**
+     * The data source JPA, JdbcTemplate and Flyway use. The physical connection is only fetched on
+     * the first statement, after the transaction manager has marked the transaction read-only.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,50 @@
+package com.homeexpress.home_express_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas used by {@link ReplicaRoutingDataSource}. Pool settings are shared with the
+ * primary ({@code spring.datasource.hikari.*}).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.datasource.replicas")
+public class ReadReplicaProperties {
+
+    /**
+     * Route read-only transactions to the replicas. When off, everything uses spring.datasource.
+     */
+    private boolean enabled = false;
+
+    /**
+     * JDBC URLs of the replicas
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * Replica credentials; blank means the primary's
+     */
+    private String username;
+    private String password;
+
+    /**
+     * A replica further behind than this is skipped until it catches up
+     */
+    private long maxLagMs = 5000;
+
+    /**
+     * How often replica lag is measured
+     */
+    private long lagCheckIntervalMs = 5000;
+
+    /**
+     * Query reporting replica lag in seconds. Seconds_Behind_Source / Seconds_Behind_Master is used
+     * when present, otherwise the first column; no row means the server is not lagging.
+     */
+    private String lagQuery = "SHOW REPLICA STATUS";
+}
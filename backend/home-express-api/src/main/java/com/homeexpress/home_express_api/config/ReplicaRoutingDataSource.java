@@ -0,0 +1,210 @@
+package com.homeexpress.home_express_api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to a read replica and everything else to the
+ * primary.
+ * <ul>
+ *   <li>Replicas are used round-robin, skipping any whose last measured lag is above the limit
+ *       or that could not be measured; with none available reads fall back to the primary.</li>
+ *   <li>Read your writes: once a read-write transaction commits during an HTTP request, the rest
+ *       of that request reads from the primary, so a service that saves then re-reads (or a
+ *       controller that returns the saved entity through a read-only query) sees its own change.</li>
+ * </ul>
+ * The routing key is resolved when the physical connection is fetched, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} (see
+ * {@link ReadReplicaConfig}); otherwise the connection is taken before the transaction is marked
+ * read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+    private static final String READ_PRIMARY_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".READ_PRIMARY";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMs;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, long maxLagMs, String lagQuery) {
+        this.primary = primary;
+        this.maxLagMs = maxLagMs;
+        this.lagQuery = lagQuery;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicaDataSources.get(i));
+            replicas.add(replica);
+            targets.put(replica.key, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Read from the primary for the rest of the current HTTP request. No-op outside a request.
+     */
+    public static void readPrimaryForRestOfRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(READ_PRIMARY_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    static boolean readsPrimaryInRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                && Boolean.TRUE.equals(attributes.getAttribute(READ_PRIMARY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()
+                    && RequestContextHolder.getRequestAttributes() != null) {
+                // Chi pin primary khi transaction ghi thuc su commit
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readPrimaryForRestOfRequest();
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (readsPrimaryInRequest()) {
+            return PRIMARY;
+        }
+        Replica replica = nextAvailableReplica();
+        return replica != null ? replica.key : PRIMARY;
+    }
+
+    /**
+     * Measure every replica's lag and take it out of (or back into) rotation.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.lag-check-interval-ms:5000}", initialDelay = 0)
+    public void refreshReplicaLag() {
+        for (Replica replica : replicas) {
+            boolean wasAvailable = replica.available;
+            try {
+                long lagMs = measureLagMs(replica.dataSource);
+                replica.available = lagMs <= maxLagMs;
+                if (wasAvailable && !replica.available) {
+                    log.warn("Read replica {} is {} ms behind (limit {} ms); reading from other replicas or the primary",
+                            replica.key, lagMs == Long.MAX_VALUE ? "unknown" : lagMs, maxLagMs);
+                } else if (!wasAvailable && replica.available) {
+                    log.info("Read replica {} in rotation ({} ms behind)", replica.key, lagMs);
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.available = false;
+                if (wasAvailable) {
+                    log.warn("Read replica {} unreachable, out of rotation: {}", replica.key, e.getMessage());
+                }
+            }
+        }
+    }
+
+    List<String> availableReplicas() {
+        return replicas.stream().filter(replica -> replica.available).map(replica -> replica.key).toList();
+    }
+
+    private Replica nextAvailableReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private long measureLagMs(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                // Khong co dong: server khong (con) la replica, khong biet lag -> loai khoi vong
+                return Long.MAX_VALUE;
+            }
+            Object seconds = rs.getObject(lagColumn(rs.getMetaData()));
+            if (seconds == null) {
+                // MySQL tra NULL khi replication dang dung
+                return Long.MAX_VALUE;
+            }
+            double value = seconds instanceof Number number ? number.doubleValue() : Double.parseDouble(seconds.toString());
+            return Math.round(value * 1000);
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String label = metaData.getColumnLabel(i);
+            if ("Seconds_Behind_Source".equalsIgnoreCase(label) || "Seconds_Behind_Master".equalsIgnoreCase(label)) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(primary);
+        for (Replica replica : replicas) {
+            closeQuietly(replica.dataSource);
+        }
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.debug("Closing data source failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String key;
+        private final DataSource dataSource;
+        // chua do lag thi chua dua vao rotation
+        private volatile boolean available;
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.homeexpress.home_express_api.config;
+
+import com.homeexpress.home_express_api.constants.BookingConstants;
+import com.homeexpress.home_express_api.service.retention.RetentionPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+import java.time.Duration;
+
+/**
+ * Retention policies, applied in this order by
+ * {@link com.homeexpress.home_express_api.service.retention.RetentionService}.
+ */
+@Configuration
+public class RetentionConfig {
+
+    // Refresh sessions are kept for a while after expiry so "Manage devices" / audits can see them
+    @Bean
+    @Order(1)
+    public RetentionPolicy userSessionRetention(SecurityConfigProperties securityConfig) {
+        return RetentionPolicy.delete("user_sessions", "user_sessions", "session_id", "expires_at",
+                Duration.ofDays(securityConfig.getSessionCleanup().getRetentionDays()));
+    }
+
+    @Bean
+    @Order(2)
+    public RetentionPolicy otpRetention() {
+        return RetentionPolicy.delete("otp_codes", "otp_codes", "otp_id", "expires_at", Duration.ZERO);
+    }
+
+    @Bean
+    @Order(3)
+    public RetentionPolicy loginAttemptRetention(SecurityConfigProperties securityConfig) {
+        return RetentionPolicy.delete("login_attempts", "login_attempts", "id", "attempted_at",
+                Duration.ofDays(securityConfig.getLoginAttempt().getCleanupDays()));
+    }
+
+    // Active intake sessions past expires_at are marked expired first...
+    @Bean
+    @Order(4)
+    public RetentionPolicy intakeSessionExpiry() {
+        return RetentionPolicy.update("intake_sessions_expire", "intake_sessions", "session_id", "expires_at",
+                        Duration.ZERO, "status = 'expired'")
+                .where("status = 'active'");
+    }
+
+    // ...and deleted (items cascade) once they have been expired for a few days
+    @Bean
+    @Order(5)
+    public RetentionPolicy intakeSessionRetention() {
+        return RetentionPolicy.delete("intake_sessions", "intake_sessions", "session_id", "updated_at",
+                        Duration.ofDays(BookingConstants.INTAKE_SESSION_CLEANUP_DAYS))
+                .where("status = 'expired'");
+    }
+
+    // Only read notifications: unread ones still count towards the cached unread badge
+    @Bean
+    @Order(6)
+    public RetentionPolicy notificationRetention(@Value("${retention.notifications.days:90}") int days) {
+        return RetentionPolicy.delete("notifications", "notifications", "notification_id", "created_at",
+                        Duration.ofDays(days))
+                .where("is_read = TRUE");
+    }
+
+    // Delivered outbox messages are only useful for a short audit window...
+    @Bean
+    @Order(7)
+    public RetentionPolicy outboxSentRetention(@Value("${retention.outbox.sent-days:7}") int days) {
+        return RetentionPolicy.delete("outbox_messages_sent", "outbox_messages", "id", "processed_at",
+                        Duration.ofDays(days))
+                .where("status = 'SENT'");
+    }
+
+    // ...messages that gave up are kept longer so they can be investigated or replayed
+    @Bean
+    @Order(8)
+    public RetentionPolicy outboxFailedRetention(@Value("${retention.outbox.failed-days:30}") int days) {
+        return RetentionPolicy.delete("outbox_messages_failed", "outbox_messages", "id", "processed_at",
+                        Duration.ofDays(days))
+                .where("status = 'FAILED'");
+    }
+}
@@ -0,0 +1,13 @@
+package com.homeexpress.home_express_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (SSE heartbeats, cleanup sweeps, ...).
+ * Pool size is controlled through {@code spring.task.scheduling.pool.size}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
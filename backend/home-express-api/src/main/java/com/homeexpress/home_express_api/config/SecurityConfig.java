@@ -6,7 +6,6 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
@@ -19,6 +18,12 @@ import java.util.List;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.homeexpress.home_express_api.service.RateLimitService;
 
 @Configuration
 @EnableWebSecurity
@@ -30,6 +35,12 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -42,6 +53,7 @@ public class SecurityConfig {
                 .anyRequest().authenticated() // Cac endpoint khac can phai login
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class) // Them filter JWT truoc user/pass filter
+                .addFilterAfter(new RateLimitFilter(rateLimitService, objectMapper), JwtAuthenticationFilter.class) // Rate limit sau khi biet user
                 .httpBasic(httpBasic -> httpBasic.disable()) // Tat basic auth
                 .formLogin(form -> form.disable()); // Tat form login
 
@@ -49,8 +61,12 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // Su dung BCrypt de hash password
+    public PasswordEncoder passwordEncoder(
+            @Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor passwordHashExecutor,
+            SecurityConfigProperties securityConfig,
+            MeterRegistry meterRegistry) {
+        // BCrypt chay tren executor rieng, cost tu dong theo toc do may (xem ExecutorPasswordEncoder)
+        return ExecutorPasswordEncoder.create(securityConfig.getPassword(), passwordHashExecutor, meterRegistry);
     }
 
     @Bean
@@ -4,6 +4,10 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Configuration properties for security-related settings
  * Centralizes magic numbers and makes them configurable
@@ -28,6 +32,16 @@ public class SecurityConfigProperties {
      */
     private SessionCleanupConfig sessionCleanup = new SessionCleanupConfig();
     
+    /**
+     * API rate limiting configuration
+     */
+    private RateLimitConfig rateLimit = new RateLimitConfig();
+    
+    /**
+     * Password hashing configuration
+     */
+    private PasswordConfig password = new PasswordConfig();
+    
     @Data
     public static class LoginAttemptConfig {
         /**
@@ -44,16 +58,21 @@ public class SecurityConfigProperties {
          * Duration in minutes to lock account after max failed attempts
          */
         private int lockoutDurationMinutes = 30;
-        
+
         /**
-         * Number of days to keep old login attempt records
+         * Maximum login attempts (successful or not) per client IP within the IP window
          */
-        private int cleanupDays = 30;
+        private int maxAttemptsPerIp = 30;
+
+        /**
+         * Sliding window in seconds for per-IP attempt counting
+         */
+        private int ipWindowSeconds = 60;
         
         /**
-         * Cron expression for cleanup job (default: 2am daily)
+         * Number of days to keep old login attempt records
          */
-        private String cleanupCron = "0 0 2 * * ?";
+        private int cleanupDays = 30;
     }
     
     @Data
@@ -72,19 +91,108 @@ public class SecurityConfigProperties {
          * Maximum OTP requests per user per hour
          */
         private int maxRequestsPerHour = 3;
+        
+        /**
+         * Wrong guesses allowed before a pending OTP is discarded (redis store)
+         */
+        private int maxVerifyAttempts = 5;
+        
+        /**
+         * OTP storage: "redis" or "database"
+         */
+        private String store = "redis";
     }
     
     @Data
     public static class SessionCleanupConfig {
         /**
-         * Cron expression for session cleanup job (default: 3am daily)
+         * Number of days to keep expired sessions before deletion
+         */
+        private int retentionDays = 30;
+    }
+    
+    @Data
+    public static class PasswordConfig {
+        /**
+         * Fixed BCrypt cost; 0 calibrates at startup between min-cost and max-cost
          */
-        private String cleanupCron = "0 0 3 * * ?";
+        private int bcryptCost = 0;
         
         /**
-         * Number of days to keep expired sessions before deletion
+         * Lowest cost calibration may pick
          */
-        private int retentionDays = 30;
+        private int minCost = 10;
+        
+        /**
+         * Highest cost calibration may pick
+         */
+        private int maxCost = 14;
+        
+        /**
+         * Calibration picks the highest cost whose hash takes at most this long
+         */
+        private long targetHashMs = 250;
+        
+        /**
+         * Maximum time a request waits for its hash (queue wait included)
+         */
+        private long hashTimeoutMs = 750;
+    }
+    
+    @Data
+    public static class RateLimitConfig {
+        /**
+         * Turn the rate limiting filter on or off
+         */
+        private boolean enabled = true;
+        
+        /**
+         * Where bucket state lives: "redis" (shared across nodes) or "local" (single node)
+         */
+        private String store = "redis";
+        
+        /**
+         * Route classes, checked in order; the first matching class applies
+         */
+        private Map<String, RouteLimit> routes = defaultRoutes();
+        
+        private static Map<String, RouteLimit> defaultRoutes() {
+            Map<String, RouteLimit> routes = new LinkedHashMap<>();
+            routes.put("map", new RouteLimit(List.of("/api/v1/map/**"), 30, 60));
+            routes.put("ai", new RouteLimit(List.of(
+                    "/api/v1/intake/analyze-images",
+                    "/api/v1/intake/parse-document",
+                    "/api/v1/intake/ocr",
+                    "/api/ai/detect-items"), 5, 10));
+            routes.put("estimation", new RouteLimit(List.of("/api/v1/estimation/**"), 10, 20));
+            return routes;
+        }
+    }
+    
+    @Data
+    public static class RouteLimit {
+        /**
+         * Ant-style path patterns belonging to this route class
+         */
+        private List<String> patterns = List.of();
+        
+        /**
+         * Bucket size: the burst a single user (or IP when anonymous) may send
+         */
+        private int capacity = 10;
+        
+        /**
+         * Tokens added back per minute
+         */
+        private int refillPerMinute = 10;
+        
+        public RouteLimit() {
+        }
+        
+        public RouteLimit(List<String> patterns, int capacity, int refillPerMinute) {
+            this.patterns = patterns;
+            this.capacity = capacity;
+            this.refillPerMinute = refillPerMinute;
+        }
     }
 }
-
@@ -0,0 +1,131 @@
+package com.homeexpress.home_express_api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Access tokens that already passed signature verification, so a client polling with the
+ * same token does not pay HMAC verification and claims decoding on every request.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the token (the token itself is never stored)
+ * and expire at the token's {@code exp}. The cache is bounded LRU: when full, caching a new
+ * token evicts the least recently used one. A per-user index of digests lets
+ * {@link #evictUser} drop a user's tokens without scanning the cache.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    // digest -> entry, thu tu truy cap (LRU); guarded by this
+    private final LinkedHashMap<String, Entry> entries;
+    // userId -> digest cac token dang cache cua user; guarded by this
+    private final Map<Long, Set<String>> keysByUser = new HashMap<>();
+    private final int maxEntries;
+
+    public VerifiedTokenCache(@Value("${jwt.verified-cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= VerifiedTokenCache.this.maxEntries) {
+                    return false;
+                }
+                unindex(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the cached principal, or {@code null} if the token is unknown or expired
+     */
+    public AuthenticatedUser get(String token) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        String key = digest(token);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+                remove(key);
+                return null;
+            }
+            return entry.principal();
+        }
+    }
+
+    public void put(String token, AuthenticatedUser principal, long expiresAtMillis) {
+        if (maxEntries <= 0 || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        String key = digest(token);
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(principal, expiresAtMillis));
+            if (previous != null) {
+                unindex(key, previous);
+            }
+            keysByUser.computeIfAbsent(principal.userId(), id -> new HashSet<>()).add(key);
+        }
+    }
+
+    public void evict(String token) {
+        String key = digest(token);
+        synchronized (this) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Drop every cached token of the user so the next request goes through full verification.
+     */
+    public synchronized void evictUser(Long userId) {
+        Set<String> keys = keysByUser.remove(userId);
+        if (keys != null) {
+            keys.forEach(entries::remove);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unindex(key, entry);
+        }
+    }
+
+    private void unindex(String key, Entry entry) {
+        Long userId = entry.principal().userId();
+        Set<String> keys = keysByUser.get(userId);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByUser.remove(userId);
+        }
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not found", e);
+        }
+    }
+
+    private record Entry(AuthenticatedUser principal, long expiresAtMillis) {
+    }
+}
@@ -67,11 +67,6 @@ public final class BookingConstants {
      * Days to keep expired sessions before permanent deletion
      */
     public static final int INTAKE_SESSION_CLEANUP_DAYS = 7;
-    
-    /**
-     * Scheduled cleanup job frequency (every 6 hours)
-     */
-    public static final String INTAKE_SESSION_CLEANUP_CRON = "0 0 */6 * * *";
 
     // ========================================================================
     // QUOTATION EXPIRY JOB CONSTANTS
@@ -8,6 +8,7 @@ import com.homeexpress.home_express_api.entity.VerificationStatus;
 import com.homeexpress.home_express_api.repository.UserRepository;
 import com.homeexpress.home_express_api.service.TransportService;
 import com.homeexpress.home_express_api.util.AuthenticationUtils;
+import com.homeexpress.home_express_api.util.RequestIdentityContext;
 import jakarta.validation.Valid;
 import java.util.HashMap;
 import java.util.List;
@@ -205,7 +206,7 @@ public class AdminTransportController {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
 
-        return userRepository.findById(userId)
+        return RequestIdentityContext.resolve(User.class, userId, userRepository::findById)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authenticated user not found"));
     }
 }
@@ -2,9 +2,11 @@ package com.homeexpress.home_express_api.controller;
 
 import com.homeexpress.home_express_api.dto.request.*;
 import com.homeexpress.home_express_api.dto.response.AuthResponse;
+import com.homeexpress.home_express_api.exception.TooManyRequestsException;
 import com.homeexpress.home_express_api.service.AuthService;
 import com.homeexpress.home_express_api.service.OtpService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -29,6 +31,12 @@ public class AuthController {
         try {
             AuthResponse response = authService.register(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (TooManyRequestsException e) {
+            AuthResponse errorResponse = new AuthResponse();
+            errorResponse.setMessage(e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(errorResponse);
         } catch (RuntimeException e) {
             AuthResponse errorResponse = new AuthResponse();
             errorResponse.setMessage(e.getMessage());
@@ -42,6 +50,12 @@ public class AuthController {
         try {
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(response);
+        } catch (TooManyRequestsException e) {
+            AuthResponse errorResponse = new AuthResponse();
+            errorResponse.setMessage(e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(errorResponse);
         } catch (RuntimeException e) {
             AuthResponse errorResponse = new AuthResponse();
             errorResponse.setMessage(e.getMessage());
@@ -4,6 +4,7 @@ import com.homeexpress.home_express_api.dto.booking.*;
 import com.homeexpress.home_express_api.dto.request.ConfirmCompletionRequest;
 import com.homeexpress.home_express_api.dto.request.UploadBookingEvidenceRequest;
 import com.homeexpress.home_express_api.dto.response.BookingEvidenceResponse;
+import com.homeexpress.home_express_api.dto.response.CursorPageResponse;
 import com.homeexpress.home_express_api.dto.response.QuotationResponse;
 import com.homeexpress.home_express_api.entity.EvidenceType;
 import com.homeexpress.home_express_api.entity.User;
@@ -24,6 +25,7 @@ import org.springframework.web.bind.annotation.*;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -63,6 +65,8 @@ public class BookingController {
     @GetMapping
     public ResponseEntity<?> getBookings(
             @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPageResponse.DEFAULT_LIMIT) int limit,
             Authentication authentication) {
         
         User user = AuthenticationUtils.getUser(authentication, userRepository);
@@ -73,7 +77,13 @@ public class BookingController {
             if (customerId != null) {
                 bookings = bookingService.getBookingsByCustomer(customerId, user.getUserId(), user.getRole());
             } else {
-                bookings = bookingService.getAllBookings(user.getRole());
+                // Toan bo booking: bat buoc phan trang keyset
+                CursorPageResponse<BookingResponse> page = bookingService.getAllBookings(user.getRole(), cursor, limit);
+                Map<String, Object> body = new HashMap<>();
+                body.put("bookings", page.getData());
+                body.put("count", page.getData().size());
+                body.put("nextCursor", page.getNextCursor());
+                return ResponseEntity.ok(body);
             }
         } else if (user.getRole() == UserRole.CUSTOMER) {
             bookings = bookingService.getBookingsByCustomer(user.getUserId(), user.getUserId(), user.getRole());
@@ -14,11 +14,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.homeexpress.home_express_api.config.AuthenticatedUser;
 import com.homeexpress.home_express_api.dto.request.ContractRequest;
 import com.homeexpress.home_express_api.dto.request.ContractUpdateRequest;
 import com.homeexpress.home_express_api.dto.response.ContractResponse;
 import com.homeexpress.home_express_api.entity.ContractStatus;
-import com.homeexpress.home_express_api.entity.Transport;
 import com.homeexpress.home_express_api.service.ContractService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -47,13 +47,13 @@ public class ContractController {
     public ResponseEntity<Page<ContractResponse>> getContracts(
             @RequestParam(required = false) ContractStatus status,
             Pageable pageable,
-            @AuthenticationPrincipal Transport transport) {
+            @AuthenticationPrincipal AuthenticatedUser principal) {
 
-        if (transport == null) {
+        if (principal == null || principal.transportId() == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        Long transportId = transport.getTransportId();
+        Long transportId = principal.transportId();
 
         if (status != null) {
             return ResponseEntity.ok(contractService.getContractsByTransportIdAndStatus(transportId, status, pageable));
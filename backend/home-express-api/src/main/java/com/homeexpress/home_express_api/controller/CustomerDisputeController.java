@@ -1,10 +1,10 @@
 package com.homeexpress.home_express_api.controller;
 
+import com.homeexpress.home_express_api.config.AuthenticatedUser;
 import com.homeexpress.home_express_api.dto.request.AddDisputeMessageRequest;
 import com.homeexpress.home_express_api.dto.request.CreateDisputeRequest;
 import com.homeexpress.home_express_api.dto.response.DisputeMessageResponse;
 import com.homeexpress.home_express_api.dto.response.DisputeResponse;
-import com.homeexpress.home_express_api.entity.User;
 import com.homeexpress.home_express_api.service.DisputeService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -37,12 +37,12 @@ public class CustomerDisputeController {
     public ResponseEntity<DisputeResponse> createDispute(
             @PathVariable Long bookingId,
             @Valid @RequestBody CreateDisputeRequest request,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
-        log.info("Customer {} filing dispute for booking {}", user.getUserId(), bookingId);
+        log.info("Customer {} filing dispute for booking {}", user.userId(), bookingId);
         
         DisputeResponse dispute = disputeService.createDispute(
-                bookingId, request, user.getUserId(), user.getRole());
+                bookingId, request, user.userId(), user.role());
         
         return ResponseEntity.status(HttpStatus.CREATED).body(dispute);
     }
@@ -54,12 +54,12 @@ public class CustomerDisputeController {
     @GetMapping("/bookings/{bookingId}/disputes")
     public ResponseEntity<Map<String, Object>> getBookingDisputes(
             @PathVariable Long bookingId,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
-        log.debug("Customer {} getting disputes for booking {}", user.getUserId(), bookingId);
+        log.debug("Customer {} getting disputes for booking {}", user.userId(), bookingId);
         
         List<DisputeResponse> disputes = disputeService.getBookingDisputes(
-                bookingId, user.getUserId(), user.getRole());
+                bookingId, user.userId(), user.role());
         
         return ResponseEntity.ok(Map.of(
                 "disputes", disputes,
@@ -74,12 +74,12 @@ public class CustomerDisputeController {
     @GetMapping("/disputes/{disputeId}")
     public ResponseEntity<DisputeResponse> getDispute(
             @PathVariable Long disputeId,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
-        log.debug("Customer {} getting dispute {}", user.getUserId(), disputeId);
+        log.debug("Customer {} getting dispute {}", user.userId(), disputeId);
         
         DisputeResponse dispute = disputeService.getDisputeById(
-                disputeId, user.getUserId(), user.getRole());
+                disputeId, user.userId(), user.role());
         
         return ResponseEntity.ok(dispute);
     }
@@ -92,12 +92,12 @@ public class CustomerDisputeController {
     public ResponseEntity<DisputeMessageResponse> addMessage(
             @PathVariable Long disputeId,
             @Valid @RequestBody AddDisputeMessageRequest request,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
-        log.info("Customer {} adding message to dispute {}", user.getUserId(), disputeId);
+        log.info("Customer {} adding message to dispute {}", user.userId(), disputeId);
         
         DisputeMessageResponse message = disputeService.addDisputeMessage(
-                disputeId, request, user.getUserId(), user.getRole());
+                disputeId, request, user.userId(), user.role());
         
         return ResponseEntity.status(HttpStatus.CREATED).body(message);
     }
@@ -109,12 +109,12 @@ public class CustomerDisputeController {
     @GetMapping("/disputes/{disputeId}/messages")
     public ResponseEntity<Map<String, Object>> getDisputeMessages(
             @PathVariable Long disputeId,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
-        log.debug("Customer {} getting messages for dispute {}", user.getUserId(), disputeId);
+        log.debug("Customer {} getting messages for dispute {}", user.userId(), disputeId);
         
         List<DisputeMessageResponse> messages = disputeService.getDisputeMessages(
-                disputeId, user.getUserId(), user.getRole());
+                disputeId, user.userId(), user.role());
         
         return ResponseEntity.ok(Map.of(
                 "messages", messages,
@@ -130,12 +130,12 @@ public class CustomerDisputeController {
     public ResponseEntity<Map<String, String>> attachEvidence(
             @PathVariable Long disputeId,
             @PathVariable Long evidenceId,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
         log.info("Customer {} attaching evidence {} to dispute {}", 
-                user.getUserId(), evidenceId, disputeId);
+                user.userId(), evidenceId, disputeId);
         
-        disputeService.attachEvidence(disputeId, evidenceId, user.getUserId(), user.getRole());
+        disputeService.attachEvidence(disputeId, evidenceId, user.userId(), user.role());
         
         return ResponseEntity.ok(Map.of(
                 "message", "Evidence attached successfully",
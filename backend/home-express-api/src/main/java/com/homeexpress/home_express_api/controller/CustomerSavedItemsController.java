@@ -1,5 +1,6 @@
 package com.homeexpress.home_express_api.controller;
 
+import com.homeexpress.home_express_api.config.AuthenticatedUser;
 import com.homeexpress.home_express_api.dto.request.SaveItemRequest;
 import com.homeexpress.home_express_api.dto.request.SaveItemsRequest;
 import com.homeexpress.home_express_api.dto.response.SavedItemResponse;
@@ -33,7 +34,9 @@ public class CustomerSavedItemsController {
      * Helper to extract user ID from principal
      */
     private Long getUserId(Object principal) {
-        if (principal instanceof Customer) {
+        if (principal instanceof AuthenticatedUser) {
+            return ((AuthenticatedUser) principal).userId();
+        } else if (principal instanceof Customer) {
             return ((Customer) principal).getCustomerId();
         } else if (principal instanceof User) {
             return ((User) principal).getUserId();
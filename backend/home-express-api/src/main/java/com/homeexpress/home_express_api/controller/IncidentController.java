@@ -1,6 +1,7 @@
 package com.homeexpress.home_express_api.controller;
 
 import com.homeexpress.home_express_api.dto.incident.*;
+import com.homeexpress.home_express_api.dto.response.CursorPageResponse;
 import com.homeexpress.home_express_api.entity.*;
 import com.homeexpress.home_express_api.repository.UserRepository;
 import com.homeexpress.home_express_api.service.EvidenceService;
@@ -13,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -54,18 +56,21 @@ public class IncidentController {
             @RequestParam(required = false) Long bookingId,
             @RequestParam(required = false) IncidentStatus status,
             @RequestParam(required = false) Severity severity,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPageResponse.DEFAULT_LIMIT) int limit,
             Authentication authentication) {
         
         User user = AuthenticationUtils.getUser(authentication, userRepository);
 
-        List<IncidentResponse> incidents = incidentService.getIncidents(
-            bookingId, status, severity, user.getUserId(), user.getRole()
+        CursorPageResponse<IncidentResponse> page = incidentService.getIncidents(
+            bookingId, status, severity, user.getUserId(), user.getRole(), cursor, limit
         );
 
-        return ResponseEntity.ok(Map.of(
-            "incidents", incidents,
-            "count", incidents.size()
-        ));
+        Map<String, Object> body = new HashMap<>();
+        body.put("incidents", page.getData());
+        body.put("count", page.getData().size());
+        body.put("nextCursor", page.getNextCursor());
+        return ResponseEntity.ok(body);
     }
 
     @GetMapping("/{id}")
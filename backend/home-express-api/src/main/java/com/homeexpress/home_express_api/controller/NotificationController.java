@@ -8,15 +8,19 @@ import com.homeexpress.home_express_api.entity.User;
 import com.homeexpress.home_express_api.repository.UserRepository;
 import com.homeexpress.home_express_api.service.NotificationPreferenceService;
 import com.homeexpress.home_express_api.service.NotificationService;
+import com.homeexpress.home_express_api.service.NotificationStreamService;
 import com.homeexpress.home_express_api.util.AuthenticationUtils;
+import com.homeexpress.home_express_api.util.RequestIdentityContext;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -27,14 +31,17 @@ public class NotificationController {
 
     private final NotificationService notificationService;
     private final NotificationPreferenceService preferenceService;
+    private final NotificationStreamService streamService;
     private final UserRepository userRepository;
 
     public NotificationController(
             NotificationService notificationService,
             NotificationPreferenceService preferenceService,
+            NotificationStreamService streamService,
             UserRepository userRepository) {
         this.notificationService = notificationService;
         this.preferenceService = preferenceService;
+        this.streamService = streamService;
         this.userRepository = userRepository;
     }
 
@@ -51,13 +58,27 @@ public class NotificationController {
 
     @GetMapping({"/unread-count", "/unread/count"})
     public ResponseEntity<Map<String, Long>> getUnreadCount(Authentication authentication) {
-        User user = resolveAuthenticatedUser(authentication);
-        Long count = notificationService.getUnreadCount(user.getUserId());
+        // Served from the counter cache; no need to load the user row
+        Long count = notificationService.getUnreadCount(resolveAuthenticatedUserId(authentication));
         Map<String, Long> response = new HashMap<>();
         response.put("unreadCount", count);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * SSE stream pushing {@code notification:unread_count} events whenever the badge changes,
+     * so clients can stop polling {@code /unread-count}.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(Authentication authentication) {
+        Long userId = resolveAuthenticatedUserId(authentication);
+        SseEmitter emitter = streamService.createStream(userId, notificationService.getUnreadCount(userId));
+        return ResponseEntity.ok()
+                .header("Cache-Control", "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<NotificationResponse> getNotificationById(
             @PathVariable Long id,
@@ -112,13 +133,18 @@ public class NotificationController {
         return ResponseEntity.ok(preferences);
     }
 
-    private User resolveAuthenticatedUser(Authentication authentication) {
+    private Long resolveAuthenticatedUserId(Authentication authentication) {
         Long userId = AuthenticationUtils.getUserId(authentication);
         if (userId == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
+        return userId;
+    }
+
+    private User resolveAuthenticatedUser(Authentication authentication) {
+        Long userId = resolveAuthenticatedUserId(authentication);
 
-        return userRepository.findById(userId)
+        return RequestIdentityContext.resolve(User.class, userId, userRepository::findById)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authenticated user not found"));
     }
 }
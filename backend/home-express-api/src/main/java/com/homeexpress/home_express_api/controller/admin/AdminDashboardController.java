@@ -2,13 +2,18 @@ package com.homeexpress.home_express_api.controller.admin;
 
 import com.homeexpress.home_express_api.dto.response.AdminDashboardStatsResponse;
 import com.homeexpress.home_express_api.service.DashboardService;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/admin/dashboard")
 public class AdminDashboardController {
@@ -16,11 +21,25 @@ public class AdminDashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private StatsRollupService statsRollupService;
+
     @GetMapping("/stats")
     @PreAuthorize("hasRole('MANAGER')")
     public ResponseEntity<AdminDashboardStatsResponse> getStats() {
         AdminDashboardStatsResponse stats = dashboardService.getAdminDashboardStats();
         return ResponseEntity.ok(stats);
     }
+
+    // Tinh lai toan bo rollup tu lich su (vd sau khi sua du lieu hang loat); chay nen
+    @PostMapping("/rollups/backfill")
+    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<Map<String, Object>> backfillRollups() {
+        if (!statsRollupService.startBackfill()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("started", false, "message", "A rollup reconcile or backfill is already running"));
+        }
+        return ResponseEntity.accepted().body(Map.of("started", true));
+    }
 }
 
@@ -0,0 +1,47 @@
+package com.homeexpress.home_express_api.controller.admin;
+
+import com.homeexpress.home_express_api.service.export.AdminExportService;
+import com.homeexpress.home_express_api.service.export.ExportDataset;
+import com.homeexpress.home_express_api.service.export.ExportFormat;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/v1/admin/exports")
+public class AdminExportController {
+
+    @Autowired
+    private AdminExportService adminExportService;
+
+    /**
+     * Download a whole table: {@code /exports/bookings?format=csv}, or {@code format=ndjson}.
+     * Rows are written to the response while they are read, on the request thread, so a long
+     * export is not cut off by the async request timeout.
+     */
+    @GetMapping("/{dataset}")
+    @PreAuthorize("hasRole('MANAGER')")
+    public void export(
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+
+        ExportDataset exportDataset = ExportDataset.from(dataset);
+        ExportFormat exportFormat = ExportFormat.from(format);
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(exportDataset.fileName(exportFormat))
+                .build()
+                .toString());
+
+        adminExportService.export(exportDataset, exportFormat, response.getOutputStream());
+    }
+}
@@ -3,14 +3,11 @@ package com.homeexpress.home_express_api.controller.admin;
 import com.homeexpress.home_express_api.dto.admin.CreatePayoutRequest;
 import com.homeexpress.home_express_api.dto.admin.UpdatePayoutStatusRequest;
 import com.homeexpress.home_express_api.dto.payout.PayoutDTO;
+import com.homeexpress.home_express_api.dto.response.CursorPageResponse;
 import com.homeexpress.home_express_api.entity.PayoutStatus;
 import com.homeexpress.home_express_api.service.PayoutService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,7 +16,6 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/admin/payouts")
@@ -67,32 +63,18 @@ public class AdminPayoutController {
 
     @GetMapping
     @PreAuthorize("hasRole('MANAGER')")
-    public ResponseEntity<Page<PayoutDTO>> getAllPayouts(
+    public ResponseEntity<Map<String, Object>> getAllPayouts(
             @RequestParam(required = false) PayoutStatus status,
             @RequestParam(required = false) Long transportId,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPageResponse.DEFAULT_LIMIT) int limit) {
+        CursorPageResponse<PayoutDTO> page = payoutService.getPayouts(status, transportId, cursor, limit);
 
-        List<PayoutDTO> payouts;
-
-        if (status != null && transportId != null) {
-            payouts = payoutService.getPayoutsByTransport(transportId).stream()
-                    .filter(p -> p.getStatus() == status)
-                    .collect(Collectors.toList());
-        } else if (status != null) {
-            payouts = payoutService.getPayoutsByStatus(status);
-        } else if (transportId != null) {
-            payouts = payoutService.getPayoutsByTransport(transportId);
-        } else {
-            payouts = payoutService.getAllPayouts();
-        }
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), payouts.size());
-
-        List<PayoutDTO> pageContent = payouts.subList(start, end);
-        Page<PayoutDTO> page = new PageImpl<>(pageContent, pageable, payouts.size());
-
-        return ResponseEntity.ok(page);
+        Map<String, Object> response = new HashMap<>();
+        response.put("payouts", page.getData());
+        response.put("count", page.getData().size());
+        response.put("nextCursor", page.getNextCursor());
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
@@ -3,14 +3,11 @@ package com.homeexpress.home_express_api.controller.admin;
 import com.homeexpress.home_express_api.dto.SettlementDTO;
 import com.homeexpress.home_express_api.dto.admin.SettlementQueueResponse;
 import com.homeexpress.home_express_api.dto.admin.SettlementReviewRequest;
+import com.homeexpress.home_express_api.dto.response.CursorPageResponse;
 import com.homeexpress.home_express_api.entity.SettlementStatus;
 import com.homeexpress.home_express_api.service.SettlementService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -27,32 +24,18 @@ public class AdminSettlementController {
 
     @GetMapping
     @PreAuthorize("hasRole('MANAGER')")
-    public ResponseEntity<Page<SettlementDTO>> getAllSettlements(
+    public ResponseEntity<Map<String, Object>> getAllSettlements(
             @RequestParam(required = false) SettlementStatus status,
             @RequestParam(required = false) Long transportId,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPageResponse.DEFAULT_LIMIT) int limit) {
+        CursorPageResponse<SettlementDTO> page = settlementService.getSettlements(status, transportId, cursor, limit);
 
-        List<SettlementDTO> settlements;
-
-        if (status != null && transportId != null) {
-            settlements = settlementService.getSettlementsByTransport(transportId).stream()
-                    .filter(s -> s.getStatus() == status)
-                    .collect(Collectors.toList());
-        } else if (status != null) {
-            settlements = settlementService.getSettlementsByStatus(status);
-        } else if (transportId != null) {
-            settlements = settlementService.getSettlementsByTransport(transportId);
-        } else {
-            settlements = settlementService.getAllSettlements();
-        }
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), settlements.size());
-        
-        List<SettlementDTO> pageContent = settlements.subList(start, end);
-        Page<SettlementDTO> page = new PageImpl<>(pageContent, pageable, settlements.size());
-
-        return ResponseEntity.ok(page);
+        Map<String, Object> response = new HashMap<>();
+        response.put("settlements", page.getData());
+        response.put("count", page.getData().size());
+        response.put("nextCursor", page.getNextCursor());
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
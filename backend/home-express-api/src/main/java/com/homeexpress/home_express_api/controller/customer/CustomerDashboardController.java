@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import com.homeexpress.home_express_api.util.AuthenticationUtils;
+import com.homeexpress.home_express_api.util.RequestIdentityContext;
 
 @RestController
 @RequestMapping("/api/v1/customer")
@@ -85,7 +86,7 @@ public class CustomerDashboardController {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
 
-        User user = userRepository.findById(userId)
+        User user = RequestIdentityContext.resolve(User.class, userId, userRepository::findById)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authenticated user not found"));
 
         if (user.getRole() != UserRole.CUSTOMER) {
@@ -12,7 +12,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -119,23 +118,6 @@ public class CustomerSSEController {
         }
     }
 
-    /**
-     * Scheduled task to send heartbeat to all active connections
-     * Runs every 30 seconds to keep connections alive
-     */
-    @Scheduled(fixedRate = 30000) // 30 seconds
-    public void sendHeartbeats() {
-        // This would need to iterate through all active bookings
-        // For now, we'll let the service handle individual heartbeats
-        // when events occur. A full implementation would track all active
-        // booking IDs and send heartbeats to each.
-        
-        int activeConnections = customerEventService.getTotalActiveConnections();
-        if (activeConnections > 0) {
-            log.debug("Active SSE connections: {}", activeConnections);
-        }
-    }
-
     /**
      * Create error response map
      */
@@ -3,9 +3,7 @@ package com.homeexpress.home_express_api.controller.transport;
 import com.homeexpress.home_express_api.dto.request.SubmitQuotationRequest;
 import com.homeexpress.home_express_api.dto.response.TransportDashboardStatsResponse;
 import com.homeexpress.home_express_api.dto.response.TransportQuotationSummaryResponse;
-import com.homeexpress.home_express_api.entity.User;
 import com.homeexpress.home_express_api.entity.UserRole;
-import com.homeexpress.home_express_api.repository.UserRepository;
 import com.homeexpress.home_express_api.service.QuotationService;
 import com.homeexpress.home_express_api.service.TransportDashboardService;
 import com.homeexpress.home_express_api.util.AuthenticationUtils;
@@ -42,18 +40,14 @@ public class TransportDashboardController {
     @Autowired
     private QuotationService quotationService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     @GetMapping("/dashboard/stats")
     @PreAuthorize("hasRole('TRANSPORT')")
     public ResponseEntity<?> getDashboardStats(Authentication authentication) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (!isTransport(user)) {
+        if (!isTransport(authentication)) {
             return forbidden();
         }
 
-        TransportDashboardStatsResponse stats = dashboardService.getDashboardStats(user.getUserId());
+        TransportDashboardStatsResponse stats = dashboardService.getDashboardStats(AuthenticationUtils.getUserId(authentication));
         return ResponseEntity.ok(stats);
     }
 
@@ -62,12 +56,11 @@ public class TransportDashboardController {
     public ResponseEntity<?> submitQuotation(
     @Valid @RequestBody SubmitQuotationRequest request,
     Authentication authentication) {
-    User user = AuthenticationUtils.getUser(authentication, userRepository);
-    if (!isTransport(user)) {
+    if (!isTransport(authentication)) {
     return forbidden();
     }
 
-    var response = quotationService.submitQuotation(request, user.getUserId());
+    var response = quotationService.submitQuotation(request, AuthenticationUtils.getUserId(authentication));
     return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
         "quotationId", response.getQuotationId(),
             "message", "Quotation submitted successfully",
@@ -81,18 +74,17 @@ public class TransportDashboardController {
     public ResponseEntity<?> getRecentQuotations(Authentication authentication,
                                                   @RequestParam(defaultValue = "10")
                                                   @Min(1) @Max(MAX_QUOTATION_LIMIT) int limit) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (!isTransport(user)) {
+        if (!isTransport(authentication)) {
             return forbidden();
         }
 
         List<TransportQuotationSummaryResponse> quotations = dashboardService
-                .getRecentQuotations(user.getUserId(), limit);
+                .getRecentQuotations(AuthenticationUtils.getUserId(authentication), limit);
         return ResponseEntity.ok(quotations);
     }
 
-    private boolean isTransport(User user) {
-        return user != null && user.getRole() == UserRole.TRANSPORT;
+    private boolean isTransport(Authentication authentication) {
+        return AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT);
     }
 
     private ResponseEntity<Map<String, Object>> forbidden() {
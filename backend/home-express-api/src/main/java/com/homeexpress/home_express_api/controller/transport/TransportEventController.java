@@ -1,8 +1,7 @@
 package com.homeexpress.home_express_api.controller.transport;
 
-import com.homeexpress.home_express_api.entity.User;
 import com.homeexpress.home_express_api.entity.UserRole;
-import com.homeexpress.home_express_api.repository.UserRepository;
+import com.homeexpress.home_express_api.service.TransportEventService;
 import com.homeexpress.home_express_api.util.AuthenticationUtils;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,21 +17,27 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 @RequestMapping("/api/v1/transport")
 public class TransportEventController {
 
-    private final UserRepository userRepository;
+    private final TransportEventService transportEventService;
 
-    public TransportEventController(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public TransportEventController(TransportEventService transportEventService) {
+        this.transportEventService = transportEventService;
     }
 
+    /**
+     * Job-board changes for the signed-in transport: {@code job_board:match_added} and
+     * {@code job_board:match_removed}, each carrying the booking ID.
+     */
     @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @PreAuthorize("hasRole('TRANSPORT')")
     public ResponseEntity<SseEmitter> subscribeToTransportEvents(Authentication authentication) {
         if (!isTransport(authentication)) {
             return ResponseEntity.status(403).build();
         }
-        SseEmitter emitter = new SseEmitter(0L);
-        emitter.complete();
-        return ResponseEntity.ok(emitter);
+        Long transportId = AuthenticationUtils.getUserId(authentication);
+        if (transportId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(transportEventService.createStream(transportId));
     }
 
     @GetMapping(path = "/jobs/{bookingId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
@@ -47,8 +52,7 @@ public class TransportEventController {
     }
 
     private boolean isTransport(Authentication authentication) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        return user != null && user.getRole() == UserRole.TRANSPORT;
+        return AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT);
     }
 }
 
@@ -4,9 +4,7 @@ import com.homeexpress.home_express_api.dto.response.ApiResponse;
 import com.homeexpress.home_express_api.dto.transport.TransportEarningsStatsResponse;
 import com.homeexpress.home_express_api.dto.transport.TransportTransactionDto;
 import com.homeexpress.home_express_api.dto.transport.TransportWalletReportResponse;
-import com.homeexpress.home_express_api.entity.User;
 import com.homeexpress.home_express_api.entity.UserRole;
-import com.homeexpress.home_express_api.repository.UserRepository;
 import com.homeexpress.home_express_api.service.TransportFinanceService;
 import com.homeexpress.home_express_api.util.AuthenticationUtils;
 import org.springframework.http.ResponseEntity;
@@ -24,34 +22,30 @@ import java.util.List;
 public class TransportFinanceController {
 
     private final TransportFinanceService financeService;
-    private final UserRepository userRepository;
 
-    public TransportFinanceController(TransportFinanceService financeService, UserRepository userRepository) {
+    public TransportFinanceController(TransportFinanceService financeService) {
         this.financeService = financeService;
-        this.userRepository = userRepository;
     }
 
     @GetMapping("/earnings/stats")
     @PreAuthorize("hasRole('TRANSPORT')")
     public ResponseEntity<?> getEarningsStats(Authentication authentication) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (user.getRole() != UserRole.TRANSPORT) {
+        if (!AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Only transport accounts can access this resource"));
         }
 
-        TransportEarningsStatsResponse stats = financeService.getEarningsStats(user.getUserId());
+        TransportEarningsStatsResponse stats = financeService.getEarningsStats(AuthenticationUtils.getUserId(authentication));
         return ResponseEntity.ok(stats);
     }
 
     @GetMapping("/transactions")
     @PreAuthorize("hasRole('TRANSPORT')")
     public ResponseEntity<?> getTransactions(Authentication authentication) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (user.getRole() != UserRole.TRANSPORT) {
+        if (!AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Only transport accounts can access this resource"));
         }
 
-        List<TransportTransactionDto> transactions = financeService.getTransactions(user.getUserId());
+        List<TransportTransactionDto> transactions = financeService.getTransactions(AuthenticationUtils.getUserId(authentication));
         return ResponseEntity.ok(transactions);
     }
 
@@ -61,12 +55,11 @@ public class TransportFinanceController {
             @RequestParam(value = "days", required = false) Integer days,
             Authentication authentication) {
 
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (user.getRole() != UserRole.TRANSPORT) {
+        if (!AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Only transport accounts can access this resource"));
         }
 
-        TransportWalletReportResponse report = financeService.getWalletReport(user.getUserId(), days);
+        TransportWalletReportResponse report = financeService.getWalletReport(AuthenticationUtils.getUserId(authentication), days);
         return ResponseEntity.ok(report);
     }
 }
@@ -8,10 +8,8 @@ import com.homeexpress.home_express_api.dto.transport.TransportActiveJobSummaryD
 import com.homeexpress.home_express_api.dto.transport.TransportAvailableBookingDto;
 import com.homeexpress.home_express_api.dto.transport.TransportPaginatedResponse;
 import com.homeexpress.home_express_api.entity.Transport;
-import com.homeexpress.home_express_api.entity.User;
 import com.homeexpress.home_express_api.entity.UserRole;
 import com.homeexpress.home_express_api.repository.TransportRepository;
-import com.homeexpress.home_express_api.repository.UserRepository;
 import com.homeexpress.home_express_api.service.PricingService;
 import com.homeexpress.home_express_api.service.RateCardService;
 import com.homeexpress.home_express_api.service.TransportJobService;
@@ -42,18 +40,15 @@ import java.util.Optional;
 public class TransportJobController {
 
     private final TransportJobService transportJobService;
-    private final UserRepository userRepository;
     private final TransportRepository transportRepository;
     private final RateCardService rateCardService;
     private final PricingService pricingService;
 
     public TransportJobController(TransportJobService transportJobService,
-                                  UserRepository userRepository,
                                   TransportRepository transportRepository,
                                   RateCardService rateCardService,
                                   PricingService pricingService) {
         this.transportJobService = transportJobService;
-        this.userRepository = userRepository;
         this.transportRepository = transportRepository;
         this.rateCardService = rateCardService;
         this.pricingService = pricingService;
@@ -66,14 +61,14 @@ public class TransportJobController {
             @RequestParam(defaultValue = "1") @Min(1) int page,
             @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit,
             @RequestParam(required = false) Integer maxDistance,
-            @RequestParam(required = false) String preferredDate
+            @RequestParam(required = false) String preferredDate,
+            @RequestParam(required = false) String cursor
     ) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (user.getRole() != UserRole.TRANSPORT) {
+        if (!AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Only transport accounts can access this resource"));
         }
 
-        Optional<Transport> transportOpt = transportRepository.findByUser_UserId(user.getUserId());
+        Optional<Transport> transportOpt = AuthenticationUtils.getTransport(authentication, transportRepository);
         if (transportOpt.isEmpty()) {
             return ResponseEntity.status(403)
                     .body(ApiResponse.error("Transport profile not found. Please complete transport registration."));
@@ -93,7 +88,7 @@ public class TransportJobController {
         }
 
         TransportPaginatedResponse<TransportAvailableBookingDto> response =
-                transportJobService.getAvailableBookings(user.getUserId(), page, limit, maxDistance, dateFilter);
+                transportJobService.getAvailableBookings(AuthenticationUtils.getUserId(authentication), page, limit, maxDistance, dateFilter, cursor);
         return ResponseEntity.ok(response);
     }
 
@@ -103,12 +98,11 @@ public class TransportJobController {
             Authentication authentication,
             @PathVariable Long bookingId
     ) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (user.getRole() != UserRole.TRANSPORT) {
+        if (!AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Only transport accounts can access this resource"));
         }
 
-        Optional<Transport> transportOpt = transportRepository.findByUser_UserId(user.getUserId());
+        Optional<Transport> transportOpt = AuthenticationUtils.getTransport(authentication, transportRepository);
         if (transportOpt.isEmpty()) {
             return ResponseEntity.status(403)
                     .body(ApiResponse.error("Transport profile not found. Please complete transport registration."));
@@ -127,24 +121,22 @@ public class TransportJobController {
     @GetMapping("/active-jobs")
     @PreAuthorize("hasRole('TRANSPORT')")
     public ResponseEntity<?> getActiveJobs(Authentication authentication) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (user.getRole() != UserRole.TRANSPORT) {
+        if (!AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Only transport accounts can access this resource"));
         }
 
-        List<TransportActiveJobSummaryDto> jobs = transportJobService.getActiveJobs(user.getUserId());
+        List<TransportActiveJobSummaryDto> jobs = transportJobService.getActiveJobs(AuthenticationUtils.getUserId(authentication));
         return ResponseEntity.ok(jobs);
     }
 
     @GetMapping("/bookings/available/{bookingId}")
     @PreAuthorize("hasRole('TRANSPORT')")
     public ResponseEntity<?> getAvailableBookingDetail(Authentication authentication, @PathVariable Long bookingId) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (user.getRole() != UserRole.TRANSPORT) {
+        if (!AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Only transport accounts can access this resource"));
         }
 
-        Optional<Transport> transportOpt = transportRepository.findByUser_UserId(user.getUserId());
+        Optional<Transport> transportOpt = AuthenticationUtils.getTransport(authentication, transportRepository);
         if (transportOpt.isEmpty()) {
             return ResponseEntity.status(403)
                     .body(ApiResponse.error("Transport profile not found. Please complete transport registration."));
@@ -163,12 +155,11 @@ public class TransportJobController {
     @GetMapping("/active-jobs/{bookingId}")
     @PreAuthorize("hasRole('TRANSPORT')")
     public ResponseEntity<?> getActiveJobDetail(Authentication authentication, @PathVariable Long bookingId) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (user.getRole() != UserRole.TRANSPORT) {
+        if (!AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Only transport accounts can access this resource"));
         }
 
-        Optional<TransportActiveJobDetailDto> job = transportJobService.getActiveJobDetail(bookingId, user.getUserId());
+        Optional<TransportActiveJobDetailDto> job = transportJobService.getActiveJobDetail(bookingId, AuthenticationUtils.getUserId(authentication));
         return job.<ResponseEntity<?>>map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.status(404).body(ApiResponse.error("Job not found")));
     }
@@ -176,12 +167,11 @@ public class TransportJobController {
     @PutMapping("/bookings/{bookingId}/start")
     @PreAuthorize("hasRole('TRANSPORT')")
     public ResponseEntity<?> startJob(Authentication authentication, @PathVariable Long bookingId) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (user.getRole() != UserRole.TRANSPORT) {
+        if (!AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Only transport accounts can access this resource"));
         }
 
-        Optional<Transport> transportOpt = transportRepository.findByUser_UserId(user.getUserId());
+        Optional<Transport> transportOpt = AuthenticationUtils.getTransport(authentication, transportRepository);
         if (transportOpt.isEmpty()) {
             return ResponseEntity.status(403)
                     .body(ApiResponse.error("Transport profile not found. Please complete transport registration."));
@@ -212,12 +202,11 @@ public class TransportJobController {
             @PathVariable Long bookingId,
             @RequestBody(required = false) Map<String, Object> requestBody
     ) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (user.getRole() != UserRole.TRANSPORT) {
+        if (!AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Only transport accounts can access this resource"));
         }
 
-        Optional<Transport> transportOpt = transportRepository.findByUser_UserId(user.getUserId());
+        Optional<Transport> transportOpt = AuthenticationUtils.getTransport(authentication, transportRepository);
         if (transportOpt.isEmpty()) {
             return ResponseEntity.status(403)
                     .body(ApiResponse.error("Transport profile not found. Please complete transport registration."));
@@ -4,10 +4,8 @@ import com.homeexpress.home_express_api.dto.request.RateCardRequest;
 import com.homeexpress.home_express_api.dto.response.RateCardResponse;
 import com.homeexpress.home_express_api.dto.response.ReadyToQuoteStatusResponse;
 import com.homeexpress.home_express_api.entity.Transport;
-import com.homeexpress.home_express_api.entity.User;
 import com.homeexpress.home_express_api.entity.UserRole;
 import com.homeexpress.home_express_api.repository.TransportRepository;
-import com.homeexpress.home_express_api.repository.UserRepository;
 import com.homeexpress.home_express_api.service.RateCardService;
 import com.homeexpress.home_express_api.util.AuthenticationUtils;
 import jakarta.validation.Valid;
@@ -24,14 +22,11 @@ import java.util.Map;
 @RequestMapping("/api/v1/transport")
 public class TransportRateCardController {
 
-    private final UserRepository userRepository;
     private final TransportRepository transportRepository;
     private final RateCardService rateCardService;
 
-    public TransportRateCardController(UserRepository userRepository,
-                                       TransportRepository transportRepository,
+    public TransportRateCardController(TransportRepository transportRepository,
                                        RateCardService rateCardService) {
-        this.userRepository = userRepository;
         this.transportRepository = transportRepository;
         this.rateCardService = rateCardService;
     }
@@ -39,13 +34,12 @@ public class TransportRateCardController {
     @GetMapping("/rate-cards")
     @PreAuthorize("hasRole('TRANSPORT')")
     public ResponseEntity<?> getRateCards(Authentication authentication) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (user.getRole() != UserRole.TRANSPORT) {
+        if (!AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("error", "Only transport accounts can access this resource"));
         }
 
-        Transport transport = transportRepository.findByUser_UserId(user.getUserId())
+        Transport transport = AuthenticationUtils.getTransport(authentication, transportRepository)
                 .orElseThrow(() -> new RuntimeException("Transport profile not found for user"));
 
         List<RateCardResponse> cards = rateCardService.getRateCardsForTransport(transport.getTransportId());
@@ -56,13 +50,12 @@ public class TransportRateCardController {
     @PreAuthorize("hasRole('TRANSPORT')")
     public ResponseEntity<?> createOrUpdateRateCard(@Valid @RequestBody RateCardRequest request,
                                                     Authentication authentication) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (user.getRole() != UserRole.TRANSPORT) {
+        if (!AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("error", "Only transport accounts can access this resource"));
         }
 
-        Transport transport = transportRepository.findByUser_UserId(user.getUserId())
+        Transport transport = AuthenticationUtils.getTransport(authentication, transportRepository)
                 .orElseThrow(() -> new RuntimeException("Transport profile not found for user"));
 
         RateCardResponse response = rateCardService.createOrUpdateRateCard(transport.getTransportId(), request);
@@ -73,13 +66,12 @@ public class TransportRateCardController {
     @PreAuthorize("hasRole('TRANSPORT')")
     public ResponseEntity<?> deleteRateCard(@PathVariable Long rateCardId,
                                             Authentication authentication) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (user.getRole() != UserRole.TRANSPORT) {
+        if (!AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("error", "Only transport accounts can access this resource"));
         }
 
-        Transport transport = transportRepository.findByUser_UserId(user.getUserId())
+        Transport transport = AuthenticationUtils.getTransport(authentication, transportRepository)
                 .orElseThrow(() -> new RuntimeException("Transport profile not found for user"));
 
         rateCardService.deleteRateCard(transport.getTransportId(), rateCardId);
@@ -89,13 +81,12 @@ public class TransportRateCardController {
     @GetMapping("/ready-status")
     @PreAuthorize("hasRole('TRANSPORT')")
     public ResponseEntity<?> getReadyStatus(Authentication authentication) {
-        User user = AuthenticationUtils.getUser(authentication, userRepository);
-        if (user.getRole() != UserRole.TRANSPORT) {
+        if (!AuthenticationUtils.hasRole(authentication, UserRole.TRANSPORT)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("error", "Only transport accounts can access this resource"));
         }
 
-        Transport transport = transportRepository.findByUser_UserId(user.getUserId())
+        Transport transport = AuthenticationUtils.getTransport(authentication, transportRepository)
                 .orElseThrow(() -> new RuntimeException("Transport profile not found for user"));
 
         ReadyToQuoteStatusResponse status = rateCardService.getReadyToQuoteStatus(transport.getTransportId());
@@ -2,6 +2,7 @@ package com.homeexpress.home_express_api.dto;
 
 import com.homeexpress.home_express_api.entity.CollectionMode;
 import com.homeexpress.home_express_api.entity.SettlementStatus;
+import com.homeexpress.home_express_api.repository.projection.SettlementView;
 
 import java.time.LocalDateTime;
 
@@ -29,6 +30,29 @@ public class SettlementDTO {
     public SettlementDTO() {
     }
 
+    public static SettlementDTO fromView(SettlementView settlement) {
+        SettlementDTO dto = new SettlementDTO();
+        dto.setSettlementId(settlement.getSettlementId());
+        dto.setBookingId(settlement.getBookingId());
+        dto.setTransportId(settlement.getTransportId());
+        dto.setAgreedPriceVnd(settlement.getAgreedPriceVnd());
+        dto.setTotalCollectedVnd(settlement.getTotalCollectedVnd());
+        dto.setGatewayFeeVnd(settlement.getGatewayFeeVnd());
+        dto.setCommissionRateBps(settlement.getCommissionRateBps());
+        dto.setPlatformFeeVnd(settlement.getPlatformFeeVnd());
+        dto.setAdjustmentVnd(settlement.getAdjustmentVnd());
+        dto.setNetToTransportVnd(settlement.getNetToTransportVnd());
+        dto.setCollectionMode(settlement.getCollectionMode());
+        dto.setStatus(settlement.getStatus());
+        dto.setOnHoldReason(settlement.getOnHoldReason());
+        dto.setCreatedAt(settlement.getCreatedAt());
+        dto.setReadyAt(settlement.getReadyAt());
+        dto.setPaidAt(settlement.getPaidAt());
+        dto.setUpdatedAt(settlement.getUpdatedAt());
+        dto.setNotes(settlement.getNotes());
+        return dto;
+    }
+
     public Long getSettlementId() {
         return settlementId;
     }
@@ -4,6 +4,7 @@ import com.homeexpress.home_express_api.entity.Booking;
 import com.homeexpress.home_express_api.entity.BookingStatus;
 import com.homeexpress.home_express_api.entity.DistanceSource;
 import com.homeexpress.home_express_api.entity.TimeSlot;
+import com.homeexpress.home_express_api.repository.projection.BookingView;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -37,6 +38,10 @@ public class BookingResponse {
     }
 
     public static BookingResponse fromEntity(Booking booking) {
+        return fromView(booking);
+    }
+
+    public static BookingResponse fromView(BookingView booking) {
         BookingResponse response = new BookingResponse();
         response.setBookingId(booking.getBookingId());
         response.setCustomerId(booking.getCustomerId());
@@ -4,6 +4,7 @@ import com.homeexpress.home_express_api.entity.Incident;
 import com.homeexpress.home_express_api.entity.IncidentStatus;
 import com.homeexpress.home_express_api.entity.IncidentType;
 import com.homeexpress.home_express_api.entity.Severity;
+import com.homeexpress.home_express_api.repository.projection.IncidentView;
 import java.time.LocalDateTime;
 
 public class IncidentResponse {
@@ -25,6 +26,10 @@ public class IncidentResponse {
     }
 
     public static IncidentResponse fromEntity(Incident incident) {
+        return fromView(incident);
+    }
+
+    public static IncidentResponse fromView(IncidentView incident) {
         IncidentResponse response = new IncidentResponse();
         response.setIncidentId(incident.getIncidentId());
         response.setBookingId(incident.getBookingId());
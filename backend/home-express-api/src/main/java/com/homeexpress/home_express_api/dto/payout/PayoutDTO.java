@@ -2,6 +2,7 @@ package com.homeexpress.home_express_api.dto.payout;
 
 import com.homeexpress.home_express_api.entity.PayoutStatus;
 import com.homeexpress.home_express_api.entity.TransportPayout;
+import com.homeexpress.home_express_api.repository.projection.PayoutView;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -35,6 +36,10 @@ public class PayoutDTO {
     }
 
     public static PayoutDTO fromEntity(TransportPayout payout) {
+        return fromView(payout);
+    }
+
+    public static PayoutDTO fromView(PayoutView payout) {
         PayoutDTO dto = new PayoutDTO();
         dto.setPayoutId(payout.getPayoutId());
         dto.setTransportId(payout.getTransportId());
@@ -0,0 +1,72 @@
+package com.homeexpress.home_express_api.dto.response;
+
+import com.homeexpress.home_express_api.util.KeysetCursor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a list read by keyset ({@link KeysetCursor}). {@code nextCursor} is passed back
+ * as {@code cursor} to read the next page and is null on the last page. No total is counted.
+ */
+public class CursorPageResponse<T> {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private List<T> data;
+    private int limit;
+    private String nextCursor;
+
+    public CursorPageResponse() {
+    }
+
+    public CursorPageResponse(List<T> data, int limit, String nextCursor) {
+        this.data = data;
+        this.limit = limit;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds a page from a window of up to {@code limit + 1} rows: the extra row only tells
+     * that another page exists, and the cursor points at the last row kept.
+     */
+    public static <V, T> CursorPageResponse<T> of(List<V> window, int limit,
+                                                  Function<V, KeysetCursor> cursorOf,
+                                                  Function<V, T> mapper) {
+        boolean hasMore = window.size() > limit;
+        List<V> rows = hasMore ? window.subList(0, limit) : window;
+        String nextCursor = hasMore && !rows.isEmpty()
+                ? cursorOf.apply(rows.get(rows.size() - 1)).encode()
+                : null;
+        return new CursorPageResponse<>(rows.stream().map(mapper).toList(), limit, nextCursor);
+    }
+
+    public static int clampLimit(int requested) {
+        return Math.min(Math.max(requested, 1), MAX_LIMIT);
+    }
+
+    public List<T> getData() {
+        return data;
+    }
+
+    public void setData(List<T> data) {
+        this.data = data;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import com.homeexpress.home_express_api.entity.VehiclePricing;
+import com.homeexpress.home_express_api.repository.projection.VehiclePricingView;
 
 public class VehiclePricingResponse {
 
@@ -64,6 +65,35 @@ public class VehiclePricingResponse {
         return response;
     }
 
+    public static VehiclePricingResponse fromView(VehiclePricingView view) {
+        VehiclePricingResponse response = new VehiclePricingResponse();
+        response.setVehiclePricingId(view.getVehiclePricingId());
+        response.setTransportId(view.getTransportId());
+        response.setTransportCompanyName(view.getTransportCompanyName());
+        response.setVehicleType(view.getVehicleType().name());
+        response.setBasePriceVnd(view.getBasePriceVnd());
+        response.setPerKmFirst4KmVnd(view.getPerKmFirst4KmVnd());
+        response.setPerKm5To40KmVnd(view.getPerKm5To40KmVnd());
+        response.setPerKmAfter40KmVnd(view.getPerKmAfter40KmVnd());
+        response.setMinChargeVnd(view.getMinChargeVnd());
+        response.setElevatorBonusVnd(view.getElevatorBonusVnd());
+        response.setNoElevatorFeePerFloorVnd(view.getNoElevatorFeePerFloorVnd());
+        response.setNoElevatorFloorThreshold(view.getNoElevatorFloorThreshold());
+        response.setPeakHourMultiplier(view.getPeakHourMultiplier());
+        response.setWeekendMultiplier(view.getWeekendMultiplier());
+        response.setPeakHourStart1(view.getPeakHourStart1());
+        response.setPeakHourEnd1(view.getPeakHourEnd1());
+        response.setPeakHourStart2(view.getPeakHourStart2());
+        response.setPeakHourEnd2(view.getPeakHourEnd2());
+        response.setTimezone(view.getTimezone());
+        response.setIsActive(view.getIsActive());
+        response.setValidFrom(view.getValidFrom());
+        response.setValidTo(view.getValidTo());
+        response.setCreatedAt(view.getCreatedAt());
+        response.setUpdatedAt(view.getUpdatedAt());
+        return response;
+    }
+
     public Long getVehiclePricingId() {
         return vehiclePricingId;
     }
@@ -33,6 +33,8 @@ public class TransportPaginatedResponse<T> {
         private int totalPages;
         private long totalItems;
         private int itemsPerPage;
+        // Opaque keyset cursor for the next page; null on the last page
+        private String nextCursor;
 
         public int getCurrentPage() {
             return currentPage;
@@ -65,6 +67,14 @@ public class TransportPaginatedResponse<T> {
         public void setItemsPerPage(int itemsPerPage) {
             this.itemsPerPage = itemsPerPage;
         }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public void setNextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+        }
     }
 }
 
@@ -1,5 +1,6 @@
 package com.homeexpress.home_express_api.entity;
 
+import com.homeexpress.home_express_api.repository.projection.BookingView;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,7 +10,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bookings")
-public class Booking {
+public class Booking implements BookingView {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
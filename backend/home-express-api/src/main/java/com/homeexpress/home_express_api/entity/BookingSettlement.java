@@ -1,12 +1,13 @@
 package com.homeexpress.home_express_api.entity;
 
+import com.homeexpress.home_express_api.repository.projection.SettlementView;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "booking_settlements")
-public class BookingSettlement {
+public class BookingSettlement implements SettlementView {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,63 @@
+package com.homeexpress.home_express_api.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Delivery record for one outgoing email. Created as QUEUED on the request thread and
+ * moved to SENT or FAILED by the email workers.
+ */
+@Entity
+@Table(name = "email_logs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class EmailLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "log_id")
+    private Long logId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "to_email", nullable = false)
+    private String toEmail;
+
+    @Column(name = "subject", nullable = false, length = 500)
+    private String subject;
+
+    @Column(name = "template_name", length = 100)
+    private String templateName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private EmailStatus status = EmailStatus.QUEUED;
+
+    @Column(name = "error_code", length = 64)
+    private String errorCode;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    @Column(name = "queued_at")
+    private LocalDateTime queuedAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (queuedAt == null) {
+            queuedAt = LocalDateTime.now();
+        }
+    }
+}
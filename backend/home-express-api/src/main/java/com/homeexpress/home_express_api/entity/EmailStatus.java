@@ -0,0 +1,16 @@
+package com.homeexpress.home_express_api.entity;
+
+/**
+ * Lifecycle of a row in {@code email_logs}. The pipeline itself writes QUEUED, SENT and
+ * FAILED; the remaining values are reserved for provider webhooks.
+ */
+public enum EmailStatus {
+    QUEUED,
+    SENT,
+    DELIVERED,
+    OPENED,
+    CLICKED,
+    BOUNCED,
+    COMPLAINED,
+    FAILED
+}
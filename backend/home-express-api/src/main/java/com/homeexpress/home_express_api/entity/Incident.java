@@ -1,5 +1,6 @@
 package com.homeexpress.home_express_api.entity;
 
+import com.homeexpress.home_express_api.repository.projection.IncidentView;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -7,7 +8,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "incidents")
-public class Incident {
+public class Incident implements IncidentView {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
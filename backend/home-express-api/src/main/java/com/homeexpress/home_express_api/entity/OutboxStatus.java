@@ -0,0 +1,8 @@
+package com.homeexpress.home_express_api.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    PROCESSING,
+    SENT,
+    FAILED
+}
@@ -1,5 +1,6 @@
 package com.homeexpress.home_express_api.entity;
 
+import com.homeexpress.home_express_api.repository.projection.PayoutView;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -12,7 +13,7 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "transport_payouts")
-public class TransportPayout {
+public class TransportPayout implements PayoutView {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -34,6 +35,8 @@ public interface BookingItemRepository extends JpaRepository<BookingItem, Long>
 
     List<BookingItem> findByBookingId(Long bookingId);
 
+    List<BookingItem> findByBookingIdIn(Collection<Long> bookingIds);
+
     long countByBookingId(Long bookingId);
 
     Long countByCategoryCategoryId(Long categoryId);
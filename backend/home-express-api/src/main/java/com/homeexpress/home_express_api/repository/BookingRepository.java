@@ -2,6 +2,12 @@ package com.homeexpress.home_express_api.repository;
 
 import com.homeexpress.home_express_api.entity.Booking;
 import com.homeexpress.home_express_api.entity.BookingStatus;
+import com.homeexpress.home_express_api.entity.QuotationStatus;
+import com.homeexpress.home_express_api.repository.projection.BookingView;
+import com.homeexpress.home_express_api.repository.projection.CustomerBookingStatsView;
+import com.homeexpress.home_express_api.repository.projection.MonthlyRevenueView;
+import com.homeexpress.home_express_api.repository.projection.TransportBookingStatsView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,7 +17,9 @@ import java.time.LocalDate;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -20,6 +28,66 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByCustomerIdOrderByCreatedAtDesc(Long customerId);
 
+    // Cot cua BookingView, dung chung cho cac query projection ben duoi
+    String VIEW_COLUMNS = """
+            b.bookingId AS bookingId,
+            b.customerId AS customerId,
+            b.transportId AS transportId,
+            b.pickupAddress AS pickupAddress,
+            b.pickupProvinceCode AS pickupProvinceCode,
+            b.pickupDistrictCode AS pickupDistrictCode,
+            b.pickupWardCode AS pickupWardCode,
+            b.pickupLatitude AS pickupLatitude,
+            b.pickupLongitude AS pickupLongitude,
+            b.pickupFloor AS pickupFloor,
+            b.pickupHasElevator AS pickupHasElevator,
+            b.deliveryAddress AS deliveryAddress,
+            b.deliveryProvinceCode AS deliveryProvinceCode,
+            b.deliveryDistrictCode AS deliveryDistrictCode,
+            b.deliveryWardCode AS deliveryWardCode,
+            b.deliveryLatitude AS deliveryLatitude,
+            b.deliveryLongitude AS deliveryLongitude,
+            b.deliveryFloor AS deliveryFloor,
+            b.deliveryHasElevator AS deliveryHasElevator,
+            b.preferredDate AS preferredDate,
+            b.preferredTimeSlot AS preferredTimeSlot,
+            b.actualStartTime AS actualStartTime,
+            b.actualEndTime AS actualEndTime,
+            b.distanceKm AS distanceKm,
+            b.distanceSource AS distanceSource,
+            b.distanceCalculatedAt AS distanceCalculatedAt,
+            b.estimatedPrice AS estimatedPrice,
+            b.finalPrice AS finalPrice,
+            b.status AS status,
+            b.notes AS notes,
+            b.specialRequirements AS specialRequirements,
+            b.cancelledBy AS cancelledBy,
+            b.cancellationReason AS cancellationReason,
+            b.cancelledAt AS cancelledAt,
+            b.createdAt AS createdAt,
+            b.updatedAt AS updatedAt
+            """;
+
+    // Danh sach booking cua customer dang projection: khong nap entity vao persistence context
+    @Query("SELECT " + VIEW_COLUMNS + """
+            FROM Booking b
+            WHERE b.customerId = :customerId
+            ORDER BY b.createdAt DESC
+            """)
+    List<BookingView> findViewsByCustomerId(@Param("customerId") Long customerId);
+
+    // Trang keyset cho admin: (createdAt, bookingId) giam dan, cursor null = trang dau
+    @Query("SELECT " + VIEW_COLUMNS + """
+            FROM Booking b
+            WHERE :cursorCreatedAt IS NULL
+               OR b.createdAt < :cursorCreatedAt
+               OR (b.createdAt = :cursorCreatedAt AND b.bookingId < :cursorId)
+            ORDER BY b.createdAt DESC, b.bookingId DESC
+            """)
+    List<BookingView> findViewsPage(@Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                    @Param("cursorId") Long cursorId,
+                                    Pageable pageable);
+
     List<Booking> findByStatus(BookingStatus status);
 
     List<Booking> findByCustomerIdAndStatus(Long customerId, BookingStatus status);
@@ -46,6 +114,11 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     long countByCustomerIdAndStatus(Long customerId, BookingStatus status);
 
+    // Transport hien tai cua booking cua bao gia, doc truoc khi trigger chap nhan bao gia doi transport_id
+    @Query("SELECT b.transportId FROM Booking b WHERE b.bookingId = "
+            + "(SELECT q.bookingId FROM Quotation q WHERE q.quotationId = :quotationId)")
+    Optional<Long> findTransportIdByQuotationId(@Param("quotationId") Long quotationId);
+
     @Query("SELECT b FROM Booking b WHERE b.customerId = :customerId " +
            "AND b.preferredDate BETWEEN :startDate AND :endDate " +
            "ORDER BY b.preferredDate DESC")
@@ -67,7 +140,67 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     boolean existsByBookingIdAndCustomerId(Long bookingId, Long customerId);
 
-    List<Booking> findByStatusInAndTransportIdIsNullOrderByCreatedAtDesc(List<BookingStatus> statuses);
+    // Job board cua transport: loc o DB, sap xep (createdAt, bookingId) giam dan de phan trang keyset
+    @Query("""
+            SELECT b FROM Booking b
+            WHERE b.status IN :statuses
+              AND b.transportId IS NULL
+              AND (:preferredDate IS NULL OR b.preferredDate = :preferredDate)
+              AND (:maxDistanceKm IS NULL OR b.distanceKm IS NULL OR b.distanceKm <= :maxDistanceKm)
+              AND (:minPrice IS NULL OR COALESCE(b.estimatedPrice, 0) >= :minPrice)
+              AND (:cursorCreatedAt IS NULL
+                   OR b.createdAt < :cursorCreatedAt
+                   OR (b.createdAt = :cursorCreatedAt AND b.bookingId < :cursorId))
+            ORDER BY b.createdAt DESC, b.bookingId DESC
+            """)
+    List<Booking> findAvailableForTransport(@Param("statuses") List<BookingStatus> statuses,
+                                            @Param("preferredDate") LocalDate preferredDate,
+                                            @Param("maxDistanceKm") BigDecimal maxDistanceKm,
+                                            @Param("minPrice") BigDecimal minPrice,
+                                            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                            @Param("cursorId") Long cursorId,
+                                            Pageable pageable);
+
+    @Query("""
+            SELECT COUNT(b) FROM Booking b
+            WHERE b.status IN :statuses
+              AND b.transportId IS NULL
+              AND (:preferredDate IS NULL OR b.preferredDate = :preferredDate)
+              AND (:maxDistanceKm IS NULL OR b.distanceKm IS NULL OR b.distanceKm <= :maxDistanceKm)
+              AND (:minPrice IS NULL OR COALESCE(b.estimatedPrice, 0) >= :minPrice)
+            """)
+    long countAvailableForTransport(@Param("statuses") List<BookingStatus> statuses,
+                                    @Param("preferredDate") LocalDate preferredDate,
+                                    @Param("maxDistanceKm") BigDecimal maxDistanceKm,
+                                    @Param("minPrice") BigDecimal minPrice);
+
+    // Khoa (bookingId, createdAt) cua moi booking ma 1 transport nhan duoc, de dung lai job board feed
+    @Query("""
+            SELECT b.bookingId, b.createdAt FROM Booking b
+            WHERE b.status IN :statuses
+              AND b.transportId IS NULL
+              AND (:maxDistanceKm IS NULL OR b.distanceKm IS NULL OR b.distanceKm <= :maxDistanceKm)
+              AND (:minPrice IS NULL OR COALESCE(b.estimatedPrice, 0) >= :minPrice)
+            """)
+    List<Object[]> findAvailableKeysForTransport(@Param("statuses") List<BookingStatus> statuses,
+                                                 @Param("maxDistanceKm") BigDecimal maxDistanceKm,
+                                                 @Param("minPrice") BigDecimal minPrice);
+
+    // 1 dong / booking: bookingId, tong so luong, tong khoi luong, co do de vo (0/1), so bao gia, so bao gia cua transport
+    @Query("""
+            SELECT b.bookingId,
+                   COALESCE(SUM(bi.quantity), 0),
+                   COALESCE(SUM(bi.weightKg * bi.quantity), 0),
+                   COALESCE(MAX(CASE WHEN bi.isFragile = true THEN 1 ELSE 0 END), 0),
+                   (SELECT COUNT(q) FROM Quotation q WHERE q.bookingId = b.bookingId),
+                   (SELECT COUNT(q) FROM Quotation q WHERE q.bookingId = b.bookingId AND q.transportId = :transportId)
+            FROM Booking b
+            LEFT JOIN BookingItem bi ON bi.bookingId = b.bookingId
+            WHERE b.bookingId IN :bookingIds
+            GROUP BY b.bookingId
+            """)
+    List<Object[]> aggregateJobBoardStats(@Param("bookingIds") Collection<Long> bookingIds,
+                                          @Param("transportId") Long transportId);
 
     @Query("SELECT COALESCE(SUM(b.finalPrice),0) FROM Booking b WHERE b.transportId = :transportId AND b.status = :status")
     BigDecimal sumFinalPriceByTransportAndStatus(@Param("transportId") Long transportId,
@@ -88,4 +221,55 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     long countByCustomerIdAndStatusIn(Long customerId, List<BookingStatus> statuses);
 
     long countByTransportIdAndStatusIn(Long transportId, List<BookingStatus> statuses);
+
+    // Dashboard customer trong 1 query (SUM(CASE ...) thay cho tung count).
+    // Dung khi rollup booking chua doc duoc (tat hoac dang backfill lan dau)
+    @Query("""
+            SELECT COUNT(b) AS totalBookings,
+                   COALESCE(SUM(CASE WHEN b.status = :pending THEN 1 ELSE 0 END), 0) AS pendingBookings,
+                   COALESCE(SUM(CASE WHEN b.status = :completed THEN 1 ELSE 0 END), 0) AS completedBookings,
+                   COALESCE(SUM(CASE WHEN b.status = :cancelled THEN 1 ELSE 0 END), 0) AS cancelledBookings,
+                   COALESCE(SUM(CASE WHEN b.status = :completed THEN b.finalPrice ELSE 0 END), 0) AS totalSpent
+            FROM Booking b
+            WHERE b.customerId = :customerId
+            """)
+    CustomerBookingStatsView aggregateCustomerDashboard(@Param("customerId") Long customerId,
+                                                        @Param("pending") BookingStatus pending,
+                                                        @Param("completed") BookingStatus completed,
+                                                        @Param("cancelled") BookingStatus cancelled);
+
+    // Dashboard transport trong 1 query; bao gia PENDING va rating lay bang subquery
+    @Query("""
+            SELECT COUNT(b) AS totalBookings,
+                   COALESCE(SUM(CASE WHEN b.status = :completed THEN 1 ELSE 0 END), 0) AS completedBookings,
+                   COALESCE(SUM(CASE WHEN b.status IN :activeStatuses THEN 1 ELSE 0 END), 0) AS inProgressBookings,
+                   COALESCE(SUM(CASE WHEN b.status = :completed THEN b.finalPrice ELSE 0 END), 0) AS totalIncome,
+                   (SELECT COUNT(q) FROM Quotation q
+                    WHERE q.transportId = :transportId AND q.status = :pendingQuotation) AS pendingQuotations,
+                   (SELECT t.averageRating FROM Transport t WHERE t.transportId = :transportId) AS averageRating
+            FROM Booking b
+            WHERE b.transportId = :transportId
+            """)
+    TransportBookingStatsView aggregateTransportDashboard(@Param("transportId") Long transportId,
+                                                          @Param("completed") BookingStatus completed,
+                                                          @Param("activeStatuses") Collection<BookingStatus> activeStatuses,
+                                                          @Param("pendingQuotation") QuotationStatus pendingQuotation);
+
+    // Doanh thu va so booking theo thang (theo actualEndTime) cua cac booking da hoan thanh trong [start, end)
+    @Query("""
+            SELECT YEAR(b.actualEndTime) AS year,
+                   MONTH(b.actualEndTime) AS month,
+                   COALESCE(SUM(b.finalPrice), 0) AS revenue,
+                   COUNT(b) AS bookings
+            FROM Booking b
+            WHERE b.transportId = :transportId
+              AND b.status = :status
+              AND b.actualEndTime >= :start
+              AND b.actualEndTime < :end
+            GROUP BY YEAR(b.actualEndTime), MONTH(b.actualEndTime)
+            """)
+    List<MonthlyRevenueView> sumRevenueByMonth(@Param("transportId") Long transportId,
+                                               @Param("status") BookingStatus status,
+                                               @Param("start") LocalDateTime start,
+                                               @Param("end") LocalDateTime end);
 }
@@ -2,11 +2,16 @@ package com.homeexpress.home_express_api.repository;
 
 import com.homeexpress.home_express_api.entity.BookingSettlement;
 import com.homeexpress.home_express_api.entity.SettlementStatus;
+import com.homeexpress.home_express_api.entity.WalletTransactionReferenceType;
+import com.homeexpress.home_express_api.repository.projection.SettlementView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,6 +45,61 @@ public interface BookingSettlementRepository extends JpaRepository<BookingSettle
     @Query("SELECT s FROM BookingSettlement s WHERE s.status = :status ORDER BY s.createdAt DESC")
     List<BookingSettlement> findByStatus(@Param("status") SettlementStatus status);
 
-    @Query("SELECT s FROM BookingSettlement s ORDER BY s.createdAt DESC")
-    List<BookingSettlement> findAllOrderByCreatedAtDesc();
+    long countByTransportIdAndStatusIn(Long transportId, Collection<SettlementStatus> statuses);
+
+    // [so luong, tong netToTransportVnd] cua transport theo nhom status, tinh o DB
+    @Query("SELECT COUNT(s), COALESCE(SUM(s.netToTransportVnd), 0) FROM BookingSettlement s " +
+           "WHERE s.transportId = :transportId AND s.status IN :statuses")
+    List<Object[]> sumNetToTransportByStatusIn(@Param("transportId") Long transportId,
+                                               @Param("statuses") Collection<SettlementStatus> statuses);
+
+    // Doi soat: settlement da ghi co ma wallet chua co but toan SETTLEMENT tuong ung
+    @Query("SELECT s.settlementId FROM BookingSettlement s " +
+           "WHERE s.transportId = :transportId AND s.status IN :statuses " +
+           "AND NOT EXISTS (SELECT t.transactionId FROM TransportWalletTransaction t " +
+           "WHERE t.wallet.walletId = :walletId AND t.referenceType = :referenceType " +
+           "AND t.referenceId = s.settlementId) " +
+           "ORDER BY s.settlementId")
+    List<Long> findIdsMissingFromLedger(@Param("transportId") Long transportId,
+                                        @Param("statuses") Collection<SettlementStatus> statuses,
+                                        @Param("walletId") Long walletId,
+                                        @Param("referenceType") WalletTransactionReferenceType referenceType);
+
+    // Cot cua SettlementView
+    String VIEW_COLUMNS = """
+            s.settlementId AS settlementId,
+            s.bookingId AS bookingId,
+            s.transportId AS transportId,
+            s.agreedPriceVnd AS agreedPriceVnd,
+            s.totalCollectedVnd AS totalCollectedVnd,
+            s.gatewayFeeVnd AS gatewayFeeVnd,
+            s.commissionRateBps AS commissionRateBps,
+            s.platformFeeVnd AS platformFeeVnd,
+            s.adjustmentVnd AS adjustmentVnd,
+            s.netToTransportVnd AS netToTransportVnd,
+            s.collectionMode AS collectionMode,
+            s.status AS status,
+            s.onHoldReason AS onHoldReason,
+            s.createdAt AS createdAt,
+            s.readyAt AS readyAt,
+            s.paidAt AS paidAt,
+            s.updatedAt AS updatedAt,
+            s.notes AS notes
+            """;
+
+    // Trang keyset cho admin, loc tuy chon theo status / transport
+    @Query("SELECT " + VIEW_COLUMNS + """
+            FROM BookingSettlement s
+            WHERE (:status IS NULL OR s.status = :status)
+              AND (:transportId IS NULL OR s.transportId = :transportId)
+              AND (:cursorCreatedAt IS NULL
+                   OR s.createdAt < :cursorCreatedAt
+                   OR (s.createdAt = :cursorCreatedAt AND s.settlementId < :cursorId))
+            ORDER BY s.createdAt DESC, s.settlementId DESC
+            """)
+    List<SettlementView> findViewsPage(@Param("status") SettlementStatus status,
+                                       @Param("transportId") Long transportId,
+                                       @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                       @Param("cursorId") Long cursorId,
+                                       Pageable pageable);
 }
@@ -0,0 +1,58 @@
+package com.homeexpress.home_express_api.repository;
+
+import com.homeexpress.home_express_api.entity.EmailLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status updates run on email worker threads outside any service transaction,
+ * so the modifying queries carry their own.
+ */
+@Repository
+public interface EmailLogRepository extends JpaRepository<EmailLog, Long> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailLog e SET e.status = com.homeexpress.home_express_api.entity.EmailStatus.SENT, " +
+            "e.sentAt = :sentAt, e.errorCode = NULL, e.errorMessage = NULL WHERE e.logId = :logId")
+    int markSent(@Param("logId") Long logId, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Record a failed attempt that will be retried; the row stays QUEUED.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailLog e SET e.errorCode = :errorCode, e.errorMessage = :errorMessage WHERE e.logId = :logId")
+    int recordAttemptError(@Param("logId") Long logId,
+                           @Param("errorCode") String errorCode,
+                           @Param("errorMessage") String errorMessage);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailLog e SET e.status = com.homeexpress.home_express_api.entity.EmailStatus.FAILED, " +
+            "e.failedAt = :failedAt, e.errorCode = :errorCode, e.errorMessage = :errorMessage WHERE e.logId = :logId")
+    int markFailed(@Param("logId") Long logId,
+                   @Param("failedAt") LocalDateTime failedAt,
+                   @Param("errorCode") String errorCode,
+                   @Param("errorMessage") String errorMessage);
+
+    /**
+     * Fail QUEUED rows queued before {@code queuedBefore}; their body was lost with the process
+     * that queued them.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailLog e SET e.status = com.homeexpress.home_express_api.entity.EmailStatus.FAILED, " +
+            "e.failedAt = :failedAt, e.errorCode = :errorCode, e.errorMessage = :errorMessage " +
+            "WHERE e.status = com.homeexpress.home_express_api.entity.EmailStatus.QUEUED AND e.queuedAt < :queuedBefore")
+    int failQueuedBefore(@Param("queuedBefore") LocalDateTime queuedBefore,
+                         @Param("failedAt") LocalDateTime failedAt,
+                         @Param("errorCode") String errorCode,
+                         @Param("errorMessage") String errorMessage);
+}
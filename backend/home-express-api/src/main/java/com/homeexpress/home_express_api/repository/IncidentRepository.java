@@ -3,9 +3,14 @@ package com.homeexpress.home_express_api.repository;
 import com.homeexpress.home_express_api.entity.Incident;
 import com.homeexpress.home_express_api.entity.IncidentStatus;
 import com.homeexpress.home_express_api.entity.Severity;
+import com.homeexpress.home_express_api.repository.projection.IncidentView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -22,4 +27,80 @@ public interface IncidentRepository extends JpaRepository<Incident, Long> {
     List<Incident> findByReportedByUserIdOrderByReportedAtDesc(Long reportedByUserId);
     
     List<Incident> findAllByOrderByReportedAtDesc();
+
+    // Cot cua IncidentView
+    String VIEW_COLUMNS = """
+            i.incidentId AS incidentId,
+            i.bookingId AS bookingId,
+            i.reportedByUserId AS reportedByUserId,
+            i.incidentType AS incidentType,
+            i.severity AS severity,
+            i.description AS description,
+            i.status AS status,
+            i.resolutionNotes AS resolutionNotes,
+            i.resolvedBy AS resolvedBy,
+            i.resolvedAt AS resolvedAt,
+            i.reportedAt AS reportedAt,
+            i.updatedAt AS updatedAt
+            """;
+
+    // Trang keyset cho manager: (reportedAt, incidentId) giam dan, cac bo loc deu tuy chon
+    @Query("SELECT " + VIEW_COLUMNS + """
+            FROM Incident i
+            WHERE (:bookingId IS NULL OR i.bookingId = :bookingId)
+              AND (:status IS NULL OR i.status = :status)
+              AND (:severity IS NULL OR i.severity = :severity)
+              AND (:cursorReportedAt IS NULL
+                   OR i.reportedAt < :cursorReportedAt
+                   OR (i.reportedAt = :cursorReportedAt AND i.incidentId < :cursorId))
+            ORDER BY i.reportedAt DESC, i.incidentId DESC
+            """)
+    List<IncidentView> findViewsPage(@Param("bookingId") Long bookingId,
+                                     @Param("status") IncidentStatus status,
+                                     @Param("severity") Severity severity,
+                                     @Param("cursorReportedAt") LocalDateTime cursorReportedAt,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+
+    // Incident tren cac booking cua 1 customer: join theo booking, chi phu thuoc du lieu cua user do
+    @Query("SELECT " + VIEW_COLUMNS + """
+            FROM Incident i
+            JOIN Booking b ON b.bookingId = i.bookingId
+            WHERE b.customerId = :customerId
+              AND (:bookingId IS NULL OR i.bookingId = :bookingId)
+              AND (:status IS NULL OR i.status = :status)
+              AND (:severity IS NULL OR i.severity = :severity)
+              AND (:cursorReportedAt IS NULL
+                   OR i.reportedAt < :cursorReportedAt
+                   OR (i.reportedAt = :cursorReportedAt AND i.incidentId < :cursorId))
+            ORDER BY i.reportedAt DESC, i.incidentId DESC
+            """)
+    List<IncidentView> findCustomerViewsPage(@Param("customerId") Long customerId,
+                                             @Param("bookingId") Long bookingId,
+                                             @Param("status") IncidentStatus status,
+                                             @Param("severity") Severity severity,
+                                             @Param("cursorReportedAt") LocalDateTime cursorReportedAt,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
+
+    // Incident tren cac booking cua 1 transport: join theo booking, chi phu thuoc du lieu cua user do
+    @Query("SELECT " + VIEW_COLUMNS + """
+            FROM Incident i
+            JOIN Booking b ON b.bookingId = i.bookingId
+            WHERE b.transportId = :transportId
+              AND (:bookingId IS NULL OR i.bookingId = :bookingId)
+              AND (:status IS NULL OR i.status = :status)
+              AND (:severity IS NULL OR i.severity = :severity)
+              AND (:cursorReportedAt IS NULL
+                   OR i.reportedAt < :cursorReportedAt
+                   OR (i.reportedAt = :cursorReportedAt AND i.incidentId < :cursorId))
+            ORDER BY i.reportedAt DESC, i.incidentId DESC
+            """)
+    List<IncidentView> findTransportViewsPage(@Param("transportId") Long transportId,
+                                              @Param("bookingId") Long bookingId,
+                                              @Param("status") IncidentStatus status,
+                                              @Param("severity") Severity severity,
+                                              @Param("cursorReportedAt") LocalDateTime cursorReportedAt,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
 }
@@ -3,7 +3,6 @@ package com.homeexpress.home_express_api.repository;
 import com.homeexpress.home_express_api.entity.IntakeSession;
 import com.homeexpress.home_express_api.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -23,11 +22,4 @@ public interface IntakeSessionRepository extends JpaRepository<IntakeSession, St
     @Query("SELECT s FROM IntakeSession s WHERE s.expiresAt < :now AND s.status = 'active'")
     List<IntakeSession> findExpiredSessions(LocalDateTime now);
     
-    @Modifying
-    @Query("UPDATE IntakeSession s SET s.status = 'expired' WHERE s.expiresAt < :now AND s.status = 'active'")
-    int expireOldSessions(LocalDateTime now);
-    
-    @Modifying
-    @Query("DELETE FROM IntakeSession s WHERE s.status = 'expired' AND s.updatedAt < :before")
-    int deleteExpiredSessions(LocalDateTime before);
 }
@@ -4,10 +4,14 @@ import com.homeexpress.home_express_api.entity.NotificationPreference;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface NotificationPreferenceRepository extends JpaRepository<NotificationPreference, Long> {
 
     Optional<NotificationPreference> findByUser_UserId(Long userId);
+
+    List<NotificationPreference> findByUser_UserIdIn(Collection<Long> userIds);
 }
@@ -24,11 +24,13 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.userId = :userId AND n.isRead = false")
     Long countUnreadByUserId(@Param("userId") Long userId);
 
-    @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.notificationId IN :ids AND n.user.userId = :userId")
-    void markAsReadByIds(@Param("ids") List<Long> ids, @Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+    @Query("SELECT n.user.userId, COUNT(n) FROM Notification n WHERE n.user.userId IN :userIds AND n.isRead = false GROUP BY n.user.userId")
+    List<Object[]> countUnreadGroupedByUserIds(@Param("userIds") List<Long> userIds);
 
+    /**
+     * @return number of notifications that changed from unread to read
+     */
     @Modifying
-    @Query("DELETE FROM Notification n WHERE n.createdAt < :cutoffDate")
-    void deleteOldNotifications(@Param("cutoffDate") LocalDateTime cutoffDate);
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.notificationId IN :ids AND n.user.userId = :userId AND n.isRead = false")
+    int markAsReadByIds(@Param("ids") List<Long> ids, @Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
 }
@@ -2,6 +2,9 @@ package com.homeexpress.home_express_api.repository;
 
 import com.homeexpress.home_express_api.entity.OtpCode;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -14,5 +17,9 @@ public interface OtpRepository extends JpaRepository<OtpCode, Long> {
     
     Optional<OtpCode> findTopByEmailOrderByCreatedAtDesc(String email);
     
-    void deleteByExpiresAtBefore(LocalDateTime dateTime);
+    // danh dau OTP da dung neu con hieu luc (check + consume trong 1 cau lenh)
+    @Modifying
+    @Query("UPDATE OtpCode o SET o.isUsed = true WHERE o.email = :email AND o.code = :code " +
+           "AND o.isUsed = false AND o.expiresAt > :now")
+    int consume(@Param("email") String email, @Param("code") String code, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,40 @@
+package com.homeexpress.home_express_api.repository;
+
+import com.homeexpress.home_express_api.entity.OutboxMessage;
+import com.homeexpress.home_express_api.entity.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Lock the next batch of deliverable messages: pending rows whose backoff has elapsed,
+     * plus processing rows whose claim lease expired (dispatcher crashed mid-delivery).
+     * SKIP LOCKED lets several nodes poll concurrently without blocking on each other.
+     */
+    @Query(value = "SELECT * FROM outbox_messages " +
+            "WHERE (status = 'PENDING' AND (next_retry_at IS NULL OR next_retry_at <= :now)) " +
+            "OR (status = 'PROCESSING' AND next_retry_at <= :now) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxMessage> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = :status, m.nextRetryAt = :leaseUntil WHERE m.id IN :ids")
+    int markClaimed(@Param("ids") List<Long> ids,
+                    @Param("status") OutboxStatus status,
+                    @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = :status, m.processedAt = :processedAt, " +
+            "m.nextRetryAt = NULL, m.lastError = NULL WHERE m.id IN :ids")
+    int markProcessed(@Param("ids") List<Long> ids,
+                      @Param("status") OutboxStatus status,
+                      @Param("processedAt") LocalDateTime processedAt);
+}
@@ -1,7 +1,10 @@
 package com.homeexpress.home_express_api.repository;
 
+import com.homeexpress.home_express_api.dto.response.SavedItemResponse;
 import com.homeexpress.home_express_api.entity.SavedItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,6 +21,21 @@ public interface SavedItemRepository extends JpaRepository<SavedItem, Long> {
      * Find all saved items for a specific customer
      */
     List<SavedItem> findByCustomerId(Long customerId);
+
+    /**
+     * Saved items of a customer built straight into response DTOs (no managed entities)
+     */
+    @Query("""
+            SELECT new com.homeexpress.home_express_api.dto.response.SavedItemResponse(
+                   s.savedItemId, s.name, s.brand, s.model,
+                   s.categoryId, s.size, s.weightKg, s.dimensions,
+                   s.declaredValueVnd, s.quantity, s.isFragile,
+                   s.requiresDisassembly, s.requiresPackaging,
+                   s.notes, s.metadata, s.createdAt)
+            FROM SavedItem s
+            WHERE s.customerId = :customerId
+            """)
+    List<SavedItemResponse> findResponsesByCustomerId(@Param("customerId") Long customerId);
     
     /**
      * Find a saved item by its primary key and customer ID (ensures authorization)
@@ -2,9 +2,15 @@ package com.homeexpress.home_express_api.repository;
 
 import com.homeexpress.home_express_api.entity.PayoutStatus;
 import com.homeexpress.home_express_api.entity.TransportPayout;
+import com.homeexpress.home_express_api.entity.WalletTransactionReferenceType;
+import com.homeexpress.home_express_api.repository.projection.PayoutView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +29,23 @@ public interface TransportPayoutRepository extends JpaRepository<TransportPayout
      */
     List<TransportPayout> findByTransportId(Long transportId);
 
+    long countByTransportIdAndStatus(Long transportId, PayoutStatus status);
+
+    /**
+     * Payouts of a transport in the given status that have no ledger entry of the given
+     * reference type in its wallet. Used by the wallet reconciliation report.
+     */
+    @Query("SELECT p.payoutId FROM TransportPayout p " +
+           "WHERE p.transportId = :transportId AND p.status = :status " +
+           "AND NOT EXISTS (SELECT t.transactionId FROM TransportWalletTransaction t " +
+           "WHERE t.wallet.walletId = :walletId AND t.referenceType = :referenceType " +
+           "AND t.referenceId = p.payoutId) " +
+           "ORDER BY p.payoutId")
+    List<Long> findIdsMissingFromLedger(@Param("transportId") Long transportId,
+                                        @Param("status") PayoutStatus status,
+                                        @Param("walletId") Long walletId,
+                                        @Param("referenceType") WalletTransactionReferenceType referenceType);
+
     /**
      * Find payouts by status.
      *
@@ -54,4 +77,51 @@ public interface TransportPayoutRepository extends JpaRepository<TransportPayout
      * @return true if exists, false otherwise
      */
     boolean existsByPayoutNumber(String payoutNumber);
+
+    /**
+     * Columns of {@link PayoutView}, shared by the projection queries below.
+     */
+    String VIEW_COLUMNS = """
+            p.payoutId AS payoutId,
+            p.transportId AS transportId,
+            p.payoutNumber AS payoutNumber,
+            p.totalAmountVnd AS totalAmountVnd,
+            p.itemCount AS itemCount,
+            p.status AS status,
+            p.bankCode AS bankCode,
+            p.bankAccountNumber AS bankAccountNumber,
+            p.bankAccountHolder AS bankAccountHolder,
+            p.processedAt AS processedAt,
+            p.completedAt AS completedAt,
+            p.failureReason AS failureReason,
+            p.transactionReference AS transactionReference,
+            p.notes AS notes,
+            p.createdAt AS createdAt,
+            p.updatedAt AS updatedAt
+            """;
+
+    /**
+     * One keyset page of payout headers, newest first, optionally filtered.
+     *
+     * @param status only payouts in this status, or null for all
+     * @param transportId only payouts of this transport, or null for all
+     * @param cursorCreatedAt creation time of the last row of the previous page, or null for the first page
+     * @param cursorId ID of the last row of the previous page
+     * @param pageable page size (the page number is ignored)
+     * @return payout views ordered by (createdAt, payoutId) descending
+     */
+    @Query("SELECT " + VIEW_COLUMNS + """
+            FROM TransportPayout p
+            WHERE (:status IS NULL OR p.status = :status)
+              AND (:transportId IS NULL OR p.transportId = :transportId)
+              AND (:cursorCreatedAt IS NULL
+                   OR p.createdAt < :cursorCreatedAt
+                   OR (p.createdAt = :cursorCreatedAt AND p.payoutId < :cursorId))
+            ORDER BY p.createdAt DESC, p.payoutId DESC
+            """)
+    List<PayoutView> findViewsPage(@Param("status") PayoutStatus status,
+                                   @Param("transportId") Long transportId,
+                                   @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                   @Param("cursorId") Long cursorId,
+                                   Pageable pageable);
 }
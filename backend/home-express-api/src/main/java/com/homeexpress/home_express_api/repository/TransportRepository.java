@@ -1,12 +1,16 @@
 package com.homeexpress.home_express_api.repository;
 
 import com.homeexpress.home_express_api.entity.Transport;
+import com.homeexpress.home_express_api.entity.VehicleStatus;
 import com.homeexpress.home_express_api.entity.VerificationStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,11 +32,55 @@ public interface TransportRepository extends JpaRepository<Transport, Long> {
     // tim transports da approved, sap xep theo rating
     List<Transport> findByVerificationStatusOrderByAverageRatingDesc(VerificationStatus status);
 
+    // top 5 cho dashboard admin, LIMIT o DB thay vi load het roi cat
+    List<Transport> findTop5ByVerificationStatusOrderByAverageRatingDesc(VerificationStatus status);
+
     long countByVerificationStatus(VerificationStatus status);
+
+    // rating cho dashboard transport, khong load ca entity
+    @Query("SELECT t.averageRating FROM Transport t WHERE t.transportId = :transportId")
+    Optional<BigDecimal> findAverageRatingById(@Param("transportId") Long transportId);
     
     // tim transport theo city
     List<Transport> findByCity(String city);
     
     // tim transport theo user ID
     Optional<Transport> findByUser_UserId(Long userId);
+
+    // Transport duoc nhan job: da duyet, san sang bao gia, co it nhat 1 xe dang hoat dong
+    @Query("""
+            SELECT t.transportId FROM Transport t
+            WHERE t.verificationStatus = :approved
+              AND t.readyToQuote = true
+              AND EXISTS (SELECT v.vehicleId FROM Vehicle v WHERE v.transport = t AND v.status = :vehicleStatus)
+            """)
+    List<Long> findJobBoardEligibleIds(@Param("approved") VerificationStatus approved,
+                                       @Param("vehicleStatus") VehicleStatus vehicleStatus);
+
+    // Cung dieu kien nhu findJobBoardEligibleIds, cho 1 transport
+    @Query("""
+            SELECT CASE WHEN COUNT(t) > 0 THEN true ELSE false END FROM Transport t
+            WHERE t.transportId = :transportId
+              AND t.verificationStatus = :approved
+              AND t.readyToQuote = true
+              AND EXISTS (SELECT v.vehicleId FROM Vehicle v WHERE v.transport = t AND v.status = :vehicleStatus)
+            """)
+    boolean isJobBoardEligible(@Param("transportId") Long transportId,
+                               @Param("approved") VerificationStatus approved,
+                               @Param("vehicleStatus") VehicleStatus vehicleStatus);
+
+    // Transport du dieu kien ma booking lot vao ban kinh va gia tri toi thieu trong settings
+    @Query("""
+            SELECT t.transportId FROM Transport t
+            LEFT JOIN TransportSettings s ON s.transportId = t.transportId
+            WHERE t.verificationStatus = :approved
+              AND t.readyToQuote = true
+              AND EXISTS (SELECT v.vehicleId FROM Vehicle v WHERE v.transport = t AND v.status = :vehicleStatus)
+              AND (:distanceKm IS NULL OR s.searchRadiusKm IS NULL OR s.searchRadiusKm >= :distanceKm)
+              AND (s.minJobValueVnd IS NULL OR s.minJobValueVnd <= :estimatedPrice)
+            """)
+    List<Long> findJobBoardMatches(@Param("approved") VerificationStatus approved,
+                                   @Param("vehicleStatus") VehicleStatus vehicleStatus,
+                                   @Param("distanceKm") BigDecimal distanceKm,
+                                   @Param("estimatedPrice") Long estimatedPrice);
 }
@@ -4,9 +4,12 @@ import com.homeexpress.home_express_api.entity.TransportWalletTransaction;
 import com.homeexpress.home_express_api.entity.WalletTransactionReferenceType;
 import com.homeexpress.home_express_api.entity.WalletTransactionType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -36,4 +39,20 @@ public interface TransportWalletTransactionRepository extends JpaRepository<Tran
     List<TransportWalletTransaction> findByReferenceTypeAndReferenceId(
             WalletTransactionReferenceType referenceType,
             Long referenceId);
+
+    @Query("SELECT COUNT(DISTINCT t.referenceId) FROM TransportWalletTransaction t "
+            + "WHERE t.wallet.walletId = :walletId AND t.referenceType = :referenceType")
+    long countDistinctReferenceIds(@Param("walletId") Long walletId,
+            @Param("referenceType") WalletTransactionReferenceType referenceType);
+
+    // [nam, thang, tong tien ghi co] theo thang trong [start, end); fallback khi rollup wallet chua doc duoc
+    @Query("SELECT YEAR(t.createdAt), MONTH(t.createdAt), "
+            + "COALESCE(SUM(CASE WHEN t.transactionType IN :debitTypes THEN 0 ELSE t.amount END), 0) "
+            + "FROM TransportWalletTransaction t "
+            + "WHERE t.wallet.walletId = :walletId AND t.createdAt >= :start AND t.createdAt < :end "
+            + "GROUP BY YEAR(t.createdAt), MONTH(t.createdAt)")
+    List<Object[]> sumCreditsByMonth(@Param("walletId") Long walletId,
+            @Param("debitTypes") Collection<WalletTransactionType> debitTypes,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
 }
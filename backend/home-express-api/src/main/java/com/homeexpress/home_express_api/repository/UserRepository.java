@@ -7,10 +7,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.homeexpress.home_express_api.entity.User;
 import com.homeexpress.home_express_api.entity.UserRole;
+import com.homeexpress.home_express_api.entity.VerificationStatus;
+import com.homeexpress.home_express_api.repository.projection.UserStatsView;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
@@ -32,4 +36,35 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     long countByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
 
     Page<User> findByRole(UserRole role, Pageable pageable);
+
+    // Dashboard admin trong 1 query: moi so lieu la 1 SUM(CASE ...) tren users, cong 1 subquery tren transports.
+    // Khoang thoi gian la [from, to). Dung khi rollup user chua doc duoc
+    @Query("""
+            SELECT COUNT(u) AS totalUsers,
+                   COALESCE(SUM(CASE WHEN u.role = :customer THEN 1 ELSE 0 END), 0) AS totalCustomers,
+                   COALESCE(SUM(CASE WHEN u.role = :transport THEN 1 ELSE 0 END), 0) AS totalTransports,
+                   COALESCE(SUM(CASE WHEN u.role = :manager THEN 1 ELSE 0 END), 0) AS totalManagers,
+                   COALESCE(SUM(CASE WHEN u.isActive = true THEN 1 ELSE 0 END), 0) AS activeUsers,
+                   COALESCE(SUM(CASE WHEN u.isVerified = true THEN 1 ELSE 0 END), 0) AS verifiedUsers,
+                   COALESCE(SUM(CASE WHEN u.createdAt >= :startOfToday AND u.createdAt < :startOfTomorrow
+                                     THEN 1 ELSE 0 END), 0) AS newUsersToday,
+                   COALESCE(SUM(CASE WHEN u.createdAt >= :startOfWeek AND u.createdAt < :startOfTomorrow
+                                     THEN 1 ELSE 0 END), 0) AS newUsersThisWeek,
+                   COALESCE(SUM(CASE WHEN u.createdAt >= :startOfMonth AND u.createdAt < :startOfTomorrow
+                                     THEN 1 ELSE 0 END), 0) AS newUsersThisMonth,
+                   COALESCE(SUM(CASE WHEN u.createdAt >= :startOfPreviousMonth AND u.createdAt < :startOfMonth
+                                     THEN 1 ELSE 0 END), 0) AS newUsersPreviousMonth,
+                   (SELECT COUNT(t) FROM Transport t
+                    WHERE t.verificationStatus = :pendingVerification) AS pendingTransportVerifications
+            FROM User u
+            """)
+    UserStatsView aggregateDashboardStats(@Param("customer") UserRole customer,
+                                          @Param("transport") UserRole transport,
+                                          @Param("manager") UserRole manager,
+                                          @Param("startOfToday") LocalDateTime startOfToday,
+                                          @Param("startOfTomorrow") LocalDateTime startOfTomorrow,
+                                          @Param("startOfWeek") LocalDateTime startOfWeek,
+                                          @Param("startOfMonth") LocalDateTime startOfMonth,
+                                          @Param("startOfPreviousMonth") LocalDateTime startOfPreviousMonth,
+                                          @Param("pendingVerification") VerificationStatus pendingVerification);
 }
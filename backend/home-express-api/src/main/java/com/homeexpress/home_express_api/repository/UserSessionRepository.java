@@ -24,11 +24,6 @@ public interface UserSessionRepository extends JpaRepository<UserSession, String
            "AND s.revokedAt IS NULL AND s.expiresAt > :now")
     List<UserSession> findActiveSessionsByUserId(Long userId, LocalDateTime now);
     
-    // xoa sessions expired
-    @Modifying
-    @Query("DELETE FROM UserSession s WHERE s.expiresAt < :now")
-    int deleteExpiredSessions(LocalDateTime now);
-    
     // revoke tat ca sessions cua user (dung khi change password)
     @Modifying
     @Query("UPDATE UserSession s SET s.revokedAt = :now, s.revokedReason = :reason " +
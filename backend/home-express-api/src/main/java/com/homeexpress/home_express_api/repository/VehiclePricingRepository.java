@@ -2,6 +2,7 @@ package com.homeexpress.home_express_api.repository;
 
 import com.homeexpress.home_express_api.entity.VehiclePricing;
 import com.homeexpress.home_express_api.entity.VehicleType;
+import com.homeexpress.home_express_api.repository.projection.VehiclePricingView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -45,6 +46,37 @@ public interface VehiclePricingRepository extends JpaRepository<VehiclePricing,
             @Param("validTo") LocalDateTime validTo,
             @Param("excludeId") Long excludeId);
 
+    // Transport lay cung 1 query (JOIN) thay vi lazy load tung dong
+    @Query("""
+            SELECT vp.vehiclePricingId AS vehiclePricingId,
+                   t.transportId AS transportId,
+                   t.companyName AS transportCompanyName,
+                   vp.vehicleType AS vehicleType,
+                   vp.basePriceVnd AS basePriceVnd,
+                   vp.perKmFirst4KmVnd AS perKmFirst4KmVnd,
+                   vp.perKm5To40KmVnd AS perKm5To40KmVnd,
+                   vp.perKmAfter40KmVnd AS perKmAfter40KmVnd,
+                   vp.minChargeVnd AS minChargeVnd,
+                   vp.elevatorBonusVnd AS elevatorBonusVnd,
+                   vp.noElevatorFeePerFloorVnd AS noElevatorFeePerFloorVnd,
+                   vp.noElevatorFloorThreshold AS noElevatorFloorThreshold,
+                   vp.peakHourMultiplier AS peakHourMultiplier,
+                   vp.weekendMultiplier AS weekendMultiplier,
+                   vp.peakHourStart1 AS peakHourStart1,
+                   vp.peakHourEnd1 AS peakHourEnd1,
+                   vp.peakHourStart2 AS peakHourStart2,
+                   vp.peakHourEnd2 AS peakHourEnd2,
+                   vp.timezone AS timezone,
+                   vp.isActive AS isActive,
+                   vp.validFrom AS validFrom,
+                   vp.validTo AS validTo,
+                   vp.createdAt AS createdAt,
+                   vp.updatedAt AS updatedAt
+            FROM VehiclePricing vp
+            JOIN vp.transport t
+            """)
+    List<VehiclePricingView> findAllViews();
+
     List<VehiclePricing> findByIsActive(Boolean isActive);
 
     List<VehiclePricing> findByVehicleType(VehicleType vehicleType);
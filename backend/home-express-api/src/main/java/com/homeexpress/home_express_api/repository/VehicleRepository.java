@@ -18,6 +18,8 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     List<Vehicle> findByTransportTransportIdAndStatus(Long transportId, VehicleStatus status);
     
     List<Vehicle> findByStatus(VehicleStatus status);
+
+    boolean existsByTransportTransportIdAndStatus(Long transportId, VehicleStatus status);
     
     long countByTransportTransportIdAndStatusNot(Long transportId, VehicleStatus status);
 
@@ -0,0 +1,89 @@
+package com.homeexpress.home_express_api.repository.projection;
+
+import com.homeexpress.home_express_api.entity.BookingStatus;
+import com.homeexpress.home_express_api.entity.DistanceSource;
+import com.homeexpress.home_express_api.entity.TimeSlot;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a booking returned by the booking list endpoints. Queries returning this type
+ * select the columns into a read-only tuple instead of managed {@code Booking} entities;
+ * {@code Booking} implements it as well, so one mapper serves both.
+ */
+public interface BookingView {
+
+    Long getBookingId();
+
+    Long getCustomerId();
+
+    Long getTransportId();
+
+    String getPickupAddress();
+
+    String getPickupProvinceCode();
+
+    String getPickupDistrictCode();
+
+    String getPickupWardCode();
+
+    BigDecimal getPickupLatitude();
+
+    BigDecimal getPickupLongitude();
+
+    Integer getPickupFloor();
+
+    Boolean getPickupHasElevator();
+
+    String getDeliveryAddress();
+
+    String getDeliveryProvinceCode();
+
+    String getDeliveryDistrictCode();
+
+    String getDeliveryWardCode();
+
+    BigDecimal getDeliveryLatitude();
+
+    BigDecimal getDeliveryLongitude();
+
+    Integer getDeliveryFloor();
+
+    Boolean getDeliveryHasElevator();
+
+    LocalDate getPreferredDate();
+
+    TimeSlot getPreferredTimeSlot();
+
+    LocalDateTime getActualStartTime();
+
+    LocalDateTime getActualEndTime();
+
+    BigDecimal getDistanceKm();
+
+    DistanceSource getDistanceSource();
+
+    LocalDateTime getDistanceCalculatedAt();
+
+    BigDecimal getEstimatedPrice();
+
+    BigDecimal getFinalPrice();
+
+    BookingStatus getStatus();
+
+    String getNotes();
+
+    String getSpecialRequirements();
+
+    Long getCancelledBy();
+
+    String getCancellationReason();
+
+    LocalDateTime getCancelledAt();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,19 @@
+package com.homeexpress.home_express_api.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Booking counts and spend of one customer, read in one query.
+ */
+public interface CustomerBookingStatsView {
+
+    Long getTotalBookings();
+
+    Long getPendingBookings();
+
+    Long getCompletedBookings();
+
+    Long getCancelledBookings();
+
+    BigDecimal getTotalSpent();
+}
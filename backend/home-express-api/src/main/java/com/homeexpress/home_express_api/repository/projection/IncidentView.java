@@ -0,0 +1,37 @@
+package com.homeexpress.home_express_api.repository.projection;
+
+import com.homeexpress.home_express_api.entity.IncidentStatus;
+import com.homeexpress.home_express_api.entity.IncidentType;
+import com.homeexpress.home_express_api.entity.Severity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Incident columns for incident lists and exports. Implemented by {@code Incident} too.
+ */
+public interface IncidentView {
+
+    Long getIncidentId();
+
+    Long getBookingId();
+
+    Long getReportedByUserId();
+
+    IncidentType getIncidentType();
+
+    Severity getSeverity();
+
+    String getDescription();
+
+    IncidentStatus getStatus();
+
+    String getResolutionNotes();
+
+    Long getResolvedBy();
+
+    LocalDateTime getResolvedAt();
+
+    LocalDateTime getReportedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,14 @@
+package com.homeexpress.home_express_api.repository.projection;
+
+import java.math.BigDecimal;
+
+public interface MonthlyRevenueView {
+
+    Integer getYear();
+
+    Integer getMonth();
+
+    BigDecimal getRevenue();
+
+    Long getBookings();
+}
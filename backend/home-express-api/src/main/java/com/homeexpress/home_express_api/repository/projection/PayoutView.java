@@ -0,0 +1,43 @@
+package com.homeexpress.home_express_api.repository.projection;
+
+import com.homeexpress.home_express_api.entity.PayoutStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payout header columns for payout lists. Implemented by {@code TransportPayout} too.
+ */
+public interface PayoutView {
+
+    Long getPayoutId();
+
+    Long getTransportId();
+
+    String getPayoutNumber();
+
+    Long getTotalAmountVnd();
+
+    Integer getItemCount();
+
+    PayoutStatus getStatus();
+
+    String getBankCode();
+
+    String getBankAccountNumber();
+
+    String getBankAccountHolder();
+
+    LocalDateTime getProcessedAt();
+
+    LocalDateTime getCompletedAt();
+
+    String getFailureReason();
+
+    String getTransactionReference();
+
+    String getNotes();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
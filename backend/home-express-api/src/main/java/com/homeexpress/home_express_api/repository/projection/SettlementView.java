@@ -0,0 +1,49 @@
+package com.homeexpress.home_express_api.repository.projection;
+
+import com.homeexpress.home_express_api.entity.CollectionMode;
+import com.homeexpress.home_express_api.entity.SettlementStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Settlement columns shown in settlement lists; leaves out the payment breakdown and the
+ * JSON metadata. Implemented by {@code BookingSettlement} too.
+ */
+public interface SettlementView {
+
+    Long getSettlementId();
+
+    Long getBookingId();
+
+    Long getTransportId();
+
+    Long getAgreedPriceVnd();
+
+    Long getTotalCollectedVnd();
+
+    Long getGatewayFeeVnd();
+
+    Integer getCommissionRateBps();
+
+    Long getPlatformFeeVnd();
+
+    Long getAdjustmentVnd();
+
+    Long getNetToTransportVnd();
+
+    CollectionMode getCollectionMode();
+
+    SettlementStatus getStatus();
+
+    String getOnHoldReason();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getReadyAt();
+
+    LocalDateTime getPaidAt();
+
+    LocalDateTime getUpdatedAt();
+
+    String getNotes();
+}
@@ -0,0 +1,21 @@
+package com.homeexpress.home_express_api.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Booking, quotation and rating figures of one transport, read in one query.
+ */
+public interface TransportBookingStatsView {
+
+    Long getTotalBookings();
+
+    Long getCompletedBookings();
+
+    Long getInProgressBookings();
+
+    BigDecimal getTotalIncome();
+
+    Long getPendingQuotations();
+
+    BigDecimal getAverageRating();
+}
@@ -0,0 +1,29 @@
+package com.homeexpress.home_express_api.repository.projection;
+
+/**
+ * Platform-wide user and transport counts for the admin dashboard, read in one query.
+ */
+public interface UserStatsView {
+
+    Long getTotalUsers();
+
+    Long getTotalCustomers();
+
+    Long getTotalTransports();
+
+    Long getTotalManagers();
+
+    Long getActiveUsers();
+
+    Long getVerifiedUsers();
+
+    Long getNewUsersToday();
+
+    Long getNewUsersThisWeek();
+
+    Long getNewUsersThisMonth();
+
+    Long getNewUsersPreviousMonth();
+
+    Long getPendingTransportVerifications();
+}
@@ -0,0 +1,61 @@
+package com.homeexpress.home_express_api.repository.projection;
+
+import com.homeexpress.home_express_api.entity.VehicleType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A vehicle pricing row with its transport's id and company name, read in one joined
+ * query instead of loading the lazy {@code transport} association per row.
+ */
+public interface VehiclePricingView {
+
+    Long getVehiclePricingId();
+
+    Long getTransportId();
+
+    String getTransportCompanyName();
+
+    VehicleType getVehicleType();
+
+    BigDecimal getBasePriceVnd();
+
+    BigDecimal getPerKmFirst4KmVnd();
+
+    BigDecimal getPerKm5To40KmVnd();
+
+    BigDecimal getPerKmAfter40KmVnd();
+
+    BigDecimal getMinChargeVnd();
+
+    BigDecimal getElevatorBonusVnd();
+
+    BigDecimal getNoElevatorFeePerFloorVnd();
+
+    Integer getNoElevatorFloorThreshold();
+
+    BigDecimal getPeakHourMultiplier();
+
+    BigDecimal getWeekendMultiplier();
+
+    Integer getPeakHourStart1();
+
+    Integer getPeakHourEnd1();
+
+    Integer getPeakHourStart2();
+
+    Integer getPeakHourEnd2();
+
+    String getTimezone();
+
+    Boolean getIsActive();
+
+    LocalDateTime getValidFrom();
+
+    LocalDateTime getValidTo();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -4,6 +4,7 @@ import com.homeexpress.home_express_api.dto.response.UserListResponse;
 import com.homeexpress.home_express_api.entity.*;
 import com.homeexpress.home_express_api.exception.ResourceNotFoundException;
 import com.homeexpress.home_express_api.repository.*;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -34,6 +35,12 @@ public class AdminUserService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private OutboxService outboxService;
+
     /**
      * Get all users with their profiles
      */
@@ -191,6 +198,7 @@ public class AdminUserService {
         
         user.setIsActive(true);
         userRepository.save(user);
+        outboxService.enqueueStatsRollupUser(userId);
     }
 
     /**
@@ -203,6 +211,10 @@ public class AdminUserService {
         
         user.setIsActive(false);
         userRepository.save(user);
+        outboxService.enqueueStatsRollupUser(userId);
+
+        // Access tokens already issued stop working within a sync interval
+        tokenRevocationService.revokeUser(userId);
         
         // TODO: Log deactivation reason in audit log
     }
@@ -7,14 +7,19 @@ import com.homeexpress.home_express_api.dto.response.AuthResponse;
 import com.homeexpress.home_express_api.dto.response.UserResponse;
 import com.homeexpress.home_express_api.entity.*;
 import com.homeexpress.home_express_api.repository.*;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
@@ -47,10 +52,24 @@ public class AuthService {
     @Autowired
     private UserSessionService sessionService;
     
+    @Autowired
+    private LoginThrottleService loginThrottleService;
+    
+    @Autowired
+    private UserActivityBuffer activityBuffer;
+
+    @Autowired
+    private OutboxService outboxService;
+    
     @Autowired
     private HttpServletRequest httpRequest; // de lay IP, user agent
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
     
     // register user moi
+    // NOTE: hash BCrypt truoc, chi mo transaction cho phan ghi DB -> khong giu Hikari connection trong luc cho hash
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse register(RegisterRequest request) {
         String email = request.getEmail().toLowerCase().trim();
         
@@ -66,11 +85,49 @@ public class AuthService {
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Invalid role: " + request.getRole());
         }
+        if (role == UserRole.MANAGER) {
+            // manager chi tao boi super admin, ko public register
+            throw new RuntimeException("Cannot register as MANAGER");
+        }
+        
+        // 3. hash ngoai transaction, roi ghi User + role entity + session trong 1 transaction ngan
+        String passwordHash = passwordEncoder.encode(request.getPassword());
+        String ipAddress = getClientIp();
+        String userAgent = getUserAgent();
+        Registration registration = inTransaction(() -> {
+            User created = createUser(request, email, role, passwordHash);
+            // 5. tao session (refresh token)
+            return new Registration(created, sessionService.createSession(created, ipAddress, userAgent, null));
+        });
+        User savedUser = registration.user();
+        UserSession session = registration.session();
+        String refreshToken = session.getPlainRefreshToken();
+        if (!StringUtils.hasText(refreshToken)) {
+            throw new IllegalStateException("Failed to generate refresh token");
+        }
         
-        // 3. tao User entity
+        // 6. generate access token gan voi session (de revoke duoc)
+        String accessToken = jwtTokenProvider.generateAccessToken(
+            savedUser.getUserId(), savedUser.getEmail(), savedUser.getRole().name(), session.getSessionId());
+        
+        // 7. tao response
+        AuthResponse response = new AuthResponse();
+        response.setToken(accessToken); // legacy field
+        response.setAccessToken(accessToken);
+        response.setRefreshToken(refreshToken);
+        response.setUser(convertToUserResponse(savedUser));
+        response.setMessage("Registration successful. Please verify your email.");
+        
+        return response;
+    }
+    
+    private record Registration(User user, UserSession session) {}
+    
+    // ghi User + role entity + outbox (chay trong transaction cua register)
+    private User createUser(RegisterRequest request, String email, UserRole role, String passwordHash) {
         User user = new User();
         user.setEmail(email);
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHash);
         user.setRole(role);
         user.setIsActive(true);
         user.setIsVerified(false); // can verify email
@@ -107,66 +164,55 @@ public class AuthService {
                 // manager chi tao boi super admin, ko public register
                 throw new RuntimeException("Cannot register as MANAGER");
         }
-        
-        // 5. generate tokens
-        String accessToken = jwtTokenProvider.generateAccessToken(
-            savedUser.getUserId(), savedUser.getEmail(), savedUser.getRole().name());
-        
-        // 6. tao session (refresh token)
-        String ipAddress = getClientIp();
-        String userAgent = getUserAgent();
-        UserSession session = sessionService.createSession(savedUser, ipAddress, userAgent, null);
-        String refreshToken = session.getPlainRefreshToken();
-        if (!StringUtils.hasText(refreshToken)) {
-            throw new IllegalStateException("Failed to generate refresh token");
-        }
-        
-        // 7. tao response
-        AuthResponse response = new AuthResponse();
-        response.setToken(accessToken); // legacy field
-        response.setAccessToken(accessToken);
-        response.setRefreshToken(refreshToken);
-        response.setUser(convertToUserResponse(savedUser));
-        response.setMessage("Registration successful. Please verify your email.");
-        
-        return response;
+        outboxService.enqueueStatsRollupUser(savedUser.getUserId());
+        return savedUser;
     }
     
     // login
+    // NOTE: khong transaction - BCrypt verify chay ngoai transaction, createSession tu mo transaction rieng
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(LoginRequest request) {
         String email = request.getEmail().toLowerCase().trim();
         String ipAddress = getClientIp();
         String userAgent = getUserAgent();
         
+        // 0. rate limit theo IP / account - chan truoc khi chay BCrypt
+        loginThrottleService.checkAllowed(email, ipAddress);
+        
         // 1. tim user
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("Invalid email or password"));
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            loginThrottleService.recordFailure(email, ipAddress, null, "unknown_email");
+            throw new RuntimeException("Invalid email or password");
+        }
         
         // 2. check account active
         if (!user.getIsActive()) {
+            loginThrottleService.recordFailure(email, ipAddress, user.getUserId(), "account_disabled");
             throw new RuntimeException("Account is disabled. Contact admin.");
         }
         
         // 3. verify password
         if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+            loginThrottleService.recordFailure(email, ipAddress, user.getUserId(), "invalid_password");
             throw new RuntimeException("Invalid email or password");
         }
+        loginThrottleService.recordSuccess(email, ipAddress, user.getUserId());
         
-        // 7. update last login
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
-        
-        // 8. generate tokens
-        String accessToken = jwtTokenProvider.generateAccessToken(
-            user.getUserId(), user.getEmail(), user.getRole().name());
+        // 7. update last login (write-behind, khong ghi users row ngay)
+        activityBuffer.recordLogin(user.getUserId(), LocalDateTime.now());
         
-        // 9. tao session moi
+        // 8. tao session moi
         UserSession session = sessionService.createSession(user, ipAddress, userAgent, null);
         String refreshToken = session.getPlainRefreshToken();
         if (!StringUtils.hasText(refreshToken)) {
             throw new IllegalStateException("Failed to generate refresh token");
         }
         
+        // 9. generate access token gan voi session (de revoke duoc)
+        String accessToken = jwtTokenProvider.generateAccessToken(
+            user.getUserId(), user.getEmail(), user.getRole().name(), session.getSessionId());
+        
         // 10. response
         AuthResponse response = new AuthResponse();
         response.setToken(accessToken);
@@ -194,7 +240,7 @@ public class AuthService {
         
         // 4. generate access token moi
         String newAccessToken = jwtTokenProvider.generateAccessToken(
-            user.getUserId(), user.getEmail(), user.getRole().name());
+            user.getUserId(), user.getEmail(), user.getRole().name(), session.getSessionId());
         
         // 5. response - ko generate refresh token moi, giu refresh token cu
         AuthResponse response = new AuthResponse();
@@ -208,16 +254,26 @@ public class AuthService {
     }
     
     // reset password
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void resetPassword(String email, String newPassword) {
-        User user = userRepository.findByEmail(email.toLowerCase().trim())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
-        user.setLastPasswordChange(LocalDateTime.now());
-        userRepository.save(user);
+        String passwordHash = passwordEncoder.encode(newPassword);
         
-        // revoke tat ca sessions cu (force re-login)
-        sessionService.revokeAllUserSessions(user.getUserId(), "password_changed");
+        inTransaction(() -> {
+            User user = userRepository.findByEmail(email.toLowerCase().trim())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            
+            user.setPasswordHash(passwordHash);
+            user.setLastPasswordChange(LocalDateTime.now());
+            userRepository.save(user);
+            
+            // revoke tat ca sessions cu (force re-login)
+            sessionService.revokeAllUserSessions(user.getUserId(), "password_changed");
+            return null;
+        });
+    }
+    
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
     }
     
     // helper - convert User to UserResponse
@@ -232,11 +288,9 @@ public class AuthService {
     }
     
     // helper - lay IP cua client
+    // NOTE: khong doc X-Forwarded-For truc tiep (client tu dat duoc); sau proxy tin cay Tomcat da ghi lai remoteAddr
+    // (server.forward-headers-strategy)
     private String getClientIp() {
-        String xForwardedFor = httpRequest.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
         return httpRequest.getRemoteAddr();
     }
     
@@ -9,6 +9,7 @@ import com.homeexpress.home_express_api.repository.*;
 import com.homeexpress.home_express_api.dto.response.QuotationResponse;
 import com.homeexpress.home_express_api.dto.response.BookingTimelineResponse;
 import com.homeexpress.home_express_api.dto.response.BookingTimelineEvent;
+import com.homeexpress.home_express_api.dto.response.CursorPageResponse;
 import com.homeexpress.home_express_api.entity.Notification;
 import com.homeexpress.home_express_api.entity.User;
 import com.homeexpress.home_express_api.entity.Quotation;
@@ -17,10 +18,16 @@ import com.homeexpress.home_express_api.entity.Payment;
 import com.homeexpress.home_express_api.entity.PaymentStatus;
 import com.homeexpress.home_express_api.entity.PaymentType;
 import com.homeexpress.home_express_api.repository.UserRepository;
+import com.homeexpress.home_express_api.repository.projection.BookingView;
 import com.homeexpress.home_express_api.service.map.MapService;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
+import com.homeexpress.home_express_api.util.KeysetCursor;
+import com.homeexpress.home_express_api.util.RequestIdentityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,6 +42,11 @@ public class BookingService {
 
     private static final Logger log = LoggerFactory.getLogger(BookingService.class);
 
+    // booking_items dung IDENTITY nen Hibernate khong batch insert duoc; ghi thang bang JDBC batch
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO booking_items (booking_id, category_id, name, brand, model, quantity, weight_kg, "
+                    + "declared_value_vnd, is_fragile, requires_disassembly) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     @Autowired
     private BookingRepository bookingRepository;
 
@@ -59,9 +71,6 @@ public class BookingService {
     @Autowired
     private BookingItemRepository bookingItemRepository;
 
-    @Autowired
-    private NotificationService notificationService;
-
     @Autowired
     private UserRepository userRepository;
 
@@ -75,11 +84,17 @@ public class BookingService {
     private BookingSettlementRepository settlementRepository;
 
     @Autowired
-    private CustomerEventService customerEventService;
+    private OutboxService outboxService;
+
+    @Autowired
+    private QuotationAssembler quotationAssembler;
 
     @Autowired
     private MapService mapService;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Transactional
     public BookingResponse createBooking(BookingRequest request, Long customerId) {
         if (!customerRepository.existsById(customerId)) {
@@ -120,23 +135,21 @@ public class BookingService {
 
         Booking savedBooking = bookingRepository.save(booking);
 
-        // Save booking items
+        // Save booking items in one JDBC batch
         if (request.getItems() != null && !request.getItems().isEmpty()) {
-            for (BookingRequest.ItemDto itemDto : request.getItems()) {
-                BookingItem item = new BookingItem();
-                item.setBookingId(savedBooking.getBookingId());
-                item.setCategoryId(itemDto.getCategoryId());
-                item.setName(itemDto.getName());
-                item.setBrand(itemDto.getBrand());
-                item.setModel(itemDto.getModel());
-                item.setQuantity(itemDto.getQuantity());
-                item.setWeightKg(itemDto.getWeight());
-                item.setDeclaredValueVnd(itemDto.getDeclaredValueVnd());
-                item.setIsFragile(itemDto.getIsFragile() != null ? itemDto.getIsFragile() : false);
-                item.setRequiresDisassembly(itemDto.getRequiresDisassembly() != null ? itemDto.getRequiresDisassembly() : false);
-                
-                bookingItemRepository.save(item);
-            }
+            Long bookingId = savedBooking.getBookingId();
+            jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, request.getItems(), request.getItems().size(), (ps, itemDto) -> {
+                ps.setLong(1, bookingId);
+                ps.setObject(2, itemDto.getCategoryId());
+                ps.setString(3, itemDto.getName());
+                ps.setString(4, itemDto.getBrand());
+                ps.setString(5, itemDto.getModel());
+                ps.setObject(6, itemDto.getQuantity());
+                ps.setBigDecimal(7, itemDto.getWeight());
+                ps.setBigDecimal(8, itemDto.getDeclaredValueVnd());
+                ps.setBoolean(9, itemDto.getIsFragile() != null ? itemDto.getIsFragile() : false);
+                ps.setBoolean(10, itemDto.getRequiresDisassembly() != null ? itemDto.getRequiresDisassembly() : false);
+            });
         }
 
         createStatusHistory(savedBooking.getBookingId(), null, BookingStatus.PENDING, 
@@ -144,6 +157,8 @@ public class BookingService {
 
         // Send notification to customer about booking creation
         sendBookingCreatedNotification(savedBooking, customerId);
+        outboxService.enqueueJobBoardRefresh(savedBooking.getBookingId());
+        outboxService.enqueueStatsRollupBooking(savedBooking.getBookingId());
 
         return BookingResponse.fromEntity(savedBooking);
     }
@@ -166,22 +181,31 @@ public class BookingService {
             throw new UnauthorizedException("You can only view your own bookings");
         }
 
-        return bookingRepository.findByCustomerIdOrderByCreatedAtDesc(customerId)
+        return bookingRepository.findViewsByCustomerId(customerId)
             .stream()
-            .map(BookingResponse::fromEntity)
+            .map(BookingResponse::fromView)
             .collect(Collectors.toList());
     }
 
+    /**
+     * One keyset page of all bookings, newest first. {@code cursor} is the {@code nextCursor}
+     * of the previous page, or null for the first page.
+     */
     @Transactional(readOnly = true)
-    public List<BookingResponse> getAllBookings(UserRole userRole) {
+    public CursorPageResponse<BookingResponse> getAllBookings(UserRole userRole, String cursor, int limit) {
         if (userRole != UserRole.MANAGER) {
             throw new UnauthorizedException("Only managers can view all bookings");
         }
 
-        return bookingRepository.findAll()
-            .stream()
-            .map(BookingResponse::fromEntity)
-            .collect(Collectors.toList());
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = CursorPageResponse.clampLimit(limit);
+        List<BookingView> window = bookingRepository.findViewsPage(
+            after != null ? after.timestamp() : null,
+            after != null ? after.id() : null,
+            PageRequest.of(0, pageSize + 1));
+        return CursorPageResponse.of(window, pageSize,
+            view -> new KeysetCursor(view.getCreatedAt(), view.getBookingId()),
+            BookingResponse::fromView);
     }
 
     @Transactional
@@ -241,6 +265,9 @@ public class BookingService {
         }
 
         Booking updatedBooking = bookingRepository.save(booking);
+        // Dia chi, khoang cach hoac trang thai co the doi: match lai job board
+        outboxService.enqueueJobBoardRefresh(bookingId);
+        outboxService.enqueueStatsRollupBooking(bookingId);
         return BookingResponse.fromEntity(updatedBooking);
     }
 
@@ -273,6 +300,8 @@ public class BookingService {
         
         // Send notification about cancellation
         sendBookingStatusChangeNotification(booking, oldStatus, BookingStatus.CANCELLED);
+        outboxService.enqueueJobBoardRefresh(bookingId);
+        outboxService.enqueueStatsRollupBooking(bookingId);
     }
 
     @Transactional(readOnly = true)
@@ -299,31 +328,7 @@ public class BookingService {
             throw new UnauthorizedException("You are not authorized to view this booking's quotations");
         }
 
-        return quotationRepository.findByBookingId(bookingId)
-            .stream()
-            .map(quotation -> {
-                QuotationResponse response = new QuotationResponse();
-                response.setQuotationId(quotation.getQuotationId());
-                response.setBookingId(quotation.getBookingId());
-                response.setTransportId(quotation.getTransportId());
-                response.setQuotedPrice(quotation.getQuotedPrice());
-                response.setBasePrice(quotation.getBasePrice());
-                response.setDistancePrice(quotation.getDistancePrice());
-                response.setItemsPrice(quotation.getItemsPrice());
-                response.setAdditionalFees(quotation.getAdditionalFees());
-                response.setDiscount(quotation.getDiscount());
-                response.setPriceBreakdown(quotation.getPriceBreakdown());
-                response.setNotes(quotation.getNotes());
-                response.setValidityPeriod(quotation.getValidityPeriod());
-                response.setExpiresAt(quotation.getExpiresAt());
-                response.setStatus(quotation.getStatus());
-                response.setRespondedAt(quotation.getRespondedAt());
-                response.setAcceptedBy(quotation.getAcceptedBy());
-                response.setAcceptedAt(quotation.getAcceptedAt());
-                response.setCreatedAt(quotation.getCreatedAt());
-                return response;
-            })
-            .collect(Collectors.toList());
+        return quotationAssembler.toResponses(quotationRepository.findByBookingId(bookingId));
     }
 
     private void validateAddress(AddressDto address, String type) {
@@ -428,19 +433,33 @@ public class BookingService {
     }
 
     /**
-     * Send notification when booking status changes
+     * Send notification when booking status changes.
+     * Notifications and the SSE event are written to the outbox in the caller's
+     * transaction and delivered after commit.
      */
     private void sendBookingStatusChangeNotification(Booking booking, BookingStatus oldStatus, BookingStatus newStatus) {
         try {
-            // Get customer user
-            User customerUser = userRepository.findById(booking.getCustomerId()).orElse(null);
-            if (customerUser != null) {
-                String statusMessage = getStatusChangeMessage(newStatus);
-                notificationService.createNotification(
-                        customerUser.getUserId(),
+            String statusMessage = getStatusChangeMessage(newStatus);
+
+            // customer_id / transport_id share the user's primary key, no lookup needed
+            outboxService.enqueueNotification(
+                    booking.getCustomerId(),
+                    Notification.NotificationType.BOOKING_UPDATE,
+                    "Booking Status Updated",
+                    String.format("Your booking #%d status has changed to %s. %s",
+                            booking.getBookingId(), newStatus.name(), statusMessage),
+                    Notification.ReferenceType.BOOKING,
+                    booking.getBookingId(),
+                    getNotificationPriority(newStatus)
+            );
+
+            // Notify transport if assigned
+            if (booking.getTransportId() != null) {
+                outboxService.enqueueNotification(
+                        booking.getTransportId(),
                         Notification.NotificationType.BOOKING_UPDATE,
                         "Booking Status Updated",
-                        String.format("Your booking #%d status has changed to %s. %s",
+                        String.format("Booking #%d status has changed to %s. %s",
                                 booking.getBookingId(), newStatus.name(), statusMessage),
                         Notification.ReferenceType.BOOKING,
                         booking.getBookingId(),
@@ -448,36 +467,16 @@ public class BookingService {
                 );
             }
 
-            // Notify transport if assigned
-            if (booking.getTransportId() != null) {
-                transportRepository.findById(booking.getTransportId()).ifPresent(transport -> {
-                    if (transport.getUser() != null) {
-                        String statusMessage = getStatusChangeMessage(newStatus);
-                        notificationService.createNotification(
-                                transport.getUser().getUserId(),
-                                Notification.NotificationType.BOOKING_UPDATE,
-                                "Booking Status Updated",
-                                String.format("Booking #%d status has changed to %s. %s",
-                                        booking.getBookingId(), newStatus.name(), statusMessage),
-                                Notification.ReferenceType.BOOKING,
-                                booking.getBookingId(),
-                                getNotificationPriority(newStatus)
-                        );
-                    }
-                });
-            }
-
             // Send SSE event for real-time updates
             String oldStatusStr = oldStatus != null ? oldStatus.name() : null;
-            String statusMessage = getStatusChangeMessage(newStatus);
-            customerEventService.sendBookingStatusUpdate(
+            outboxService.enqueueCustomerEvent(CustomerEventService.BookingEvent.statusChanged(
                     booking.getBookingId(),
                     oldStatusStr,
                     newStatus.name(),
                     statusMessage
-            );
+            ));
 
-            log.debug("Sent SSE booking status update for booking {}: {} -> {}",
+            log.debug("Queued SSE booking status update for booking {}: {} -> {}",
                     booking.getBookingId(), oldStatusStr, newStatus.name());
 
         } catch (Exception e) {
@@ -492,19 +491,16 @@ public class BookingService {
      */
     private void sendBookingCreatedNotification(Booking booking, Long customerId) {
         try {
-            User customerUser = userRepository.findById(customerId).orElse(null);
-            if (customerUser != null) {
-                notificationService.createNotification(
-                    customerUser.getUserId(),
-                    Notification.NotificationType.BOOKING_UPDATE,
-                    "Booking Created Successfully",
-                    String.format("Your booking #%d has been created and is awaiting quotations from transports.", 
-                        booking.getBookingId()),
-                    Notification.ReferenceType.BOOKING,
-                    booking.getBookingId(),
-                    Notification.Priority.MEDIUM
-                );
-            }
+            outboxService.enqueueNotification(
+                customerId,
+                Notification.NotificationType.BOOKING_UPDATE,
+                "Booking Created Successfully",
+                String.format("Your booking #%d has been created and is awaiting quotations from transports.", 
+                    booking.getBookingId()),
+                Notification.ReferenceType.BOOKING,
+                booking.getBookingId(),
+                Notification.Priority.MEDIUM
+            );
         } catch (Exception e) {
             log.error("Failed to send booking created notification for booking {}: {}", 
                 booking.getBookingId(), e.getMessage(), e);
@@ -675,16 +671,16 @@ public class BookingService {
         }
         try {
             if (role == ActorRole.CUSTOMER) {
-                return customerRepository.findById(userId)
+                return RequestIdentityContext.resolve(Customer.class, userId, customerRepository::findById)
                         .map(c -> c.getFullName())
-                        .orElse(userRepository.findById(userId).map(u -> u.getEmail()).orElse("Unknown"));
+                        .orElseGet(() -> userEmail(userId, "Unknown"));
             } else if (role == ActorRole.TRANSPORT) {
-                return transportRepository.findById(userId)
+                return RequestIdentityContext.resolve(Transport.class, userId, transportRepository::findById)
                         .map(t -> t.getCompanyName())
-                        .orElse(userRepository.findById(userId).map(u -> u.getEmail()).orElse("Unknown"));
+                        .orElseGet(() -> userEmail(userId, "Unknown"));
             }
             
-            User user = userRepository.findById(userId).orElse(null);
+            User user = RequestIdentityContext.resolve(User.class, userId, userRepository::findById).orElse(null);
             if (user != null) {
                 return user.getEmail();
             }
@@ -699,7 +695,7 @@ public class BookingService {
             return "Unknown Transport";
         }
         try {
-            return transportRepository.findById(transportId)
+            return RequestIdentityContext.resolve(Transport.class, transportId, transportRepository::findById)
                     .map(t -> t.getCompanyName() != null ? t.getCompanyName() : "Transport #" + transportId)
                     .orElse("Unknown Transport");
         } catch (Exception e) {
@@ -712,15 +708,22 @@ public class BookingService {
             return "Unknown Customer";
         }
         try {
-            return customerRepository.findById(customerId)
+            return RequestIdentityContext.resolve(Customer.class, customerId, customerRepository::findById)
                     .map(c -> c.getFullName())
-                    .orElse(userRepository.findById(customerId).map(u -> u.getEmail()).orElse("Customer #" + customerId));
+                    .orElseGet(() -> userEmail(customerId, "Customer #" + customerId));
         } catch (Exception e) {
             // Ignore
         }
         return "Customer #" + customerId;
     }
 
+    // Timeline/list goi lai cung id nhieu lan -> lookup qua RequestIdentityContext, moi id 1 query/request
+    private String userEmail(Long userId, String fallback) {
+        return RequestIdentityContext.resolve(User.class, userId, userRepository::findById)
+                .map(u -> u.getEmail())
+                .orElse(fallback);
+    }
+
     /**
      * Customer confirms booking completion after remaining payment is made
      * Updates booking status to CONFIRMED_BY_CUSTOMER and settlement to READY
@@ -758,6 +761,7 @@ public class BookingService {
         // 5. Create status history
         createStatusHistory(bookingId, oldStatus, BookingStatus.CONFIRMED_BY_CUSTOMER,
                 customerId, ActorRole.CUSTOMER, request != null ? request.getFeedback() : null);
+        outboxService.enqueueStatsRollupBooking(bookingId);
 
         // 6. Update settlement status to READY
         Optional<BookingSettlement> settlementOpt = settlementRepository.findByBookingId(bookingId);
@@ -785,7 +789,7 @@ public class BookingService {
     private void sendCompletionConfirmationNotifications(Booking booking, ConfirmCompletionRequest request) {
         try {
             // Notify customer
-            notificationService.createNotification(
+            outboxService.enqueueNotification(
                     booking.getCustomerId(),
                     Notification.NotificationType.BOOKING_UPDATE,
                     "Booking Completion Confirmed",
@@ -798,23 +802,19 @@ public class BookingService {
 
             // Notify transport
             if (booking.getTransportId() != null) {
-                transportRepository.findById(booking.getTransportId()).ifPresent(transport -> {
-                    if (transport.getUser() != null) {
-                        String feedbackMsg = (request != null && request.getFeedback() != null)
-                                ? " Customer feedback: " + request.getFeedback()
-                                : "";
-                        notificationService.createNotification(
-                                transport.getUser().getUserId(),
-                                Notification.NotificationType.BOOKING_UPDATE,
-                                "Customer Confirmed Completion",
-                                String.format("Customer has confirmed completion of booking #%d. Payment will be processed soon.%s",
-                                        booking.getBookingId(), feedbackMsg),
-                                Notification.ReferenceType.BOOKING,
-                                booking.getBookingId(),
-                                Notification.Priority.HIGH
-                        );
-                    }
-                });
+                String feedbackMsg = (request != null && request.getFeedback() != null)
+                        ? " Customer feedback: " + request.getFeedback()
+                        : "";
+                outboxService.enqueueNotification(
+                        booking.getTransportId(),
+                        Notification.NotificationType.BOOKING_UPDATE,
+                        "Customer Confirmed Completion",
+                        String.format("Customer has confirmed completion of booking #%d. Payment will be processed soon.%s",
+                                booking.getBookingId(), feedbackMsg),
+                        Notification.ReferenceType.BOOKING,
+                        booking.getBookingId(),
+                        Notification.Priority.HIGH
+                );
             }
         } catch (Exception e) {
             log.error("Failed to send completion confirmation notifications for booking {}: {}",
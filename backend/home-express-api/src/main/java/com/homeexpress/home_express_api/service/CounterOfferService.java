@@ -8,6 +8,7 @@ import com.homeexpress.home_express_api.exception.BadRequestException;
 import com.homeexpress.home_express_api.exception.ResourceNotFoundException;
 import com.homeexpress.home_express_api.exception.UnauthorizedException;
 import com.homeexpress.home_express_api.repository.*;
+import com.homeexpress.home_express_api.util.RequestIdentityContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -302,11 +303,11 @@ public class CounterOfferService {
      */
     private String getUserName(Long userId, CounterOfferRole role) {
         if (role == CounterOfferRole.CUSTOMER) {
-            return customerRepository.findById(userId)
+            return RequestIdentityContext.resolve(Customer.class, userId, customerRepository::findById)
                     .map(Customer::getFullName)
                     .orElse("Unknown Customer");
         } else {
-            return transportRepository.findById(userId)
+            return RequestIdentityContext.resolve(Transport.class, userId, transportRepository::findById)
                     .map(Transport::getCompanyName)
                     .orElse("Unknown Transport");
         }
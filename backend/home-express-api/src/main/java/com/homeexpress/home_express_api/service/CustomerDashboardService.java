@@ -3,6 +3,10 @@ package com.homeexpress.home_express_api.service;
 import com.homeexpress.home_express_api.dto.response.CustomerDashboardStatsResponse;
 import com.homeexpress.home_express_api.entity.BookingStatus;
 import com.homeexpress.home_express_api.repository.BookingRepository;
+import com.homeexpress.home_express_api.repository.projection.CustomerBookingStatsView;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupReader;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupReader.BookingTotals;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -11,25 +15,47 @@ import java.math.BigDecimal;
 @Service
 public class CustomerDashboardService {
 
+    @Autowired
+    private StatsRollupReader statsRollupReader;
+
+    @Autowired
+    private StatsRollupService statsRollupService;
+
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private DashboardStatsCache dashboardStatsCache;
+
     public CustomerDashboardStatsResponse getDashboardStats(Long customerId) {
-        long total = bookingRepository.countByCustomerId(customerId);
-        long pending = bookingRepository.countByCustomerIdAndStatus(customerId, BookingStatus.PENDING);
-        long completed = bookingRepository.countByCustomerIdAndStatus(customerId, BookingStatus.COMPLETED);
-        long cancelled = bookingRepository.countByCustomerIdAndStatus(customerId, BookingStatus.CANCELLED);
+        return dashboardStatsCache.get("customer", customerId, () -> loadDashboardStats(customerId));
+    }
+
+    private CustomerDashboardStatsResponse loadDashboardStats(Long customerId) {
+        CustomerDashboardStatsResponse response = new CustomerDashboardStatsResponse();
+        BigDecimal totalSpent;
+        if (statsRollupService.isReadable(StatsRollupService.ROLLUP_BOOKING)) {
+            // cong cac dong rollup theo ngay, khong quet bookings
+            BookingTotals stats = statsRollupReader.bookingTotals(StatsRollupService.SCOPE_CUSTOMER, customerId);
+            response.setTotalBookings(stats.created());
+            response.setPendingBookings(stats.pending());
+            response.setCompletedBookings(stats.completed());
+            response.setCancelledBookings(stats.cancelled());
+            totalSpent = stats.completedValue();
+        } else {
+            // rollup chua doc duoc -> 1 query SUM(CASE ...) tren bookings
+            CustomerBookingStatsView stats = bookingRepository.aggregateCustomerDashboard(
+                    customerId, BookingStatus.PENDING, BookingStatus.COMPLETED, BookingStatus.CANCELLED);
+            response.setTotalBookings(valueOf(stats.getTotalBookings()));
+            response.setPendingBookings(valueOf(stats.getPendingBookings()));
+            response.setCompletedBookings(valueOf(stats.getCompletedBookings()));
+            response.setCancelledBookings(valueOf(stats.getCancelledBookings()));
+            totalSpent = stats.getTotalSpent();
+        }
 
-        BigDecimal totalSpent = bookingRepository.sumFinalPriceByCustomerAndStatus(customerId, BookingStatus.COMPLETED);
         if (totalSpent == null) {
             totalSpent = BigDecimal.ZERO;
         }
-
-        CustomerDashboardStatsResponse response = new CustomerDashboardStatsResponse();
-        response.setTotalBookings(total);
-        response.setPendingBookings(pending);
-        response.setCompletedBookings(completed);
-        response.setCancelledBookings(cancelled);
         response.setTotalSpent(totalSpent);
 
         // Placeholder: actual average rating calculation should be wired once review data is available.
@@ -37,4 +63,8 @@ public class CustomerDashboardService {
 
         return response;
     }
+
+    private long valueOf(Long value) {
+        return value == null ? 0L : value;
+    }
 }
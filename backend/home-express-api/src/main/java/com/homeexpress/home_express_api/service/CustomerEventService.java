@@ -1,11 +1,14 @@
 package com.homeexpress.home_express_api.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homeexpress.home_express_api.service.sse.SseBroker;
+import com.homeexpress.home_express_api.service.sse.SseEmitterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -13,6 +16,8 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Service for managing Server-Sent Events (SSE) connections for customer bookings.
  * Provides real-time updates for booking status, quotations, payments, and transport assignment.
+ * Connections are kept in a {@link SseEmitterRegistry}; events are fanned out to every node by
+ * the {@link SseBroker}, which also sends the heartbeats.
  */
 @Slf4j
 @Service
@@ -20,12 +25,18 @@ public class CustomerEventService {
 
     private final ObjectMapper objectMapper;
 
-    // Map of booking ID to map of emitter ID to SseEmitter
-    // This allows multiple customers to watch the same booking (e.g., shared bookings)
-    private final Map<Long, Map<String, SseEmitter>> bookingEmitters = new ConcurrentHashMap<>();
+    // Connections on this node, scoped by booking ID and keyed by customer ID
+    // (several customers can watch the same booking, e.g. shared bookings)
+    private final SseEmitterRegistry registry;
 
-    public CustomerEventService(ObjectMapper objectMapper) {
+    public CustomerEventService(
+            ObjectMapper objectMapper,
+            SseBroker sseBroker,
+            MeterRegistry meterRegistry,
+            @Value("${sse.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
         this.objectMapper = objectMapper;
+        this.registry = new SseEmitterRegistry("booking", sseBroker, meterRegistry,
+                "sse.customer.connections.active", "Open customer booking SSE connections", emitterTimeoutMs);
     }
 
     /**
@@ -35,41 +46,17 @@ public class CustomerEventService {
      * @return SseEmitter for the connection
      */
     public SseEmitter createEventStream(Long bookingId, Long customerId) {
-        // 30 minutes timeout (1800000ms)
-        SseEmitter emitter = new SseEmitter(1800000L);
+        // Default 30 minutes timeout; heartbeats keep the connection alive in between.
+        // A reconnect from the same customer replaces the old emitter.
         String emitterKey = customerId.toString();
-
-        // Add emitter to the map
-        bookingEmitters.computeIfAbsent(bookingId, k -> new ConcurrentHashMap<>())
-                .put(emitterKey, emitter);
+        SseEmitter emitter = registry.open(bookingId, emitterKey);
 
         log.info("Created SSE connection for customer {} on booking {}", customerId, bookingId);
 
-        // Setup cleanup handlers
-        emitter.onCompletion(() -> {
-            removeEmitter(bookingId, emitterKey);
-            log.debug("SSE connection completed for customer {} on booking {}", customerId, bookingId);
-        });
-
-        emitter.onTimeout(() -> {
-            removeEmitter(bookingId, emitterKey);
-            log.debug("SSE connection timeout for customer {} on booking {}", customerId, bookingId);
-        });
-
-        emitter.onError((ex) -> {
-            removeEmitter(bookingId, emitterKey);
-            log.error("SSE connection error for customer {} on booking {}: {}", 
-                    customerId, bookingId, ex.getMessage());
-        });
-
         // Send initial connection message
-        try {
-            emitter.send(SseEmitter.event()
-                    .name("connected")
-                    .data(createEventData("connected", "Connected to booking updates", null)));
-        } catch (IOException e) {
-            log.error("Error sending initial SSE message: {}", e.getMessage());
-            removeEmitter(bookingId, emitterKey);
+        if (!registry.send(bookingId, emitterKey, emitter, "connected",
+                createEventData("connected", "Connected to booking updates", null))) {
+            log.error("Error sending initial SSE message for customer {} on booking {}", customerId, bookingId);
         }
 
         return emitter;
@@ -79,14 +66,7 @@ public class CustomerEventService {
      * Send booking status change event
      */
     public void sendBookingStatusUpdate(Long bookingId, String oldStatus, String newStatus, String message) {
-        Map<String, Object> data = Map.of(
-                "bookingId", bookingId,
-                "oldStatus", oldStatus != null ? oldStatus : "",
-                "newStatus", newStatus,
-                "message", message != null ? message : ""
-        );
-
-        sendEvent(bookingId, "booking:status_changed", "Booking status updated", data);
+        publish(BookingEvent.statusChanged(bookingId, oldStatus, newStatus, message));
     }
 
     /**
@@ -94,15 +74,7 @@ public class CustomerEventService {
      */
     public void sendNewQuotation(Long bookingId, Long quotationId, Long transportId, 
                                   String transportName, Long priceVnd) {
-        Map<String, Object> data = Map.of(
-                "bookingId", bookingId,
-                "quotationId", quotationId,
-                "transportId", transportId,
-                "transportName", transportName,
-                "priceVnd", priceVnd
-        );
-
-        sendEvent(bookingId, "booking:quotation_received", "New quotation received", data);
+        publish(BookingEvent.quotationReceived(bookingId, quotationId, transportId, transportName, priceVnd));
     }
 
     /**
@@ -110,15 +82,7 @@ public class CustomerEventService {
      */
     public void sendPaymentUpdate(Long bookingId, Long paymentId, String paymentType, 
                                    Long amountVnd, String status) {
-        Map<String, Object> data = Map.of(
-                "bookingId", bookingId,
-                "paymentId", paymentId,
-                "paymentType", paymentType,
-                "amountVnd", amountVnd,
-                "status", status
-        );
-
-        sendEvent(bookingId, "booking:payment_completed", "Payment completed", data);
+        publish(BookingEvent.paymentUpdated(bookingId, paymentId, paymentType, amountVnd, status));
     }
 
     /**
@@ -126,21 +90,15 @@ public class CustomerEventService {
      */
     public void sendTransportAssignment(Long bookingId, Long transportId, String transportName, 
                                         String contactPhone) {
-        Map<String, Object> data = Map.of(
-                "bookingId", bookingId,
-                "transportId", transportId,
-                "transportName", transportName,
-                "contactPhone", contactPhone != null ? contactPhone : ""
-        );
-
-        sendEvent(bookingId, "booking:transport_assigned", "Transport assigned", data);
+        publish(BookingEvent.transportAssigned(bookingId, transportId, transportName, contactPhone));
     }
 
     /**
-     * Send heartbeat to keep connection alive
+     * Send a prepared booking event to all connections watching the booking.
+     * Used directly by the outbox dispatcher for events queued in a transaction.
      */
-    public void sendHeartbeat(Long bookingId) {
-        sendEvent(bookingId, "heartbeat", "ping", Map.of("timestamp", LocalDateTime.now().toString()));
+    public void publish(BookingEvent event) {
+        sendEvent(event.bookingId(), event.eventName(), event.message(), event.data());
     }
 
     /**
@@ -208,38 +166,10 @@ public class CustomerEventService {
     }
 
     /**
-     * Generic method to send an event to all emitters watching a booking
+     * Generic method to send an event to all emitters watching a booking, on every node
      */
     private void sendEvent(Long bookingId, String eventName, String message, Map<String, Object> data) {
-        Map<String, SseEmitter> emitters = bookingEmitters.get(bookingId);
-        
-        if (emitters == null || emitters.isEmpty()) {
-            log.debug("No active SSE connections for booking {}", bookingId);
-            return;
-        }
-
-        String eventData = createEventData(eventName, message, data);
-        
-        // Send to all emitters, removing failed ones
-        emitters.entrySet().removeIf(entry -> {
-            try {
-                entry.getValue().send(SseEmitter.event()
-                        .name(eventName)
-                        .data(eventData));
-                return false; // Keep this emitter
-            } catch (IOException e) {
-                log.error("Error sending SSE event to emitter {}: {}", entry.getKey(), e.getMessage());
-                try {
-                    entry.getValue().completeWithError(e);
-                } catch (Exception ex) {
-                    // Ignore
-                }
-                return true; // Remove this emitter
-            }
-        });
-
-        log.debug("Sent SSE event '{}' to {} connections for booking {}", 
-                eventName, emitters.size(), bookingId);
+        registry.publish(bookingId, eventName, createEventData(eventName, message, data));
     }
 
     /**
@@ -265,53 +195,73 @@ public class CustomerEventService {
     }
 
     /**
-     * Remove an emitter from the map
+     * Get count of active connections for a booking on this node
      */
-    private void removeEmitter(Long bookingId, String emitterKey) {
-        Map<String, SseEmitter> emitters = bookingEmitters.get(bookingId);
-        if (emitters != null) {
-            emitters.remove(emitterKey);
-            
-            // Clean up empty booking entries
-            if (emitters.isEmpty()) {
-                bookingEmitters.remove(bookingId);
-                log.debug("Removed empty emitter map for booking {}", bookingId);
-            }
-        }
+    public int getActiveConnectionCount(Long bookingId) {
+        return registry.connectionCount(bookingId);
     }
 
     /**
-     * Get count of active connections for a booking
+     * Get total count of active connections across all bookings on this node
      */
-    public int getActiveConnectionCount(Long bookingId) {
-        Map<String, SseEmitter> emitters = bookingEmitters.get(bookingId);
-        return emitters != null ? emitters.size() : 0;
+    public int getTotalActiveConnections() {
+        return registry.totalConnections();
     }
 
     /**
-     * Get total count of active connections across all bookings
+     * Close all connections for a booking on this node
      */
-    public int getTotalActiveConnections() {
-        return bookingEmitters.values().stream()
-                .mapToInt(Map::size)
-                .sum();
+    public void closeAllConnections(Long bookingId) {
+        int closed = registry.closeAll(bookingId);
+        if (closed > 0) {
+            log.info("Closed {} SSE connections for booking {}", closed, bookingId);
+        }
     }
 
     /**
-     * Close all connections for a booking
+     * A booking-scoped SSE event. Also the payload format of queued customer events in the outbox.
      */
-    public void closeAllConnections(Long bookingId) {
-        Map<String, SseEmitter> emitters = bookingEmitters.remove(bookingId);
-        if (emitters != null) {
-            emitters.values().forEach(emitter -> {
-                try {
-                    emitter.complete();
-                } catch (Exception e) {
-                    // Ignore
-                }
-            });
-            log.info("Closed {} SSE connections for booking {}", emitters.size(), bookingId);
+    public record BookingEvent(Long bookingId, String eventName, String message, Map<String, Object> data) {
+
+        public static BookingEvent statusChanged(Long bookingId, String oldStatus, String newStatus, String message) {
+            return new BookingEvent(bookingId, "booking:status_changed", "Booking status updated", Map.of(
+                    "bookingId", bookingId,
+                    "oldStatus", oldStatus != null ? oldStatus : "",
+                    "newStatus", newStatus,
+                    "message", message != null ? message : ""
+            ));
+        }
+
+        public static BookingEvent quotationReceived(Long bookingId, Long quotationId, Long transportId,
+                                                     String transportName, Long priceVnd) {
+            return new BookingEvent(bookingId, "booking:quotation_received", "New quotation received", Map.of(
+                    "bookingId", bookingId,
+                    "quotationId", quotationId,
+                    "transportId", transportId,
+                    "transportName", transportName,
+                    "priceVnd", priceVnd
+            ));
+        }
+
+        public static BookingEvent paymentUpdated(Long bookingId, Long paymentId, String paymentType,
+                                                  Long amountVnd, String status) {
+            return new BookingEvent(bookingId, "booking:payment_completed", "Payment completed", Map.of(
+                    "bookingId", bookingId,
+                    "paymentId", paymentId,
+                    "paymentType", paymentType,
+                    "amountVnd", amountVnd,
+                    "status", status
+            ));
+        }
+
+        public static BookingEvent transportAssigned(Long bookingId, Long transportId, String transportName,
+                                                     String contactPhone) {
+            return new BookingEvent(bookingId, "booking:transport_assigned", "Transport assigned", Map.of(
+                    "bookingId", bookingId,
+                    "transportId", transportId,
+                    "transportName", transportName,
+                    "contactPhone", contactPhone != null ? contactPhone : ""
+            ));
         }
     }
 }
-
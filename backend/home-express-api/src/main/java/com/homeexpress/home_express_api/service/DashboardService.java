@@ -7,6 +7,10 @@ import com.homeexpress.home_express_api.entity.UserRole;
 import com.homeexpress.home_express_api.entity.VerificationStatus;
 import com.homeexpress.home_express_api.repository.TransportRepository;
 import com.homeexpress.home_express_api.repository.UserRepository;
+import com.homeexpress.home_express_api.repository.projection.UserStatsView;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupReader;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupReader.UserTotals;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -22,21 +26,28 @@ import java.util.stream.Collectors;
 @Service
 public class DashboardService {
 
+    @Autowired
+    private StatsRollupReader statsRollupReader;
+
+    @Autowired
+    private StatsRollupService statsRollupService;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private TransportRepository transportRepository;
 
+    @Autowired
+    private DashboardStatsCache dashboardStatsCache;
+
+    // so lieu toan nen tang nen cache chung 1 key cho moi manager
     public AdminDashboardStatsResponse getAdminDashboardStats() {
-        AdminDashboardStatsResponse stats = new AdminDashboardStatsResponse();
+        return dashboardStatsCache.get("admin", null, this::loadAdminDashboardStats);
+    }
 
-        long totalUsers = userRepository.count();
-        long totalCustomers = userRepository.countByRole(UserRole.CUSTOMER);
-        long totalTransports = userRepository.countByRole(UserRole.TRANSPORT);
-        long totalManagers = userRepository.countByRole(UserRole.MANAGER);
-        long activeUsers = userRepository.countByIsActive(true);
-        long verifiedUsers = userRepository.countByIsVerified(true);
+    private AdminDashboardStatsResponse loadAdminDashboardStats() {
+        AdminDashboardStatsResponse stats = new AdminDashboardStatsResponse();
 
         LocalDate today = LocalDate.now();
         LocalDateTime startOfToday = today.atStartOfDay();
@@ -50,36 +61,46 @@ public class DashboardService {
 
         LocalDate previousMonthStart = startOfMonth.minusMonths(1);
         LocalDateTime previousMonthStartDateTime = previousMonthStart.atStartOfDay();
-        LocalDateTime previousMonthEndDateTime = startOfMonthDateTime;
 
-        long newUsersToday = userRepository.countByCreatedAtBetween(startOfToday, startOfTomorrow);
-        long newUsersWeek = userRepository.countByCreatedAtBetween(startOfWeekDateTime, startOfTomorrow);
-        long newUsersMonth = userRepository.countByCreatedAtBetween(startOfMonthDateTime, startOfTomorrow);
-        long newUsersPreviousMonth = userRepository.countByCreatedAtBetween(previousMonthStartDateTime, previousMonthEndDateTime);
+        // rollup chua doc duoc (tat / dang backfill lan dau) -> dem truc tiep tren users
+        UserTotals userStats = statsRollupService.isReadable(StatsRollupService.ROLLUP_USER)
+                ? statsRollupReader.userTotals(today, startOfWeek, startOfMonth, previousMonthStart)
+                : toUserTotals(userRepository.aggregateDashboardStats(
+                        UserRole.CUSTOMER,
+                        UserRole.TRANSPORT,
+                        UserRole.MANAGER,
+                        startOfToday,
+                        startOfTomorrow,
+                        startOfWeekDateTime,
+                        startOfMonthDateTime,
+                        previousMonthStartDateTime,
+                        VerificationStatus.PENDING));
+
+        long totalUsers = userStats.totalUsers();
+        long activeUsers = userStats.active();
+        long newUsersMonth = userStats.newThisMonth();
+        long newUsersPreviousMonth = userStats.newPreviousMonth();
 
         double growthRate = calculateGrowthRate(newUsersMonth, newUsersPreviousMonth);
 
-        long pendingTransportVerifications = transportRepository.countByVerificationStatus(VerificationStatus.PENDING);
-
         List<TopTransportSummary> topTransports = transportRepository
-                .findByVerificationStatusOrderByAverageRatingDesc(VerificationStatus.APPROVED)
+                .findTop5ByVerificationStatusOrderByAverageRatingDesc(VerificationStatus.APPROVED)
                 .stream()
-                .limit(5)
                 .map(this::mapTopTransport)
                 .collect(Collectors.toList());
 
         stats.setTotalUsers(totalUsers);
-        stats.setTotalCustomers(totalCustomers);
-        stats.setTotalTransports(totalTransports);
-        stats.setTotalManagers(totalManagers);
+        stats.setTotalCustomers(userStats.customers());
+        stats.setTotalTransports(userStats.transports());
+        stats.setTotalManagers(userStats.managers());
         stats.setActiveUsers(activeUsers);
         stats.setInactiveUsers(totalUsers - activeUsers);
-        stats.setVerifiedUsers(verifiedUsers);
-        stats.setNewUsersToday(newUsersToday);
-        stats.setNewUsersThisWeek(newUsersWeek);
+        stats.setVerifiedUsers(userStats.verified());
+        stats.setNewUsersToday(userStats.newToday());
+        stats.setNewUsersThisWeek(userStats.newThisWeek());
         stats.setNewUsersThisMonth(newUsersMonth);
         stats.setUserGrowthRate(String.format("%.1f%%", growthRate));
-        stats.setPendingTransportVerifications(pendingTransportVerifications);
+        stats.setPendingTransportVerifications(userStats.pendingTransportVerifications());
         stats.setTopTransports(topTransports);
 
         return stats;
@@ -104,6 +125,25 @@ public class DashboardService {
         return map;
     }
 
+    private UserTotals toUserTotals(UserStatsView view) {
+        return new UserTotals(
+                valueOf(view.getTotalUsers()),
+                valueOf(view.getTotalCustomers()),
+                valueOf(view.getTotalTransports()),
+                valueOf(view.getTotalManagers()),
+                valueOf(view.getActiveUsers()),
+                valueOf(view.getVerifiedUsers()),
+                valueOf(view.getNewUsersToday()),
+                valueOf(view.getNewUsersThisWeek()),
+                valueOf(view.getNewUsersThisMonth()),
+                valueOf(view.getNewUsersPreviousMonth()),
+                valueOf(view.getPendingTransportVerifications()));
+    }
+
+    private long valueOf(Long value) {
+        return value == null ? 0L : value;
+    }
+
     private double calculateGrowthRate(long current, long previous) {
         if (previous == 0) {
             return current > 0 ? 100.0 : 0.0;
@@ -0,0 +1,69 @@
+package com.homeexpress.home_express_api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of dashboard stats per principal. Dashboards are polled far more often
+ * than their numbers change, so a principal's stats are reused for {@code dashboard.cache-ttl-ms}
+ * (0 disables the cache) before the aggregate query runs again.
+ * <p>
+ * Bounded: when full, expired entries are purged and new entries are not cached until
+ * there is room again.
+ */
+@Component
+public class DashboardStatsCache {
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMs;
+    private final int maxEntries;
+
+    public DashboardStatsCache(
+            @Value("${dashboard.cache-ttl-ms:15000}") long ttlMs,
+            @Value("${dashboard.cache.max-entries:10000}") int maxEntries) {
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param dashboard which dashboard the stats belong to
+     * @param principalId whose stats they are, or null for platform-wide stats
+     * @return the cached stats, or freshly loaded ones if missing or expired
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String dashboard, Long principalId, Supplier<T> loader) {
+        if (ttlMs <= 0 || maxEntries <= 0) {
+            return loader.get();
+        }
+        Key key = new Key(dashboard, principalId);
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAtMillis() > now) {
+            return (T) entry.value();
+        }
+
+        T value = loader.get();
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> e.expiresAtMillis() <= now);
+            if (entries.size() >= maxEntries) {
+                return value;
+            }
+        }
+        entries.put(key, new Entry(value, now + ttlMs));
+        return value;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private record Key(String dashboard, Long principalId) {
+    }
+
+    private record Entry(Object value, long expiresAtMillis) {
+    }
+}
@@ -1,35 +1,206 @@
 package com.homeexpress.home_express_api.service;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import com.homeexpress.home_express_api.entity.EmailLog;
+import com.homeexpress.home_express_api.repository.EmailLogRepository;
+import com.homeexpress.home_express_api.service.email.SmtpConnectionPool;
+import com.homeexpress.home_express_api.util.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Outgoing email. {@link #queueEmail} records the message in {@code email_logs} and returns;
+ * the email workers send it over pooled SMTP connections and retry transient failures with
+ * exponential backoff. The body is held in memory only, so messages still queued when the
+ * process stops cannot be sent any more; a sweep at startup and every
+ * {@code email.stale-sweep-interval-ms} marks QUEUED rows older than {@code email.stale-after-ms}
+ * FAILED. That age must exceed the whole retry schedule, so emails still retrying on a live
+ * instance are left alone.
+ */
 @Service
 public class EmailService {
 
-    @Autowired
-    private JavaMailSender mailSender;
+    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+
+    private static final String FROM_ADDRESS = "noreply@homeexpress.com";
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final SmtpConnectionPool connectionPool;
+    private final EmailLogRepository emailLogRepository;
+    private final ThreadPoolTaskExecutor executor;
+    private final TaskScheduler taskScheduler;
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final Duration staleAfter;
 
-    // Gui email OTP
+    public EmailService(
+            SmtpConnectionPool connectionPool,
+            EmailLogRepository emailLogRepository,
+            @Qualifier("emailExecutor") ThreadPoolTaskExecutor executor,
+            TaskScheduler taskScheduler,
+            @Value("${email.retry.max-attempts:5}") int maxAttempts,
+            @Value("${email.retry.base-delay-ms:2000}") long baseDelayMs,
+            @Value("${email.retry.max-delay-ms:300000}") long maxDelayMs,
+            @Value("${email.stale-after-ms:3600000}") long staleAfterMs) {
+        this.connectionPool = connectionPool;
+        this.emailLogRepository = emailLogRepository;
+        this.executor = executor;
+        this.taskScheduler = taskScheduler;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+    }
+
+    // Gui email OTP (chi xep hang, khong cho SMTP)
     public void sendOtpEmail(String toEmail, String otpCode) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom("noreply@homeexpress.com");
-            message.setTo(toEmail);
-            message.setSubject("Home Express - Ma xac thuc OTP");
-            message.setText(
+        queueEmail(null, toEmail,
+                "Home Express - Ma xac thuc OTP",
                 "Xin chao,\n\n" +
                 "Ma OTP cua ban la: " + otpCode + "\n\n" +
                 "Ma nay co hieu luc trong 5 phut.\n\n" +
                 "Neu ban khong yeu cau reset mat khau, vui long bo qua email nay.\n\n" +
                 "Tran trong,\n" +
-                "Home Express Team"
-            );
+                "Home Express Team",
+                "otp");
+    }
+
+    /**
+     * Record the email as QUEUED and hand it to the email workers once the caller's
+     * transaction commits.
+     *
+     * @return the {@code email_logs} id
+     */
+    public Long queueEmail(Long userId, String toEmail, String subject, String body, String templateName) {
+        EmailLog emailLog = new EmailLog();
+        emailLog.setUserId(userId);
+        emailLog.setToEmail(toEmail);
+        emailLog.setSubject(subject);
+        emailLog.setTemplateName(templateName);
+        emailLog = emailLogRepository.save(emailLog);
+
+        OutgoingEmail email = new OutgoingEmail(emailLog.getLogId(), toEmail, subject, body);
+        TransactionUtils.afterCommit(() -> submit(email, 1));
+        return emailLog.getLogId();
+    }
+
+    /**
+     * Mark emails stranded by a restart (QUEUED longer than any retry schedule) as FAILED.
+     */
+    @Scheduled(fixedDelayString = "${email.stale-sweep-interval-ms:600000}", initialDelay = 0)
+    public void failStrandedEmails() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int failed = emailLogRepository.failQueuedBefore(now.minus(staleAfter), now,
+                    "STRANDED", "Email was still queued when the server stopped");
+            if (failed > 0) {
+                log.warn("Marked {} stranded queued email(s) as failed", failed);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to sweep stranded queued emails: {}", e.getMessage());
+        }
+    }
+
+    private void submit(OutgoingEmail email, int attempt) {
+        try {
+            executor.execute(() -> deliver(email, attempt));
+        } catch (TaskRejectedException e) {
+            log.error("Email queue full, dropping email {}", email.logId());
+            recordFailure(email.logId(), "QUEUE_FULL", "Email queue is full");
+        }
+    }
+
+    private void deliver(OutgoingEmail email, int attempt) {
+        try {
+            connectionPool.send(buildMessage(email.toEmail(), email.subject(), email.body()));
+        } catch (Exception e) {
+            handleFailure(email, attempt, e);
+            return;
+        }
+
+        try {
+            emailLogRepository.markSent(email.logId(), LocalDateTime.now());
+        } catch (Exception e) {
+            // Already sent; do not retry because of a bookkeeping failure
+            log.error("Email {} sent but status update failed: {}", email.logId(), e.getMessage());
+        }
+    }
+
+    private void handleFailure(OutgoingEmail email, int attempt, Exception error) {
+        String errorCode = truncate(error.getClass().getSimpleName(), 64);
+        String errorMessage = truncate(error.getMessage(), MAX_ERROR_LENGTH);
+
+        if (attempt >= maxAttempts || !isRetryable(error)) {
+            log.error("Email {} failed after {} attempt(s): {}", email.logId(), attempt, errorMessage);
+            recordFailure(email.logId(), errorCode, errorMessage);
+            return;
+        }
+
+        Duration delay = backoff(attempt);
+        log.warn("Email {} attempt {} failed ({}), retrying in {} ms", email.logId(), attempt, errorMessage,
+                delay.toMillis());
+        try {
+            emailLogRepository.recordAttemptError(email.logId(), errorCode, errorMessage);
+        } catch (Exception e) {
+            log.warn("Failed to record attempt error for email {}: {}", email.logId(), e.getMessage());
+        }
+        taskScheduler.schedule(() -> submit(email, attempt + 1), Instant.now().plus(delay));
+    }
 
-            mailSender.send(message);
+    private void recordFailure(Long logId, String errorCode, String errorMessage) {
+        try {
+            emailLogRepository.markFailed(logId, LocalDateTime.now(), errorCode, errorMessage);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to send email: " + e.getMessage());
+            log.error("Failed to mark email {} as failed: {}", logId, e.getMessage());
+        }
+    }
+
+    // Bad address/content or credentials will not fix themselves
+    private boolean isRetryable(Exception error) {
+        return !(error instanceof MailParseException
+                || error instanceof MailPreparationException
+                || error instanceof MailAuthenticationException);
+    }
+
+    private Duration backoff(int attempt) {
+        long exponential = baseDelayMs << Math.min(attempt - 1, 20);
+        long capped = Math.min(exponential, maxDelayMs);
+        long jitter = ThreadLocalRandom.current().nextLong(capped / 4 + 1);
+        return Duration.ofMillis(capped + jitter);
+    }
+
+    private SimpleMailMessage buildMessage(String toEmail, String subject, String body) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(FROM_ADDRESS);
+        message.setTo(toEmail);
+        message.setSubject(subject);
+        message.setText(body);
+        return message;
+    }
+
+    private String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
         }
+        return value.substring(0, maxLength);
+    }
+
+    private record OutgoingEmail(Long logId, String toEmail, String subject, String body) {
     }
 }
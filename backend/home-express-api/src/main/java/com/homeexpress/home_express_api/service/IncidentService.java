@@ -3,18 +3,21 @@ package com.homeexpress.home_express_api.service;
 import com.homeexpress.home_express_api.dto.incident.IncidentRequest;
 import com.homeexpress.home_express_api.dto.incident.IncidentResponse;
 import com.homeexpress.home_express_api.dto.incident.IncidentUpdateRequest;
+import com.homeexpress.home_express_api.dto.response.CursorPageResponse;
 import com.homeexpress.home_express_api.entity.*;
 import com.homeexpress.home_express_api.exception.ResourceNotFoundException;
 import com.homeexpress.home_express_api.exception.UnauthorizedException;
 import com.homeexpress.home_express_api.repository.BookingRepository;
 import com.homeexpress.home_express_api.repository.IncidentRepository;
+import com.homeexpress.home_express_api.repository.projection.IncidentView;
+import com.homeexpress.home_express_api.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class IncidentService {
@@ -74,24 +77,45 @@ public class IncidentService {
         return IncidentResponse.fromEntity(incident);
     }
 
+    /**
+     * One keyset page of incidents for managers, newest first. Every filter is optional and
+     * they combine; {@code cursor} is the {@code nextCursor} of the previous page.
+     */
     @Transactional(readOnly = true)
-    public List<IncidentResponse> getIncidents(Long bookingId, IncidentStatus status, 
-                                               Severity severity, Long userId, UserRole userRole) {
-        List<Incident> incidents;
+    public CursorPageResponse<IncidentResponse> getAllIncidents(Long bookingId, IncidentStatus status,
+                                                                Severity severity, String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = CursorPageResponse.clampLimit(limit);
+        List<IncidentView> window = incidentRepository.findViewsPage(bookingId, status, severity,
+            after != null ? after.timestamp() : null,
+            after != null ? after.id() : null,
+            PageRequest.of(0, pageSize + 1));
+        return CursorPageResponse.of(window, pageSize,
+            view -> new KeysetCursor(view.getReportedAt(), view.getIncidentId()),
+            IncidentResponse::fromView);
+    }
 
+    /**
+     * One keyset page of the incidents a user may see, newest first. Customers and transports
+     * see incidents on their own bookings, read through a join on those bookings so the cost
+     * follows the user's own data; managers see all of them ({@link #getAllIncidents}).
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<IncidentResponse> getIncidents(Long bookingId, IncidentStatus status,
+                                                             Severity severity, Long userId, UserRole userRole,
+                                                             String cursor, int limit) {
         if (userRole == UserRole.MANAGER) {
-            if (bookingId != null && status != null) {
-                incidents = incidentRepository.findByBookingIdAndStatusOrderByReportedAtDesc(bookingId, status);
-            } else if (bookingId != null) {
-                incidents = incidentRepository.findByBookingIdOrderByReportedAtDesc(bookingId);
-            } else if (status != null) {
-                incidents = incidentRepository.findByStatusOrderByReportedAtDesc(status);
-            } else if (severity != null) {
-                incidents = incidentRepository.findBySeverityOrderByReportedAtDesc(severity);
-            } else {
-                incidents = incidentRepository.findAllByOrderByReportedAtDesc();
-            }
-        } else if (userRole == UserRole.CUSTOMER) {
+            return getAllIncidents(bookingId, status, severity, cursor, limit);
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = CursorPageResponse.clampLimit(limit);
+        LocalDateTime cursorReportedAt = after != null ? after.timestamp() : null;
+        Long cursorId = after != null ? after.id() : null;
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+
+        List<IncidentView> incidents;
+        if (userRole == UserRole.CUSTOMER) {
             if (bookingId != null) {
                 Booking booking = bookingRepository.findById(bookingId)
                     .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
@@ -99,37 +123,19 @@ public class IncidentService {
                 if (!booking.getCustomerId().equals(userId)) {
                     throw new UnauthorizedException("You can only view incidents for your own bookings");
                 }
-                
-                incidents = incidentRepository.findByBookingIdOrderByReportedAtDesc(bookingId);
-            } else {
-                List<Long> userBookingIds = bookingRepository.findByCustomerIdOrderByCreatedAtDesc(userId)
-                    .stream()
-                    .map(Booking::getBookingId)
-                    .collect(Collectors.toList());
-                
-                incidents = incidentRepository.findAllByOrderByReportedAtDesc()
-                    .stream()
-                    .filter(incident -> userBookingIds.contains(incident.getBookingId()))
-                    .collect(Collectors.toList());
             }
+            incidents = incidentRepository.findCustomerViewsPage(userId, bookingId, status, severity,
+                cursorReportedAt, cursorId, window);
         } else if (userRole == UserRole.TRANSPORT) {
-            List<Long> transportBookingIds = bookingRepository.findAll()
-                .stream()
-                .filter(booking -> userId.equals(booking.getTransportId()))
-                .map(Booking::getBookingId)
-                .collect(Collectors.toList());
-            
-            incidents = incidentRepository.findAllByOrderByReportedAtDesc()
-                .stream()
-                .filter(incident -> transportBookingIds.contains(incident.getBookingId()))
-                .collect(Collectors.toList());
+            incidents = incidentRepository.findTransportViewsPage(userId, bookingId, status, severity,
+                cursorReportedAt, cursorId, window);
         } else {
             throw new UnauthorizedException("Invalid user role");
         }
 
-        return incidents.stream()
-            .map(IncidentResponse::fromEntity)
-            .collect(Collectors.toList());
+        return CursorPageResponse.of(incidents, pageSize,
+            view -> new KeysetCursor(view.getReportedAt(), view.getIncidentId()),
+            IncidentResponse::fromView);
     }
 
     @Transactional
@@ -0,0 +1,273 @@
+package com.homeexpress.home_express_api.service;
+
+import com.homeexpress.home_express_api.config.SecurityConfigProperties;
+import com.homeexpress.home_express_api.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Brute-force protection for {@link AuthService#login}, checked before the password hash is
+ * compared so rejected attempts cost no BCrypt work.
+ * <p>
+ * Two sliding windows are kept in Redis sorted sets: every attempt per client IP, and failed
+ * attempts per account (email). Reaching the failure limit locks the account for
+ * {@code security.login-attempt.lockout-duration-minutes}. A successful login clears the
+ * account's failures. While Redis is unreachable the same windows are kept in process
+ * (per node). Every attempt is also written to {@code login_attempts} on a background
+ * thread for audit.
+ */
+@Slf4j
+@Service
+public class LoginThrottleService {
+
+    private static final String IP_KEY_PREFIX = "login:ip:";
+    private static final String FAILURE_KEY_PREFIX = "login:fail:";
+    private static final String LOCK_KEY_PREFIX = "login:lock:";
+
+    // KEYS: lock, ip window. ARGV: now, ip window ms, ip limit, member.
+    // Returns 0 if allowed (and records the attempt), otherwise ms until retry.
+    private static final DefaultRedisScript<Long> CHECK_SCRIPT = new DefaultRedisScript<>(
+            "local lock = redis.call('PTTL', KEYS[1]) "
+                    + "if lock > 0 then return lock end "
+                    + "local now = tonumber(ARGV[1]) local window = tonumber(ARGV[2]) "
+                    + "redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', now - window) "
+                    + "if redis.call('ZCARD', KEYS[2]) >= tonumber(ARGV[3]) then "
+                    + "  local oldest = redis.call('ZRANGE', KEYS[2], 0, 0, 'WITHSCORES') "
+                    + "  return math.max(1, tonumber(oldest[2]) + window - now) "
+                    + "end "
+                    + "redis.call('ZADD', KEYS[2], now, ARGV[4]) "
+                    + "redis.call('PEXPIRE', KEYS[2], window) "
+                    + "return 0",
+            Long.class);
+
+    // KEYS: failure window, lock. ARGV: now, window ms, limit, lockout ms, member.
+    // Returns 1 if the account is now locked.
+    private static final DefaultRedisScript<Long> FAILURE_SCRIPT = new DefaultRedisScript<>(
+            "local now = tonumber(ARGV[1]) local window = tonumber(ARGV[2]) "
+                    + "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window) "
+                    + "redis.call('ZADD', KEYS[1], now, ARGV[5]) "
+                    + "redis.call('PEXPIRE', KEYS[1], window) "
+                    + "if redis.call('ZCARD', KEYS[1]) >= tonumber(ARGV[3]) then "
+                    + "  redis.call('SET', KEYS[2], '1', 'PX', ARGV[4]) "
+                    + "  redis.call('DEL', KEYS[1]) "
+                    + "  return 1 "
+                    + "end "
+                    + "return 0",
+            Long.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO login_attempts (user_id, email, ip_address, success, failure_reason, attempted_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_IP_LENGTH = 45;
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolTaskExecutor auditExecutor;
+    private final SecurityConfigProperties securityConfig;
+    private final long redisRetryMs;
+
+    // Fallback windows while Redis is unavailable
+    private final Map<String, Deque<Long>> localWindows = new ConcurrentHashMap<>();
+    private final Map<String, Long> localLocks = new ConcurrentHashMap<>();
+
+    private volatile long redisDownUntil;
+
+    public LoginThrottleService(
+            StringRedisTemplate redisTemplate,
+            JdbcTemplate jdbcTemplate,
+            @Qualifier("loginAuditExecutor") ThreadPoolTaskExecutor auditExecutor,
+            SecurityConfigProperties securityConfig,
+            @Value("${security.login-attempt.redis-retry-ms:30000}") long redisRetryMs) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditExecutor = auditExecutor;
+        this.securityConfig = securityConfig;
+        this.redisRetryMs = redisRetryMs;
+    }
+
+    /**
+     * Count the attempt against the client IP and reject it if the IP or the account is
+     * over its limit.
+     *
+     * @throws TooManyRequestsException if the attempt must not proceed
+     */
+    public void checkAllowed(String email, String ipAddress) {
+        SecurityConfigProperties.LoginAttemptConfig config = securityConfig.getLoginAttempt();
+        long now = System.currentTimeMillis();
+        long ipWindowMs = config.getIpWindowSeconds() * 1000L;
+
+        long retryAfterMs = -1;
+        if (redisAvailable()) {
+            try {
+                Long result = redisTemplate.execute(CHECK_SCRIPT,
+                        List.of(LOCK_KEY_PREFIX + email, IP_KEY_PREFIX + ipAddress),
+                        Long.toString(now), Long.toString(ipWindowMs),
+                        Integer.toString(config.getMaxAttemptsPerIp()), member(now));
+                retryAfterMs = result != null ? result : 0;
+            } catch (Exception e) {
+                markRedisDown(e);
+            }
+        }
+        if (retryAfterMs < 0) {
+            retryAfterMs = checkLocally(email, ipAddress, now, ipWindowMs, config.getMaxAttemptsPerIp());
+        }
+
+        if (retryAfterMs > 0) {
+            audit(null, email, ipAddress, false, "throttled");
+            throw new TooManyRequestsException("Too many login attempts. Please try again later.",
+                    Math.max(1, (retryAfterMs + 999) / 1000));
+        }
+    }
+
+    /**
+     * Record a failed attempt against the account, locking it once the limit is reached.
+     */
+    public void recordFailure(String email, String ipAddress, Long userId, String reason) {
+        SecurityConfigProperties.LoginAttemptConfig config = securityConfig.getLoginAttempt();
+        long now = System.currentTimeMillis();
+        long windowMs = config.getRateLimitWindowMinutes() * 60_000L;
+        long lockoutMs = config.getLockoutDurationMinutes() * 60_000L;
+
+        boolean recorded = false;
+        if (redisAvailable()) {
+            try {
+                Long locked = redisTemplate.execute(FAILURE_SCRIPT,
+                        List.of(FAILURE_KEY_PREFIX + email, LOCK_KEY_PREFIX + email),
+                        Long.toString(now), Long.toString(windowMs),
+                        Integer.toString(config.getMaxFailedAttempts()), Long.toString(lockoutMs), member(now));
+                if (locked != null && locked == 1L) {
+                    log.warn("Login locked for {} after {} failed attempts", email, config.getMaxFailedAttempts());
+                }
+                recorded = true;
+            } catch (Exception e) {
+                markRedisDown(e);
+            }
+        }
+        if (!recorded) {
+            int failures = addLocally(FAILURE_KEY_PREFIX + email, now, windowMs);
+            if (failures >= config.getMaxFailedAttempts()) {
+                localLocks.put(email, now + lockoutMs);
+                localWindows.remove(FAILURE_KEY_PREFIX + email);
+            }
+        }
+
+        audit(userId, email, ipAddress, false, reason);
+    }
+
+    /**
+     * Record a successful login and clear the account's failure window.
+     */
+    public void recordSuccess(String email, String ipAddress, Long userId) {
+        if (redisAvailable()) {
+            try {
+                redisTemplate.delete(FAILURE_KEY_PREFIX + email);
+            } catch (Exception e) {
+                markRedisDown(e);
+            }
+        }
+        localWindows.remove(FAILURE_KEY_PREFIX + email);
+
+        audit(userId, email, ipAddress, true, null);
+    }
+
+    private long checkLocally(String email, String ipAddress, long now, long ipWindowMs, int ipLimit) {
+        Long lockedUntil = localLocks.get(email);
+        if (lockedUntil != null) {
+            if (lockedUntil > now) {
+                return lockedUntil - now;
+            }
+            localLocks.remove(email, lockedUntil);
+        }
+
+        Deque<Long> window = localWindows.computeIfAbsent(IP_KEY_PREFIX + ipAddress, k -> new ArrayDeque<>());
+        synchronized (window) {
+            trim(window, now - ipWindowMs);
+            if (window.size() >= ipLimit) {
+                return Math.max(1, window.peekFirst() + ipWindowMs - now);
+            }
+            window.addLast(now);
+            return 0;
+        }
+    }
+
+    private int addLocally(String key, long now, long windowMs) {
+        Deque<Long> window = localWindows.computeIfAbsent(key, k -> new ArrayDeque<>());
+        synchronized (window) {
+            trim(window, now - windowMs);
+            window.addLast(now);
+            return window.size();
+        }
+    }
+
+    private void trim(Deque<Long> window, long cutoff) {
+        while (!window.isEmpty() && window.peekFirst() <= cutoff) {
+            window.pollFirst();
+        }
+    }
+
+    private void audit(Long userId, String email, String ipAddress, boolean success, String failureReason) {
+        String ip = ipAddress != null && ipAddress.length() > MAX_IP_LENGTH
+                ? ipAddress.substring(0, MAX_IP_LENGTH) : ipAddress;
+        Timestamp attemptedAt = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            auditExecutor.execute(() -> {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, userId, email, ip, success, failureReason, attemptedAt);
+                } catch (Exception e) {
+                    log.warn("Failed to record login attempt for {}: {}", email, e.getMessage());
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Login audit queue unavailable: {}", e.getMessage());
+        }
+    }
+
+    private String member(long now) {
+        return now + ":" + ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
+    }
+
+    private boolean redisAvailable() {
+        if (redisDownUntil == 0) {
+            return true;
+        }
+        if (System.currentTimeMillis() < redisDownUntil) {
+            return false;
+        }
+        // Keep the local windows and lockouts until Redis has actually answered
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection -> connection.ping());
+        } catch (Exception e) {
+            markRedisDown(e);
+            return false;
+        }
+        redisDownUntil = 0;
+        localWindows.clear();
+        localLocks.clear();
+        log.info("Redis reachable again, login throttling back on Redis");
+        return true;
+    }
+
+    private void markRedisDown(Exception e) {
+        if (redisDownUntil == 0) {
+            log.warn("Redis unavailable for login throttling, using in-process windows: {}", e.getMessage());
+        }
+        redisDownUntil = System.currentTimeMillis() + redisRetryMs;
+    }
+}
@@ -0,0 +1,154 @@
+package com.homeexpress.home_express_api.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces notification writes from many threads into JDBC batches.
+ * A single writer thread flushes whenever {@code max-batch-size} rows are waiting
+ * or {@code flush-interval-ms} has passed since the first queued row, whichever comes first.
+ * <p>
+ * If a batch fails (e.g. one row references a deleted user) the rows are retried one by one
+ * so a single bad row does not fail its neighbours.
+ */
+@Component
+public class NotificationBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationBatchWriter.class);
+
+    private final NotificationService notificationService;
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final long shutdownTimeoutMs;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public NotificationBatchWriter(
+            NotificationService notificationService,
+            @Value("${notification.batch.queue-capacity:10000}") int queueCapacity,
+            @Value("${notification.batch.max-batch-size:100}") int maxBatchSize,
+            @Value("${notification.batch.flush-interval-ms:50}") long flushIntervalMs,
+            @Value("${notification.batch.shutdown-timeout-ms:5000}") long shutdownTimeoutMs) {
+        this.notificationService = notificationService;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "notification-batch-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Flushes what is still queued before the datasource goes away.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(shutdownTimeoutMs);
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} notifications were not written before shutdown", queue.size());
+        }
+    }
+
+    /**
+     * Queue a notification for the next batch.
+     *
+     * @return completes once the row is written (or dropped by the user's preferences),
+     *         fails if the write failed or the queue is full
+     */
+    public CompletableFuture<Void> submit(NotificationService.NewNotification notification) {
+        Pending pending = new Pending(notification, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("Notification write queue is full or stopped"));
+        }
+        return pending.result();
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                return;
+            } finally {
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for more rows until the batch is full or the flush window closes.
+     */
+    private void collect(List<Pending> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0 || !running) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        try {
+            notificationService.createNotifications(batch.stream().map(Pending::notification).toList());
+            batch.forEach(p -> p.result().complete(null));
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+            log.warn("Notification batch of {} failed ({}), retrying row by row", batch.size(), e.getMessage());
+            for (Pending pending : batch) {
+                try {
+                    notificationService.createNotifications(List.of(pending.notification()));
+                    pending.result().complete(null);
+                } catch (Exception rowError) {
+                    pending.result().completeExceptionally(rowError);
+                }
+            }
+        }
+    }
+
+    private record Pending(NotificationService.NewNotification notification, CompletableFuture<Void> result) {
+    }
+}
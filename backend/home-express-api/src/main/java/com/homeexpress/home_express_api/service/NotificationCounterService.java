@@ -0,0 +1,219 @@
+package com.homeexpress.home_express_api.service;
+
+import com.homeexpress.home_express_api.repository.NotificationRepository;
+import com.homeexpress.home_express_api.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user unread notification counters, so the badge endpoint does not run a COUNT(*)
+ * on every poll.
+ * <p>
+ * Counters live in Redis ({@code notif:unread:{userId}}) and are loaded from the table on
+ * first read. Writes only adjust a counter that is already loaded; a missing counter is
+ * simply reloaded on the next read. When Redis is unreachable the same logic runs against
+ * an in-process map until Redis is back. Touched counters are periodically reconciled with
+ * the table to repair drift from bulk deletes or lost updates.
+ */
+@Slf4j
+@Service
+public class NotificationCounterService {
+
+    private static final String KEY_PREFIX = "notif:unread:";
+
+    // Adjust only if the counter is loaded; never go below zero
+    private static final DefaultRedisScript<Long> ADJUST_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return nil end "
+                    + "local v = redis.call('INCRBY', KEYS[1], ARGV[1]) "
+                    + "if v < 0 then redis.call('INCRBY', KEYS[1], -v) v = 0 end "
+                    + "return v",
+            Long.class);
+
+    private static final int RECONCILE_CHUNK_SIZE = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final NotificationRepository notificationRepository;
+    private final NotificationStreamService streamService;
+    private final Duration ttl;
+    private final long redisRetryMs;
+
+    // Fallback counters while Redis is unavailable
+    private final Map<Long, AtomicLong> localCounters = new ConcurrentHashMap<>();
+    // Users whose counter was read or changed since the last reconcile
+    private final Set<Long> touchedUsers = ConcurrentHashMap.newKeySet();
+    // Users changed only locally during a Redis outage; their Redis keys are stale
+    private final Set<Long> staleInRedis = ConcurrentHashMap.newKeySet();
+
+    private volatile long redisDownUntil;
+
+    public NotificationCounterService(
+            StringRedisTemplate redisTemplate,
+            NotificationRepository notificationRepository,
+            NotificationStreamService streamService,
+            @Value("${notification.unread.ttl-seconds:3600}") long ttlSeconds,
+            @Value("${notification.unread.redis-retry-ms:30000}") long redisRetryMs) {
+        this.redisTemplate = redisTemplate;
+        this.notificationRepository = notificationRepository;
+        this.streamService = streamService;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.redisRetryMs = redisRetryMs;
+    }
+
+    /**
+     * Current unread count, loading it from the table if no counter exists yet.
+     */
+    public long getUnreadCount(Long userId) {
+        touchedUsers.add(userId);
+        if (redisAvailable()) {
+            try {
+                String key = KEY_PREFIX + userId;
+                String cached = redisTemplate.opsForValue().get(key);
+                if (cached != null) {
+                    return Long.parseLong(cached);
+                }
+                long count = countFromTable(userId);
+                redisTemplate.opsForValue().setIfAbsent(key, Long.toString(count), ttl);
+                return count;
+            } catch (Exception e) {
+                markRedisDown(e);
+            }
+        }
+        return localCounters.computeIfAbsent(userId, id -> new AtomicLong(countFromTable(id))).get();
+    }
+
+    /**
+     * Adjust the user's counter once the surrounding transaction commits (immediately if
+     * there is none) and push the new value to the user's notification stream.
+     */
+    public void adjust(Long userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            try {
+                Long updated = applyDelta(userId, delta);
+                // Streams may be open on any node, so a known count is always published. Without one
+                // (counter not cached) it is only recounted for a stream open on this node
+                if (updated != null) {
+                    streamService.sendUnreadCount(userId, updated);
+                } else if (streamService.hasSubscribers(userId)) {
+                    streamService.sendUnreadCount(userId, getUnreadCount(userId));
+                }
+            } catch (Exception e) {
+                // The counter is only a cache; reconcile repairs it
+                log.warn("Failed to update unread counter for user {}: {}", userId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Recompute recently used counters from the table.
+     */
+    @Scheduled(fixedDelayString = "${notification.unread.reconcile-interval-ms:600000}",
+               initialDelayString = "${notification.unread.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        if (touchedUsers.isEmpty()) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>(touchedUsers);
+        touchedUsers.removeAll(userIds);
+
+        int corrected = 0;
+        for (int start = 0; start < userIds.size(); start += RECONCILE_CHUNK_SIZE) {
+            List<Long> chunk = userIds.subList(start, Math.min(start + RECONCILE_CHUNK_SIZE, userIds.size()));
+            Map<Long, Long> counts = new HashMap<>();
+            for (Object[] row : notificationRepository.countUnreadGroupedByUserIds(chunk)) {
+                counts.put((Long) row[0], (Long) row[1]);
+            }
+            for (Long userId : chunk) {
+                if (store(userId, counts.getOrDefault(userId, 0L))) {
+                    corrected++;
+                }
+            }
+        }
+        log.debug("Reconciled {} unread counters ({} corrected)", userIds.size(), corrected);
+    }
+
+    private Long applyDelta(Long userId, long delta) {
+        touchedUsers.add(userId);
+        if (redisAvailable()) {
+            try {
+                return redisTemplate.execute(ADJUST_SCRIPT, List.of(KEY_PREFIX + userId), Long.toString(delta));
+            } catch (Exception e) {
+                markRedisDown(e);
+            }
+        }
+        staleInRedis.add(userId);
+        AtomicLong counter = localCounters.get(userId);
+        return counter != null ? counter.updateAndGet(v -> Math.max(0, v + delta)) : null;
+    }
+
+    /**
+     * Overwrite a counter with the value from the table.
+     *
+     * @return true if the stored value differed
+     */
+    private boolean store(Long userId, long count) {
+        if (redisAvailable()) {
+            try {
+                String previous = redisTemplate.opsForValue().getAndSet(KEY_PREFIX + userId, Long.toString(count));
+                redisTemplate.expire(KEY_PREFIX + userId, ttl);
+                localCounters.remove(userId);
+                return previous != null && Long.parseLong(previous) != count;
+            } catch (Exception e) {
+                markRedisDown(e);
+            }
+        }
+        AtomicLong previous = localCounters.put(userId, new AtomicLong(count));
+        return previous != null && previous.get() != count;
+    }
+
+    private long countFromTable(Long userId) {
+        Long count = notificationRepository.countUnreadByUserId(userId);
+        return count != null ? count : 0L;
+    }
+
+    private boolean redisAvailable() {
+        if (redisDownUntil == 0) {
+            return true;
+        }
+        if (System.currentTimeMillis() < redisDownUntil) {
+            return false;
+        }
+        // Back online: forget counters that only changed locally, they reload on next read
+        try {
+            if (!staleInRedis.isEmpty()) {
+                List<Long> stale = new ArrayList<>(staleInRedis);
+                redisTemplate.delete(stale.stream().map(id -> KEY_PREFIX + id).toList());
+                staleInRedis.removeAll(stale);
+            }
+            redisDownUntil = 0;
+            localCounters.clear();
+            log.info("Redis reachable again, unread counters back on Redis");
+            return true;
+        } catch (Exception e) {
+            markRedisDown(e);
+            return false;
+        }
+    }
+
+    private void markRedisDown(Exception e) {
+        if (redisDownUntil == 0) {
+            log.warn("Redis unavailable for unread counters, using in-process fallback: {}", e.getMessage());
+        }
+        redisDownUntil = System.currentTimeMillis() + redisRetryMs;
+    }
+}
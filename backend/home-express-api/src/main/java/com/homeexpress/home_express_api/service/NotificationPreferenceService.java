@@ -11,6 +11,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class NotificationPreferenceService {
@@ -64,6 +68,23 @@ public class NotificationPreferenceService {
         NotificationPreference preference = preferenceRepository.findByUser_UserId(userId)
                 .orElse(null);
 
+        return shouldSendNotification(preference, type);
+    }
+
+    /**
+     * Loads preferences for many users in one query, keyed by user id.
+     * Users without a row are simply absent from the map (defaults apply).
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, NotificationPreference> loadPreferences(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return preferenceRepository.findByUser_UserIdIn(userIds).stream()
+                .collect(Collectors.toMap(p -> p.getUser().getUserId(), Function.identity()));
+    }
+
+    public boolean shouldSendNotification(NotificationPreference preference, Notification.NotificationType type) {
         if (preference == null) {
             return true;
         }
@@ -2,14 +2,18 @@ package com.homeexpress.home_express_api.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.homeexpress.home_express_api.dto.response.NotificationResponse;
 import com.homeexpress.home_express_api.entity.Notification;
+import com.homeexpress.home_express_api.entity.NotificationPreference;
 import com.homeexpress.home_express_api.entity.User;
 import com.homeexpress.home_express_api.repository.NotificationRepository;
 import com.homeexpress.home_express_api.repository.UserRepository;
@@ -20,14 +24,24 @@ public class NotificationService {
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
     private final NotificationPreferenceService preferenceService;
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationCounterService counterService;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (user_id, type, title, message, reference_type, reference_id, is_read, priority) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, FALSE, ?)";
 
     public NotificationService(
             NotificationRepository notificationRepository,
             UserRepository userRepository,
-            NotificationPreferenceService preferenceService) {
+            NotificationPreferenceService preferenceService,
+            JdbcTemplate jdbcTemplate,
+            NotificationCounterService counterService) {
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
         this.preferenceService = preferenceService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.counterService = counterService;
     }
 
     @Transactional
@@ -58,9 +72,48 @@ public class NotificationService {
         notification.setIsRead(false);
 
         notification = notificationRepository.save(notification);
+        counterService.adjust(userId, 1);
         return mapToResponse(notification);
     }
 
+    /**
+     * Creates many notifications with one preference query and one JDBC batch insert.
+     * Users are referenced by id only (no entity load); an unknown user id fails the
+     * batch with a foreign-key violation.
+     *
+     * @return number of notifications written after preference filtering
+     */
+    @Transactional
+    public int createNotifications(List<NewNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, NotificationPreference> preferences = preferenceService.loadPreferences(
+                notifications.stream().map(NewNotification::userId).collect(Collectors.toSet()));
+
+        List<NewNotification> accepted = notifications.stream()
+                .filter(n -> preferenceService.shouldSendNotification(preferences.get(n.userId()), n.type()))
+                .toList();
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, accepted, accepted.size(), (ps, n) -> {
+            ps.setLong(1, n.userId());
+            ps.setString(2, n.type().name());
+            ps.setString(3, n.title());
+            ps.setString(4, n.message());
+            ps.setString(5, n.referenceType() != null ? n.referenceType().name() : null);
+            ps.setObject(6, n.referenceId());
+            ps.setString(7, (n.priority() != null ? n.priority() : Notification.Priority.MEDIUM).name());
+        });
+        accepted.stream()
+                .collect(Collectors.groupingBy(NewNotification::userId, Collectors.counting()))
+                .forEach(counterService::adjust);
+        return accepted.size();
+    }
+
     @Transactional(readOnly = true)
     public Page<NotificationResponse> getNotifications(Long userId, Boolean isRead, Pageable pageable) {
         Page<Notification> notifications;
@@ -99,6 +152,7 @@ public class NotificationService {
             notification.setIsRead(true);
             notification.setReadAt(LocalDateTime.now());
             notification = notificationRepository.save(notification);
+            counterService.adjust(userId, -1);
         }
 
         return mapToResponse(notification);
@@ -110,7 +164,8 @@ public class NotificationService {
             return;
         }
 
-        notificationRepository.markAsReadByIds(notificationIds, userId, LocalDateTime.now());
+        int updated = notificationRepository.markAsReadByIds(notificationIds, userId, LocalDateTime.now());
+        counterService.adjust(userId, -updated);
     }
 
     @Transactional
@@ -123,17 +178,13 @@ public class NotificationService {
         }
 
         notificationRepository.delete(notification);
+        if (!notification.getIsRead()) {
+            counterService.adjust(userId, -1);
+        }
     }
 
-    @Transactional(readOnly = true)
     public Long getUnreadCount(Long userId) {
-        return notificationRepository.countUnreadByUserId(userId);
-    }
-
-    @Transactional
-    public void cleanupOldNotifications(int daysToKeep) {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysToKeep);
-        notificationRepository.deleteOldNotifications(cutoffDate);
+        return counterService.getUnreadCount(userId);
     }
 
     private NotificationResponse mapToResponse(Notification notification) {
@@ -178,4 +229,17 @@ public class NotificationService {
                 return null;
         }
     }
+
+    /**
+     * One pending notification for {@link #createNotifications(List)}.
+     */
+    public record NewNotification(
+            Long userId,
+            Notification.NotificationType type,
+            String title,
+            String message,
+            Notification.ReferenceType referenceType,
+            Long referenceId,
+            Notification.Priority priority) {
+    }
 }
@@ -0,0 +1,83 @@
+package com.homeexpress.home_express_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homeexpress.home_express_api.service.sse.SseBroker;
+import com.homeexpress.home_express_api.service.sse.SseEmitterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-user SSE stream for notification events (currently the unread badge count).
+ * Unlike {@link CustomerEventService} it is keyed by user, so every role can subscribe,
+ * and a user may keep several tabs open at once. Events reach the user's streams on every
+ * node through the {@link SseBroker}.
+ */
+@Slf4j
+@Service
+public class NotificationStreamService {
+
+    public static final String UNREAD_COUNT_EVENT = "notification:unread_count";
+
+    private final ObjectMapper objectMapper;
+
+    // user ID -> connection ID -> emitter
+    private final SseEmitterRegistry registry;
+
+    public NotificationStreamService(
+            ObjectMapper objectMapper,
+            SseBroker sseBroker,
+            MeterRegistry meterRegistry,
+            @Value("${sse.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.registry = new SseEmitterRegistry("notification", sseBroker, meterRegistry,
+                "sse.notification.connections.active", "Open notification SSE connections", emitterTimeoutMs);
+    }
+
+    /**
+     * Open a stream for the user and send the current unread count as the first event.
+     */
+    public SseEmitter createStream(Long userId, long unreadCount) {
+        String connectionId = UUID.randomUUID().toString();
+        SseEmitter emitter = registry.open(userId, connectionId);
+
+        registry.send(userId, connectionId, emitter, UNREAD_COUNT_EVENT, unreadCountData(unreadCount));
+        log.debug("Opened notification stream {} for user {}", connectionId, userId);
+        return emitter;
+    }
+
+    /**
+     * Whether this node holds a stream of the user.
+     */
+    public boolean hasSubscribers(Long userId) {
+        return registry.hasLocalConnections(userId);
+    }
+
+    /**
+     * Push the new unread count to every open stream of the user, on every node.
+     */
+    public void sendUnreadCount(Long userId, long unreadCount) {
+        registry.publish(userId, UNREAD_COUNT_EVENT, unreadCountData(unreadCount));
+    }
+
+    public int getTotalActiveConnections() {
+        return registry.totalConnections();
+    }
+
+    private String unreadCountData(long unreadCount) {
+        try {
+            return objectMapper.writeValueAsString(Map.of(
+                    "type", UNREAD_COUNT_EVENT,
+                    "unreadCount", unreadCount,
+                    "timestamp", LocalDateTime.now().toString()));
+        } catch (Exception e) {
+            return "{\"type\":\"" + UNREAD_COUNT_EVENT + "\",\"unreadCount\":" + unreadCount + "}";
+        }
+    }
+}
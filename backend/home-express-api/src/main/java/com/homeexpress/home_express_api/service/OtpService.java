@@ -1,28 +1,30 @@
 package com.homeexpress.home_express_api.service;
 
-import com.homeexpress.home_express_api.entity.OtpCode;
-import com.homeexpress.home_express_api.repository.OtpRepository;
+import com.homeexpress.home_express_api.config.SecurityConfigProperties;
+import com.homeexpress.home_express_api.service.otp.OtpStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.util.Random;
+import java.security.SecureRandom;
+import java.time.Duration;
 
 @Service
-@Transactional
 public class OtpService {
 
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     @Autowired
-    private OtpRepository otpRepository;
+    private OtpStore otpStore;
 
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private SecurityConfigProperties securityConfig;
+
     // Generate OTP 6 chu so
     public String generateOtp() {
-        Random random = new Random();
-        int otp = 100000 + random.nextInt(900000);
+        int otp = 100000 + RANDOM.nextInt(900000);
         return String.valueOf(otp);
     }
 
@@ -31,37 +33,24 @@ public class OtpService {
         // Generate OTP code
         String otpCode = generateOtp();
 
-        // Thoi gian het han: 5 phut
-        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(5);
+        // Luu OTP, het han sau security.otp.expiration-minutes (mac dinh 5 phut)
+        otpStore.save(email, otpCode, Duration.ofMinutes(securityConfig.getOtp().getExpirationMinutes()));
 
-        // Luu OTP vao database
-        OtpCode otp = new OtpCode(email, otpCode, expiresAt);
-        otpRepository.save(otp);
-
-        // Gui email
+        // Xep hang email, worker gui bat dong bo
         emailService.sendOtpEmail(email, otpCode);
     }
 
-    // Verify OTP
+    // Verify OTP (kiem tra va danh dau da dung trong 1 buoc)
     public boolean verifyOtp(String email, String code) {
-        // Tim OTP chua su dung
-        OtpCode otp = otpRepository.findByEmailAndCodeAndIsUsedFalse(email, code)
-                .orElseThrow(() -> new RuntimeException("Invalid OTP code"));
-
-        // Kiem tra het han chua
-        if (otp.isExpired()) {
-            throw new RuntimeException("OTP code has expired");
+        switch (otpStore.verifyAndConsume(email, code)) {
+            case VALID:
+                return true;
+            case EXPIRED:
+                throw new RuntimeException("OTP code has expired");
+            case TOO_MANY_ATTEMPTS:
+                throw new RuntimeException("Too many incorrect attempts. Please request a new OTP code");
+            default:
+                throw new RuntimeException("Invalid OTP code");
         }
-
-        // Danh dau da su dung
-        otp.setIsUsed(true);
-        otpRepository.save(otp);
-
-        return true;
-    }
-
-    // Xoa OTP het han (chay dinh ky)
-    public void cleanupExpiredOtps() {
-        otpRepository.deleteByExpiresAtBefore(LocalDateTime.now());
     }
 }
@@ -37,13 +37,10 @@ import com.homeexpress.home_express_api.entity.PaymentStatus;
 import com.homeexpress.home_express_api.entity.PaymentType;
 import com.homeexpress.home_express_api.entity.SettlementStatus;
 import com.homeexpress.home_express_api.entity.TransportWallet;
-import com.homeexpress.home_express_api.entity.User;
 import com.homeexpress.home_express_api.entity.UserRole;
 import com.homeexpress.home_express_api.repository.BookingRepository;
 import com.homeexpress.home_express_api.repository.BookingSettlementRepository;
 import com.homeexpress.home_express_api.repository.PaymentRepository;
-import com.homeexpress.home_express_api.repository.TransportRepository;
-import com.homeexpress.home_express_api.repository.UserRepository;
 import com.homeexpress.home_express_api.constants.BookingConstants;
 import com.homeexpress.home_express_api.entity.WalletTransactionReferenceType;
 import com.homeexpress.home_express_api.entity.WalletTransactionType;
@@ -51,6 +48,7 @@ import com.homeexpress.home_express_api.exception.PaymentNotFoundException;
 import com.homeexpress.home_express_api.exception.InvalidPaymentStatusException;
 import com.homeexpress.home_express_api.exception.ResourceNotFoundException;
 import com.homeexpress.home_express_api.exception.UnauthorizedException;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,13 +70,7 @@ public class PaymentService {
     private PaymentConfig paymentConfig;
 
     @Autowired
-    private NotificationService notificationService;
-
-    @Autowired
-    private UserRepository userRepository;
-
-    @Autowired
-    private TransportRepository transportRepository;
+    private OutboxService outboxService;
 
     @Autowired
     private BookingSettlementRepository settlementRepository;
@@ -86,9 +78,6 @@ public class PaymentService {
     @Autowired
     private CommissionService commissionService;
 
-    @Autowired
-    private CustomerEventService customerEventService;
-
     @Autowired
     private WalletService walletService;
 
@@ -279,81 +268,74 @@ public class PaymentService {
                 return;
             }
 
-            // Notify customer
-            User customerUser = userRepository.findById(booking.getCustomerId()).orElse(null);
-            if (customerUser != null) {
+            // Notify customer (customer_id / transport_id are the users' ids)
+            String customerTitle;
+            String customerMessage;
+
+            if (payment.getPaymentType() == PaymentType.DEPOSIT) {
+                customerTitle = "Thanh toán đặt cọc thành công";
+                customerMessage = String.format("Đơn hàng #%d đã được thanh toán đặt cọc thành công %.0f VND.",
+                        booking.getBookingId(), payment.getAmount().doubleValue());
+            } else if (payment.getPaymentType() == PaymentType.REMAINING_PAYMENT) {
+                customerTitle = "Thanh toán phần còn lại thành công";
+                customerMessage = String.format("Đơn hàng #%d đã được thanh toán phần còn lại thành công %.0f VND.",
+                        booking.getBookingId(), payment.getAmount().doubleValue());
+            } else {
+                customerTitle = "Thanh toán thành công";
+                customerMessage = String.format("Đơn hàng #%d đã được thanh toán thành công %.0f VND.",
+                        booking.getBookingId(), payment.getAmount().doubleValue());
+            }
+
+            outboxService.enqueueNotification(
+                    booking.getCustomerId(),
+                    Notification.NotificationType.PAYMENT_REMINDER,
+                    customerTitle,
+                    customerMessage,
+                    Notification.ReferenceType.PAYMENT,
+                    payment.getPaymentId(),
+                    Notification.Priority.HIGH
+            );
+
+            // Notify transport if assigned
+            if (booking.getTransportId() != null) {
                 String title;
                 String message;
 
                 if (payment.getPaymentType() == PaymentType.DEPOSIT) {
-                    title = "Thanh toán đặt cọc thành công";
-                    message = String.format("Đơn hàng #%d đã được thanh toán đặt cọc thành công %.0f VND.",
+                    title = "Nhận được tiền đặt cọc";
+                    message = String.format("Đơn hàng #%d đã nhận được tiền đặt cọc %.0f VND.",
                             booking.getBookingId(), payment.getAmount().doubleValue());
                 } else if (payment.getPaymentType() == PaymentType.REMAINING_PAYMENT) {
-                    title = "Thanh toán phần còn lại thành công";
-                    message = String.format("Đơn hàng #%d đã được thanh toán phần còn lại thành công %.0f VND.",
+                    title = "Nhận được thanh toán phần còn lại";
+                    message = String.format("Đơn hàng #%d đã nhận được thanh toán phần còn lại %.0f VND.",
                             booking.getBookingId(), payment.getAmount().doubleValue());
                 } else {
-                    title = "Thanh toán thành công";
-                    message = String.format("Đơn hàng #%d đã được thanh toán thành công %.0f VND.",
+                    title = "Nhận được thanh toán";
+                    message = String.format("Đơn hàng #%d đã nhận được thanh toán %.0f VND.",
                             booking.getBookingId(), payment.getAmount().doubleValue());
                 }
 
-                notificationService.createNotification(
-                        customerUser.getUserId(),
+                outboxService.enqueueNotification(
+                        booking.getTransportId(),
                         Notification.NotificationType.PAYMENT_REMINDER,
                         title,
                         message,
                         Notification.ReferenceType.PAYMENT,
                         payment.getPaymentId(),
-                        Notification.Priority.HIGH
+                        Notification.Priority.MEDIUM
                 );
             }
 
-            // Notify transport if assigned
-            if (booking.getTransportId() != null) {
-                transportRepository.findById(booking.getTransportId()).ifPresent(transport -> {
-                    if (transport.getUser() != null) {
-                        String title;
-                        String message;
-
-                        if (payment.getPaymentType() == PaymentType.DEPOSIT) {
-                            title = "Nhận được tiền đặt cọc";
-                            message = String.format("Đơn hàng #%d đã nhận được tiền đặt cọc %.0f VND.",
-                                    booking.getBookingId(), payment.getAmount().doubleValue());
-                        } else if (payment.getPaymentType() == PaymentType.REMAINING_PAYMENT) {
-                            title = "Nhận được thanh toán phần còn lại";
-                            message = String.format("Đơn hàng #%d đã nhận được thanh toán phần còn lại %.0f VND.",
-                                    booking.getBookingId(), payment.getAmount().doubleValue());
-                        } else {
-                            title = "Nhận được thanh toán";
-                            message = String.format("Đơn hàng #%d đã nhận được thanh toán %.0f VND.",
-                                    booking.getBookingId(), payment.getAmount().doubleValue());
-                        }
-
-                        notificationService.createNotification(
-                                transport.getUser().getUserId(),
-                                Notification.NotificationType.PAYMENT_REMINDER,
-                                title,
-                                message,
-                                Notification.ReferenceType.PAYMENT,
-                                payment.getPaymentId(),
-                                Notification.Priority.MEDIUM
-                        );
-                    }
-                });
-            }
-
-            // Send SSE event for real-time updates
-            customerEventService.sendPaymentUpdate(
+            // Queue SSE event for real-time updates
+            outboxService.enqueueCustomerEvent(CustomerEventService.BookingEvent.paymentUpdated(
                     booking.getBookingId(),
                     payment.getPaymentId(),
                     payment.getPaymentType().name(),
                     payment.getAmount().longValue(),
                     payment.getStatus().name()
-            );
+            ));
 
-            log.debug("Sent SSE payment update event for booking {}, payment {}",
+            log.debug("Queued SSE payment update event for booking {}, payment {}",
                     booking.getBookingId(), payment.getPaymentId());
 
         } catch (Exception e) {
@@ -475,6 +457,7 @@ public class PaymentService {
         }
         booking.setStatus(newStatus);
         bookingRepository.save(booking);
+        outboxService.enqueueStatsRollupBooking(booking.getBookingId());
     }
 
     public List<PaymentResponseDTO> getPaymentHistory(Long bookingId, Long userId, UserRole userRole) {
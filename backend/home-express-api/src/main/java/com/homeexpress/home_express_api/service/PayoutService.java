@@ -2,6 +2,7 @@ package com.homeexpress.home_express_api.service;
 
 import com.homeexpress.home_express_api.dto.payout.PayoutDTO;
 import com.homeexpress.home_express_api.dto.payout.PayoutItemDTO;
+import com.homeexpress.home_express_api.dto.response.CursorPageResponse;
 import com.homeexpress.home_express_api.entity.BookingSettlement;
 import com.homeexpress.home_express_api.entity.PayoutStatus;
 import com.homeexpress.home_express_api.entity.SettlementStatus;
@@ -18,14 +19,26 @@ import com.homeexpress.home_express_api.repository.BookingSettlementRepository;
 import com.homeexpress.home_express_api.repository.TransportPayoutItemRepository;
 import com.homeexpress.home_express_api.repository.TransportPayoutRepository;
 import com.homeexpress.home_express_api.repository.TransportRepository;
+import com.homeexpress.home_express_api.repository.projection.PayoutView;
+import com.homeexpress.home_express_api.util.KeysetCursor;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,6 +51,10 @@ public class PayoutService {
 
     private static final Logger log = LoggerFactory.getLogger(PayoutService.class);
 
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO transport_payout_items (payout_id, settlement_id, booking_id, amount_vnd, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?)";
+
     @Autowired
     private TransportPayoutRepository payoutRepository;
 
@@ -56,6 +73,9 @@ public class PayoutService {
     @Autowired
     private ExternalPayoutGateway externalPayoutGateway;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     /**
      * Creates a payout batch for a specific transport from all READY settlements.
      *
@@ -108,6 +128,7 @@ public class PayoutService {
             item.setSettlementId(settlement.getSettlementId());
             item.setBookingId(settlement.getBookingId());
             item.setAmountVnd(settlement.getNetToTransportVnd());
+            item.setCreatedAt(now);
             payoutItems.add(item);
 
             settlement.setPayoutId(savedPayout.getPayoutId());
@@ -117,7 +138,8 @@ public class PayoutService {
             }
         }
 
-        payoutItemRepository.saveAll(payoutItems);
+        insertPayoutItems(payoutItems);
+        // settlement da duoc quan ly; dirty checking flush cac UPDATE theo batch (hibernate.jdbc.batch_size)
         settlementRepository.saveAll(readySettlements);
 
         PayoutDTO result = PayoutDTO.fromEntity(savedPayout);
@@ -128,6 +150,45 @@ public class PayoutService {
         return result;
     }
 
+    /**
+     * Inserts the payout items as one JDBC batch and copies the generated ids back.
+     * {@code TransportPayoutItem} uses IDENTITY keys, so {@code saveAll} would issue one
+     * INSERT round-trip per item.
+     */
+    private void insertPayoutItems(List<TransportPayoutItem> payoutItems) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_ITEM_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        TransportPayoutItem item = payoutItems.get(i);
+                        ps.setLong(1, item.getPayoutId());
+                        ps.setLong(2, item.getSettlementId());
+                        ps.setLong(3, item.getBookingId());
+                        ps.setLong(4, item.getAmountVnd());
+                        ps.setTimestamp(5, Timestamp.valueOf(item.getCreatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return payoutItems.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        // Thieu key thi item nao cung co the gan sai id -> rollback ca batch
+        if (keys.size() != payoutItems.size()) {
+            throw new IllegalStateException("Expected " + payoutItems.size()
+                    + " generated payout item keys but got " + keys.size());
+        }
+        for (int i = 0; i < payoutItems.size(); i++) {
+            Object key = keys.get(i).values().iterator().next();
+            payoutItems.get(i).setPayoutItemId(((Number) key).longValue());
+        }
+    }
+
     /**
      * Creates payout batches for all transports that have READY settlements.
      *
@@ -273,12 +334,22 @@ public class PayoutService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One keyset page of payouts, newest first, optionally filtered by status and transport.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
     @Transactional(readOnly = true)
-    public List<PayoutDTO> getAllPayouts() {
-        List<TransportPayout> payouts = payoutRepository.findAll();
-        return payouts.stream()
-                .map(PayoutDTO::fromEntity)
-                .collect(Collectors.toList());
+    public CursorPageResponse<PayoutDTO> getPayouts(PayoutStatus status, Long transportId, String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = CursorPageResponse.clampLimit(limit);
+        List<PayoutView> window = payoutRepository.findViewsPage(status, transportId,
+                after != null ? after.timestamp() : null,
+                after != null ? after.id() : null,
+                PageRequest.of(0, pageSize + 1));
+        return CursorPageResponse.of(window, pageSize,
+                view -> new KeysetCursor(view.getCreatedAt(), view.getPayoutId()),
+                PayoutDTO::fromView);
     }
 
     @Transactional(readOnly = true)
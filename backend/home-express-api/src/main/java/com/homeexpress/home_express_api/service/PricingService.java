@@ -54,17 +54,72 @@ public class PricingService {
         List<BookingItem> items = bookingItemRepository.findByBookingId(bookingId);
         validateBookingReadyForPricing(booking, items);
 
-        Long primaryCategoryId = resolvePrimaryCategoryId(items);
+        return price(booking, items, loadTransportPricing(transportId));
+    }
+
+    /**
+     * Suggested prices of one transport for a page of bookings whose items are already loaded.
+     * The transport's rate cards, vehicle and category pricing are read once for the whole batch.
+     * Bookings that cannot be priced (not ready, no pricing configured) are left out of the result.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, SuggestedPriceResponse> calculateSuggestedPrices(List<Booking> bookings,
+                                                                      Map<Long, List<BookingItem>> itemsByBooking,
+                                                                      Long transportId) {
+        Map<Long, SuggestedPriceResponse> prices = new HashMap<>();
+        if (bookings.isEmpty()) {
+            return prices;
+        }
+
+        TransportPricing pricing;
+        try {
+            pricing = loadTransportPricing(transportId);
+        } catch (IllegalStateException e) {
+            log.debug("No suggested prices for transport {}: {}", transportId, e.getMessage());
+            return prices;
+        }
+
+        for (Booking booking : bookings) {
+            List<BookingItem> items = itemsByBooking.getOrDefault(booking.getBookingId(), List.of());
+            try {
+                validateBookingReadyForPricing(booking, items);
+                prices.put(booking.getBookingId(), price(booking, items, pricing));
+            } catch (RuntimeException e) {
+                log.debug("Failed to calculate suggested price for booking {} and transport {}: {}",
+                        booking.getBookingId(), transportId, e.getMessage());
+            }
+        }
+        return prices;
+    }
 
+    private TransportPricing loadTransportPricing(Long transportId) {
         List<RateCardResponse> rateCards = rateCardService.getRateCardsForTransport(transportId);
         if (rateCards == null || rateCards.isEmpty()) {
             throw new IllegalStateException("No rate cards configured for this transport. Cannot calculate suggested price.");
         }
 
-        LocalDateTime now = LocalDateTime.now();
         // Calculate transport price using VehiclePricing (preferred) or fallback to RateCard
         // Default to VAN if no specific type requested
         List<com.homeexpress.home_express_api.entity.VehiclePricing> vehiclePricings = vehiclePricingRepository.findActiveByTransportAndVehicleType(transportId, com.homeexpress.home_express_api.entity.VehicleType.van);
+
+        List<com.homeexpress.home_express_api.entity.CategoryPricing> categoryPricings = categoryPricingRepository.findByTransport_TransportId(transportId);
+        Map<Long, com.homeexpress.home_express_api.entity.CategoryPricing> pricingMap = categoryPricings.stream()
+                .filter(cp -> Boolean.TRUE.equals(cp.getIsActive()))
+                .collect(Collectors.toMap(cp -> cp.getCategory().getCategoryId(), cp -> cp, (p1, p2) -> p1));
+
+        return new TransportPricing(transportId, rateCards, vehiclePricings, pricingMap);
+    }
+
+    private SuggestedPriceResponse price(Booking booking, List<BookingItem> items, TransportPricing pricing) {
+        Long bookingId = booking.getBookingId();
+        Long transportId = pricing.transportId();
+        List<RateCardResponse> rateCards = pricing.rateCards();
+        List<com.homeexpress.home_express_api.entity.VehiclePricing> vehiclePricings = pricing.vehiclePricings();
+        Map<Long, com.homeexpress.home_express_api.entity.CategoryPricing> pricingMap = pricing.categoryPricings();
+
+        Long primaryCategoryId = resolvePrimaryCategoryId(items);
+
+        LocalDateTime now = LocalDateTime.now();
         
         BigDecimal transportPrice = BigDecimal.ZERO;
         Long selectedVehiclePricingId = null;
@@ -181,11 +236,6 @@ public class PricingService {
         // Calculate items price using CategoryPricing
         BigDecimal totalItemsPrice = BigDecimal.ZERO;
         Map<String, BigDecimal> appliedMultipliers = new HashMap<>();
-        
-        List<com.homeexpress.home_express_api.entity.CategoryPricing> categoryPricings = categoryPricingRepository.findByTransport_TransportId(transportId);
-        Map<Long, com.homeexpress.home_express_api.entity.CategoryPricing> pricingMap = categoryPricings.stream()
-                .filter(cp -> Boolean.TRUE.equals(cp.getIsActive()))
-                .collect(Collectors.toMap(cp -> cp.getCategory().getCategoryId(), cp -> cp, (p1, p2) -> p1));
 
         if (items != null) {
             for (BookingItem item : items) {
@@ -276,6 +326,14 @@ public class PricingService {
         return value != null ? value : BigDecimal.ZERO;
     }
 
+    // Cau hinh gia cua 1 transport, doc 1 lan cho ca batch
+    private record TransportPricing(
+            Long transportId,
+            List<RateCardResponse> rateCards,
+            List<com.homeexpress.home_express_api.entity.VehiclePricing> vehiclePricings,
+            Map<Long, com.homeexpress.home_express_api.entity.CategoryPricing> categoryPricings) {
+    }
+
     private int estimateDurationMinutes(double distanceKm, int itemCount) {
         int travel = (int) Math.round(Math.max(distanceKm, 1.0) / 28.0 * 60.0);
         int handling = itemCount * 10;
@@ -0,0 +1,255 @@
+package com.homeexpress.home_express_api.service;
+
+import com.homeexpress.home_express_api.dto.response.QuotationDetailResponse;
+import com.homeexpress.home_express_api.dto.response.QuotationResponse;
+import com.homeexpress.home_express_api.dto.response.TransportQuotationSummaryResponse;
+import com.homeexpress.home_express_api.entity.Booking;
+import com.homeexpress.home_express_api.entity.Quotation;
+import com.homeexpress.home_express_api.entity.QuotationStatus;
+import com.homeexpress.home_express_api.entity.Transport;
+import com.homeexpress.home_express_api.entity.Vehicle;
+import com.homeexpress.home_express_api.repository.BookingRepository;
+import com.homeexpress.home_express_api.repository.QuotationRepository;
+import com.homeexpress.home_express_api.repository.TransportRepository;
+import com.homeexpress.home_express_api.repository.VehicleRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds quotation DTOs for a whole list at once. The vehicles, transports and bookings
+ * referenced by the list are loaded with one {@code findAllById} each and looked up from maps,
+ * so the number of queries does not grow with the page size.
+ */
+@Component
+public class QuotationAssembler {
+
+    private final QuotationRepository quotationRepository;
+    private final BookingRepository bookingRepository;
+    private final TransportRepository transportRepository;
+    private final VehicleRepository vehicleRepository;
+
+    public QuotationAssembler(QuotationRepository quotationRepository,
+                              BookingRepository bookingRepository,
+                              TransportRepository transportRepository,
+                              VehicleRepository vehicleRepository) {
+        this.quotationRepository = quotationRepository;
+        this.bookingRepository = bookingRepository;
+        this.transportRepository = transportRepository;
+        this.vehicleRepository = vehicleRepository;
+    }
+
+    public List<QuotationResponse> toResponses(List<Quotation> quotations) {
+        Map<Long, Vehicle> vehicles = loadById(vehicleRepository::findAllById,
+                ids(quotations, Quotation::getVehicleId), Vehicle::getVehicleId);
+        return quotations.stream()
+                .map(quotation -> toResponse(quotation, quotation.getVehicleId() != null
+                        ? vehicles.get(quotation.getVehicleId())
+                        : null))
+                .collect(Collectors.toList());
+    }
+
+    public List<QuotationDetailResponse> toDetailResponses(List<Quotation> quotations) {
+        Map<Long, Transport> transports = loadById(transportRepository::findAllById,
+                ids(quotations, Quotation::getTransportId), Transport::getTransportId);
+        return quotations.stream()
+                .map(quotation -> toDetailResponse(quotation, transports.get(quotation.getTransportId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Summaries for a transport's own quotations, with the competing quotes on each booking.
+     */
+    public List<TransportQuotationSummaryResponse> toTransportSummaries(List<Quotation> quotations) {
+        Set<Long> bookingIds = ids(quotations, Quotation::getBookingId);
+        Map<Long, Booking> bookings = loadById(bookingRepository::findAllById, bookingIds, Booking::getBookingId);
+        Map<Long, List<Quotation>> quotationsByBooking = bookingIds.isEmpty()
+                ? Map.of()
+                : quotationRepository.findByBookingIdIn(bookingIds).stream()
+                        .collect(Collectors.groupingBy(Quotation::getBookingId));
+
+        List<TransportQuotationSummaryResponse> summaries = new ArrayList<>(quotations.size());
+        for (Quotation quotation : quotations) {
+            summaries.add(toTransportSummary(quotation, bookings.get(quotation.getBookingId()),
+                    quotationsByBooking.getOrDefault(quotation.getBookingId(), List.of())));
+        }
+        return summaries;
+    }
+
+    static QuotationResponse toResponse(Quotation quotation, Vehicle vehicle) {
+        QuotationResponse response = new QuotationResponse();
+        response.setQuotationId(quotation.getQuotationId());
+        response.setBookingId(quotation.getBookingId());
+        response.setTransportId(quotation.getTransportId());
+
+        // Populate vehicle info
+        response.setVehicleId(quotation.getVehicleId());
+        if (vehicle != null) {
+            response.setVehicleModel(vehicle.getModel());
+            response.setVehicleLicensePlate(vehicle.getLicensePlate());
+            response.setVehicleCapacityKg(vehicle.getCapacityKg());
+            response.setVehicleCapacityM3(vehicle.getCapacityM3());
+        }
+
+        response.setQuotedPrice(quotation.getQuotedPrice());
+        response.setBasePrice(quotation.getBasePrice());
+        response.setDistancePrice(quotation.getDistancePrice());
+        response.setItemsPrice(quotation.getItemsPrice());
+        response.setAdditionalFees(quotation.getAdditionalFees());
+        response.setDiscount(quotation.getDiscount());
+        response.setPriceBreakdown(quotation.getPriceBreakdown());
+        response.setNotes(quotation.getNotes());
+        response.setValidityPeriod(quotation.getValidityPeriod());
+        response.setExpiresAt(quotation.getExpiresAt());
+        response.setStatus(quotation.getStatus());
+        response.setRespondedAt(quotation.getRespondedAt());
+        response.setAcceptedBy(quotation.getAcceptedBy());
+        response.setAcceptedAt(quotation.getAcceptedAt());
+        response.setCreatedAt(quotation.getCreatedAt());
+        return response;
+    }
+
+    private QuotationDetailResponse toDetailResponse(Quotation quotation, Transport transport) {
+        QuotationDetailResponse response = new QuotationDetailResponse();
+        response.setQuotationId(quotation.getQuotationId());
+        response.setBookingId(quotation.getBookingId());
+        response.setTransportId(quotation.getTransportId());
+
+        // Pricing breakdown
+        response.setBasePrice(quotation.getBasePrice());
+        response.setDistancePrice(quotation.getDistancePrice());
+        response.setItemHandlingPrice(quotation.getItemsPrice());
+        response.setAdditionalServicesPrice(quotation.getAdditionalFees());
+        response.setTotalPrice(quotation.getQuotedPrice());
+
+        // Parse services from price breakdown JSON (if available)
+        parseServicesFromPriceBreakdown(response, quotation.getPriceBreakdown());
+
+        // Transport information
+        if (transport != null) {
+            response.setTransporterName(transport.getCompanyName());
+            // Note: avatar URL not stored in transport table
+            response.setTransporterAvatar(null);
+            response.setTransporterRating(transport.getAverageRating() != null ? transport.getAverageRating().doubleValue() : 0.0);
+            response.setTransporterCompletedJobs(transport.getCompletedBookings());
+        }
+
+        // Status and timing
+        response.setStatus(quotation.getStatus().name());
+        response.setIsSelected(quotation.getStatus() == QuotationStatus.ACCEPTED);
+        response.setExpiresAt(quotation.getExpiresAt());
+        response.setCreatedAt(quotation.getCreatedAt());
+        response.setUpdatedAt(quotation.getCreatedAt()); // No updated_at field
+        response.setAcceptedAt(quotation.getAcceptedAt());
+        if (quotation.getStatus() == QuotationStatus.REJECTED) {
+            response.setRejectedAt(quotation.getRespondedAt());
+        }
+
+        response.setNotes(quotation.getNotes());
+        response.setMetadata(quotation.getPriceBreakdown());
+
+        return response;
+    }
+
+    private TransportQuotationSummaryResponse toTransportSummary(Quotation quotation, Booking booking,
+                                                                 List<Quotation> bookingQuotations) {
+        TransportQuotationSummaryResponse dto = new TransportQuotationSummaryResponse();
+        dto.setQuotationId(quotation.getQuotationId());
+        dto.setBookingId(quotation.getBookingId());
+        dto.setMyQuotePrice(defaultZero(quotation.getQuotedPrice()).doubleValue());
+        dto.setStatus(quotation.getStatus().name());
+        dto.setExpiresAt(quotation.getExpiresAt());
+        dto.setSubmittedAt(quotation.getCreatedAt());
+
+        if (booking != null) {
+            dto.setPickupLocation(booking.getPickupAddress());
+            dto.setDeliveryLocation(booking.getDeliveryAddress());
+            dto.setPreferredDate(booking.getPreferredDate().toString());
+        }
+
+        // Calculate competitor information
+        dto.setCompetitorQuotesCount(bookingQuotations.size() - 1); // Exclude this quotation
+
+        // Calculate lowest competitor price and ranking
+        BigDecimal lowestCompetitor = bookingQuotations.stream()
+                .filter(q -> !q.getQuotationId().equals(quotation.getQuotationId()))
+                .map(q -> defaultZero(q.getQuotedPrice()))
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+
+        if (lowestCompetitor != null) {
+            dto.setLowestCompetitorPrice(lowestCompetitor.doubleValue());
+
+            // Rank (1-based, lower price = better rank)
+            BigDecimal myPrice = defaultZero(quotation.getQuotedPrice());
+            long cheaper = bookingQuotations.stream()
+                    .filter(q -> defaultZero(q.getQuotedPrice()).compareTo(myPrice) < 0)
+                    .count();
+            dto.setMyRank((int) cheaper + 1);
+        } else {
+            dto.setLowestCompetitorPrice(null);
+            dto.setMyRank(1);
+        }
+        return dto;
+    }
+
+    private void parseServicesFromPriceBreakdown(QuotationDetailResponse response, String priceBreakdown) {
+        if (priceBreakdown == null || priceBreakdown.trim().isEmpty()) {
+            return;
+        }
+
+        try {
+            // Simple JSON parsing for the services
+            if (priceBreakdown.contains("\"includesPackaging\":")) {
+                response.setIncludesPackaging(priceBreakdown.contains("\"includesPackaging\":true"));
+            }
+            if (priceBreakdown.contains("\"includesDisassembly\":")) {
+                response.setIncludesDisassembly(priceBreakdown.contains("\"includesDisassembly\":true"));
+            }
+            if (priceBreakdown.contains("\"includesInsurance\":")) {
+                response.setIncludesInsurance(priceBreakdown.contains("\"includesInsurance\":true"));
+            }
+            if (priceBreakdown.contains("\"estimatedDurationHours\":")) {
+                // Extract estimated duration - simplified parsing
+                int start = priceBreakdown.indexOf("\"estimatedDurationHours\":") + 25;
+                int end = priceBreakdown.indexOf(",", start);
+                if (end == -1) end = priceBreakdown.indexOf("}", start);
+                if (start > 25 && end > start) {
+                    String durationStr = priceBreakdown.substring(start, end);
+                    try {
+                        response.setEstimatedDurationHours(new BigDecimal(durationStr.trim()));
+                    } catch (NumberFormatException e) {
+                        // Ignore parsing errors
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // If parsing fails, leave defaults
+        }
+    }
+
+    private static Set<Long> ids(List<Quotation> quotations, Function<Quotation, Long> id) {
+        return quotations.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static <T> Map<Long, T> loadById(Function<Collection<Long>, List<T>> loader, Set<Long> ids,
+                                             Function<T, Long> idOf) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return loader.apply(ids).stream().collect(Collectors.toMap(idOf, entity -> entity, (a, b) -> a));
+    }
+
+    private static BigDecimal defaultZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -7,6 +7,7 @@ import java.util.EnumSet;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,20 +28,20 @@ import com.homeexpress.home_express_api.entity.Customer;
 import com.homeexpress.home_express_api.entity.Quotation;
 import com.homeexpress.home_express_api.entity.QuotationStatus;
 import com.homeexpress.home_express_api.entity.Transport;
+import com.homeexpress.home_express_api.entity.Vehicle;
 import com.homeexpress.home_express_api.repository.BookingItemRepository;
 import com.homeexpress.home_express_api.repository.BookingRepository;
 import com.homeexpress.home_express_api.repository.ContractRepository;
 import com.homeexpress.home_express_api.repository.CustomerRepository;
 import com.homeexpress.home_express_api.repository.QuotationRepository;
 import com.homeexpress.home_express_api.repository.TransportRepository;
-import com.homeexpress.home_express_api.repository.UserRepository;
 import com.homeexpress.home_express_api.repository.VehicleRepository;
 import com.homeexpress.home_express_api.constants.BookingConstants;
 import com.homeexpress.home_express_api.entity.Notification;
-import com.homeexpress.home_express_api.entity.User;
 import com.homeexpress.home_express_api.exception.QuotationNotFoundException;
 import com.homeexpress.home_express_api.exception.InvalidQuotationStatusException;
 import com.homeexpress.home_express_api.exception.ResourceNotFoundException;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
@@ -56,13 +57,12 @@ public class QuotationService {
     private final CustomerRepository customerRepository;
     private final TransportRepository transportRepository;
     private final VehicleRepository vehicleRepository;
-    private final NotificationService notificationService;
-    private final UserRepository userRepository;
+    private final OutboxService outboxService;
     private final BookingItemRepository bookingItemRepository;
-    private final CustomerEventService customerEventService;
     private final RateCardService rateCardService;
     private final PricingService pricingService;
     private final ObjectMapper objectMapper;
+    private final QuotationAssembler quotationAssembler;
 
     public QuotationService(QuotationRepository quotationRepository,
             BookingRepository bookingRepository,
@@ -70,26 +70,24 @@ public class QuotationService {
             CustomerRepository customerRepository,
             TransportRepository transportRepository,
             VehicleRepository vehicleRepository,
-            NotificationService notificationService,
-            UserRepository userRepository,
+            OutboxService outboxService,
             BookingItemRepository bookingItemRepository,
-            CustomerEventService customerEventService,
             RateCardService rateCardService,
             PricingService pricingService,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            QuotationAssembler quotationAssembler) {
         this.quotationRepository = quotationRepository;
         this.bookingRepository = bookingRepository;
         this.contractRepository = contractRepository;
         this.customerRepository = customerRepository;
         this.transportRepository = transportRepository;
         this.vehicleRepository = vehicleRepository;
-        this.notificationService = notificationService;
-        this.userRepository = userRepository;
+        this.outboxService = outboxService;
         this.bookingItemRepository = bookingItemRepository;
-        this.customerEventService = customerEventService;
         this.rateCardService = rateCardService;
         this.pricingService = pricingService;
         this.objectMapper = objectMapper;
+        this.quotationAssembler = quotationAssembler;
     }
 
     @Transactional
@@ -192,20 +190,23 @@ public class QuotationService {
         // Send notification to customer about new quotation
         sendNewQuotationNotification(saved, booking);
 
-        // Send SSE event for real-time updates
+        // Queue SSE event for real-time updates
         Transport transport = transportRepository.findById(transportId).orElse(null);
         if (transport != null) {
-            customerEventService.sendNewQuotation(
+            outboxService.enqueueCustomerEvent(CustomerEventService.BookingEvent.quotationReceived(
                     booking.getBookingId(),
                     saved.getQuotationId(),
                     transportId,
                     transport.getCompanyName(),
                     saved.getQuotedPrice().longValue()
-            );
+            ));
 
-            log.debug("Sent SSE new quotation event for booking {}, quotation {}",
+            log.debug("Queued SSE new quotation event for booking {}, quotation {}",
                     booking.getBookingId(), saved.getQuotationId());
         }
+        // Booking co the chuyen sang QUOTED
+        outboxService.enqueueJobBoardRefresh(booking.getBookingId());
+        outboxService.enqueueStatsRollupBooking(booking.getBookingId());
 
         return mapToResponse(saved);
     }
@@ -260,13 +261,15 @@ public class QuotationService {
     @Transactional(readOnly = true)
     public Page<QuotationDetailResponse> getDetailedQuotations(Long bookingId, Long transportId, QuotationStatus status, Pageable pageable) {
         Page<Quotation> quotations = getQuotationsPage(bookingId, transportId, status, pageable);
-        return quotations.map(this::mapToDetailResponse);
+        return new PageImpl<>(quotationAssembler.toDetailResponses(quotations.getContent()),
+                quotations.getPageable(), quotations.getTotalElements());
     }
 
     @Transactional(readOnly = true)
     public Page<QuotationResponse> getQuotations(Long bookingId, Long transportId, QuotationStatus status, Pageable pageable) {
-    Page<Quotation> quotations = getQuotationsPage(bookingId, transportId, status, pageable);
-        return quotations.map(this::mapToResponse);
+        Page<Quotation> quotations = getQuotationsPage(bookingId, transportId, status, pageable);
+        return new PageImpl<>(quotationAssembler.toResponses(quotations.getContent()),
+                quotations.getPageable(), quotations.getTotalElements());
     }
 
     private Page<Quotation> getQuotationsPage(Long bookingId, Long transportId, QuotationStatus status, Pageable pageable) {
@@ -325,6 +328,7 @@ public class QuotationService {
 
     @Transactional
     public AcceptQuotationResponse acceptQuotation(Long quotationId, Long customerId, String ipAddress) {
+        Long previousTransportId = bookingRepository.findTransportIdByQuotationId(quotationId).orElse(null);
         quotationRepository.acceptQuotation(quotationId, customerId, ipAddress);
 
         Quotation quotation = quotationRepository.findById(quotationId)
@@ -382,18 +386,24 @@ public class QuotationService {
         // Send notifications
         sendQuotationAcceptedNotifications(quotation, booking, customer, transport);
 
-        // Send SSE event for transport assignment (quotation acceptance assigns transport)
+        // Queue SSE event for transport assignment (quotation acceptance assigns transport).
+        // Notifications and SSE events are outbox rows committed with the acceptance.
         if (transport != null) {
-            customerEventService.sendTransportAssignment(
+            outboxService.enqueueCustomerEvent(CustomerEventService.BookingEvent.transportAssigned(
                     booking.getBookingId(),
                     transport.getTransportId(),
                     transport.getCompanyName(),
                     transport.getPhone()
-            );
+            ));
 
-            log.debug("Sent SSE transport assignment event for booking {}, transport {}",
+            log.debug("Queued SSE transport assignment event for booking {}, transport {}",
                     booking.getBookingId(), transport.getTransportId());
         }
+        // Booking da co transport: roi khoi moi job board feed
+        outboxService.enqueueJobBoardRefresh(booking.getBookingId());
+        // Booking chon san transport khac: rollup cua transport cu phai bo booking nay
+        boolean transportChanged = previousTransportId != null && !previousTransportId.equals(booking.getTransportId());
+        outboxService.enqueueStatsRollupBooking(booking.getBookingId(), transportChanged ? previousTransportId : null);
 
         return response;
     }
@@ -406,24 +416,21 @@ public class QuotationService {
         try {
             // Notify customer
             if (customer != null) {
-                User customerUser = userRepository.findById(customer.getCustomerId()).orElse(null);
-                if (customerUser != null) {
-                    notificationService.createNotification(
-                            customerUser.getUserId(),
-                            Notification.NotificationType.BOOKING_UPDATE,
-                            "Quotation Accepted",
-                            String.format("Your booking #%d quotation has been accepted. Contract is ready for signing.", 
-                                    booking.getBookingId()),
-                            Notification.ReferenceType.BOOKING,
-                            booking.getBookingId(),
-                            Notification.Priority.HIGH
-                    );
-                }
+                outboxService.enqueueNotification(
+                        customer.getCustomerId(),
+                        Notification.NotificationType.BOOKING_UPDATE,
+                        "Quotation Accepted",
+                        String.format("Your booking #%d quotation has been accepted. Contract is ready for signing.", 
+                                booking.getBookingId()),
+                        Notification.ReferenceType.BOOKING,
+                        booking.getBookingId(),
+                        Notification.Priority.HIGH
+                );
             }
 
             // Notify transport
             if (transport != null && transport.getUser() != null) {
-                notificationService.createNotification(
+                outboxService.enqueueNotification(
                         transport.getUser().getUserId(),
                         Notification.NotificationType.BOOKING_UPDATE,
                         "Quotation Accepted by Customer",
@@ -446,19 +453,16 @@ public class QuotationService {
      */
     private void sendNewQuotationNotification(Quotation quotation, Booking booking) {
         try {
-            User customerUser = userRepository.findById(booking.getCustomerId()).orElse(null);
-            if (customerUser != null) {
-                notificationService.createNotification(
-                    customerUser.getUserId(),
-                    Notification.NotificationType.QUOTATION_RECEIVED,
-                    "New Quotation Received",
-                    String.format("You have received a new quotation for booking #%d. Amount: %,.0f VND",
-                        booking.getBookingId(), quotation.getQuotedPrice()),
-                    Notification.ReferenceType.QUOTATION,
-                    quotation.getQuotationId(),
-                    Notification.Priority.MEDIUM
-                );
-            }
+            outboxService.enqueueNotification(
+                booking.getCustomerId(),
+                Notification.NotificationType.QUOTATION_RECEIVED,
+                "New Quotation Received",
+                String.format("You have received a new quotation for booking #%d. Amount: %,.0f VND",
+                    booking.getBookingId(), quotation.getQuotedPrice()),
+                Notification.ReferenceType.QUOTATION,
+                quotation.getQuotationId(),
+                Notification.Priority.MEDIUM
+            );
         } catch (Exception e) {
             log.error("Failed to send quotation received notification for quotation {}: {}",
                 quotation.getQuotationId(), e.getMessage(), e);
@@ -487,21 +491,17 @@ public class QuotationService {
      */
     private void sendQuotationRejectedNotification(Quotation quotation) {
         try {
-            Transport transport = transportRepository.findById(quotation.getTransportId())
-                .orElse(null);
-            
-            if (transport != null && transport.getUser() != null) {
-                notificationService.createNotification(
-                    transport.getUser().getUserId(),
-                    Notification.NotificationType.QUOTATION_RECEIVED,
-                    "Quotation Rejected",
-                    String.format("Your quotation #%d for booking #%d has been rejected by the customer.", 
-                        quotation.getQuotationId(), quotation.getBookingId()),
-                    Notification.ReferenceType.QUOTATION,
-                    quotation.getQuotationId(),
-                    Notification.Priority.LOW
-                );
-            }
+            // transport_id is the transport user's id
+            outboxService.enqueueNotification(
+                quotation.getTransportId(),
+                Notification.NotificationType.QUOTATION_RECEIVED,
+                "Quotation Rejected",
+                String.format("Your quotation #%d for booking #%d has been rejected by the customer.", 
+                    quotation.getQuotationId(), quotation.getBookingId()),
+                Notification.ReferenceType.QUOTATION,
+                quotation.getQuotationId(),
+                Notification.Priority.LOW
+            );
         } catch (Exception e) {
             log.error("Failed to send quotation rejected notification for quotation {}: {}", 
                 quotation.getQuotationId(), e.getMessage(), e);
@@ -613,115 +613,9 @@ public class QuotationService {
     }
 
     private QuotationResponse mapToResponse(Quotation quotation) {
-        QuotationResponse response = new QuotationResponse();
-        response.setQuotationId(quotation.getQuotationId());
-        response.setBookingId(quotation.getBookingId());
-        response.setTransportId(quotation.getTransportId());
-        
-        // Populate vehicle info
-        response.setVehicleId(quotation.getVehicleId());
-        if (quotation.getVehicleId() != null) {
-            vehicleRepository.findById(quotation.getVehicleId()).ifPresent(vehicle -> {
-                response.setVehicleModel(vehicle.getModel());
-                response.setVehicleLicensePlate(vehicle.getLicensePlate());
-                response.setVehicleCapacityKg(vehicle.getCapacityKg());
-                response.setVehicleCapacityM3(vehicle.getCapacityM3());
-            });
-        }
-        
-        response.setQuotedPrice(quotation.getQuotedPrice());
-        response.setBasePrice(quotation.getBasePrice());
-        response.setDistancePrice(quotation.getDistancePrice());
-        response.setItemsPrice(quotation.getItemsPrice());
-        response.setAdditionalFees(quotation.getAdditionalFees());
-        response.setDiscount(quotation.getDiscount());
-        response.setPriceBreakdown(quotation.getPriceBreakdown());
-        response.setNotes(quotation.getNotes());
-        response.setValidityPeriod(quotation.getValidityPeriod());
-        response.setExpiresAt(quotation.getExpiresAt());
-        response.setStatus(quotation.getStatus());
-        response.setRespondedAt(quotation.getRespondedAt());
-        response.setAcceptedBy(quotation.getAcceptedBy());
-        response.setAcceptedAt(quotation.getAcceptedAt());
-        response.setCreatedAt(quotation.getCreatedAt());
-        return response;
-    }
-
-    private QuotationDetailResponse mapToDetailResponse(Quotation quotation) {
-        QuotationDetailResponse response = new QuotationDetailResponse();
-        response.setQuotationId(quotation.getQuotationId());
-        response.setBookingId(quotation.getBookingId());
-        response.setTransportId(quotation.getTransportId());
-
-        // Pricing breakdown
-        response.setBasePrice(quotation.getBasePrice());
-        response.setDistancePrice(quotation.getDistancePrice());
-        response.setItemHandlingPrice(quotation.getItemsPrice());
-        response.setAdditionalServicesPrice(quotation.getAdditionalFees());
-        response.setTotalPrice(quotation.getQuotedPrice());
-
-        // Parse services from price breakdown JSON (if available)
-        parseServicesFromPriceBreakdown(response, quotation.getPriceBreakdown());
-
-        // Load transport information
-        Transport transport = transportRepository.findById(quotation.getTransportId()).orElse(null);
-        if (transport != null) {
-            response.setTransporterName(transport.getCompanyName());
-            // Note: avatar URL not stored in transport table
-            response.setTransporterAvatar(null);
-            response.setTransporterRating(transport.getAverageRating() != null ? transport.getAverageRating().doubleValue() : 0.0);
-            response.setTransporterCompletedJobs(transport.getCompletedBookings());
-        }
-
-        // Status and timing
-        response.setStatus(quotation.getStatus().name());
-        response.setIsSelected(quotation.getStatus() == QuotationStatus.ACCEPTED);
-        response.setExpiresAt(quotation.getExpiresAt());
-        response.setCreatedAt(quotation.getCreatedAt());
-        response.setUpdatedAt(quotation.getCreatedAt()); // No updated_at field
-        response.setAcceptedAt(quotation.getAcceptedAt());
-        if (quotation.getStatus() == QuotationStatus.REJECTED) {
-            response.setRejectedAt(quotation.getRespondedAt());
-        }
-
-        response.setNotes(quotation.getNotes());
-        response.setMetadata(quotation.getPriceBreakdown());
-
-        return response;
-    }
-
-    private void parseServicesFromPriceBreakdown(QuotationDetailResponse response, String priceBreakdown) {
-        if (priceBreakdown == null || priceBreakdown.trim().isEmpty()) {
-            return;
-        }
-
-        try {
-            // Simple JSON parsing for the services
-            if (priceBreakdown.contains("\"includesPackaging\":")) {
-                response.setIncludesPackaging(priceBreakdown.contains("\"includesPackaging\":true"));
-            }
-            if (priceBreakdown.contains("\"includesDisassembly\":")) {
-                response.setIncludesDisassembly(priceBreakdown.contains("\"includesDisassembly\":true"));
-            }
-            if (priceBreakdown.contains("\"includesInsurance\":")) {
-                response.setIncludesInsurance(priceBreakdown.contains("\"includesInsurance\":true"));
-            }
-            if (priceBreakdown.contains("\"estimatedDurationHours\":")) {
-                // Extract estimated duration - simplified parsing
-                int start = priceBreakdown.indexOf("\"estimatedDurationHours\":") + 25;
-                int end = priceBreakdown.indexOf(",", start);
-                if (end == -1) end = priceBreakdown.indexOf("}", start);
-                if (start > 25 && end > start) {
-                    String durationStr = priceBreakdown.substring(start, end);
-                    try {
-                        response.setEstimatedDurationHours(new BigDecimal(durationStr.trim()));
-                    } catch (NumberFormatException e) {
-                        // Ignore parsing errors
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // If parsing fails, leave defaults
-        }
+        Vehicle vehicle = quotation.getVehicleId() != null
+                ? vehicleRepository.findById(quotation.getVehicleId()).orElse(null)
+                : null;
+        return QuotationAssembler.toResponse(quotation, vehicle);
     }
 }
@@ -14,6 +14,7 @@ import com.homeexpress.home_express_api.repository.CategoryRepository;
 import com.homeexpress.home_express_api.repository.RateCardRepository;
 import com.homeexpress.home_express_api.repository.RateCardSnapshotRepository;
 import com.homeexpress.home_express_api.repository.TransportRepository;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +33,7 @@ public class RateCardService {
     private final CategoryRepository categoryRepository;
     private final RateCardSnapshotRepository rateCardSnapshotRepository;
     private final NotificationService notificationService;
+    private final OutboxService outboxService;
     private final ObjectMapper objectMapper;
 
     public RateCardService(RateCardRepository rateCardRepository,
@@ -39,12 +41,14 @@ public class RateCardService {
                            CategoryRepository categoryRepository,
                            RateCardSnapshotRepository rateCardSnapshotRepository,
                            NotificationService notificationService,
+                           OutboxService outboxService,
                            ObjectMapper objectMapper) {
         this.rateCardRepository = rateCardRepository;
         this.transportRepository = transportRepository;
         this.categoryRepository = categoryRepository;
         this.rateCardSnapshotRepository = rateCardSnapshotRepository;
         this.notificationService = notificationService;
+        this.outboxService = outboxService;
         this.objectMapper = objectMapper;
     }
 
@@ -185,9 +189,13 @@ public class RateCardService {
                 .min(Comparator.naturalOrder())
                 .orElse(null);
 
+        boolean wasReady = Boolean.TRUE.equals(transport.getReadyToQuote());
         transport.setReadyToQuote(ready);
         transport.setRateCardExpiresAt(nextExpiry);
         transportRepository.save(transport);
+        if (wasReady != ready) {
+            outboxService.enqueueJobBoardRebuild(transportId);
+        }
 
         ReadyToQuoteStatusResponse status = new ReadyToQuoteStatusResponse();
         status.setReadyToQuote(ready);
@@ -0,0 +1,180 @@
+package com.homeexpress.home_express_api.service;
+
+import com.homeexpress.home_express_api.config.SecurityConfigProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token buckets for expensive or paid routes (map lookups, AI analysis, estimation).
+ * <p>
+ * Each route class in {@code security.rate-limit.routes} has one bucket per subject: the
+ * user id when authenticated, otherwise the client IP. With {@code store=redis} buckets are
+ * shared across nodes (one Lua call per request, using the Redis clock); with
+ * {@code store=local}, or while Redis is unreachable, they are kept in process.
+ */
+@Slf4j
+@Service
+public class RateLimitService {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    // KEYS: bucket. ARGV: capacity, tokens per ms. Returns {allowed, remaining, wait ms}.
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>(
+            "local capacity = tonumber(ARGV[1]) local rate = tonumber(ARGV[2]) "
+                    + "local time = redis.call('TIME') "
+                    + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) "
+                    + "local data = redis.call('HMGET', KEYS[1], 't', 'ts') "
+                    + "local tokens = tonumber(data[1]) local ts = tonumber(data[2]) "
+                    + "if tokens == nil or ts == nil then tokens = capacity ts = now end "
+                    + "tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate) "
+                    + "local allowed = 0 local wait = 0 "
+                    + "if tokens >= 1 then tokens = tokens - 1 allowed = 1 "
+                    + "else wait = math.ceil((1 - tokens) / rate) end "
+                    + "redis.call('HSET', KEYS[1], 't', tostring(tokens), 'ts', tostring(now)) "
+                    + "redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate)) "
+                    + "return {allowed, math.floor(tokens), wait}",
+            List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SecurityConfigProperties securityConfig;
+    private final long redisRetryMs;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Map<String, LocalBucket> localBuckets = new ConcurrentHashMap<>();
+
+    private volatile long redisDownUntil;
+
+    public RateLimitService(
+            StringRedisTemplate redisTemplate,
+            SecurityConfigProperties securityConfig,
+            @Value("${security.rate-limit.redis-retry-ms:30000}") long redisRetryMs) {
+        this.redisTemplate = redisTemplate;
+        this.securityConfig = securityConfig;
+        this.redisRetryMs = redisRetryMs;
+    }
+
+    /**
+     * Take one token for the request path.
+     *
+     * @param path    request path without the context path
+     * @param subject "u:{userId}" or "ip:{address}"
+     * @return the decision, or {@code null} if the path is not rate limited
+     */
+    public Decision tryConsume(String path, String subject) {
+        SecurityConfigProperties.RateLimitConfig config = securityConfig.getRateLimit();
+        if (!config.isEnabled()) {
+            return null;
+        }
+        for (Map.Entry<String, SecurityConfigProperties.RouteLimit> route : config.getRoutes().entrySet()) {
+            SecurityConfigProperties.RouteLimit limit = route.getValue();
+            if (limit.getPatterns().stream().anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+                return consume(KEY_PREFIX + route.getKey() + ":" + subject, limit);
+            }
+        }
+        return null;
+    }
+
+    private Decision consume(String key, SecurityConfigProperties.RouteLimit limit) {
+        int capacity = Math.max(1, limit.getCapacity());
+        double ratePerMs = Math.max(1, limit.getRefillPerMinute()) / 60_000.0;
+
+        if ("redis".equalsIgnoreCase(securityConfig.getRateLimit().getStore()) && redisAvailable()) {
+            try {
+                List<?> result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(key),
+                        Integer.toString(capacity), Double.toString(ratePerMs));
+                if (result != null && result.size() == 3) {
+                    return new Decision(
+                            ((Number) result.get(0)).longValue() == 1L,
+                            ((Number) result.get(1)).longValue(),
+                            toSeconds(((Number) result.get(2)).longValue()));
+                }
+            } catch (Exception e) {
+                markRedisDown(e);
+            }
+        }
+        return localBuckets.computeIfAbsent(key, k -> new LocalBucket(capacity))
+                .consume(capacity, ratePerMs, System.currentTimeMillis());
+    }
+
+    /**
+     * Drop local buckets that have refilled completely; they are recreated full on demand.
+     */
+    @Scheduled(fixedDelayString = "${security.rate-limit.cleanup-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        if (localBuckets.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        localBuckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now));
+    }
+
+    private long toSeconds(long waitMs) {
+        return waitMs <= 0 ? 0 : Math.max(1, (waitMs + 999) / 1000);
+    }
+
+    private boolean redisAvailable() {
+        if (redisDownUntil == 0) {
+            return true;
+        }
+        if (System.currentTimeMillis() < redisDownUntil) {
+            return false;
+        }
+        redisDownUntil = 0;
+        log.info("Redis reachable again, rate limits back on Redis");
+        return true;
+    }
+
+    private void markRedisDown(Exception e) {
+        if (redisDownUntil == 0) {
+            log.warn("Redis unavailable for rate limiting, using in-process buckets: {}", e.getMessage());
+        }
+        redisDownUntil = System.currentTimeMillis() + redisRetryMs;
+    }
+
+    /**
+     * @param retryAfterSeconds seconds until a token is available, 0 when allowed
+     */
+    public record Decision(boolean allowed, long remaining, long retryAfterSeconds) {
+    }
+
+    private final class LocalBucket {
+
+        private double tokens;
+        private long updatedAt;
+        private long fullAt;
+
+        private LocalBucket(int capacity) {
+            this.tokens = capacity;
+            this.updatedAt = System.currentTimeMillis();
+        }
+
+        private synchronized Decision consume(int capacity, double ratePerMs, long now) {
+            tokens = Math.min(capacity, tokens + Math.max(0, now - updatedAt) * ratePerMs);
+            updatedAt = now;
+
+            boolean allowed = tokens >= 1;
+            long waitMs = 0;
+            if (allowed) {
+                tokens -= 1;
+            } else {
+                waitMs = (long) Math.ceil((1 - tokens) / ratePerMs);
+            }
+            fullAt = now + (long) Math.ceil((capacity - tokens) / ratePerMs);
+            return new Decision(allowed, (long) Math.floor(tokens), toSeconds(waitMs));
+        }
+
+        private synchronized boolean isIdle(long now) {
+            return now >= fullAt;
+        }
+    }
+}
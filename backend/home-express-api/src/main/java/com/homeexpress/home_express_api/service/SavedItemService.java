@@ -8,9 +8,12 @@ import com.homeexpress.home_express_api.entity.ProductModel;
 import com.homeexpress.home_express_api.service.intake.ProductModelService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,19 +27,23 @@ import java.util.stream.Collectors;
 @Transactional
 public class SavedItemService {
 
+    private static final String INSERT_SQL =
+            "INSERT INTO saved_items (customer_id, name, brand, model, category_id, size, weight_kg, dimensions, "
+                    + "declared_value_vnd, quantity, is_fragile, requires_disassembly, requires_packaging, notes, "
+                    + "metadata, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final SavedItemRepository savedItemRepository;
     private final ProductModelService productModelService;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * Get all saved items for a customer
      */
+    @Transactional(readOnly = true)
     public List<SavedItemResponse> getSavedItems(Long customerId) {
         log.debug("Fetching saved items for customer {}", customerId);
         
-        return savedItemRepository.findByCustomerId(customerId)
-                .stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return savedItemRepository.findResponsesByCustomerId(customerId);
     }
 
     /**
@@ -70,7 +77,8 @@ public class SavedItemService {
     }
 
     /**
-     * Save multiple items at once
+     * Save multiple items at once, as one JDBC batch insert (saved_items uses IDENTITY keys,
+     * so saveAll would insert row by row)
      */
     public int saveMultipleItems(Long customerId, List<SaveItemRequest> items) {
         log.info("Saving {} items for customer {}", items.size(), customerId);
@@ -100,7 +108,26 @@ public class SavedItemService {
                 })
                 .collect(Collectors.toList());
         
-        savedItemRepository.saveAll(savedItems);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, savedItems, savedItems.size(), (ps, item) -> {
+            ps.setLong(1, item.getCustomerId());
+            ps.setString(2, item.getName());
+            ps.setString(3, item.getBrand());
+            ps.setString(4, item.getModel());
+            ps.setObject(5, item.getCategoryId());
+            ps.setString(6, item.getSize());
+            ps.setBigDecimal(7, item.getWeightKg());
+            ps.setString(8, item.getDimensions());
+            ps.setBigDecimal(9, item.getDeclaredValueVnd());
+            ps.setInt(10, item.getQuantity());
+            ps.setBoolean(11, item.getIsFragile());
+            ps.setBoolean(12, item.getRequiresDisassembly());
+            ps.setBoolean(13, item.getRequiresPackaging());
+            ps.setString(14, item.getNotes());
+            ps.setString(15, item.getMetadata());
+            ps.setTimestamp(16, now);
+            ps.setTimestamp(17, now);
+        });
         return savedItems.size();
     }
 
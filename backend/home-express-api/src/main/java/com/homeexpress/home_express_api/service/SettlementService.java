@@ -5,11 +5,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.homeexpress.home_express_api.dto.SettlementDTO;
 import com.homeexpress.home_express_api.dto.SettlementEligibilityDTO;
+import com.homeexpress.home_express_api.dto.response.CursorPageResponse;
 import com.homeexpress.home_express_api.entity.Booking;
 import com.homeexpress.home_express_api.entity.BookingSettlement;
 import com.homeexpress.home_express_api.entity.BookingStatus;
@@ -30,6 +32,8 @@ import com.homeexpress.home_express_api.repository.BookingSettlementRepository;
 import com.homeexpress.home_express_api.repository.ContractRepository;
 import com.homeexpress.home_express_api.repository.IncidentRepository;
 import com.homeexpress.home_express_api.repository.PaymentRepository;
+import com.homeexpress.home_express_api.repository.projection.SettlementView;
+import com.homeexpress.home_express_api.util.KeysetCursor;
 
 /**
  * Service for generating and managing settlement records from completed
@@ -335,32 +339,27 @@ public class SettlementService {
         return method == PaymentMethod.BANK_TRANSFER;
     }
 
-    private SettlementDTO mapToDTO(BookingSettlement settlement) {
-        SettlementDTO dto = new SettlementDTO();
-        dto.setSettlementId(settlement.getSettlementId());
-        dto.setBookingId(settlement.getBookingId());
-        dto.setTransportId(settlement.getTransportId());
-        dto.setAgreedPriceVnd(settlement.getAgreedPriceVnd());
-        dto.setTotalCollectedVnd(settlement.getTotalCollectedVnd());
-        dto.setGatewayFeeVnd(settlement.getGatewayFeeVnd());
-        dto.setCommissionRateBps(settlement.getCommissionRateBps());
-        dto.setPlatformFeeVnd(settlement.getPlatformFeeVnd());
-        dto.setAdjustmentVnd(settlement.getAdjustmentVnd());
-        dto.setNetToTransportVnd(settlement.getNetToTransportVnd());
-        dto.setCollectionMode(settlement.getCollectionMode());
-        dto.setStatus(settlement.getStatus());
-        dto.setOnHoldReason(settlement.getOnHoldReason());
-        dto.setCreatedAt(settlement.getCreatedAt());
-        dto.setReadyAt(settlement.getReadyAt());
-        dto.setPaidAt(settlement.getPaidAt());
-        dto.setUpdatedAt(settlement.getUpdatedAt());
-        dto.setNotes(settlement.getNotes());
-        return dto;
+    private SettlementDTO mapToDTO(SettlementView settlement) {
+        return SettlementDTO.fromView(settlement);
     }
 
-    public List<SettlementDTO> getAllSettlements() {
-        List<BookingSettlement> settlements = settlementRepository.findAllOrderByCreatedAtDesc();
-        return settlements.stream().map(this::mapToDTO).collect(Collectors.toList());
+    /**
+     * One keyset page of settlements, newest first, optionally filtered by status and transport.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<SettlementDTO> getSettlements(SettlementStatus status, Long transportId,
+                                                            String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = CursorPageResponse.clampLimit(limit);
+        List<SettlementView> window = settlementRepository.findViewsPage(status, transportId,
+                after != null ? after.timestamp() : null,
+                after != null ? after.id() : null,
+                PageRequest.of(0, pageSize + 1));
+        return CursorPageResponse.of(window, pageSize,
+                view -> new KeysetCursor(view.getCreatedAt(), view.getSettlementId()),
+                this::mapToDTO);
     }
 
     public List<SettlementDTO> getSettlementsByStatus(SettlementStatus status) {
@@ -0,0 +1,260 @@
+package com.homeexpress.home_express_api.service;
+
+import com.homeexpress.home_express_api.config.AuthenticatedUser;
+import com.homeexpress.home_express_api.config.JwtTokenProvider;
+import com.homeexpress.home_express_api.util.BloomFilter;
+import com.homeexpress.home_express_api.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation check for stateless access tokens.
+ * <p>
+ * Revoked session ids ({@code s:{sessionId}}) and revoked users ({@code u:{userId}}: deactivated,
+ * or all sessions revoked) go into an in-memory {@link BloomFilter}. Every authenticated
+ * request checks its principal against the filter without I/O; only on a hit (a real
+ * revocation or a rare false positive) is the database asked whether the user is still active
+ * and the token's session not revoked. That answer is cached briefly per user and session.
+ * <p>
+ * Revocations are published to a Redis sorted set ({@code revocation:entries}, scored by time)
+ * that every node polls every {@code security.revocation.sync-interval-ms}. Because entries
+ * cannot be removed from a Bloom filter, it is rebuilt every
+ * {@code security.revocation.rebuild-interval-ms} from the database (sessions revoked within
+ * one access token lifetime, inactive users) plus the Redis entries still in that window.
+ * The rebuild also covers revocations made while Redis was unreachable.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private static final String ENTRIES_KEY = "revocation:entries";
+
+    private static final String REVOKED_SESSIONS_SQL =
+            "SELECT session_id FROM user_sessions WHERE revoked_at > ?";
+    private static final String INACTIVE_USERS_SQL =
+            "SELECT user_id FROM users WHERE is_active = FALSE";
+    private static final String CHECK_SQL =
+            "SELECT u.is_active, s.revoked_at FROM users u "
+                    + "LEFT JOIN user_sessions s ON s.session_id = ? AND s.user_id = u.user_id "
+                    + "WHERE u.user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final long tokenLifetimeMs;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final long decisionTtlMs;
+    private final long redisRetryMs;
+
+    private volatile BloomFilter filter;
+    private volatile double lastSyncScore;
+    private volatile long redisDownUntil;
+
+    // "userId:sessionId" -> DB answer for principals that hit the filter
+    private final Map<String, Decision> decisions = new ConcurrentHashMap<>();
+
+    public TokenRevocationService(
+            JdbcTemplate jdbcTemplate,
+            StringRedisTemplate redisTemplate,
+            JwtTokenProvider jwtTokenProvider,
+            @Value("${security.revocation.expected-entries:100000}") int expectedEntries,
+            @Value("${security.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${security.revocation.decision-ttl-ms:30000}") long decisionTtlMs,
+            @Value("${security.revocation.redis-retry-ms:30000}") long redisRetryMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.tokenLifetimeMs = jwtTokenProvider.getAccessTokenExpiration();
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.decisionTtlMs = decisionTtlMs;
+        this.redisRetryMs = redisRetryMs;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        this.lastSyncScore = System.currentTimeMillis();
+    }
+
+    /**
+     * Reject access tokens of this session from now on (after the caller's transaction commits).
+     */
+    public void revokeSession(String sessionId) {
+        if (sessionId != null) {
+            TransactionUtils.afterCommit(() -> publish(sessionKey(sessionId)));
+        }
+    }
+
+    /**
+     * Re-check every access token of this user against the database from now on (after the
+     * caller's transaction commits): tokens of a deactivated user or of a revoked session fail.
+     */
+    public void revokeUser(Long userId) {
+        if (userId != null) {
+            TransactionUtils.afterCommit(() -> publish(userKey(userId)));
+        }
+    }
+
+    /**
+     * @return true if the principal's user is deactivated or its session has been revoked
+     */
+    public boolean isRevoked(AuthenticatedUser principal) {
+        BloomFilter current = filter;
+        boolean hit = current.mightContain(userKey(principal.userId()))
+                || (principal.sessionId() != null && current.mightContain(sessionKey(principal.sessionId())));
+        if (!hit) {
+            return false;
+        }
+
+        String decisionKey = principal.userId() + ":" + principal.sessionId();
+        long now = System.currentTimeMillis();
+        Decision decision = decisions.get(decisionKey);
+        if (decision != null && decision.expiresAt() > now) {
+            return decision.revoked();
+        }
+
+        boolean revoked = checkDatabase(principal);
+        decisions.put(decisionKey, new Decision(revoked, now + decisionTtlMs));
+        return revoked;
+    }
+
+    private boolean checkDatabase(AuthenticatedUser principal) {
+        List<Boolean> rows = jdbcTemplate.query(CHECK_SQL,
+                (rs, rowNum) -> !rs.getBoolean(1) || rs.getTimestamp(2) != null,
+                principal.sessionId(), principal.userId());
+        // Unknown user: treat as revoked
+        return rows.isEmpty() || rows.get(0);
+    }
+
+    private void publish(String key) {
+        filter.add(key);
+        decisions.clear();
+        if (!redisAvailable()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            redisTemplate.opsForZSet().add(ENTRIES_KEY, key, now);
+        } catch (Exception e) {
+            markRedisDown(e);
+        }
+    }
+
+    /**
+     * Pull revocations published by other nodes since the last sync.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:2000}")
+    public void sync() {
+        if (!redisAvailable()) {
+            return;
+        }
+        try {
+            Set<ZSetOperations.TypedTuple<String>> entries =
+                    redisTemplate.opsForZSet().rangeByScoreWithScores(ENTRIES_KEY, lastSyncScore, Double.POSITIVE_INFINITY);
+            if (entries == null || entries.isEmpty()) {
+                return;
+            }
+            BloomFilter current = filter;
+            double maxScore = lastSyncScore;
+            boolean newer = false;
+            for (ZSetOperations.TypedTuple<String> entry : entries) {
+                if (entry.getValue() == null || entry.getScore() == null) {
+                    continue;
+                }
+                current.add(entry.getValue());
+                if (entry.getScore() > lastSyncScore) {
+                    newer = true;
+                    maxScore = Math.max(maxScore, entry.getScore());
+                }
+            }
+            // Re-read the last millisecond next time, in case more entries land on it
+            lastSyncScore = maxScore;
+            if (newer) {
+                decisions.clear();
+            }
+        } catch (Exception e) {
+            markRedisDown(e);
+        }
+    }
+
+    /**
+     * Build a fresh filter from the database and the Redis entries within one token lifetime,
+     * dropping revocations whose tokens have all expired.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.rebuild-interval-ms:300000}", initialDelay = 0)
+    public void rebuild() {
+        long now = System.currentTimeMillis();
+        long windowStart = now - tokenLifetimeMs;
+        List<String> keys = new ArrayList<>();
+        try {
+            jdbcTemplate.query(REVOKED_SESSIONS_SQL,
+                    rs -> { keys.add(sessionKey(rs.getString(1))); },
+                    Timestamp.valueOf(LocalDateTime.now().minusNanos(tokenLifetimeMs * 1_000_000)));
+            jdbcTemplate.query(INACTIVE_USERS_SQL, rs -> { keys.add(userKey(rs.getLong(1))); });
+        } catch (Exception e) {
+            log.error("Failed to rebuild token revocation filter: {}", e.getMessage());
+            return;
+        }
+
+        double syncFrom = lastSyncScore;
+        if (redisAvailable()) {
+            try {
+                ZSetOperations<String, String> zset = redisTemplate.opsForZSet();
+                zset.removeRangeByScore(ENTRIES_KEY, Double.NEGATIVE_INFINITY, windowStart);
+                Set<String> published = zset.rangeByScore(ENTRIES_KEY, windowStart, Double.POSITIVE_INFINITY);
+                if (published != null) {
+                    keys.addAll(published);
+                }
+                syncFrom = now;
+            } catch (Exception e) {
+                markRedisDown(e);
+            }
+        }
+
+        BloomFilter fresh = new BloomFilter(Math.max(expectedEntries, keys.size() * 2), falsePositiveRate);
+        keys.forEach(fresh::add);
+        filter = fresh;
+        lastSyncScore = syncFrom;
+        decisions.clear();
+        log.debug("Token revocation filter rebuilt with {} entries", keys.size());
+    }
+
+    private static String sessionKey(String sessionId) {
+        return "s:" + sessionId;
+    }
+
+    private static String userKey(Long userId) {
+        return "u:" + userId;
+    }
+
+    private boolean redisAvailable() {
+        if (redisDownUntil == 0) {
+            return true;
+        }
+        if (System.currentTimeMillis() < redisDownUntil) {
+            return false;
+        }
+        redisDownUntil = 0;
+        log.info("Redis reachable again, token revocations back on Redis");
+        return true;
+    }
+
+    private void markRedisDown(Exception e) {
+        if (redisDownUntil == 0) {
+            log.warn("Redis unavailable for token revocations, relying on periodic rebuilds: {}", e.getMessage());
+        }
+        redisDownUntil = System.currentTimeMillis() + redisRetryMs;
+    }
+
+    private record Decision(boolean revoked, long expiresAt) {
+    }
+}
@@ -3,15 +3,17 @@ package com.homeexpress.home_express_api.service;
 import com.homeexpress.home_express_api.dto.response.TransportDashboardStatsResponse;
 import com.homeexpress.home_express_api.dto.response.TransportDashboardStatsResponse.MonthlyRevenuePoint;
 import com.homeexpress.home_express_api.dto.response.TransportQuotationSummaryResponse;
-import com.homeexpress.home_express_api.entity.Booking;
 import com.homeexpress.home_express_api.entity.BookingStatus;
-import com.homeexpress.home_express_api.entity.Customer;
 import com.homeexpress.home_express_api.entity.Quotation;
 import com.homeexpress.home_express_api.entity.QuotationStatus;
 import com.homeexpress.home_express_api.repository.BookingRepository;
-import com.homeexpress.home_express_api.repository.CustomerRepository;
 import com.homeexpress.home_express_api.repository.QuotationRepository;
 import com.homeexpress.home_express_api.repository.TransportRepository;
+import com.homeexpress.home_express_api.repository.projection.MonthlyRevenueView;
+import com.homeexpress.home_express_api.repository.projection.TransportBookingStatsView;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupReader;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupReader.BookingTotals;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -29,44 +31,74 @@ import java.util.EnumSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class TransportDashboardService {
 
     private static final int DEFAULT_MONTH_WINDOW = 6;
 
+    @Autowired
+    private StatsRollupReader statsRollupReader;
+
+    @Autowired
+    private StatsRollupService statsRollupService;
+
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private TransportRepository transportRepository;
+
     @Autowired
     private QuotationRepository quotationRepository;
 
     @Autowired
-    private CustomerRepository customerRepository;
-    
+    private QuotationAssembler quotationAssembler;
+
     @Autowired
-    private TransportRepository transportRepository;
+    private DashboardStatsCache dashboardStatsCache;
 
     @Transactional(readOnly = true)
     public TransportDashboardStatsResponse getDashboardStats(Long transportId) {
-        TransportDashboardStatsResponse response = new TransportDashboardStatsResponse();
-
-        long totalBookings = bookingRepository.countByTransportId(transportId);
-        long completedBookings = bookingRepository.countByTransportIdAndStatus(transportId, BookingStatus.COMPLETED);
-        long inProgressBookings = countActiveBookings(transportId);
-        long pendingQuotations = quotationRepository.countByTransportIdAndStatus(
-                transportId, QuotationStatus.PENDING);
-
-        BigDecimal totalIncome = defaultZero(
-                bookingRepository.sumFinalPriceByTransportAndStatus(transportId, BookingStatus.COMPLETED));
+        return dashboardStatsCache.get("transport", transportId, () -> loadDashboardStats(transportId));
+    }
 
-        // Get average rating from Transport entity (managed separately from review system)
-        BigDecimal averageRating = transportRepository.findById(transportId)
-                .map(t -> t.getAverageRating() != null ? t.getAverageRating() : BigDecimal.ZERO)
-                .orElse(BigDecimal.ZERO);
+    private TransportDashboardStatsResponse loadDashboardStats(Long transportId) {
+        TransportDashboardStatsResponse response = new TransportDashboardStatsResponse();
+        boolean rollupReadable = statsRollupService.isReadable(StatsRollupService.ROLLUP_BOOKING);
+
+        long totalBookings;
+        long completedBookings;
+        long inProgressBookings;
+        long pendingQuotations;
+        BigDecimal totalIncome;
+        BigDecimal averageRating;
+        if (rollupReadable) {
+            // dem booking tu rollup theo ngay; bao gia PENDING va rating la query nho rieng
+            BookingTotals stats = statsRollupReader.bookingTotals(StatsRollupService.SCOPE_TRANSPORT, transportId);
+            totalBookings = stats.created();
+            completedBookings = stats.completed();
+            inProgressBookings = stats.active();
+            totalIncome = stats.completedValue();
+            // Rating lay tu Transport entity (managed separately from review system)
+            averageRating = transportRepository.findAverageRatingById(transportId).orElse(null);
+            pendingQuotations = quotationRepository.countByTransportIdAndStatus(transportId, QuotationStatus.PENDING);
+        } else {
+            // rollup chua doc duoc -> 1 query SUM(CASE ...) tren bookings, kem bao gia PENDING va rating
+            TransportBookingStatsView stats = bookingRepository.aggregateTransportDashboard(
+                    transportId,
+                    BookingStatus.COMPLETED,
+                    EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.IN_PROGRESS),
+                    QuotationStatus.PENDING);
+            totalBookings = valueOf(stats.getTotalBookings());
+            completedBookings = valueOf(stats.getCompletedBookings());
+            inProgressBookings = valueOf(stats.getInProgressBookings());
+            totalIncome = stats.getTotalIncome();
+            averageRating = stats.getAverageRating();
+            pendingQuotations = valueOf(stats.getPendingQuotations());
+        }
+        totalIncome = defaultZero(totalIncome);
+        averageRating = defaultZero(averageRating);
         double completionRate = totalBookings == 0
                 ? 0d
                 : roundTwoDecimal((completedBookings * 100.0) / totalBookings);
@@ -78,7 +110,7 @@ public class TransportDashboardService {
         response.setAverageRating(roundTwoDecimal(averageRating.doubleValue()));
         response.setCompletionRate(completionRate);
         response.setPendingQuotations(pendingQuotations);
-        response.setMonthlyRevenue(buildMonthlyRevenueSeries(transportId));
+        response.setMonthlyRevenue(buildMonthlyRevenueSeries(transportId, rollupReadable));
 
         return response;
     }
@@ -91,153 +123,59 @@ public class TransportDashboardService {
             return List.of();
         }
 
-        Map<Long, Booking> bookingsById = loadBookings(page.stream()
-                .map(Quotation::getBookingId)
-                .collect(Collectors.toSet()));
-
-        Map<Long, Customer> customersById = loadCustomers(bookingsById.values().stream()
-                .map(Booking::getCustomerId)
-                .collect(Collectors.toSet()));
-
-        // Load all quotations for these bookings to calculate competitors and rankings
-        Set<Long> bookingIds = page.stream()
-            .map(Quotation::getBookingId)
-            .collect(Collectors.toSet());
-
-        Map<Long, List<Quotation>> allQuotationsByBooking = new LinkedHashMap<>();
-        if (!bookingIds.isEmpty()) {
-            List<Quotation> allQuotations = quotationRepository.findByBookingIdIn(bookingIds);
-            for (Quotation q : allQuotations) {
-                allQuotationsByBooking.computeIfAbsent(q.getBookingId(), k -> new ArrayList<>()).add(q);
-            }
-        }
-
-        List<TransportQuotationSummaryResponse> summaries = new ArrayList<>();
-        for (Quotation quotation : page) {
-            Booking booking = bookingsById.getOrDefault(quotation.getBookingId(), null);
-
-            TransportQuotationSummaryResponse dto = new TransportQuotationSummaryResponse();
-            dto.setQuotationId(quotation.getQuotationId());
-            dto.setBookingId(quotation.getBookingId());
-            dto.setMyQuotePrice(defaultZero(quotation.getQuotedPrice()).doubleValue());
-            dto.setStatus(quotation.getStatus().name());
-            dto.setExpiresAt(quotation.getExpiresAt());
-            dto.setSubmittedAt(quotation.getCreatedAt());
-
-            if (booking != null) {
-                dto.setPickupLocation(booking.getPickupAddress());
-                dto.setDeliveryLocation(booking.getDeliveryAddress());
-                dto.setPreferredDate(booking.getPreferredDate().toString());
-            }
-
-            // Calculate competitor information
-            List<Quotation> bookingQuotations = allQuotationsByBooking.getOrDefault(quotation.getBookingId(), List.of());
-            dto.setCompetitorQuotesCount(bookingQuotations.size() - 1); // Exclude this quotation
-
-            // Calculate lowest competitor price and ranking
-            List<Quotation> sortedCompetitors = bookingQuotations.stream()
-                .filter(q -> !q.getQuotationId().equals(quotation.getQuotationId()))
-                .sorted((a, b) -> defaultZero(a.getQuotedPrice()).compareTo(defaultZero(b.getQuotedPrice())))
-                .collect(Collectors.toList());
-
-            if (!sortedCompetitors.isEmpty()) {
-                dto.setLowestCompetitorPrice(defaultZero(sortedCompetitors.get(0).getQuotedPrice()).doubleValue());
-
-                // Calculate rank (1-based, lower price = better rank)
-                List<BigDecimal> allPrices = bookingQuotations.stream()
-                    .map(q -> defaultZero(q.getQuotedPrice()))
-                    .sorted()
-                    .collect(Collectors.toList());
-
-                BigDecimal myPrice = defaultZero(quotation.getQuotedPrice());
-                int rank = 1;
-                for (BigDecimal price : allPrices) {
-                    if (myPrice.compareTo(price) <= 0) {
-                        break;
-                    }
-                    rank++;
-                }
-                dto.setMyRank(rank);
-            } else {
-                dto.setLowestCompetitorPrice(null);
-                dto.setMyRank(1);
-            }
-
-            summaries.add(dto);
-        }
-
-        return summaries;
+        return quotationAssembler.toTransportSummaries(page.getContent());
     }
 
-    private Map<Long, Booking> loadBookings(Set<Long> bookingIds) {
-        if (bookingIds.isEmpty()) {
-            return Map.of();
-        }
-        return bookingRepository.findAllById(bookingIds).stream()
-                .collect(Collectors.toMap(Booking::getBookingId, b -> b));
-    }
-
-    private Map<Long, Customer> loadCustomers(Set<Long> customerIds) {
-        if (customerIds.isEmpty()) {
-            return Map.of();
-        }
-        return customerRepository.findAllById(customerIds).stream()
-                .collect(Collectors.toMap(Customer::getCustomerId, c -> c));
-    }
-
-    private long countActiveBookings(Long transportId) {
-        EnumSet<BookingStatus> activeStatuses = EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.IN_PROGRESS);
-        return activeStatuses.stream()
-                .mapToLong(status -> bookingRepository.countByTransportIdAndStatus(transportId, status))
-                .sum();
-    }
-
-    private List<MonthlyRevenuePoint> buildMonthlyRevenueSeries(Long transportId) {
+    private List<MonthlyRevenuePoint> buildMonthlyRevenueSeries(Long transportId, boolean rollupReadable) {
         LocalDate today = LocalDate.now();
         YearMonth endMonth = YearMonth.from(today);
         YearMonth startMonth = endMonth.minusMonths(DEFAULT_MONTH_WINDOW - 1);
 
         Map<YearMonth, BigDecimal> revenueByMonth = new LinkedHashMap<>();
-        YearMonth current = startMonth;
-        while (!current.isAfter(endMonth)) {
-            revenueByMonth.put(current, BigDecimal.ZERO);
-            current = current.plusMonths(1);
-        }
-
-        LocalDateTime rangeStart = startMonth.atDay(1).atStartOfDay();
-        LocalDateTime rangeEnd = endMonth.plusMonths(1).atDay(1).atStartOfDay();
-
-        List<Booking> completedBookings = bookingRepository
-                .findByTransportIdAndStatusAndActualEndTimeBetween(
-                        transportId,
-                        BookingStatus.COMPLETED,
-                        rangeStart,
-                        rangeEnd
-                );
-
-        for (Booking booking : completedBookings) {
-            LocalDateTime completedAt = Optional.ofNullable(booking.getActualEndTime())
-                    .orElseGet(booking::getUpdatedAt);
-            if (completedAt == null) {
-                completedAt = booking.getCreatedAt();
+        if (rollupReadable) {
+            // doanh thu theo thang hoan thanh, cong tu rollup theo ngay
+            statsRollupReader.finishedByMonth(StatsRollupService.SCOPE_TRANSPORT, transportId, startMonth, endMonth)
+                    .forEach((month, finished) -> revenueByMonth.put(month, finished.value()));
+        } else {
+            YearMonth current = startMonth;
+            while (!current.isAfter(endMonth)) {
+                revenueByMonth.put(current, BigDecimal.ZERO);
+                current = current.plusMonths(1);
             }
-            YearMonth key = YearMonth.from(completedAt);
-            if (revenueByMonth.containsKey(key)) {
-                BigDecimal currentTotal = revenueByMonth.get(key);
-                revenueByMonth.put(key, currentTotal.add(defaultZero(booking.getFinalPrice())));
+
+            LocalDateTime rangeStart = startMonth.atDay(1).atStartOfDay();
+            LocalDateTime rangeEnd = endMonth.plusMonths(1).atDay(1).atStartOfDay();
+
+            // SUM theo thang o DB, khong load tung booking
+            List<MonthlyRevenueView> rows = bookingRepository.sumRevenueByMonth(
+                    transportId,
+                    BookingStatus.COMPLETED,
+                    rangeStart,
+                    rangeEnd
+            );
+            for (MonthlyRevenueView row : rows) {
+                if (row.getYear() == null || row.getMonth() == null) {
+                    continue;
+                }
+                revenueByMonth.computeIfPresent(YearMonth.of(row.getYear(), row.getMonth()),
+                        (key, zero) -> row.getRevenue());
             }
         }
 
         List<MonthlyRevenuePoint> series = new ArrayList<>();
         for (Map.Entry<YearMonth, BigDecimal> entry : revenueByMonth.entrySet()) {
             String monthLabel = entry.getKey().toString();
-            double revenue = roundTwoDecimal(entry.getValue().doubleValue());
+            double revenue = roundTwoDecimal(defaultZero(entry.getValue()).doubleValue());
             series.add(new MonthlyRevenuePoint(monthLabel, revenue));
         }
 
         return series;
     }
 
+    private long valueOf(Long value) {
+        return value == null ? 0L : value;
+    }
+
     private BigDecimal defaultZero(BigDecimal value) {
         return value == null ? BigDecimal.ZERO : value;
     }
@@ -0,0 +1,73 @@
+package com.homeexpress.home_express_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homeexpress.home_express_api.service.sse.SseBroker;
+import com.homeexpress.home_express_api.service.sse.SseEmitterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-transport SSE stream. Pushes job-board changes (a booking entering or leaving the
+ * transport's feed) so the available-jobs list can refresh without polling.
+ * Events reach the transport's streams on every node through the {@link SseBroker}.
+ */
+@Slf4j
+@Service
+public class TransportEventService {
+
+    public static final String MATCH_ADDED_EVENT = "job_board:match_added";
+    public static final String MATCH_REMOVED_EVENT = "job_board:match_removed";
+
+    private final ObjectMapper objectMapper;
+
+    // transport ID -> connection ID -> emitter
+    private final SseEmitterRegistry registry;
+
+    public TransportEventService(
+            ObjectMapper objectMapper,
+            SseBroker sseBroker,
+            MeterRegistry meterRegistry,
+            @Value("${sse.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.registry = new SseEmitterRegistry("transport", sseBroker, meterRegistry,
+                "sse.transport.connections.active", "Open transport SSE connections", emitterTimeoutMs);
+    }
+
+    public SseEmitter createStream(Long transportId) {
+        String connectionId = UUID.randomUUID().toString();
+        SseEmitter emitter = registry.open(transportId, connectionId);
+
+        registry.send(transportId, connectionId, emitter, "connected", eventData("connected", null));
+        log.debug("Opened transport stream {} for transport {}", connectionId, transportId);
+        return emitter;
+    }
+
+    public void sendMatchAdded(Long transportId, Long bookingId) {
+        registry.publish(transportId, MATCH_ADDED_EVENT, eventData(MATCH_ADDED_EVENT, bookingId));
+    }
+
+    public void sendMatchRemoved(Long transportId, Long bookingId) {
+        registry.publish(transportId, MATCH_REMOVED_EVENT, eventData(MATCH_REMOVED_EVENT, bookingId));
+    }
+
+    public int getTotalActiveConnections() {
+        return registry.totalConnections();
+    }
+
+    private String eventData(String type, Long bookingId) {
+        try {
+            return objectMapper.writeValueAsString(bookingId != null
+                    ? Map.of("type", type, "bookingId", bookingId, "timestamp", LocalDateTime.now().toString())
+                    : Map.of("type", type, "timestamp", LocalDateTime.now().toString()));
+        } catch (Exception e) {
+            return "{\"type\":\"" + type + "\"" + (bookingId != null ? ",\"bookingId\":" + bookingId : "") + "}";
+        }
+    }
+}
@@ -19,6 +19,9 @@ import com.homeexpress.home_express_api.repository.BookingSettlementRepository;
 import com.homeexpress.home_express_api.repository.CustomerRepository;
 import com.homeexpress.home_express_api.repository.TransportPayoutRepository;
 import com.homeexpress.home_express_api.repository.TransportWalletTransactionRepository;
+import com.homeexpress.home_express_api.repository.projection.MonthlyRevenueView;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupReader;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupService;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
@@ -27,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,6 +45,22 @@ public class TransportFinanceService {
     private static final int MONTH_WINDOW = 6;
     private static final int DEFAULT_REPORT_DAYS = 30;
     private static final int MAX_REPORT_DAYS = 90;
+    private static final Set<SettlementStatus> PENDING_SETTLEMENT_STATUSES = EnumSet.of(
+            SettlementStatus.PENDING,
+            SettlementStatus.READY,
+            SettlementStatus.IN_PAYOUT,
+            SettlementStatus.ON_HOLD
+    );
+    private static final Set<SettlementStatus> CREDITED_SETTLEMENT_STATUSES = EnumSet.of(
+            SettlementStatus.READY,
+            SettlementStatus.IN_PAYOUT,
+            SettlementStatus.PAID,
+            SettlementStatus.ON_HOLD
+    );
+    private static final Set<WalletTransactionType> DEBIT_TYPES = EnumSet.of(
+            WalletTransactionType.PAYOUT_DEBIT,
+            WalletTransactionType.ADJUSTMENT_DEBIT
+    );
 
     private final BookingRepository bookingRepository;
     private final BookingSettlementRepository bookingSettlementRepository;
@@ -48,19 +68,25 @@ public class TransportFinanceService {
     private final TransportPayoutRepository transportPayoutRepository;
     private final TransportWalletTransactionRepository walletTransactionRepository;
     private final WalletService walletService;
+    private final StatsRollupReader statsRollupReader;
+    private final StatsRollupService statsRollupService;
 
     public TransportFinanceService(BookingRepository bookingRepository,
             BookingSettlementRepository bookingSettlementRepository,
             CustomerRepository customerRepository,
             TransportPayoutRepository transportPayoutRepository,
             TransportWalletTransactionRepository walletTransactionRepository,
-            WalletService walletService) {
+            WalletService walletService,
+            StatsRollupReader statsRollupReader,
+            StatsRollupService statsRollupService) {
         this.bookingRepository = bookingRepository;
         this.bookingSettlementRepository = bookingSettlementRepository;
         this.customerRepository = customerRepository;
         this.transportPayoutRepository = transportPayoutRepository;
         this.walletTransactionRepository = walletTransactionRepository;
         this.walletService = walletService;
+        this.statsRollupReader = statsRollupReader;
+        this.statsRollupService = statsRollupService;
     }
 
     @Transactional(readOnly = true)
@@ -68,52 +94,27 @@ public class TransportFinanceService {
         TransportWallet wallet = walletService.getOrCreateWallet(transportId);
         TransportEarningsStatsResponse response = new TransportEarningsStatsResponse();
 
-        long totalBookings = bookingRepository.countByTransportIdAndStatus(transportId, BookingStatus.COMPLETED);
+        // so booking va doanh thu doc tu rollup theo ngay khi rollup da backfill xong, neu chua thi dem truc tiep
+        long totalBookings = statsRollupService.isReadable(StatsRollupService.ROLLUP_BOOKING)
+                ? statsRollupReader.bookingTotals(StatsRollupService.SCOPE_TRANSPORT, transportId).completed()
+                : bookingRepository.countByTransportIdAndStatus(transportId, BookingStatus.COMPLETED);
         response.setTotalBookings(totalBookings);
         response.setTotalEarnings(wallet.getTotalEarnedVnd());
 
         YearMonth currentMonth = YearMonth.now();
-        LocalDateTime monthStart = currentMonth.atDay(1).atStartOfDay();
-        LocalDateTime nextMonthStart = currentMonth.plusMonths(1).atDay(1).atStartOfDay();
-        List<TransportWalletTransaction> monthLedger = walletTransactionRepository
-                .findByWallet_WalletIdAndCreatedAtBetweenOrderByCreatedAtAsc(wallet.getWalletId(), monthStart, nextMonthStart);
-
-        long thisMonthRevenue = monthLedger.stream()
-                .filter(tx -> isCredit(tx.getTransactionType()))
-                .mapToLong(TransportWalletTransaction::getAmount)
-                .sum();
+        long thisMonthRevenue = creditsByMonth(transportId, wallet, currentMonth, currentMonth).get(currentMonth);
         response.setThisMonthEarnings(thisMonthRevenue);
 
-        List<Booking> completedThisMonth = bookingRepository.findByTransportIdAndStatusAndActualEndTimeBetween(
-                transportId,
-                BookingStatus.COMPLETED,
-                monthStart,
-                nextMonthStart
-        );
-        response.setThisMonthBookings(completedThisMonth.size());
+        long completedThisMonth = completedByMonth(transportId, currentMonth, currentMonth).get(currentMonth);
+        response.setThisMonthBookings((int) completedThisMonth);
 
         response.setAveragePerBooking(totalBookings > 0 ? wallet.getTotalEarnedVnd() / totalBookings : 0L);
 
-        List<BookingSettlement> settlements = bookingSettlementRepository.findByTransportId(transportId);
-        EnumSet<SettlementStatus> pendingStatuses = EnumSet.of(
-                SettlementStatus.PENDING,
-                SettlementStatus.READY,
-                SettlementStatus.IN_PAYOUT,
-                SettlementStatus.ON_HOLD
-        );
-
-        long pendingAmount = settlements.stream()
-                .filter(s -> pendingStatuses.contains(s.getStatus()))
-                .map(BookingSettlement::getNetToTransportVnd)
-                .filter(amount -> amount != null)
-                .mapToLong(Long::longValue)
-                .sum();
-        response.setPendingAmount(pendingAmount);
-
-        int pendingTransactions = (int) settlements.stream()
-                .filter(s -> pendingStatuses.contains(s.getStatus()))
-                .count();
-        response.setPendingTransactions(pendingTransactions);
+        Object[] pending = bookingSettlementRepository
+                .sumNetToTransportByStatusIn(transportId, PENDING_SETTLEMENT_STATUSES)
+                .get(0);
+        response.setPendingAmount(((Number) pending[1]).longValue());
+        response.setPendingTransactions(((Number) pending[0]).intValue());
 
         response.setGrowthRate("0%");
         response.setMonthlyBreakdown(buildMonthlyBreakdown(transportId, wallet));
@@ -155,7 +156,7 @@ public class TransportFinanceService {
         LedgerReferenceContext context = buildLedgerReferenceContext(rangeTransactions);
 
         report.setCashflow(buildCashflowEntries(rangeTransactions, context));
-        report.setDailyBalances(buildDailyBalance(rangeTransactions, wallet, rangeStart, startDate, today));
+        report.setDailyBalances(buildDailyBalance(transportId, rangeTransactions, wallet, startDate, today));
         report.setReconciliation(buildReconciliation(transportId, wallet));
 
         return report;
@@ -167,39 +168,65 @@ public class TransportFinanceService {
         YearMonth end = YearMonth.now();
         YearMonth start = end.minusMonths(MONTH_WINDOW - 1);
 
-        LocalDateTime rangeStart = start.atDay(1).atStartOfDay();
-        LocalDateTime rangeEnd = end.plusMonths(1).atDay(1).atStartOfDay();
+        // 1 query cho doanh thu, 1 query cho so booking hoan thanh, thay vi query tung thang
+        Map<YearMonth, Long> revenueByMonth = creditsByMonth(transportId, wallet, start, end);
+        Map<YearMonth, Long> bookingsByMonth = completedByMonth(transportId, start, end);
 
-        List<TransportWalletTransaction> ledger = walletTransactionRepository
-                .findByWallet_WalletIdAndCreatedAtBetweenOrderByCreatedAtAsc(wallet.getWalletId(), rangeStart, rangeEnd);
+        for (Map.Entry<YearMonth, Long> entry : bookingsByMonth.entrySet()) {
+            TransportEarningsStatsResponse.MonthlyBreakdown breakdown = new TransportEarningsStatsResponse.MonthlyBreakdown();
+            breakdown.setMonth(entry.getKey().toString());
+            breakdown.setRevenue(revenueByMonth.get(entry.getKey()));
+            breakdown.setBookings(entry.getValue().intValue());
+            breakdowns.add(breakdown);
+        }
 
-        Map<YearMonth, Long> revenueByMonth = ledger.stream()
-                .filter(tx -> isCredit(tx.getTransactionType()))
-                .collect(Collectors.groupingBy(tx -> YearMonth.from(tx.getCreatedAt()),
-                        Collectors.summingLong(TransportWalletTransaction::getAmount)));
+        return breakdowns;
+    }
 
-        YearMonth current = start;
-        while (!current.isAfter(end)) {
-            LocalDateTime monthStart = current.atDay(1).atStartOfDay();
-            LocalDateTime monthEnd = current.plusMonths(1).atDay(1).atStartOfDay();
+    // Tong tien ghi co theo thang trong [start, end], du moi thang (0 neu khong co giao dich)
+    private Map<YearMonth, Long> creditsByMonth(Long transportId, TransportWallet wallet, YearMonth start, YearMonth end) {
+        Map<YearMonth, Long> months = emptyMonths(start, end);
+        if (statsRollupService.isReadable(StatsRollupService.ROLLUP_WALLET)) {
+            statsRollupReader.walletDays(transportId, start.atDay(1), end.plusMonths(1).atDay(1))
+                    .forEach(day -> months.merge(YearMonth.from(day.day()), day.creditVnd(), Long::sum));
+            return months;
+        }
 
-            List<Booking> bookings = bookingRepository.findByTransportIdAndStatusAndActualEndTimeBetween(
-                    transportId,
-                    BookingStatus.COMPLETED,
-                    monthStart,
-                    monthEnd
-            );
+        List<Object[]> rows = walletTransactionRepository.sumCreditsByMonth(wallet.getWalletId(), DEBIT_TYPES,
+                start.atDay(1).atStartOfDay(), end.plusMonths(1).atDay(1).atStartOfDay());
+        for (Object[] row : rows) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            months.computeIfPresent(month, (key, zero) -> ((Number) row[2]).longValue());
+        }
+        return months;
+    }
 
-            TransportEarningsStatsResponse.MonthlyBreakdown breakdown = new TransportEarningsStatsResponse.MonthlyBreakdown();
-            breakdown.setMonth(current.toString());
-            breakdown.setRevenue(revenueByMonth.getOrDefault(current, 0L));
-            breakdown.setBookings(bookings.size());
-            breakdowns.add(breakdown);
+    // So booking hoan thanh theo thang trong [start, end], du moi thang (0 neu khong co booking)
+    private Map<YearMonth, Long> completedByMonth(Long transportId, YearMonth start, YearMonth end) {
+        Map<YearMonth, Long> months = emptyMonths(start, end);
+        if (statsRollupService.isReadable(StatsRollupService.ROLLUP_BOOKING)) {
+            statsRollupReader.finishedByMonth(StatsRollupService.SCOPE_TRANSPORT, transportId, start, end)
+                    .forEach((month, finished) -> months.put(month, finished.count()));
+            return months;
+        }
 
-            current = current.plusMonths(1);
+        List<MonthlyRevenueView> rows = bookingRepository.sumRevenueByMonth(transportId, BookingStatus.COMPLETED,
+                start.atDay(1).atStartOfDay(), end.plusMonths(1).atDay(1).atStartOfDay());
+        for (MonthlyRevenueView row : rows) {
+            if (row.getYear() == null || row.getMonth() == null || row.getBookings() == null) {
+                continue;
+            }
+            months.computeIfPresent(YearMonth.of(row.getYear(), row.getMonth()), (key, zero) -> row.getBookings());
         }
+        return months;
+    }
 
-        return breakdowns;
+    private Map<YearMonth, Long> emptyMonths(YearMonth start, YearMonth end) {
+        Map<YearMonth, Long> months = new LinkedHashMap<>();
+        for (YearMonth month = start; !month.isAfter(end); month = month.plusMonths(1)) {
+            months.put(month, 0L);
+        }
+        return months;
     }
 
     private List<TransportWalletReportResponse.CashflowEntry> buildCashflowEntries(
@@ -232,20 +259,50 @@ public class TransportFinanceService {
     }
 
     private List<TransportWalletReportResponse.DailyBalancePoint> buildDailyBalance(
+            Long transportId,
             List<TransportWalletTransaction> transactions,
             TransportWallet wallet,
-            LocalDateTime rangeStart,
             LocalDate startDate,
             LocalDate endDate) {
 
-        long baseline = walletTransactionRepository
-                .findTopByWallet_WalletIdAndCreatedAtBeforeOrderByCreatedAtDesc(wallet.getWalletId(), rangeStart)
+        if (!statsRollupService.isReadable(StatsRollupService.ROLLUP_WALLET)) {
+            return buildDailyBalanceFromLedger(transactions, wallet, startDate, endDate);
+        }
+
+        // so du cuoi ngay lay tu rollup; ngay khong co giao dich giu so du cua ngay truoc
+        long closingBalance = statsRollupReader.walletClosingBalanceBefore(transportId, startDate);
+        List<StatsRollupReader.WalletDay> days = statsRollupReader.walletDays(transportId, startDate, endDate.plusDays(1));
+
+        List<TransportWalletReportResponse.DailyBalancePoint> points = new ArrayList<>();
+        int index = 0;
+
+        for (LocalDate cursor = startDate; !cursor.isAfter(endDate); cursor = cursor.plusDays(1)) {
+            if (index < days.size() && days.get(index).day().equals(cursor)) {
+                closingBalance = days.get(index).closingBalanceVnd();
+                index++;
+            }
+            TransportWalletReportResponse.DailyBalancePoint point = new TransportWalletReportResponse.DailyBalancePoint();
+            point.setDate(cursor.toString());
+            point.setClosingBalanceVnd(closingBalance);
+            points.add(point);
+        }
+        return points;
+    }
+
+    // Rollup wallet chua doc duoc: di qua cac giao dich trong khoang (da load cho cashflow)
+    private List<TransportWalletReportResponse.DailyBalancePoint> buildDailyBalanceFromLedger(
+            List<TransportWalletTransaction> transactions,
+            TransportWallet wallet,
+            LocalDate startDate,
+            LocalDate endDate) {
+
+        long closingBalance = walletTransactionRepository
+                .findTopByWallet_WalletIdAndCreatedAtBeforeOrderByCreatedAtDesc(wallet.getWalletId(), startDate.atStartOfDay())
                 .map(TransportWalletTransaction::getRunningBalanceVnd)
                 .orElse(0L);
 
         List<TransportWalletReportResponse.DailyBalancePoint> points = new ArrayList<>();
         int index = 0;
-        long closingBalance = baseline;
 
         for (LocalDate cursor = startDate; !cursor.isAfter(endDate); cursor = cursor.plusDays(1)) {
             LocalDateTime dayEnd = cursor.plusDays(1).atStartOfDay();
@@ -265,44 +322,21 @@ public class TransportFinanceService {
     private TransportWalletReportResponse.ReconciliationReport buildReconciliation(Long transportId, TransportWallet wallet) {
         TransportWalletReportResponse.ReconciliationReport report = new TransportWalletReportResponse.ReconciliationReport();
 
-        List<BookingSettlement> settlements = bookingSettlementRepository.findByTransportId(transportId);
-        List<Long> expectedSettlementIds = settlements.stream()
-                .filter(s -> EnumSet.of(SettlementStatus.READY, SettlementStatus.IN_PAYOUT, SettlementStatus.PAID, SettlementStatus.ON_HOLD)
-                        .contains(s.getStatus()))
-                .map(BookingSettlement::getSettlementId)
-                .collect(Collectors.toList());
-        report.setSettlementCount(expectedSettlementIds.size());
-
-        Set<Long> ledgerSettlementIds = walletTransactionRepository
-                .findByWallet_WalletIdAndReferenceTypeOrderByCreatedAtAsc(wallet.getWalletId(), WalletTransactionReferenceType.SETTLEMENT)
-                .stream()
-                .map(TransportWalletTransaction::getReferenceId)
-                .filter(id -> id != null)
-                .collect(Collectors.toSet());
-        report.setWalletSettlementCount(ledgerSettlementIds.size());
-
-        List<Long> missingSettlements = expectedSettlementIds.stream()
-                .filter(id -> !ledgerSettlementIds.contains(id))
-                .collect(Collectors.toList());
+        // dem va anti-join o DB, khong load toan bo settlement/payout/ledger len Java
+        report.setSettlementCount((int) bookingSettlementRepository
+                .countByTransportIdAndStatusIn(transportId, CREDITED_SETTLEMENT_STATUSES));
+        report.setWalletSettlementCount((int) walletTransactionRepository
+                .countDistinctReferenceIds(wallet.getWalletId(), WalletTransactionReferenceType.SETTLEMENT));
+        List<Long> missingSettlements = bookingSettlementRepository.findIdsMissingFromLedger(
+                transportId, CREDITED_SETTLEMENT_STATUSES, wallet.getWalletId(), WalletTransactionReferenceType.SETTLEMENT);
         report.setMissingSettlementIds(missingSettlements);
 
-        List<Long> completedPayoutIds = transportPayoutRepository.findByTransportId(transportId).stream()
-                .filter(payout -> payout.getStatus() == PayoutStatus.COMPLETED)
-                .map(TransportPayout::getPayoutId)
-                .collect(Collectors.toList());
-        report.setPayoutCount(completedPayoutIds.size());
-
-        Set<Long> ledgerPayoutIds = walletTransactionRepository
-                .findByWallet_WalletIdAndReferenceTypeOrderByCreatedAtAsc(wallet.getWalletId(), WalletTransactionReferenceType.PAYOUT)
-                .stream()
-                .map(TransportWalletTransaction::getReferenceId)
-                .filter(id -> id != null)
-                .collect(Collectors.toSet());
-        report.setWalletPayoutCount(ledgerPayoutIds.size());
-
-        List<Long> missingPayouts = completedPayoutIds.stream()
-                .filter(id -> !ledgerPayoutIds.contains(id))
-                .collect(Collectors.toList());
+        report.setPayoutCount((int) transportPayoutRepository
+                .countByTransportIdAndStatus(transportId, PayoutStatus.COMPLETED));
+        report.setWalletPayoutCount((int) walletTransactionRepository
+                .countDistinctReferenceIds(wallet.getWalletId(), WalletTransactionReferenceType.PAYOUT));
+        List<Long> missingPayouts = transportPayoutRepository.findIdsMissingFromLedger(
+                transportId, PayoutStatus.COMPLETED, wallet.getWalletId(), WalletTransactionReferenceType.PAYOUT);
         report.setMissingPayoutIds(missingPayouts);
 
         report.setBalanced(missingSettlements.isEmpty() && missingPayouts.isEmpty());
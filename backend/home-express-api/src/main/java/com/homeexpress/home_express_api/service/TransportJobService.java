@@ -7,8 +7,13 @@ import com.homeexpress.home_express_api.dto.transport.TransportAvailableBookingD
 import com.homeexpress.home_express_api.dto.transport.TransportPaginatedResponse;
 import com.homeexpress.home_express_api.entity.*;
 import com.homeexpress.home_express_api.repository.*;
+import com.homeexpress.home_express_api.service.jobboard.JobBoardService;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
+import com.homeexpress.home_express_api.util.KeysetCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,7 +21,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -29,35 +36,49 @@ public class TransportJobService {
 
     private final BookingRepository bookingRepository;
     private final BookingItemRepository bookingItemRepository;
-    private final QuotationRepository quotationRepository;
     private final BookingStatusHistoryRepository statusHistoryRepository;
     private final CustomerRepository customerRepository;
     private final TransportRepository transportRepository;
     private final TransportSettingsRepository transportSettingsRepository;
+    private final VehicleRepository vehicleRepository;
     private final PricingService pricingService;
+    private final JobBoardService jobBoardService;
+    private final OutboxService outboxService;
 
     public TransportJobService(
             BookingRepository bookingRepository,
             BookingItemRepository bookingItemRepository,
-            QuotationRepository quotationRepository,
             BookingStatusHistoryRepository statusHistoryRepository,
             CustomerRepository customerRepository,
             TransportRepository transportRepository,
             TransportSettingsRepository transportSettingsRepository,
-            PricingService pricingService
+            VehicleRepository vehicleRepository,
+            PricingService pricingService,
+            JobBoardService jobBoardService,
+            OutboxService outboxService
     ) {
         this.bookingRepository = bookingRepository;
         this.bookingItemRepository = bookingItemRepository;
-        this.quotationRepository = quotationRepository;
         this.statusHistoryRepository = statusHistoryRepository;
         this.customerRepository = customerRepository;
         this.transportRepository = transportRepository;
         this.transportSettingsRepository = transportSettingsRepository;
+        this.vehicleRepository = vehicleRepository;
         this.pricingService = pricingService;
+        this.jobBoardService = jobBoardService;
+        this.outboxService = outboxService;
     }
 
+    /**
+     * Open bookings a transport can quote on, newest first. Without filters the page is read
+     * from the transport's job-board feed ({@link JobBoardService}); with a date or distance
+     * filter, or when the feed store cannot be read, the filters and the transport's settings
+     * (search radius, minimum job value) are applied in SQL. Without a cursor the page is addressed by number and totals are counted;
+     * with a cursor (the {@code next_cursor} of the previous response) the next page is read
+     * by keyset and totals are not counted.
+     */
     @Transactional(readOnly = true)
-    public TransportPaginatedResponse<TransportAvailableBookingDto> getAvailableBookings(Long transportId, int page, int limit, Integer maxDistance, LocalDate preferredDate) {
+    public TransportPaginatedResponse<TransportAvailableBookingDto> getAvailableBookings(Long transportId, int page, int limit, Integer maxDistance, LocalDate preferredDate, String cursor) {
         // Gate: Check if transport is APPROVED (READY_TO_QUOTE status)
         Transport transport = transportRepository.findById(transportId)
                 .orElseThrow(() -> new IllegalArgumentException("Transport not found"));
@@ -66,45 +87,119 @@ public class TransportJobService {
             // Return empty list if not approved - transport not ready to accept jobs
             return emptyResponse(page, limit);
         }
+        // Khong co xe dang hoat dong thi khong nhan job, giong dieu kien cua job board feed
+        if (!vehicleRepository.existsByTransportTransportIdAndStatus(transportId, VehicleStatus.ACTIVE)) {
+            return emptyResponse(page, limit);
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        if (jobBoardService.isEnabled() && maxDistance == null && preferredDate == null) {
+            TransportPaginatedResponse<TransportAvailableBookingDto> fromFeed =
+                    getAvailableBookingsFromFeed(transportId, page, limit, after);
+            if (fromFeed != null) {
+                return fromFeed;
+            }
+        }
 
         // Load transport settings for filtering
         TransportSettings settings = transportSettingsRepository.findById(transportId)
                 .orElse(null);
+        BigDecimal maxDistanceKm = effectiveMaxDistance(maxDistance, settings);
+        BigDecimal minPrice = settings != null && settings.getMinJobValueVnd() != null && settings.getMinJobValueVnd() > 0L
+                ? BigDecimal.valueOf(settings.getMinJobValueVnd())
+                : null;
 
-        List<Booking> bookings = bookingRepository.findByStatusInAndTransportIdIsNullOrderByCreatedAtDesc(AVAILABLE_BOOKING_STATUSES);
+        TransportPaginatedResponse.Pagination pagination = new TransportPaginatedResponse.Pagination();
+        pagination.setItemsPerPage(limit);
 
-        if (preferredDate != null) {
-            bookings = bookings.stream()
-                    .filter(b -> preferredDate.equals(b.getPreferredDate()))
-                    .collect(Collectors.toList());
+        List<Booking> bookings;
+        boolean hasMore;
+        if (after == null) {
+            long totalItems = bookingRepository.countAvailableForTransport(
+                    AVAILABLE_BOOKING_STATUSES, preferredDate, maxDistanceKm, minPrice);
+            int totalPages = (int) Math.ceil(totalItems / (double) limit);
+            pagination.setTotalItems(totalItems);
+            pagination.setTotalPages(Math.max(totalPages, 1));
+            pagination.setCurrentPage(Math.min(Math.max(page, 1), pagination.getTotalPages()));
+
+            bookings = totalItems == 0
+                    ? List.of()
+                    : bookingRepository.findAvailableForTransport(AVAILABLE_BOOKING_STATUSES, preferredDate,
+                            maxDistanceKm, minPrice, null, null,
+                            PageRequest.of(pagination.getCurrentPage() - 1, limit));
+            hasMore = pagination.getCurrentPage() < totalPages;
+        } else {
+            List<Booking> window = bookingRepository.findAvailableForTransport(AVAILABLE_BOOKING_STATUSES,
+                    preferredDate, maxDistanceKm, minPrice, after.timestamp(), after.id(),
+                    PageRequest.of(0, limit + 1));
+            hasMore = window.size() > limit;
+            bookings = hasMore ? window.subList(0, limit) : window;
         }
 
-        List<TransportAvailableBookingDto> mapped = bookings.stream()
-                .map(booking -> toAvailableBookingDto(booking, transportId))
-                .filter(dto -> maxDistance == null || dto.getDistanceKm() == null || dto.getDistanceKm() <= maxDistance)
-                // Apply settings filters: service radius and minimum job value
-                .filter(dto -> settings == null || isBookingAcceptable(dto, settings))
-                .collect(Collectors.toList());
+        if (hasMore && !bookings.isEmpty()) {
+            Booking last = bookings.get(bookings.size() - 1);
+            pagination.setNextCursor(new KeysetCursor(last.getCreatedAt(), last.getBookingId()).encode());
+        }
 
         TransportPaginatedResponse<TransportAvailableBookingDto> response = new TransportPaginatedResponse<>();
+        response.setData(toAvailableBookingDtos(bookings, transportId));
+        response.setPagination(pagination);
+        return response;
+    }
+
+    /**
+     * @return {@code null} when the feed store is unavailable, so the caller falls back to SQL
+     */
+    private TransportPaginatedResponse<TransportAvailableBookingDto> getAvailableBookingsFromFeed(
+            Long transportId, int page, int limit, KeysetCursor after) {
         TransportPaginatedResponse.Pagination pagination = new TransportPaginatedResponse.Pagination();
         pagination.setItemsPerPage(limit);
 
-        int totalItems = mapped.size();
-        pagination.setTotalItems(totalItems);
-
-        int totalPages = (int) Math.ceil(totalItems / (double) limit);
-        pagination.setTotalPages(Math.max(totalPages, 1));
-        pagination.setCurrentPage(Math.min(Math.max(page, 1), pagination.getTotalPages()));
+        List<Long> ids;
+        boolean hasMore;
+        try {
+            if (after == null) {
+                long totalItems = jobBoardService.feedSize(transportId);
+                int totalPages = (int) Math.ceil(totalItems / (double) limit);
+                pagination.setTotalItems(totalItems);
+                pagination.setTotalPages(Math.max(totalPages, 1));
+                pagination.setCurrentPage(Math.min(Math.max(page, 1), pagination.getTotalPages()));
+
+                ids = totalItems == 0
+                        ? List.of()
+                        : jobBoardService.feedPage(transportId, (long) (pagination.getCurrentPage() - 1) * limit, limit);
+                hasMore = pagination.getCurrentPage() < totalPages;
+            } else {
+                List<Long> window = jobBoardService.feedAfter(transportId, after, limit + 1);
+                hasMore = window.size() > limit;
+                ids = hasMore ? window.subList(0, limit) : window;
+            }
+        } catch (DataAccessException e) {
+            // Redis down or timing out: the SQL keyset path serves the same page
+            log.warn("Job board feed unavailable for transport {}, reading from the database: {}",
+                    transportId, e.getMessage());
+            return null;
+        }
 
-        int fromIndex = (pagination.getCurrentPage() - 1) * limit;
-        int toIndex = Math.min(fromIndex + limit, totalItems);
+        // Feed order; a booking taken or cancelled since the feed was updated is dropped
+        Map<Long, Booking> byId = bookingRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Booking::getBookingId, booking -> booking));
+        List<Booking> bookings = ids.stream()
+                .map(byId::get)
+                .filter(booking -> booking != null && JobBoardService.isOpen(booking))
+                .collect(Collectors.toList());
 
-        if (fromIndex >= totalItems) {
-            response.setData(List.of());
-        } else {
-            response.setData(mapped.subList(fromIndex, toIndex));
+        // Cursor from the last feed entry read, even if it was dropped above
+        Booking last = null;
+        for (int i = ids.size() - 1; i >= 0 && last == null; i--) {
+            last = byId.get(ids.get(i));
+        }
+        if (hasMore && last != null) {
+            pagination.setNextCursor(new KeysetCursor(last.getCreatedAt(), last.getBookingId()).encode());
         }
+
+        TransportPaginatedResponse<TransportAvailableBookingDto> response = new TransportPaginatedResponse<>();
+        response.setData(toAvailableBookingDtos(bookings, transportId));
         response.setPagination(pagination);
         return response;
     }
@@ -132,44 +227,47 @@ public class TransportJobService {
                 .map(this::toActiveJobDetailDto);
     }
 
-    private TransportAvailableBookingDto toAvailableBookingDto(Booking booking, Long transportId) {
-        List<BookingItem> items = bookingItemRepository.findByBookingId(booking.getBookingId());
+    // Aggregates for the whole page in 1 grouped query; items are loaded in 1 query for pricing only
+    private List<TransportAvailableBookingDto> toAvailableBookingDtos(List<Booking> bookings, Long transportId) {
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+        List<Long> bookingIds = bookings.stream().map(Booking::getBookingId).collect(Collectors.toList());
+
+        Map<Long, Object[]> stats = new HashMap<>();
+        for (Object[] row : bookingRepository.aggregateJobBoardStats(bookingIds, transportId)) {
+            stats.put(((Number) row[0]).longValue(), row);
+        }
 
+        Map<Long, List<BookingItem>> itemsByBooking = bookingItemRepository.findByBookingIdIn(bookingIds).stream()
+                .collect(Collectors.groupingBy(BookingItem::getBookingId));
+        Map<Long, SuggestedPriceResponse> suggestedPrices =
+                pricingService.calculateSuggestedPrices(bookings, itemsByBooking, transportId);
+
+        return bookings.stream()
+                .map(booking -> toAvailableBookingDto(booking, stats.get(booking.getBookingId()),
+                        suggestedPrices.get(booking.getBookingId())))
+                .collect(Collectors.toList());
+    }
+
+    private TransportAvailableBookingDto toAvailableBookingDto(Booking booking, Object[] stats, SuggestedPriceResponse suggested) {
         TransportAvailableBookingDto dto = new TransportAvailableBookingDto();
         dto.setBookingId(booking.getBookingId());
         dto.setPickupLocation(booking.getPickupAddress());
         dto.setDeliveryLocation(booking.getDeliveryAddress());
         dto.setDistanceKm(toDouble(booking.getDistanceKm()));
         dto.setDistanceFromMe(null); // Requires transport geolocation support
-        dto.setItemsCount(items.stream().map(BookingItem::getQuantity).filter(q -> q != null).mapToInt(Integer::intValue).sum());
-        dto.setTotalWeight(items.stream()
-                .map(item -> {
-                    if (item.getWeightKg() == null || item.getQuantity() == null) {
-                        return 0d;
-                    }
-                    return item.getWeightKg().doubleValue() * item.getQuantity();
-                })
-                .reduce(0d, Double::sum));
-        dto.setHasFragileItems(items.stream().anyMatch(item -> Boolean.TRUE.equals(item.getIsFragile())));
+        dto.setItemsCount(stats != null ? ((Number) stats[1]).intValue() : 0);
+        dto.setTotalWeight(stats != null ? ((Number) stats[2]).doubleValue() : 0d);
+        dto.setHasFragileItems(stats != null && ((Number) stats[3]).intValue() > 0);
         dto.setPreferredDate(booking.getPreferredDate() != null ? booking.getPreferredDate().toString() : null);
         dto.setPreferredTimeSlot(booking.getPreferredTimeSlot() != null ? booking.getPreferredTimeSlot().name() : null);
         dto.setEstimatedPrice(booking.getEstimatedPrice() != null ? booking.getEstimatedPrice().longValue() : 0L);
-        dto.setQuotationsCount((int) quotationRepository.countByBookingId(booking.getBookingId()));
-        dto.setHasQuoted(transportId != null && quotationRepository.existsByBookingIdAndTransportId(booking.getBookingId(), transportId));
-        
-        // Calculate suggested price using PricingService
-        Long suggestedPrice = null;
-        try {
-            SuggestedPriceResponse rsp = pricingService.calculateSuggestedPrice(booking.getBookingId(), transportId);
-            if (rsp != null && rsp.getSuggestedPrice() != null) {
-                suggestedPrice = rsp.getSuggestedPrice().longValue();
-            }
-        } catch (Exception e) {
-            log.warn("Failed to calculate suggested price for booking {} and transport {}: {}", 
-                    booking.getBookingId(), transportId, e.getMessage());
-        }
-        dto.setSuggestedPrice(suggestedPrice);
-        
+        dto.setQuotationsCount(stats != null ? ((Number) stats[4]).intValue() : 0);
+        dto.setHasQuoted(stats != null && ((Number) stats[5]).longValue() > 0);
+        dto.setSuggestedPrice(suggested != null && suggested.getSuggestedPrice() != null
+                ? suggested.getSuggestedPrice().longValue()
+                : null);
         dto.setExpiresAt(calculateExpiry(booking.getPreferredDate(), booking.getCreatedAt()));
         dto.setNotifiedAt(formatDateTime(booking.getCreatedAt()));
         return dto;
@@ -267,23 +365,14 @@ public class TransportJobService {
         return response;
     }
 
-    private boolean isBookingAcceptable(TransportAvailableBookingDto dto, TransportSettings settings) {
-        // Check service radius
-        if (settings.getSearchRadiusKm() != null && dto.getDistanceKm() != null) {
-            if (dto.getDistanceKm() > settings.getSearchRadiusKm().doubleValue()) {
-                return false;
-            }
+    // Query param va ban kinh trong settings deu la "<=": lay gia tri nho hon
+    private BigDecimal effectiveMaxDistance(Integer maxDistance, TransportSettings settings) {
+        BigDecimal limit = maxDistance != null ? BigDecimal.valueOf(maxDistance) : null;
+        if (settings != null && settings.getSearchRadiusKm() != null) {
+            BigDecimal radius = settings.getSearchRadiusKm();
+            limit = limit == null ? radius : limit.min(radius);
         }
-
-        // Check minimum job value
-        if (settings.getMinJobValueVnd() != null && settings.getMinJobValueVnd() > 0L) {
-            long estimatedPrice = dto.getEstimatedPrice() != null ? dto.getEstimatedPrice() : 0L;
-            if (estimatedPrice < settings.getMinJobValueVnd()) {
-                return false;
-            }
-        }
-
-        return true;
+        return limit;
     }
 
     /**
@@ -311,6 +400,7 @@ public class TransportJobService {
         booking.setStatus(BookingStatus.IN_PROGRESS);
         booking.setActualStartTime(LocalDateTime.now());
         booking = bookingRepository.save(booking);
+        outboxService.enqueueStatsRollupBooking(bookingId);
 
         // Log status history
         BookingStatusHistory history = new BookingStatusHistory(
@@ -359,6 +449,7 @@ public class TransportJobService {
         }
         
         booking = bookingRepository.save(booking);
+        outboxService.enqueueStatsRollupBooking(bookingId);
 
         // Log status history
         BookingStatusHistory history = new BookingStatusHistory(
@@ -7,6 +7,7 @@ import com.homeexpress.home_express_api.entity.VerificationStatus;
 import com.homeexpress.home_express_api.exception.ResourceNotFoundException;
 import com.homeexpress.home_express_api.repository.TransportRepository;
 import com.homeexpress.home_express_api.repository.UserRepository;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -30,6 +31,9 @@ public class TransportService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private OutboxService outboxService;
+
     public List<Transport> getAllTransports() {
         return transportRepository.findAll(Sort.by("createdAt").descending());
     }
@@ -60,6 +64,8 @@ public class TransportService {
         transport.setVerificationNotes(notes);
 
         Transport savedTransport = transportRepository.save(transport);
+        outboxService.enqueueJobBoardRebuild(transportId);
+        outboxService.enqueueStatsRollupUser(transportId);
         
         // Send approval notification
         notificationService.createNotification(
@@ -87,6 +93,8 @@ public class TransportService {
         transport.setVerificationNotes(notes);
 
         Transport savedTransport = transportRepository.save(transport);
+        outboxService.enqueueJobBoardRebuild(transportId);
+        outboxService.enqueueStatsRollupUser(transportId);
         
         // Send rejection notification with reason
         String message = "Tài khoản công ty vận chuyển của bạn đã bị từ chối. ";
@@ -7,6 +7,7 @@ import com.homeexpress.home_express_api.entity.TransportSettings;
 import com.homeexpress.home_express_api.exception.ResourceNotFoundException;
 import com.homeexpress.home_express_api.repository.TransportRepository;
 import com.homeexpress.home_express_api.repository.TransportSettingsRepository;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +23,9 @@ public class TransportSettingsService {
     @Autowired
     private TransportSettingsRepository transportSettingsRepository;
 
+    @Autowired
+    private OutboxService outboxService;
+
     @Transactional(readOnly = true)
     public TransportSettingsResponse getSettings(Long transportId) {
         TransportSettings settings = transportSettingsRepository.findById(transportId)
@@ -71,6 +75,8 @@ public class TransportSettingsService {
         }
 
         TransportSettings saved = transportSettingsRepository.save(settings);
+        // Ban kinh / gia tri toi thieu thay doi: dung lai job board feed
+        outboxService.enqueueJobBoardRebuild(transportId);
         return mapToResponse(saved);
     }
 
@@ -0,0 +1,100 @@
+package com.homeexpress.home_express_api.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for activity timestamps ({@code user_sessions.last_seen_at} and
+ * {@code users.last_login}). Updates are coalesced in memory per session / user and
+ * written in batched UPDATEs every few seconds, instead of one write transaction per
+ * token refresh or login.
+ * <p>
+ * Timestamps only move forward. Pending values are flushed on shutdown; a crash loses at
+ * most one flush interval of activity timestamps.
+ */
+@Slf4j
+@Service
+public class UserActivityBuffer {
+
+    private static final String SESSION_SQL =
+            "UPDATE user_sessions SET last_seen_at = ? "
+                    + "WHERE session_id = ? AND (last_seen_at IS NULL OR last_seen_at < ?)";
+
+    private static final String LOGIN_SQL =
+            "UPDATE users SET last_login = ? "
+                    + "WHERE user_id = ? AND (last_login IS NULL OR last_login < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, LocalDateTime> sessionLastSeen = new ConcurrentHashMap<>();
+    private final Map<Long, LocalDateTime> userLastLogin = new ConcurrentHashMap<>();
+
+    public UserActivityBuffer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void recordSessionSeen(String sessionId, LocalDateTime seenAt) {
+        sessionLastSeen.merge(sessionId, seenAt, UserActivityBuffer::latest);
+    }
+
+    public void recordLogin(Long userId, LocalDateTime loginAt) {
+        userLastLogin.merge(userId, loginAt, UserActivityBuffer::latest);
+    }
+
+    @Scheduled(fixedDelayString = "${session.activity.flush-interval-ms:5000}",
+               initialDelayString = "${session.activity.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        flush(sessionLastSeen, SESSION_SQL, "session last-seen");
+        flush(userLastLogin, LOGIN_SQL, "user last-login");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private <K> void flush(Map<K, LocalDateTime> pending, String sql, String label) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<K> keys = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (K key : new ArrayList<>(pending.keySet())) {
+            LocalDateTime value = pending.remove(key);
+            if (value != null) {
+                Timestamp timestamp = Timestamp.valueOf(value);
+                keys.add(key);
+                rows.add(new Object[]{timestamp, key, timestamp});
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(sql, rows);
+            log.debug("Flushed {} {} updates", rows.size(), label);
+        } catch (Exception e) {
+            // Put them back for the next flush, keeping any newer value recorded meanwhile
+            for (int i = 0; i < keys.size(); i++) {
+                LocalDateTime value = ((Timestamp) rows.get(i)[0]).toLocalDateTime();
+                pending.merge(keys.get(i), value, UserActivityBuffer::latest);
+            }
+            log.warn("Failed to flush {} {} updates, will retry: {}", rows.size(), label, e.getMessage());
+        }
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
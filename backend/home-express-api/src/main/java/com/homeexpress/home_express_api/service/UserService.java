@@ -14,6 +14,7 @@ import com.homeexpress.home_express_api.repository.CustomerRepository;
 import com.homeexpress.home_express_api.repository.ManagerRepository;
 import com.homeexpress.home_express_api.repository.TransportRepository;
 import com.homeexpress.home_express_api.repository.UserRepository;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -22,7 +23,10 @@ import org.springframework.data.domain.Sort;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
@@ -50,9 +54,18 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private OutboxService outboxService;
+
     @Autowired(required = false)
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     // Lấy danh sách users, có thể filter theo role
     public UserListResponse getAllUsers(UserRole role, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
@@ -96,9 +109,15 @@ public class UserService {
 
         if (request.getIsActive() != null) {
             user.setIsActive(request.getIsActive());
+            if (!request.getIsActive()) {
+                tokenRevocationService.revokeUser(userId);
+            }
         }
 
         User updatedUser = userRepository.save(user);
+        if (request.getIsActive() != null) {
+            outboxService.enqueueStatsRollupUser(userId);
+        }
         return convertToUserResponse(updatedUser);
     }
 
@@ -108,6 +127,9 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
         user.setIsActive(false);
         userRepository.save(user);
+        outboxService.enqueueStatsRollupUser(userId);
+        // Chan luon access token con han cua user da xoa
+        tokenRevocationService.revokeUser(userId);
     }
 
     @Transactional
@@ -143,12 +165,14 @@ public class UserService {
         return buildProfileResponse(user);
     }
 
-    @Transactional
+    // BCrypt verify/hash chay ngoai transaction, chi giu connection cho phan ghi DB
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void changePassword(Long userId, ChangePasswordRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        String currentHash = user.getPasswordHash();
 
-        if (!passwordEncoder.matches(request.getOldPassword(), user.getPasswordHash())) {
+        if (!passwordEncoder.matches(request.getOldPassword(), currentHash)) {
             throw new RuntimeException("Mật khẩu cũ không đúng");
         }
 
@@ -157,11 +181,19 @@ public class UserService {
         }
 
         String newPasswordHash = passwordEncoder.encode(request.getNewPassword());
-        user.setPasswordHash(newPasswordHash);
-        user.setLastPasswordChange(LocalDateTime.now());
-        userRepository.save(user);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User current = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+            // mat khau da bi doi trong luc dang hash -> ko ghi de
+            if (!currentHash.equals(current.getPasswordHash())) {
+                throw new RuntimeException("Mật khẩu đã được thay đổi, vui lòng thử lại");
+            }
+            current.setPasswordHash(newPasswordHash);
+            current.setLastPasswordChange(LocalDateTime.now());
+            userRepository.save(current);
 
-        logAuditEvent(userId, "users", userId, "PASSWORD_CHANGE", null);
+            logAuditEvent(userId, "users", userId, "PASSWORD_CHANGE", null);
+        });
     }
 
     private void applyCustomerProfile(Long userId, UpdateProfileRequest request) {
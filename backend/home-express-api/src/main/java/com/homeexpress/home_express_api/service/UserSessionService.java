@@ -9,7 +9,6 @@ import com.homeexpress.home_express_api.repository.UserSessionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -42,6 +41,12 @@ public class UserSessionService {
     @Autowired
     private SecurityConfigProperties securityConfig;
     
+    @Autowired
+    private UserActivityBuffer activityBuffer;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     // tao session moi khi login
     public UserSession createSession(User user, String ipAddress, String userAgent, String deviceId) {
         // 1. generate refresh token
@@ -99,9 +104,8 @@ public class UserSessionService {
                 return Optional.empty();
             }
             
-            // 6. update last_seen_at
-            session.setLastSeenAt(LocalDateTime.now());
-            sessionRepository.save(session);
+            // 6. update last_seen_at (write-behind, gom lai va flush theo batch)
+            activityBuffer.recordSessionSeen(session.getSessionId(), LocalDateTime.now());
             
             return Optional.of(session);
             
@@ -118,12 +122,18 @@ public class UserSessionService {
             session.setRevokedAt(LocalDateTime.now());
             session.setRevokedReason(reason);
             sessionRepository.save(session);
+            // access token cua session nay bi tu choi ngay, khong doi het han
+            tokenRevocationService.revokeSession(sessionId);
         }
     }
     
     // revoke tat ca sessions cua user (change password, security breach)
     public int revokeAllUserSessions(Long userId, String reason) {
-        return sessionRepository.revokeAllUserSessions(userId, LocalDateTime.now(), reason);
+        int revoked = sessionRepository.revokeAllUserSessions(userId, LocalDateTime.now(), reason);
+        // access token da verify khong duoc dung tu cache nua
+        jwtTokenProvider.evictCachedTokens(userId);
+        tokenRevocationService.revokeUser(userId);
+        return revoked;
     }
     
     // lay active sessions cua user (de hien thi "Manage devices")
@@ -131,13 +141,6 @@ public class UserSessionService {
         return sessionRepository.findActiveSessionsByUserId(userId, LocalDateTime.now());
     }
     
-    // cleanup expired sessions - chay scheduled task moi ngay
-    @Scheduled(cron = "${security.session-cleanup.cleanup-cron:0 0 3 * * ?}")
-    public void cleanupExpiredSessions() {
-        int deleted = sessionRepository.deleteExpiredSessions(LocalDateTime.now());
-        log.info("Cleaned up {} expired sessions", deleted);
-    }
-    
     // helper - hash token bang SHA-256
     private String hashToken(String token) {
         try {
@@ -91,9 +91,10 @@ public class VehiclePricingService {
         return VehiclePricingResponse.fromEntity(saved);
     }
 
+    @Transactional(readOnly = true)
     public List<VehiclePricingResponse> getAllVehiclePricing() {
-        return vehiclePricingRepository.findAll().stream()
-                .map(VehiclePricingResponse::fromEntity)
+        return vehiclePricingRepository.findAllViews().stream()
+                .map(VehiclePricingResponse::fromView)
                 .collect(Collectors.toList());
     }
 
@@ -9,6 +9,8 @@ import com.homeexpress.home_express_api.exception.UnauthorizedException;
 import com.homeexpress.home_express_api.repository.TransportRepository;
 import com.homeexpress.home_express_api.repository.UserRepository;
 import com.homeexpress.home_express_api.repository.VehicleRepository;
+import com.homeexpress.home_express_api.util.RequestIdentityContext;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,6 +34,9 @@ public class VehicleService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private OutboxService outboxService;
+
     public String normalizeLicensePlate(String licensePlate) {
         if (licensePlate == null) {
             return null;
@@ -65,14 +70,14 @@ public class VehicleService {
 
     @Transactional
     public VehicleResponse createVehicle(VehicleRequest request, Long userId) {
-        User user = userRepository.findById(userId)
+        User user = RequestIdentityContext.resolve(User.class, userId, userRepository::findById)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (user.getRole() != UserRole.TRANSPORT) {
             throw new UnauthorizedException("Only TRANSPORT role can create vehicles");
         }
 
-        Transport transport = transportRepository.findById(userId)
+        Transport transport = RequestIdentityContext.resolve(Transport.class, userId, transportRepository::findById)
                 .orElseThrow(() -> new ResourceNotFoundException("Transport profile not found"));
 
         if (!validateVietnameseLicensePlate(request.getLicensePlate())) {
@@ -104,12 +109,13 @@ public class VehicleService {
         vehicle.setCreatedBy(user);
 
         Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        outboxService.enqueueJobBoardRebuild(transport.getTransportId());
         return VehicleResponse.fromEntity(savedVehicle);
     }
 
     @Transactional(readOnly = true)
     public List<VehicleResponse> getVehiclesByTransport(Long userId) {
-        User user = userRepository.findById(userId)
+        User user = RequestIdentityContext.resolve(User.class, userId, userRepository::findById)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (user.getRole() != UserRole.TRANSPORT) {
@@ -124,7 +130,7 @@ public class VehicleService {
 
     @Transactional(readOnly = true)
     public VehicleResponse getVehicleById(Long vehicleId, Long userId) {
-        User user = userRepository.findById(userId)
+        User user = RequestIdentityContext.resolve(User.class, userId, userRepository::findById)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (user.getRole() != UserRole.TRANSPORT) {
@@ -141,7 +147,7 @@ public class VehicleService {
 
     @Transactional
     public VehicleResponse updateVehicle(Long vehicleId, VehicleRequest request, Long userId) {
-        User user = userRepository.findById(userId)
+        User user = RequestIdentityContext.resolve(User.class, userId, userRepository::findById)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (user.getRole() != UserRole.TRANSPORT) {
@@ -184,7 +190,7 @@ public class VehicleService {
 
     @Transactional
     public void deleteVehicle(Long vehicleId, Long userId) {
-        User user = userRepository.findById(userId)
+        User user = RequestIdentityContext.resolve(User.class, userId, userRepository::findById)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (user.getRole() != UserRole.TRANSPORT) {
@@ -197,11 +203,12 @@ public class VehicleService {
         checkOwnership(vehicle, userId);
 
         vehicleRepository.delete(vehicle);
+        outboxService.enqueueJobBoardRebuild(userId);
     }
 
     @Transactional
     public VehicleResponse updateVehicleStatus(Long vehicleId, VehicleStatusUpdateRequest request, Long userId) {
-        User user = userRepository.findById(userId)
+        User user = RequestIdentityContext.resolve(User.class, userId, userRepository::findById)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (user.getRole() != UserRole.TRANSPORT) {
@@ -217,6 +224,8 @@ public class VehicleService {
         vehicle.setUpdatedBy(user);
 
         Vehicle updatedVehicle = vehicleRepository.save(vehicle);
+        // Xe ACTIVE la dieu kien nhan job tren job board
+        outboxService.enqueueJobBoardRebuild(userId);
         return VehicleResponse.fromEntity(updatedVehicle);
     }
 
@@ -8,6 +8,7 @@ import com.homeexpress.home_express_api.entity.WalletTransactionType;
 import com.homeexpress.home_express_api.exception.ResourceNotFoundException;
 import com.homeexpress.home_express_api.repository.TransportWalletRepository;
 import com.homeexpress.home_express_api.repository.TransportWalletTransactionRepository;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.slf4j.Logger;
@@ -22,11 +23,14 @@ public class WalletService {
 
     private final TransportWalletRepository walletRepository;
     private final TransportWalletTransactionRepository transactionRepository;
+    private final OutboxService outboxService;
 
     public WalletService(TransportWalletRepository walletRepository,
-            TransportWalletTransactionRepository transactionRepository) {
+            TransportWalletTransactionRepository transactionRepository,
+            OutboxService outboxService) {
         this.walletRepository = walletRepository;
         this.transactionRepository = transactionRepository;
+        this.outboxService = outboxService;
     }
 
     /**
@@ -78,6 +82,7 @@ public class WalletService {
         wallet.setLastTransactionAt(transaction.getCreatedAt());
 
         walletRepository.save(wallet);
+        outboxService.enqueueStatsRollupWallet(wallet.getTransportId(), transaction.getCreatedAt().toLocalDate());
         return transactionRepository.save(transaction);
     }
 
@@ -116,6 +121,7 @@ public class WalletService {
         wallet.setLastTransactionAt(transaction.getCreatedAt());
 
         walletRepository.save(wallet);
+        outboxService.enqueueStatsRollupWallet(wallet.getTransportId(), transaction.getCreatedAt().toLocalDate());
         return transactionRepository.save(transaction);
     }
 
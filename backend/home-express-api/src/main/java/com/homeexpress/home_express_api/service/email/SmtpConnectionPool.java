@@ -0,0 +1,139 @@
+package com.homeexpress.home_express_api.service.email;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a small set of authenticated SMTP connections open and reuses them across messages,
+ * instead of the connect/EHLO/STARTTLS/AUTH/QUIT round trips {@link JavaMailSender#send}
+ * performs for every message.
+ * <p>
+ * A connection idle for longer than {@code email.smtp.validate-after-idle-ms} is checked
+ * with NOOP before reuse; a connection that fails a send is discarded.
+ */
+@Slf4j
+@Component
+public class SmtpConnectionPool {
+
+    private final JavaMailSender mailSender;
+    private final BlockingQueue<PooledTransport> idle;
+    private final Semaphore permits;
+    private final long validateAfterIdleMs;
+    private final long borrowTimeoutMs;
+
+    public SmtpConnectionPool(
+            JavaMailSender mailSender,
+            @Value("${email.smtp.pool-size:4}") int poolSize,
+            @Value("${email.smtp.validate-after-idle-ms:30000}") long validateAfterIdleMs,
+            @Value("${email.smtp.borrow-timeout-ms:30000}") long borrowTimeoutMs) {
+        this.mailSender = mailSender;
+        this.idle = new LinkedBlockingQueue<>(poolSize);
+        this.permits = new Semaphore(poolSize);
+        this.validateAfterIdleMs = validateAfterIdleMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+    }
+
+    /**
+     * Send one message over a pooled connection.
+     */
+    public void send(SimpleMailMessage message) {
+        if (!(mailSender instanceof JavaMailSenderImpl sender)) {
+            // Custom sender (e.g. in tests): no access to the session, send directly
+            mailSender.send(message);
+            return;
+        }
+
+        PooledTransport transport = null;
+        boolean healthy = false;
+        try {
+            MimeMessage mime = sender.createMimeMessage();
+            message.copyTo(new MimeMailMessage(mime));
+            mime.saveChanges();
+
+            transport = borrow(sender);
+            transport.transport().sendMessage(mime, mime.getAllRecipients());
+            healthy = true;
+        } catch (MessagingException e) {
+            throw new MailSendException("Failed to send email: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection");
+        } finally {
+            if (transport != null) {
+                release(transport, healthy);
+            }
+        }
+    }
+
+    private PooledTransport borrow(JavaMailSenderImpl sender) throws MessagingException, InterruptedException {
+        if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new MailSendException("Timed out waiting for an SMTP connection");
+        }
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.poll()) != null) {
+                boolean stale = System.currentTimeMillis() - pooled.lastUsedAt() > validateAfterIdleMs;
+                if (!stale || pooled.transport().isConnected()) {
+                    return pooled;
+                }
+                closeQuietly(pooled);
+            }
+            return connect(sender);
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(PooledTransport transport, boolean healthy) {
+        try {
+            if (!healthy || !idle.offer(new PooledTransport(transport.transport(), System.currentTimeMillis()))) {
+                closeQuietly(transport);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PooledTransport connect(JavaMailSenderImpl sender) throws MessagingException {
+        String protocol = sender.getProtocol() != null ? sender.getProtocol() : "smtp";
+        Transport transport = sender.getSession().getTransport(protocol);
+        transport.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+        log.debug("Opened SMTP connection to {}:{}", sender.getHost(), sender.getPort());
+        return new PooledTransport(transport, System.currentTimeMillis());
+    }
+
+    private void closeQuietly(PooledTransport pooled) {
+        try {
+            pooled.transport().close();
+        } catch (Exception e) {
+            // Ignore
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            closeQuietly(pooled);
+        }
+    }
+
+    private record PooledTransport(Transport transport, long lastUsedAt) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.homeexpress.home_express_api.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homeexpress.home_express_api.dto.SettlementDTO;
+import com.homeexpress.home_express_api.dto.booking.BookingResponse;
+import com.homeexpress.home_express_api.dto.incident.IncidentResponse;
+import com.homeexpress.home_express_api.dto.payout.PayoutDTO;
+import com.homeexpress.home_express_api.exception.TooManyRequestsException;
+import com.homeexpress.home_express_api.repository.BookingRepository;
+import com.homeexpress.home_express_api.repository.BookingSettlementRepository;
+import com.homeexpress.home_express_api.repository.IncidentRepository;
+import com.homeexpress.home_express_api.repository.TransportPayoutRepository;
+import com.homeexpress.home_express_api.repository.projection.BookingView;
+import com.homeexpress.home_express_api.repository.projection.IncidentView;
+import com.homeexpress.home_express_api.repository.projection.PayoutView;
+import com.homeexpress.home_express_api.repository.projection.SettlementView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Writes whole admin tables (bookings, settlements, payouts, incidents) as CSV or NDJSON.
+ * Rows are read as projections in keyset chunks of {@code export.chunk-size}, newest first,
+ * each chunk in its own short read-only transaction. The connection goes back to the pool
+ * before the chunk is written, so a slow client holds no connection while it reads.
+ * At most {@code export.max-concurrent} exports run at once; others get a 429.
+ */
+@Service
+public class AdminExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminExportService.class);
+
+    private final BookingRepository bookingRepository;
+    private final BookingSettlementRepository settlementRepository;
+    private final TransportPayoutRepository payoutRepository;
+    private final IncidentRepository incidentRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+    private final int chunkSize;
+    private final Semaphore running;
+
+    public AdminExportService(BookingRepository bookingRepository,
+                              BookingSettlementRepository settlementRepository,
+                              TransportPayoutRepository payoutRepository,
+                              IncidentRepository incidentRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${export.chunk-size:1000}") int chunkSize,
+                              @Value("${export.max-concurrent:2}") int maxConcurrent) {
+        this.bookingRepository = bookingRepository;
+        this.settlementRepository = settlementRepository;
+        this.payoutRepository = payoutRepository;
+        this.incidentRepository = incidentRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.running = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Writes every row of the dataset to {@code out}, newest first.
+     *
+     * @return number of rows written
+     * @throws TooManyRequestsException if {@code export.max-concurrent} exports are already running
+     */
+    public long export(ExportDataset dataset, ExportFormat format, OutputStream out) throws IOException {
+        if (!running.tryAcquire()) {
+            throw new TooManyRequestsException("Another export is running. Please try again later.", 30);
+        }
+        try {
+            long rows = switch (dataset) {
+                case BOOKINGS -> write(
+                        (at, id, page) -> bookingRepository.findViewsPage(at, id, page),
+                        BookingView::getCreatedAt, BookingView::getBookingId,
+                        BookingResponse::fromView, format, out);
+                case SETTLEMENTS -> write(
+                        (at, id, page) -> settlementRepository.findViewsPage(null, null, at, id, page),
+                        SettlementView::getCreatedAt, SettlementView::getSettlementId,
+                        SettlementDTO::fromView, format, out);
+                case PAYOUTS -> write(
+                        (at, id, page) -> payoutRepository.findViewsPage(null, null, at, id, page),
+                        PayoutView::getCreatedAt, PayoutView::getPayoutId,
+                        PayoutDTO::fromView, format, out);
+                case INCIDENTS -> write(
+                        (at, id, page) -> incidentRepository.findViewsPage(null, null, null, at, id, page),
+                        IncidentView::getReportedAt, IncidentView::getIncidentId,
+                        IncidentResponse::fromView, format, out);
+            };
+            log.info("Exported {} {} rows as {}", rows, dataset, format);
+            return rows;
+        } finally {
+            running.release();
+        }
+    }
+
+    private <V> long write(ChunkReader<V> reader, Function<V, LocalDateTime> cursorTime, Function<V, Long> cursorId,
+                           Function<V, ?> mapper, ExportFormat format, OutputStream out) throws IOException {
+        ExportWriter writer = new ExportWriter(objectMapper, format, out);
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        LocalDateTime afterTime = null;
+        Long afterId = null;
+        while (true) {
+            LocalDateTime time = afterTime;
+            Long id = afterId;
+            List<V> views = readOnlyTx.execute(status -> reader.read(time, id, chunk));
+            for (V view : views) {
+                writer.write(mapper.apply(view));
+            }
+            if (views.size() < chunkSize) {
+                break;
+            }
+            V last = views.get(views.size() - 1);
+            afterTime = cursorTime.apply(last);
+            afterId = cursorId.apply(last);
+        }
+        writer.finish();
+        return writer.getRows();
+    }
+
+    @FunctionalInterface
+    private interface ChunkReader<V> {
+        List<V> read(LocalDateTime afterTime, Long afterId, Pageable page);
+    }
+}
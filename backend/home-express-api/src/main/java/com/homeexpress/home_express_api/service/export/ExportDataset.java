@@ -0,0 +1,27 @@
+package com.homeexpress.home_express_api.service.export;
+
+import com.homeexpress.home_express_api.exception.BadRequestException;
+
+/**
+ * Tables that can be exported from the admin console.
+ */
+public enum ExportDataset {
+
+    BOOKINGS,
+    SETTLEMENTS,
+    PAYOUTS,
+    INCIDENTS;
+
+    public String fileName(ExportFormat format) {
+        return name().toLowerCase() + "." + format.getExtension();
+    }
+
+    public static ExportDataset from(String value) {
+        for (ExportDataset dataset : values()) {
+            if (dataset.name().equalsIgnoreCase(value)) {
+                return dataset;
+            }
+        }
+        throw new BadRequestException("Unknown export dataset: " + value);
+    }
+}
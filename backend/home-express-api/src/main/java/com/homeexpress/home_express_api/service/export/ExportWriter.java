@@ -0,0 +1,105 @@
+package com.homeexpress.home_express_api.service.export;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes export rows to an output stream as they arrive, so memory use does not depend on
+ * the number of rows. CSV columns are the JSON properties of the first row, in order; nested
+ * values are written as JSON text. Text that a spreadsheet would run as a formula (starting
+ * with {@code = + - @}, tab or carriage return) is prefixed with {@code '}.
+ */
+public class ExportWriter {
+
+    // Day du lieu xuong client theo tung dot thay vi doi het
+    private static final int FLUSH_EVERY_ROWS = 500;
+    private static final String FORMULA_START = "=+-@\t\r";
+    private static final TypeReference<LinkedHashMap<String, Object>> ROW_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final ExportFormat format;
+    private final Writer out;
+    private List<String> columns;
+    private long rows;
+
+    public ExportWriter(ObjectMapper objectMapper, ExportFormat format, OutputStream out) {
+        this.objectMapper = objectMapper;
+        this.format = format;
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    public void write(Object row) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            out.write(objectMapper.writeValueAsString(row));
+            out.write('\n');
+        } else {
+            writeCsv(objectMapper.convertValue(row, ROW_TYPE));
+        }
+        if (++rows % FLUSH_EVERY_ROWS == 0) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Flushes what is left. The underlying stream is not closed.
+     */
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    private void writeCsv(Map<String, Object> values) throws IOException {
+        if (columns == null) {
+            columns = new ArrayList<>(values.keySet());
+            writeCsvLine(new ArrayList<>(columns));
+        }
+        List<Object> line = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            line.add(values.get(column));
+        }
+        writeCsvLine(line);
+    }
+
+    private void writeCsvLine(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(csvField(values.get(i)));
+        }
+        out.write("\r\n");
+    }
+
+    private String csvField(Object value) throws IOException {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof Map<?, ?> || value instanceof Collection<?>
+                ? objectMapper.writeValueAsString(value)
+                : value.toString();
+        // Mo bang Excel: chan formula injection tu text nguoi dung nhap (so am van giu nguyen)
+        if (!(value instanceof Number) && !text.isEmpty() && FORMULA_START.indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
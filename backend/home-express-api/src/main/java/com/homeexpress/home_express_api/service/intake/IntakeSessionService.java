@@ -9,7 +9,6 @@ import com.homeexpress.home_express_api.repository.IntakeSessionItemRepository;
 import com.homeexpress.home_express_api.constants.BookingConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -113,24 +112,6 @@ public class IntakeSessionService {
         log.info("Đã xóa session vĩnh viễn: {}", sessionId);
     }
     
-    /**
-     * Job chạy ngầm định kỳ để dọn dẹp rác.
-     * 1. Đánh dấu hết hạn cho các session quá giờ.
-     * 2. Xóa vĩnh viễn các session đã hết hạn quá lâu (VD: 30 ngày).
-     */
-    @Scheduled(cron = BookingConstants.INTAKE_SESSION_CLEANUP_CRON)
-    @Transactional
-    public void cleanupExpiredSessions() {
-        LocalDateTime now = LocalDateTime.now();
-        
-        int expired = sessionRepository.expireOldSessions(now);
-        log.info("Đã đánh dấu hết hạn {} session cũ", expired);
-        
-        LocalDateTime cutoff = now.minusDays(BookingConstants.INTAKE_SESSION_CLEANUP_DAYS);
-        int deleted = sessionRepository.deleteExpiredSessions(cutoff);
-        log.info("Đã dọn dẹp sạch sẽ {} session rác (cũ hơn {} ngày)", deleted, BookingConstants.INTAKE_SESSION_CLEANUP_DAYS);
-    }
-    
     // Helper: Chuyển đổi từ DTO (dữ liệu AI trả về) sang Entity (Lưu DB)
     private IntakeSessionItem mapCandidateToItem(ItemCandidateDto candidate) {
         IntakeSessionItem.IntakeSessionItemBuilder builder = IntakeSessionItem.builder()
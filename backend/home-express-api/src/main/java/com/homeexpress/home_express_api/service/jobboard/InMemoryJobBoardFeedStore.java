@@ -0,0 +1,147 @@
+package com.homeexpress.home_express_api.service.jobboard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Feeds held in this process, for single-node deployments and local development. Writes are
+ * serialized; reads walk the sorted sets without locking. Empty after a restart until the
+ * job board reconcile rebuilds it.
+ */
+@Component
+@ConditionalOnProperty(name = "jobboard.store", havingValue = "memory")
+public class InMemoryJobBoardFeedStore implements JobBoardFeedStore {
+
+    private static final Comparator<Entry> NEWEST_FIRST = Comparator
+            .comparingLong(Entry::score).reversed()
+            .thenComparing(Entry::bookingId, Comparator.reverseOrder());
+
+    private final Map<Long, NavigableSet<Entry>> feeds = new ConcurrentHashMap<>();
+    // booking ID -> transports whose feed holds it, and the score it was stored with
+    private final Map<Long, Set<Long>> holders = new ConcurrentHashMap<>();
+    private final Map<Long, Long> scores = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized Change place(Long bookingId, long score, Collection<Long> transportIds) {
+        Set<Long> previous = holders.getOrDefault(bookingId, Set.of());
+        Long previousScore = scores.get(bookingId);
+
+        Set<Long> removed = new HashSet<>(previous);
+        removed.removeAll(transportIds);
+        Set<Long> added = new HashSet<>(transportIds);
+        added.removeAll(previous);
+
+        for (Long transportId : previous) {
+            removeEntry(transportId, new Entry(bookingId, previousScore));
+        }
+        for (Long transportId : transportIds) {
+            feeds.computeIfAbsent(transportId, k -> new ConcurrentSkipListSet<>(NEWEST_FIRST))
+                    .add(new Entry(bookingId, score));
+        }
+
+        if (transportIds.isEmpty()) {
+            holders.remove(bookingId);
+            scores.remove(bookingId);
+        } else {
+            holders.put(bookingId, ConcurrentHashMap.newKeySet());
+            holders.get(bookingId).addAll(transportIds);
+            scores.put(bookingId, score);
+        }
+        return new Change(added, removed);
+    }
+
+    @Override
+    public synchronized void replaceFeed(Long transportId, Map<Long, Long> newScores) {
+        NavigableSet<Entry> old = feeds.remove(transportId);
+        if (old != null) {
+            for (Entry entry : old) {
+                Set<Long> bookingHolders = holders.get(entry.bookingId());
+                if (bookingHolders != null) {
+                    bookingHolders.remove(transportId);
+                    if (bookingHolders.isEmpty()) {
+                        holders.remove(entry.bookingId());
+                        scores.remove(entry.bookingId());
+                    }
+                }
+            }
+        }
+        if (newScores.isEmpty()) {
+            return;
+        }
+
+        NavigableSet<Entry> feed = new ConcurrentSkipListSet<>(NEWEST_FIRST);
+        newScores.forEach((bookingId, score) -> {
+            feed.add(new Entry(bookingId, score));
+            holders.computeIfAbsent(bookingId, k -> ConcurrentHashMap.newKeySet()).add(transportId);
+            scores.put(bookingId, score);
+        });
+        feeds.put(transportId, feed);
+    }
+
+    @Override
+    public List<Entry> range(Long transportId, long offset, int count) {
+        NavigableSet<Entry> feed = feeds.get(transportId);
+        if (feed == null) {
+            return List.of();
+        }
+        List<Entry> page = new ArrayList<>(count);
+        Iterator<Entry> it = feed.iterator();
+        for (long skipped = 0; skipped < offset && it.hasNext(); skipped++) {
+            it.next();
+        }
+        while (it.hasNext() && page.size() < count) {
+            page.add(it.next());
+        }
+        return page;
+    }
+
+    @Override
+    public List<Entry> rangeFrom(Long transportId, long maxScore, int count) {
+        NavigableSet<Entry> feed = feeds.get(transportId);
+        if (feed == null) {
+            return List.of();
+        }
+        List<Entry> page = new ArrayList<>(count);
+        // Sorts before every entry with this score
+        for (Entry entry : feed.tailSet(new Entry(Long.MAX_VALUE, maxScore), true)) {
+            if (page.size() == count) {
+                break;
+            }
+            page.add(entry);
+        }
+        return page;
+    }
+
+    @Override
+    public long size(Long transportId) {
+        NavigableSet<Entry> feed = feeds.get(transportId);
+        return feed != null ? feed.size() : 0;
+    }
+
+    @Override
+    public Set<Long> transportIds() {
+        return Set.copyOf(feeds.keySet());
+    }
+
+    private void removeEntry(Long transportId, Entry entry) {
+        NavigableSet<Entry> feed = feeds.get(transportId);
+        if (feed != null) {
+            feed.remove(entry);
+            if (feed.isEmpty()) {
+                feeds.remove(transportId);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.homeexpress.home_express_api.service.jobboard;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-transport job-board feeds: for each transport, the open bookings it matches, ordered by
+ * score (booking creation time in epoch millis) and then booking id, newest first.
+ * {@code jobboard.store} selects the implementation: {@code redis} (default, shared by all
+ * nodes) or {@code memory} (single node only, rebuilt from the database at startup).
+ */
+public interface JobBoardFeedStore {
+
+    /**
+     * Make {@code transportIds} exactly the set of feeds holding the booking.
+     *
+     * @return the transports that gained and lost the booking
+     */
+    Change place(Long bookingId, long score, Collection<Long> transportIds);
+
+    /**
+     * Replace a transport's whole feed.
+     *
+     * @param scores booking id to score
+     */
+    void replaceFeed(Long transportId, Map<Long, Long> scores);
+
+    /**
+     * Up to {@code count} entries, newest first, skipping the first {@code offset}.
+     */
+    List<Entry> range(Long transportId, long offset, int count);
+
+    /**
+     * Up to {@code count} entries with a score of at most {@code maxScore}, newest first.
+     */
+    List<Entry> rangeFrom(Long transportId, long maxScore, int count);
+
+    long size(Long transportId);
+
+    /**
+     * Transports that currently have a non-empty feed.
+     */
+    Set<Long> transportIds();
+
+    /**
+     * Whether every node reads and writes the same feeds, so one node's rebuild serves all.
+     */
+    default boolean shared() {
+        return false;
+    }
+
+    record Entry(Long bookingId, long score) {
+    }
+
+    record Change(Set<Long> added, Set<Long> removed) {
+    }
+}
@@ -0,0 +1,252 @@
+package com.homeexpress.home_express_api.service.jobboard;
+
+import com.homeexpress.home_express_api.entity.Booking;
+import com.homeexpress.home_express_api.entity.BookingStatus;
+import com.homeexpress.home_express_api.entity.TransportSettings;
+import com.homeexpress.home_express_api.entity.VehicleStatus;
+import com.homeexpress.home_express_api.entity.VerificationStatus;
+import com.homeexpress.home_express_api.repository.BookingRepository;
+import com.homeexpress.home_express_api.repository.TransportRepository;
+import com.homeexpress.home_express_api.repository.TransportSettingsRepository;
+import com.homeexpress.home_express_api.service.TransportEventService;
+import com.homeexpress.home_express_api.util.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps each transport's job-board feed in {@link JobBoardFeedStore} up to date, so listing
+ * available jobs reads one page of booking ids instead of matching every open booking.
+ * <ul>
+ *   <li>A booking change ({@link #refreshBooking}) matches that one booking against all
+ *       eligible transports (approved, ready to quote, at least one active vehicle, search
+ *       radius and minimum job value) and moves it into or out of their feeds.</li>
+ *   <li>A transport change ({@link #rebuildTransport}) re-reads that transport's feed.</li>
+ *   <li>{@link #reconcile()} rebuilds every feed periodically and at startup, repairing any
+ *       change that was missed. With a shared store only the node holding the Redis lock
+ *       runs it.</li>
+ * </ul>
+ * Changes are queued through the outbox by the services that make them; transports with an
+ * open stream on this node are told about bookings entering or leaving their feed.
+ */
+@Service
+public class JobBoardService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobBoardService.class);
+    private static final List<BookingStatus> OPEN_STATUSES = List.of(BookingStatus.PENDING, BookingStatus.QUOTED);
+    private static final String LOCK_KEY = "jobboard:reconcile-lock";
+
+    // KEYS: lock. ARGV: owner token. Only the owner may release.
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
+    private final JobBoardFeedStore store;
+    private final BookingRepository bookingRepository;
+    private final TransportRepository transportRepository;
+    private final TransportSettingsRepository transportSettingsRepository;
+    private final TransportEventService transportEventService;
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final Duration lockTtl;
+
+    public JobBoardService(
+            JobBoardFeedStore store,
+            BookingRepository bookingRepository,
+            TransportRepository transportRepository,
+            TransportSettingsRepository transportSettingsRepository,
+            TransportEventService transportEventService,
+            StringRedisTemplate redisTemplate,
+            @Value("${jobboard.enabled:true}") boolean enabled,
+            @Value("${jobboard.lock-ttl-ms:600000}") long lockTtlMs) {
+        this.store = store;
+        this.bookingRepository = bookingRepository;
+        this.transportRepository = transportRepository;
+        this.transportSettingsRepository = transportSettingsRepository;
+        this.transportEventService = transportEventService;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.lockTtl = Duration.ofMillis(lockTtlMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Re-match a booking from its current database state: placed in the feed of every
+     * matching transport while it is open, removed from all feeds otherwise.
+     */
+    public void refreshBooking(Long bookingId) {
+        if (!enabled) {
+            return;
+        }
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+
+        List<Long> matches = List.of();
+        long score = 0;
+        if (booking != null && isOpen(booking)) {
+            long estimatedPrice = booking.getEstimatedPrice() != null ? booking.getEstimatedPrice().longValue() : 0L;
+            matches = transportRepository.findJobBoardMatches(VerificationStatus.APPROVED, VehicleStatus.ACTIVE,
+                    booking.getDistanceKm(), estimatedPrice);
+            score = score(booking.getCreatedAt());
+        }
+
+        JobBoardFeedStore.Change change = store.place(bookingId, score, matches);
+        change.added().forEach(transportId -> transportEventService.sendMatchAdded(transportId, bookingId));
+        change.removed().forEach(transportId -> transportEventService.sendMatchRemoved(transportId, bookingId));
+        if (!change.added().isEmpty() || !change.removed().isEmpty()) {
+            log.debug("Job board: booking {} added to {} and removed from {} feeds",
+                    bookingId, change.added().size(), change.removed().size());
+        }
+    }
+
+    /**
+     * Rebuild one transport's feed after its eligibility or settings changed.
+     */
+    public void rebuildTransport(Long transportId) {
+        if (!enabled) {
+            return;
+        }
+        boolean eligible = transportRepository
+                .isJobBoardEligible(transportId, VerificationStatus.APPROVED, VehicleStatus.ACTIVE);
+        rebuild(transportId, eligible);
+    }
+
+    @Scheduled(fixedDelayString = "${jobboard.reconcile-interval-ms:900000}",
+            initialDelayString = "${jobboard.reconcile-initial-delay-ms:0}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        // A node-local store has to be rebuilt on every node; a shared one only once
+        if (!store.shared()) {
+            reconcileAll();
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        if (!tryLock(token)) {
+            log.debug("Job board reconcile skipped, another node holds the lock");
+            return;
+        }
+        try {
+            reconcileAll();
+        } finally {
+            releaseLock(token);
+        }
+    }
+
+    private void reconcileAll() {
+        Set<Long> eligible = new HashSet<>(
+                transportRepository.findJobBoardEligibleIds(VerificationStatus.APPROVED, VehicleStatus.ACTIVE));
+        Set<Long> transportIds = new HashSet<>(eligible);
+        transportIds.addAll(store.transportIds());
+
+        int failed = 0;
+        for (Long transportId : transportIds) {
+            try {
+                rebuild(transportId, eligible.contains(transportId));
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Job board rebuild failed for transport {}: {}", transportId, e.getMessage());
+            }
+        }
+        log.debug("Job board reconciled {} transports ({} failed)", transportIds.size(), failed);
+    }
+
+    public long feedSize(Long transportId) {
+        return store.size(transportId);
+    }
+
+    /**
+     * Booking ids of one page of the feed, newest first.
+     */
+    public List<Long> feedPage(Long transportId, long offset, int count) {
+        return store.range(transportId, offset, count).stream()
+                .map(JobBoardFeedStore.Entry::bookingId)
+                .toList();
+    }
+
+    /**
+     * Up to {@code count} booking ids strictly after the cursor, newest first.
+     */
+    public List<Long> feedAfter(Long transportId, KeysetCursor cursor, int count) {
+        long cursorScore = score(cursor.timestamp());
+        int fetch = count + 1;
+        while (true) {
+            List<JobBoardFeedStore.Entry> window = store.rangeFrom(transportId, cursorScore, fetch);
+            List<Long> ids = new ArrayList<>(count);
+            for (JobBoardFeedStore.Entry entry : window) {
+                // Entries sharing the cursor's score come before it unless their id is lower
+                if (entry.score() == cursorScore && entry.bookingId() >= cursor.id()) {
+                    continue;
+                }
+                if (ids.size() == count) {
+                    break;
+                }
+                ids.add(entry.bookingId());
+            }
+            if (ids.size() == count || window.size() < fetch) {
+                return ids;
+            }
+            fetch *= 2;
+        }
+    }
+
+    public static boolean isOpen(Booking booking) {
+        return OPEN_STATUSES.contains(booking.getStatus()) && booking.getTransportId() == null;
+    }
+
+    private void rebuild(Long transportId, boolean eligible) {
+        Map<Long, Long> scores = new HashMap<>();
+        if (eligible) {
+            TransportSettings settings = transportSettingsRepository.findById(transportId).orElse(null);
+            BigDecimal radius = settings != null ? settings.getSearchRadiusKm() : null;
+            BigDecimal minPrice = settings != null && settings.getMinJobValueVnd() != null && settings.getMinJobValueVnd() > 0L
+                    ? BigDecimal.valueOf(settings.getMinJobValueVnd())
+                    : null;
+            for (Object[] row : bookingRepository.findAvailableKeysForTransport(OPEN_STATUSES, radius, minPrice)) {
+                scores.put(((Number) row[0]).longValue(), score((LocalDateTime) row[1]));
+            }
+        }
+        store.replaceFeed(transportId, scores);
+    }
+
+    private boolean tryLock(String token) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, lockTtl));
+        } catch (Exception e) {
+            log.warn("Redis unavailable for the job board lock, reconciling without it: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void releaseLock(String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(LOCK_KEY), token);
+        } catch (Exception e) {
+            // Expires on its own after jobboard.lock-ttl-ms
+            log.warn("Failed to release the job board lock: {}", e.getMessage());
+        }
+    }
+
+    private static long score(LocalDateTime createdAt) {
+        return createdAt != null ? createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+    }
+}
@@ -0,0 +1,162 @@
+package com.homeexpress.home_express_api.service.jobboard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Feeds as Redis sorted sets ({@code jobboard:feed:{transportId}}), with a reverse index per
+ * booking ({@code jobboard:booking:{member}}) so a booking can be moved or dropped without
+ * scanning every feed, and the set of transports with a feed ({@code jobboard:transports}).
+ * Members are zero-padded booking ids, so equal scores order by booking id.
+ * Every change runs as one script. Key names are built inside the scripts, so this
+ * assumes a single Redis node rather than a cluster.
+ */
+@Component
+@ConditionalOnProperty(name = "jobboard.store", havingValue = "redis", matchIfMissing = true)
+public class RedisJobBoardFeedStore implements JobBoardFeedStore {
+
+    private static final String FEED_PREFIX = "jobboard:feed:";
+    private static final String BOOKING_PREFIX = "jobboard:booking:";
+    private static final String TRANSPORTS_KEY = "jobboard:transports";
+
+    // KEYS: booking index. ARGV: member, score, transport ids...
+    // Returns "+id" for each transport that gained the booking and "-id" for each that lost it.
+    private static final DefaultRedisScript<List> PLACE_SCRIPT = new DefaultRedisScript<>(
+            "local keep = {} "
+                    + "for i = 3, #ARGV do keep[ARGV[i]] = true end "
+                    + "local had = {} "
+                    + "local out = {} "
+                    + "for _, t in ipairs(redis.call('SMEMBERS', KEYS[1])) do "
+                    + "  had[t] = true "
+                    + "  if not keep[t] then "
+                    + "    local feed = '" + FEED_PREFIX + "' .. t "
+                    + "    redis.call('ZREM', feed, ARGV[1]) "
+                    + "    redis.call('SREM', KEYS[1], t) "
+                    + "    if redis.call('ZCARD', feed) == 0 then redis.call('SREM', '" + TRANSPORTS_KEY + "', t) end "
+                    + "    table.insert(out, '-' .. t) "
+                    + "  end "
+                    + "end "
+                    + "for i = 3, #ARGV do "
+                    + "  local t = ARGV[i] "
+                    + "  redis.call('ZADD', '" + FEED_PREFIX + "' .. t, ARGV[2], ARGV[1]) "
+                    + "  redis.call('SADD', KEYS[1], t) "
+                    + "  redis.call('SADD', '" + TRANSPORTS_KEY + "', t) "
+                    + "  if not had[t] then table.insert(out, '+' .. t) end "
+                    + "end "
+                    + "return out",
+            List.class);
+
+    // KEYS: feed. ARGV: transport id, then score/member pairs.
+    private static final DefaultRedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>(
+            "for _, m in ipairs(redis.call('ZRANGE', KEYS[1], 0, -1)) do "
+                    + "  redis.call('SREM', '" + BOOKING_PREFIX + "' .. m, ARGV[1]) "
+                    + "end "
+                    + "redis.call('DEL', KEYS[1]) "
+                    + "for i = 2, #ARGV, 2 do "
+                    + "  redis.call('ZADD', KEYS[1], ARGV[i], ARGV[i + 1]) "
+                    + "  redis.call('SADD', '" + BOOKING_PREFIX + "' .. ARGV[i + 1], ARGV[1]) "
+                    + "end "
+                    + "if #ARGV > 1 then redis.call('SADD', '" + TRANSPORTS_KEY + "', ARGV[1]) "
+                    + "else redis.call('SREM', '" + TRANSPORTS_KEY + "', ARGV[1]) end "
+                    + "return (#ARGV - 1) / 2",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisJobBoardFeedStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public boolean shared() {
+        return true;
+    }
+
+    @Override
+    public Change place(Long bookingId, long score, Collection<Long> transportIds) {
+        String member = member(bookingId);
+        List<String> args = new ArrayList<>(transportIds.size() + 2);
+        args.add(member);
+        args.add(Long.toString(score));
+        transportIds.forEach(id -> args.add(id.toString()));
+
+        List<?> result = redisTemplate.execute(PLACE_SCRIPT, List.of(BOOKING_PREFIX + member), args.toArray());
+        Set<Long> added = new HashSet<>();
+        Set<Long> removed = new HashSet<>();
+        if (result != null) {
+            for (Object value : result) {
+                String token = value.toString();
+                Long transportId = Long.parseLong(token.substring(1));
+                (token.charAt(0) == '+' ? added : removed).add(transportId);
+            }
+        }
+        return new Change(added, removed);
+    }
+
+    @Override
+    public void replaceFeed(Long transportId, Map<Long, Long> scores) {
+        List<String> args = new ArrayList<>(scores.size() * 2 + 1);
+        args.add(transportId.toString());
+        scores.forEach((bookingId, score) -> {
+            args.add(Long.toString(score));
+            args.add(member(bookingId));
+        });
+        redisTemplate.execute(REPLACE_SCRIPT, List.of(FEED_PREFIX + transportId), args.toArray());
+    }
+
+    @Override
+    public List<Entry> range(Long transportId, long offset, int count) {
+        return toEntries(redisTemplate.opsForZSet()
+                .reverseRangeWithScores(FEED_PREFIX + transportId, offset, offset + count - 1));
+    }
+
+    @Override
+    public List<Entry> rangeFrom(Long transportId, long maxScore, int count) {
+        return toEntries(redisTemplate.opsForZSet()
+                .reverseRangeByScoreWithScores(FEED_PREFIX + transportId, Double.NEGATIVE_INFINITY, maxScore, 0, count));
+    }
+
+    @Override
+    public long size(Long transportId) {
+        Long size = redisTemplate.opsForZSet().zCard(FEED_PREFIX + transportId);
+        return size != null ? size : 0;
+    }
+
+    @Override
+    public Set<Long> transportIds() {
+        Set<String> members = redisTemplate.opsForSet().members(TRANSPORTS_KEY);
+        if (members == null) {
+            return Set.of();
+        }
+        return members.stream().map(Long::valueOf).collect(Collectors.toSet());
+    }
+
+    private List<Entry> toEntries(Set<ZSetOperations.TypedTuple<String>> tuples) {
+        if (tuples == null) {
+            return List.of();
+        }
+        List<Entry> entries = new ArrayList<>(tuples.size());
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            if (tuple.getValue() != null && tuple.getScore() != null) {
+                entries.add(new Entry(Long.valueOf(tuple.getValue()), tuple.getScore().longValue()));
+            }
+        }
+        return entries;
+    }
+
+    // 19 chu so: thu tu chuoi trung voi thu tu so
+    private static String member(Long bookingId) {
+        return String.format("%019d", bookingId);
+    }
+}
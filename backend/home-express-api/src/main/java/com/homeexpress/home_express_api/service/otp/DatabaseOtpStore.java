@@ -0,0 +1,44 @@
+package com.homeexpress.home_express_api.service.otp;
+
+import com.homeexpress.home_express_api.entity.OtpCode;
+import com.homeexpress.home_express_api.repository.OtpRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * {@code otp_codes} table store, for environments without Redis. A valid code is consumed
+ * with a single conditional UPDATE; the row is only read when that fails, to report an
+ * expired code. Expired rows are removed by the retention sweep. There is no attempt limit
+ * in this store.
+ */
+@Component
+@ConditionalOnProperty(name = "security.otp.store", havingValue = "database")
+public class DatabaseOtpStore implements OtpStore {
+
+    private final OtpRepository otpRepository;
+
+    public DatabaseOtpStore(OtpRepository otpRepository) {
+        this.otpRepository = otpRepository;
+    }
+
+    @Override
+    @Transactional
+    public void save(String email, String code, Duration ttl) {
+        otpRepository.save(new OtpCode(email, code, LocalDateTime.now().plus(ttl)));
+    }
+
+    @Override
+    @Transactional
+    public VerifyResult verifyAndConsume(String email, String code) {
+        if (otpRepository.consume(email, code, LocalDateTime.now()) > 0) {
+            return VerifyResult.VALID;
+        }
+        return otpRepository.findByEmailAndCodeAndIsUsedFalse(email, code)
+                .map(otp -> otp.isExpired() ? VerifyResult.EXPIRED : VerifyResult.INVALID)
+                .orElse(VerifyResult.INVALID);
+    }
+}
@@ -0,0 +1,27 @@
+package com.homeexpress.home_express_api.service.otp;
+
+import java.time.Duration;
+
+/**
+ * Storage for one-time codes. {@code security.otp.store} selects the implementation:
+ * {@code redis} (default) or {@code database} for environments without Redis.
+ */
+public interface OtpStore {
+
+    /**
+     * Store a new code for the email, valid for {@code ttl}.
+     */
+    void save(String email, String code, Duration ttl);
+
+    /**
+     * Check the code and, if it matches, consume it so it cannot be used again.
+     */
+    VerifyResult verifyAndConsume(String email, String code);
+
+    enum VerifyResult {
+        VALID,
+        INVALID,
+        EXPIRED,
+        TOO_MANY_ATTEMPTS
+    }
+}
@@ -0,0 +1,91 @@
+package com.homeexpress.home_express_api.service.otp;
+
+import com.homeexpress.home_express_api.config.SecurityConfigProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * One pending code per email in a Redis hash ({@code otp:{email}}) with a native TTL, so
+ * there is nothing to clean up. A new code replaces the previous one and resets its attempt
+ * counter.
+ * <p>
+ * Only the SHA-256 of the code is stored, and verification compares digests, so the time a
+ * comparison takes says nothing about how close a guess was. Check, attempt counting and
+ * consumption happen in one script: a code can be used once, and after
+ * {@code security.otp.max-verify-attempts} wrong guesses it is discarded.
+ */
+@Component
+@ConditionalOnProperty(name = "security.otp.store", havingValue = "redis", matchIfMissing = true)
+public class RedisOtpStore implements OtpStore {
+
+    private static final String KEY_PREFIX = "otp:";
+
+    // KEYS: otp. ARGV: digest, ttl ms.
+    private static final DefaultRedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1]) "
+                    + "redis.call('HSET', KEYS[1], 'h', ARGV[1], 'a', 0) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[2]) "
+                    + "return 1",
+            Long.class);
+
+    // KEYS: otp. ARGV: digest, max attempts.
+    // Returns 1 valid, 0 missing or expired, 2 wrong code, 3 wrong code and attempts used up.
+    private static final DefaultRedisScript<Long> VERIFY_SCRIPT = new DefaultRedisScript<>(
+            "local stored = redis.call('HGET', KEYS[1], 'h') "
+                    + "if not stored then return 0 end "
+                    + "if stored == ARGV[1] then redis.call('DEL', KEYS[1]) return 1 end "
+                    + "if redis.call('HINCRBY', KEYS[1], 'a', 1) >= tonumber(ARGV[2]) then "
+                    + "  redis.call('DEL', KEYS[1]) "
+                    + "  return 3 "
+                    + "end "
+                    + "return 2",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SecurityConfigProperties securityConfig;
+
+    public RedisOtpStore(StringRedisTemplate redisTemplate, SecurityConfigProperties securityConfig) {
+        this.redisTemplate = redisTemplate;
+        this.securityConfig = securityConfig;
+    }
+
+    @Override
+    public void save(String email, String code, Duration ttl) {
+        redisTemplate.execute(SAVE_SCRIPT, List.of(KEY_PREFIX + email),
+                digest(email, code), Long.toString(ttl.toMillis()));
+    }
+
+    @Override
+    public VerifyResult verifyAndConsume(String email, String code) {
+        Long result = redisTemplate.execute(VERIFY_SCRIPT, List.of(KEY_PREFIX + email),
+                digest(email, code), Integer.toString(securityConfig.getOtp().getMaxVerifyAttempts()));
+        if (result == null) {
+            return VerifyResult.INVALID;
+        }
+        return switch (result.intValue()) {
+            case 1 -> VerifyResult.VALID;
+            case 3 -> VerifyResult.TOO_MANY_ATTEMPTS;
+            // A missing key cannot be told apart from an expired one
+            default -> VerifyResult.INVALID;
+        };
+    }
+
+    private String digest(String email, String code) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((email + ":" + code).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not found", e);
+        }
+    }
+}
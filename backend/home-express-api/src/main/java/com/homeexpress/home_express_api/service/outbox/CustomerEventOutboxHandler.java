@@ -0,0 +1,32 @@
+package com.homeexpress.home_express_api.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homeexpress.home_express_api.service.CustomerEventService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pushes booking events queued through the outbox to connected SSE clients.
+ */
+@Component
+public class CustomerEventOutboxHandler implements OutboxHandler {
+
+    public static final String EVENT_TYPE = "CustomerEventRequested";
+
+    private final CustomerEventService customerEventService;
+    private final ObjectMapper objectMapper;
+
+    public CustomerEventOutboxHandler(CustomerEventService customerEventService, ObjectMapper objectMapper) {
+        this.customerEventService = customerEventService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String eventType() {
+        return EVENT_TYPE;
+    }
+
+    @Override
+    public void handle(String payload) throws Exception {
+        customerEventService.publish(objectMapper.readValue(payload, CustomerEventService.BookingEvent.class));
+    }
+}
@@ -0,0 +1,44 @@
+package com.homeexpress.home_express_api.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homeexpress.home_express_api.service.jobboard.JobBoardService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies booking and transport changes queued through the outbox to the job-board feeds.
+ */
+@Component
+public class JobBoardOutboxHandler implements OutboxHandler {
+
+    public static final String EVENT_TYPE = "JobBoardChanged";
+
+    private final JobBoardService jobBoardService;
+    private final ObjectMapper objectMapper;
+
+    public JobBoardOutboxHandler(JobBoardService jobBoardService, ObjectMapper objectMapper) {
+        this.jobBoardService = jobBoardService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String eventType() {
+        return EVENT_TYPE;
+    }
+
+    @Override
+    public void handle(String payload) throws Exception {
+        Payload change = objectMapper.readValue(payload, Payload.class);
+        if (change.bookingId() != null) {
+            jobBoardService.refreshBooking(change.bookingId());
+        }
+        if (change.transportId() != null) {
+            jobBoardService.rebuildTransport(change.transportId());
+        }
+    }
+
+    /**
+     * Exactly one of the two ids is set.
+     */
+    public record Payload(Long bookingId, Long transportId) {
+    }
+}
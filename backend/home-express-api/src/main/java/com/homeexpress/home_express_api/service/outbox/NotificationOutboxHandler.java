@@ -0,0 +1,56 @@
+package com.homeexpress.home_express_api.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homeexpress.home_express_api.service.NotificationBatchWriter;
+import com.homeexpress.home_express_api.service.NotificationService;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Creates in-app notifications queued through the outbox. Messages of one dispatch
+ * batch are handed to the {@link NotificationBatchWriter} so they land in a single
+ * JDBC batch instead of one insert each.
+ */
+@Component
+public class NotificationOutboxHandler implements OutboxHandler {
+
+    public static final String EVENT_TYPE = "NotificationRequested";
+
+    private final NotificationService notificationService;
+    private final NotificationBatchWriter batchWriter;
+    private final ObjectMapper objectMapper;
+
+    public NotificationOutboxHandler(NotificationService notificationService,
+            NotificationBatchWriter batchWriter,
+            ObjectMapper objectMapper) {
+        this.notificationService = notificationService;
+        this.batchWriter = batchWriter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String eventType() {
+        return EVENT_TYPE;
+    }
+
+    @Override
+    public void handle(String payload) throws Exception {
+        notificationService.createNotifications(List.of(parse(payload)));
+    }
+
+    @Override
+    public CompletableFuture<Void> deliver(String payload, Executor executor) {
+        try {
+            return batchWriter.submit(parse(payload));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private NotificationService.NewNotification parse(String payload) throws Exception {
+        return objectMapper.readValue(payload, NotificationService.NewNotification.class);
+    }
+}
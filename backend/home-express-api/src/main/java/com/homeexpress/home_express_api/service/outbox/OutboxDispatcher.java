@@ -0,0 +1,125 @@
+package com.homeexpress.home_express_api.service.outbox;
+
+import com.homeexpress.home_express_api.entity.OutboxMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Polls {@code outbox_messages} and delivers claimed batches to the matching
+ * {@link OutboxHandler}s in parallel on the outbox executor. Successful messages are
+ * acknowledged in one statement per batch; failures are retried with exponential
+ * backoff and jitter until {@code max_retries} is reached.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxService outboxService;
+    private final ThreadPoolTaskExecutor executor;
+    private final Map<String, OutboxHandler> handlers;
+    private final int batchSize;
+    private final Duration lease;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    public OutboxDispatcher(
+            OutboxService outboxService,
+            @Qualifier("outboxExecutor") ThreadPoolTaskExecutor executor,
+            List<OutboxHandler> handlers,
+            @Value("${outbox.batch-size:50}") int batchSize,
+            @Value("${outbox.lease-ms:60000}") long leaseMs,
+            @Value("${outbox.retry.base-delay-ms:2000}") long baseBackoffMs,
+            @Value("${outbox.retry.max-delay-ms:300000}") long maxBackoffMs) {
+        this.outboxService = outboxService;
+        this.executor = executor;
+        this.handlers = handlers.stream()
+                .collect(Collectors.toMap(OutboxHandler::eventType, Function.identity()));
+        this.batchSize = batchSize;
+        this.lease = Duration.ofMillis(leaseMs);
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        List<OutboxMessage> batch;
+        do {
+            try {
+                batch = outboxService.claimBatch(batchSize, lease);
+            } catch (Exception e) {
+                log.error("Failed to claim outbox batch: {}", e.getMessage());
+                return;
+            }
+            if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+            // Keep draining while there is a backlog
+        } while (batch.size() == batchSize);
+    }
+
+    private void deliver(List<OutboxMessage> batch) {
+        Queue<Long> delivered = new ConcurrentLinkedQueue<>();
+
+        CompletableFuture<?>[] tasks = batch.stream()
+                .map(message -> deliverOne(message).handle((ignored, error) -> {
+                    if (error == null) {
+                        delivered.add(message.getId());
+                    } else {
+                        recordFailure(message, error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error);
+                    }
+                    return null;
+                }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(tasks).join();
+
+        outboxService.markSent(List.copyOf(delivered));
+        log.debug("Outbox delivered {}/{} messages", delivered.size(), batch.size());
+    }
+
+    private CompletableFuture<Void> deliverOne(OutboxMessage message) {
+        OutboxHandler handler = handlers.get(message.getEventType());
+        if (handler == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("No outbox handler for event type " + message.getEventType()));
+        }
+        try {
+            return handler.deliver(message.getPayload(), executor);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void recordFailure(OutboxMessage message, Throwable error) {
+        try {
+            outboxService.markFailed(message.getId(), error.getMessage(), backoff(message.getRetryCount()));
+        } catch (Exception ex) {
+            // Lease expiry will make the message eligible again
+            log.error("Failed to record outbox failure for message {}: {}", message.getId(), ex.getMessage());
+        }
+    }
+
+    private Duration backoff(int previousAttempts) {
+        long exponential = baseBackoffMs << Math.min(previousAttempts, 20);
+        long capped = Math.min(exponential, maxBackoffMs);
+        long jitter = ThreadLocalRandom.current().nextLong(capped / 4 + 1);
+        return Duration.ofMillis(capped + jitter);
+    }
+}
@@ -0,0 +1,41 @@
+package com.homeexpress.home_express_api.service.outbox;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Delivers one kind of outbox message. Delivery is at-least-once, so handlers must
+ * tolerate the occasional duplicate after a crash between delivery and acknowledgement.
+ */
+public interface OutboxHandler {
+
+    /**
+     * @return the {@code event_type} value this handler consumes
+     */
+    String eventType();
+
+    /**
+     * Deliver the message. Throwing schedules a retry with backoff.
+     *
+     * @param payload the JSON payload stored with the message
+     */
+    void handle(String payload) throws Exception;
+
+    /**
+     * Asynchronous delivery used by the dispatcher. The default runs {@link #handle(String)}
+     * on the outbox executor; handlers that coalesce work (e.g. batched inserts) override it
+     * and complete the future themselves.
+     */
+    default CompletableFuture<Void> deliver(String payload, Executor executor) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                handle(payload);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+}
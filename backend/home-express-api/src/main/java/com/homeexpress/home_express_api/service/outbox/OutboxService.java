@@ -0,0 +1,222 @@
+package com.homeexpress.home_express_api.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homeexpress.home_express_api.entity.Notification;
+import com.homeexpress.home_express_api.entity.OutboxMessage;
+import com.homeexpress.home_express_api.entity.OutboxStatus;
+import com.homeexpress.home_express_api.repository.OutboxMessageRepository;
+import com.homeexpress.home_express_api.service.CustomerEventService;
+import com.homeexpress.home_express_api.service.NotificationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Transactional outbox. Side effects (notifications, SSE events, job-board and stats
+ * rollup updates) are recorded as {@code outbox_messages} rows inside the caller's transaction, so they are only
+ * delivered if the business change commits, and are never lost if the process dies
+ * before delivery. {@link OutboxDispatcher} delivers them asynchronously.
+ */
+@Service
+public class OutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxService.class);
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final Object QUEUED_IN_TRANSACTION = new Object();
+
+    private final OutboxMessageRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxMessageRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Queue an in-app notification. Same arguments as
+     * {@link com.homeexpress.home_express_api.service.NotificationService#createNotification}.
+     */
+    @Transactional
+    public void enqueueNotification(
+            Long userId,
+            Notification.NotificationType type,
+            String title,
+            String message,
+            Notification.ReferenceType referenceType,
+            Long referenceId,
+            Notification.Priority priority) {
+        NotificationService.NewNotification payload = new NotificationService.NewNotification(
+                userId, type, title, message, referenceType, referenceId, priority);
+        String aggregateType = referenceType != null ? referenceType.name() : "USER";
+        Long aggregateId = referenceId != null ? referenceId : userId;
+        enqueue(aggregateType, aggregateId, NotificationOutboxHandler.EVENT_TYPE, payload);
+    }
+
+    /**
+     * Queue a booking event for the customer SSE stream.
+     */
+    @Transactional
+    public void enqueueCustomerEvent(CustomerEventService.BookingEvent event) {
+        enqueue("BOOKING", event.bookingId(), CustomerEventOutboxHandler.EVENT_TYPE, event);
+    }
+
+    /**
+     * Queue a re-match of the booking against the job-board feeds.
+     */
+    @Transactional
+    public void enqueueJobBoardRefresh(Long bookingId) {
+        enqueue("BOOKING", bookingId, JobBoardOutboxHandler.EVENT_TYPE, new JobBoardOutboxHandler.Payload(bookingId, null));
+    }
+
+    /**
+     * Queue a rebuild of the transport's job-board feed.
+     */
+    @Transactional
+    public void enqueueJobBoardRebuild(Long transportId) {
+        enqueue("TRANSPORT", transportId, JobBoardOutboxHandler.EVENT_TYPE, new JobBoardOutboxHandler.Payload(null, transportId));
+    }
+
+    /**
+     * Queue a refresh of the stats rollups of the days the booking was created and completed.
+     */
+    @Transactional
+    public void enqueueStatsRollupBooking(Long bookingId) {
+        enqueueStatsRollupBooking(bookingId, null);
+    }
+
+    /**
+     * Same, for a change that moved the booking off {@code previousTransportId} (reassigned or
+     * cleared); that transport's rows of the same days are refreshed too.
+     */
+    @Transactional
+    public void enqueueStatsRollupBooking(Long bookingId, Long previousTransportId) {
+        enqueueOncePerTransaction("BOOKING", bookingId, StatsRollupOutboxHandler.EVENT_TYPE,
+                new StatsRollupOutboxHandler.Payload(StatsRollupOutboxHandler.Kind.BOOKING, bookingId, null,
+                        previousTransportId));
+    }
+
+    /**
+     * Queue a refresh of the platform user rollup of the day the user signed up.
+     */
+    @Transactional
+    public void enqueueStatsRollupUser(Long userId) {
+        enqueueOncePerTransaction("USER", userId, StatsRollupOutboxHandler.EVENT_TYPE,
+                new StatsRollupOutboxHandler.Payload(StatsRollupOutboxHandler.Kind.USER, userId, null));
+    }
+
+    /**
+     * Queue a refresh of one day of the transport's wallet rollup.
+     */
+    @Transactional
+    public void enqueueStatsRollupWallet(Long transportId, LocalDate day) {
+        enqueueOncePerTransaction("TRANSPORT", transportId, StatsRollupOutboxHandler.EVENT_TYPE,
+                new StatsRollupOutboxHandler.Payload(StatsRollupOutboxHandler.Kind.WALLET, transportId, day));
+    }
+
+    /**
+     * Same payload queued again in the same transaction (e.g. a payout crediting many settlements
+     * of one wallet) would only repeat the same work, so it is written once.
+     */
+    @SuppressWarnings("unchecked")
+    private void enqueueOncePerTransaction(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Set<Object> queued = (Set<Object>) TransactionSynchronizationManager.getResource(QUEUED_IN_TRANSACTION);
+            if (queued == null) {
+                Set<Object> created = new HashSet<>();
+                TransactionSynchronizationManager.bindResource(QUEUED_IN_TRANSACTION, created);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(QUEUED_IN_TRANSACTION);
+                    }
+                });
+                queued = created;
+            }
+            if (!queued.add(payload)) {
+                return;
+            }
+        }
+        enqueue(aggregateType, aggregateId, eventType, payload);
+    }
+
+    private void enqueue(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        OutboxMessage message = new OutboxMessage();
+        message.setAggregateType(aggregateType);
+        message.setAggregateId(String.valueOf(aggregateId));
+        message.setEventType(eventType);
+        message.setStatus(OutboxStatus.PENDING);
+        try {
+            message.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload for " + eventType, e);
+        }
+        outboxRepository.save(message);
+    }
+
+    /**
+     * Claim up to {@code limit} deliverable messages with {@code FOR UPDATE SKIP LOCKED},
+     * mark them PROCESSING under a lease and commit, releasing the row locks before delivery.
+     */
+    @Transactional
+    public List<OutboxMessage> claimBatch(int limit, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> batch = outboxRepository.lockNextBatch(now, limit);
+        if (!batch.isEmpty()) {
+            List<Long> ids = batch.stream().map(OutboxMessage::getId).toList();
+            outboxRepository.markClaimed(ids, OutboxStatus.PROCESSING, now.plus(lease));
+        }
+        return batch;
+    }
+
+    @Transactional
+    public void markSent(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            outboxRepository.markProcessed(ids, OutboxStatus.SENT, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Record a failed delivery: reschedule after {@code backoff}, or give up
+     * once the message has used all of its retries.
+     */
+    @Transactional
+    public void markFailed(Long id, String error, Duration backoff) {
+        outboxRepository.findById(id).ifPresent(message -> {
+            int attempts = message.getRetryCount() + 1;
+            message.setRetryCount(attempts);
+            message.setLastError(truncate(error));
+            if (attempts >= message.getMaxRetries()) {
+                message.setStatus(OutboxStatus.FAILED);
+                message.setNextRetryAt(null);
+                // processed_at cua ban ghi FAILED = luc bo cuoc, de retention don sau
+                message.setProcessedAt(LocalDateTime.now());
+                log.error("Outbox message {} ({}) failed permanently after {} attempts: {}",
+                        id, message.getEventType(), attempts, error);
+            } else {
+                message.setStatus(OutboxStatus.PENDING);
+                message.setNextRetryAt(LocalDateTime.now().plus(backoff));
+                log.warn("Outbox message {} ({}) failed, retry {} in {} ms: {}",
+                        id, message.getEventType(), attempts, backoff.toMillis(), error);
+            }
+        });
+    }
+
+    private String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
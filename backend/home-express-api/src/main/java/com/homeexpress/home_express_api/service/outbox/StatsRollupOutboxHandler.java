@@ -0,0 +1,57 @@
+package com.homeexpress.home_express_api.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupService;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Recomputes the daily rollup rows touched by a booking, user or wallet ledger change.
+ */
+@Component
+public class StatsRollupOutboxHandler implements OutboxHandler {
+
+    public static final String EVENT_TYPE = "StatsRollupChanged";
+
+    private final StatsRollupService statsRollupService;
+    private final ObjectMapper objectMapper;
+
+    public StatsRollupOutboxHandler(StatsRollupService statsRollupService, ObjectMapper objectMapper) {
+        this.statsRollupService = statsRollupService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String eventType() {
+        return EVENT_TYPE;
+    }
+
+    @Override
+    public void handle(String payload) throws Exception {
+        Payload change = objectMapper.readValue(payload, Payload.class);
+        switch (change.kind()) {
+            case BOOKING -> statsRollupService.refreshBooking(change.id(), change.previousTransportId());
+            case USER -> statsRollupService.refreshUser(change.id());
+            case WALLET -> statsRollupService.refreshWallet(change.id(), change.day());
+        }
+    }
+
+    public enum Kind {
+        BOOKING,
+        USER,
+        WALLET
+    }
+
+    /**
+     * {@code id} is a booking, user or transport id; {@code day} is only set for WALLET.
+     * {@code previousTransportId} is set for BOOKING when the change moved the booking off
+     * another transport, whose rows must stop counting it.
+     */
+    public record Payload(Kind kind, Long id, LocalDate day, Long previousTransportId) {
+
+        public Payload(Kind kind, Long id, LocalDate day) {
+            this(kind, id, day, null);
+        }
+    }
+}
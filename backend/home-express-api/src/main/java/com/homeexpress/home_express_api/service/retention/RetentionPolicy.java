@@ -0,0 +1,71 @@
+package com.homeexpress.home_express_api.service.retention;
+
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * One table's retention rule: rows whose {@code timeColumn} is older than {@code retention}
+ * (and that match the optional {@code filter}) are deleted, or updated with {@code setClause}
+ * when one is given. Rows are walked in ({@code timeColumn}, {@code keyColumn}) order, so the
+ * time column should be indexed.
+ *
+ * @param name      metric tag and log label
+ * @param filter    extra SQL predicate, or {@code null}
+ * @param setClause SQL assignments for an update policy, or {@code null} to delete
+ */
+public record RetentionPolicy(
+        String name,
+        String table,
+        String keyColumn,
+        String timeColumn,
+        Duration retention,
+        String filter,
+        String setClause) {
+
+    public static RetentionPolicy delete(String name, String table, String keyColumn, String timeColumn,
+                                         Duration retention) {
+        return new RetentionPolicy(name, table, keyColumn, timeColumn, retention, null, null);
+    }
+
+    public static RetentionPolicy update(String name, String table, String keyColumn, String timeColumn,
+                                         Duration retention, String setClause) {
+        return new RetentionPolicy(name, table, keyColumn, timeColumn, retention, null, setClause);
+    }
+
+    public RetentionPolicy where(String predicate) {
+        return new RetentionPolicy(name, table, keyColumn, timeColumn, retention, predicate, setClause);
+    }
+
+    // ARGV: cutoff, limit
+    String firstChunkSql() {
+        return "SELECT " + keyColumn + ", " + timeColumn + " FROM " + table
+                + " WHERE " + timeColumn + " < ?" + andFilter()
+                + " ORDER BY " + timeColumn + ", " + keyColumn + " LIMIT ?";
+    }
+
+    // ARGV: cutoff, last time, last time, last key, limit
+    String nextChunkSql() {
+        return "SELECT " + keyColumn + ", " + timeColumn + " FROM " + table
+                + " WHERE " + timeColumn + " < ?"
+                + " AND (" + timeColumn + " > ? OR (" + timeColumn + " = ? AND " + keyColumn + " > ?))" + andFilter()
+                + " ORDER BY " + timeColumn + ", " + keyColumn + " LIMIT ?";
+    }
+
+    // ARGV: keys..., cutoff. The condition is checked again in case a row changed since it was read.
+    String applySql(int keyCount) {
+        String keys = String.join(", ", Collections.nCopies(keyCount, "?"));
+        String target = setClause == null
+                ? "DELETE FROM " + table
+                : "UPDATE " + table + " SET " + setClause;
+        return target + " WHERE " + keyColumn + " IN (" + keys + ") AND " + timeColumn + " < ?" + andFilter();
+    }
+
+    // ARGV: cutoff
+    String oldestSql() {
+        return "SELECT MIN(" + timeColumn + ") FROM " + table + " WHERE " + timeColumn + " < ?" + andFilter();
+    }
+
+    private String andFilter() {
+        return filter == null ? "" : " AND (" + filter + ")";
+    }
+}
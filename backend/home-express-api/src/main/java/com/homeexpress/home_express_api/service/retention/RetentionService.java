@@ -0,0 +1,228 @@
+package com.homeexpress.home_express_api.service.retention;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs every {@link RetentionPolicy} bean on one schedule ({@code retention.cron}).
+ * <p>
+ * Each policy is applied in chunks of {@code retention.chunk-size} rows: the next keys are
+ * read in (time, key) order after the last chunk, then deleted or updated by key in their
+ * own short statement, with {@code retention.chunk-pause-ms} between chunks so replicas and
+ * other writers keep up. A run stops after {@code retention.max-chunks-per-run} chunks per
+ * policy and carries on at the next run.
+ * <p>
+ * Only the node holding the Redis lock sweeps. If Redis is unreachable the node sweeps
+ * anyway; the statements are idempotent, so the worst case is duplicate work.
+ * <p>
+ * Metrics per policy (tag {@code policy}): {@code retention.rows} (counter),
+ * {@code retention.rows.per.second} and {@code retention.lag.seconds} (gauges, last run).
+ * Lag is how far past its cutoff the oldest remaining eligible row is; it stays above
+ * zero while a policy cannot keep up.
+ */
+@Slf4j
+@Service
+public class RetentionService {
+
+    private static final String LOCK_KEY = "retention:lock";
+
+    // KEYS: lock. ARGV: owner token. Only the owner may release.
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final List<RetentionPolicy> policies;
+    private final int chunkSize;
+    private final long chunkPauseMs;
+    private final int maxChunksPerRun;
+    private final Duration lockTtl;
+
+    private final Map<String, PolicyMetrics> metrics = new LinkedHashMap<>();
+
+    public RetentionService(
+            JdbcTemplate jdbcTemplate,
+            StringRedisTemplate redisTemplate,
+            List<RetentionPolicy> policies,
+            MeterRegistry meterRegistry,
+            @Value("${retention.chunk-size:1000}") int chunkSize,
+            @Value("${retention.chunk-pause-ms:100}") long chunkPauseMs,
+            @Value("${retention.max-chunks-per-run:500}") int maxChunksPerRun,
+            @Value("${retention.lock-ttl-ms:3600000}") long lockTtlMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.policies = policies;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkPauseMs = chunkPauseMs;
+        this.maxChunksPerRun = Math.max(1, maxChunksPerRun);
+        this.lockTtl = Duration.ofMillis(lockTtlMs);
+
+        for (RetentionPolicy policy : policies) {
+            metrics.put(policy.name(), new PolicyMetrics(policy.name(), meterRegistry));
+        }
+    }
+
+    @Scheduled(cron = "${retention.cron:0 15 * * * ?}")
+    public void runAll() {
+        String token = UUID.randomUUID().toString();
+        if (!acquireLock(token)) {
+            log.debug("Retention sweep already running on another node");
+            return;
+        }
+        try {
+            for (RetentionPolicy policy : policies) {
+                try {
+                    sweep(policy);
+                } catch (Exception e) {
+                    log.error("Retention policy {} failed: {}", policy.name(), e.getMessage());
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+        } finally {
+            releaseLock(token);
+        }
+    }
+
+    /**
+     * Apply one policy, up to {@code retention.max-chunks-per-run} chunks.
+     */
+    public SweepResult sweep(RetentionPolicy policy) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(policy.retention());
+        Timestamp cutoffTs = Timestamp.valueOf(cutoff);
+        long started = System.nanoTime();
+
+        long rows = 0;
+        int chunks = 0;
+        Object lastTime = null;
+        Object lastKey = null;
+        while (chunks < maxChunksPerRun) {
+            List<Map<String, Object>> batch = lastKey == null
+                    ? jdbcTemplate.queryForList(policy.firstChunkSql(), cutoffTs, chunkSize)
+                    : jdbcTemplate.queryForList(policy.nextChunkSql(), cutoffTs, lastTime, lastTime, lastKey, chunkSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<Object> args = new ArrayList<>(batch.size() + 1);
+            for (Map<String, Object> row : batch) {
+                args.add(row.get(policy.keyColumn()));
+            }
+            args.add(cutoffTs);
+            rows += jdbcTemplate.update(policy.applySql(batch.size()), args.toArray());
+            chunks++;
+
+            Map<String, Object> last = batch.get(batch.size() - 1);
+            lastTime = last.get(policy.timeColumn());
+            lastKey = last.get(policy.keyColumn());
+            if (batch.size() < chunkSize || !pause()) {
+                break;
+            }
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        long rowsPerSecond = rows * 1000 / elapsedMs;
+        long lagSeconds = lagSeconds(policy, cutoff, cutoffTs);
+
+        PolicyMetrics policyMetrics = metrics.get(policy.name());
+        if (policyMetrics != null) {
+            policyMetrics.record(rows, rowsPerSecond, lagSeconds);
+        }
+        log.info("Retention {}: {} rows in {} chunk(s), {} ms ({} rows/s), lag {} s",
+                policy.name(), rows, chunks, elapsedMs, rowsPerSecond, lagSeconds);
+        return new SweepResult(rows, chunks, lagSeconds);
+    }
+
+    private long lagSeconds(RetentionPolicy policy, LocalDateTime cutoff, Timestamp cutoffTs) {
+        Timestamp oldest = jdbcTemplate.queryForObject(policy.oldestSql(), Timestamp.class, cutoffTs);
+        if (oldest == null) {
+            return 0;
+        }
+        return Math.max(0, Duration.between(oldest.toLocalDateTime(), cutoff).getSeconds());
+    }
+
+    private boolean pause() {
+        if (chunkPauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(chunkPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean acquireLock(String token) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, lockTtl));
+        } catch (Exception e) {
+            log.warn("Redis unavailable for the retention lock, sweeping without it: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void releaseLock(String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(LOCK_KEY), token);
+        } catch (Exception e) {
+            // Expires on its own after retention.lock-ttl-ms
+            log.warn("Failed to release the retention lock: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @param lagSeconds how far past the cutoff the oldest remaining eligible row is
+     */
+    public record SweepResult(long rows, int chunks, long lagSeconds) {
+    }
+
+    private static final class PolicyMetrics {
+
+        private final Counter rows;
+        private final AtomicLong rowsPerSecond = new AtomicLong();
+        private final AtomicLong lagSeconds = new AtomicLong();
+
+        private PolicyMetrics(String policy, MeterRegistry registry) {
+            this.rows = Counter.builder("retention.rows")
+                    .description("Rows deleted or updated by retention sweeps")
+                    .tag("policy", policy)
+                    .register(registry);
+            Gauge.builder("retention.rows.per.second", rowsPerSecond, AtomicLong::get)
+                    .description("Throughput of the last retention sweep")
+                    .tag("policy", policy)
+                    .register(registry);
+            Gauge.builder("retention.lag.seconds", lagSeconds, AtomicLong::get)
+                    .description("Age past the cutoff of the oldest row the last sweep left behind")
+                    .tag("policy", policy)
+                    .register(registry);
+        }
+
+        private void record(long count, long perSecond, long lag) {
+            rows.increment(count);
+            rowsPerSecond.set(perSecond);
+            lagSeconds.set(lag);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.homeexpress.home_express_api.service.rollup;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard reads over the daily rollups maintained by {@link StatsRollupService}. Each read
+ * sums at most one row per day of history for one scope, however many bookings, users or
+ * ledger entries that history holds.
+ */
+@Service
+public class StatsRollupReader {
+
+    private static final String BOOKING_TOTALS_SQL =
+            "SELECT COALESCE(SUM(created_count), 0), COALESCE(SUM(pending_count), 0), "
+                    + "COALESCE(SUM(active_count), 0), COALESCE(SUM(completed_count), 0), "
+                    + "COALESCE(SUM(cancelled_count), 0), COALESCE(SUM(completed_value_vnd), 0) "
+                    + "FROM booking_daily_stats WHERE scope_type = ? AND scope_id = ?";
+
+    private static final String FINISHED_DAYS_SQL =
+            "SELECT stat_date, finished_count, finished_value_vnd FROM booking_daily_stats "
+                    + "WHERE scope_type = ? AND scope_id = ? AND stat_date >= ? AND stat_date < ? "
+                    + "AND finished_count > 0";
+
+    private static final String USER_TOTALS_SQL =
+            "SELECT COALESCE(SUM(new_users), 0), COALESCE(SUM(new_customers), 0), "
+                    + "COALESCE(SUM(new_transports), 0), COALESCE(SUM(new_managers), 0), "
+                    + "COALESCE(SUM(active_users), 0), COALESCE(SUM(verified_users), 0), "
+                    + "COALESCE(SUM(CASE WHEN stat_date = ? THEN new_users ELSE 0 END), 0), "
+                    + "COALESCE(SUM(CASE WHEN stat_date >= ? AND stat_date <= ? THEN new_users ELSE 0 END), 0), "
+                    + "COALESCE(SUM(CASE WHEN stat_date >= ? AND stat_date <= ? THEN new_users ELSE 0 END), 0), "
+                    + "COALESCE(SUM(CASE WHEN stat_date >= ? AND stat_date < ? THEN new_users ELSE 0 END), 0), "
+                    + "COALESCE(SUM(pending_transports), 0) "
+                    + "FROM user_daily_stats";
+
+    private static final String WALLET_DAYS_SQL =
+            "SELECT stat_date, credit_vnd, debit_vnd, closing_balance_vnd FROM wallet_daily_stats "
+                    + "WHERE transport_id = ? AND stat_date >= ? AND stat_date < ? ORDER BY stat_date";
+
+    private static final String WALLET_CLOSING_BEFORE_SQL =
+            "SELECT closing_balance_vnd FROM wallet_daily_stats "
+                    + "WHERE transport_id = ? AND stat_date < ? ORDER BY stat_date DESC LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StatsRollupReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Lifetime booking counts of one customer or transport, by current status.
+     */
+    public BookingTotals bookingTotals(String scopeType, Long scopeId) {
+        return jdbcTemplate.queryForObject(BOOKING_TOTALS_SQL, (rs, i) -> new BookingTotals(
+                rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5),
+                rs.getBigDecimal(6)), scopeType, scopeId);
+    }
+
+    /**
+     * Bookings completed per month in {@code [start, end]}, every month present (zero when idle).
+     */
+    public Map<YearMonth, Finished> finishedByMonth(String scopeType, Long scopeId, YearMonth start, YearMonth end) {
+        Map<YearMonth, Finished> months = new LinkedHashMap<>();
+        for (YearMonth month = start; !month.isAfter(end); month = month.plusMonths(1)) {
+            months.put(month, new Finished(0L, BigDecimal.ZERO));
+        }
+        jdbcTemplate.query(FINISHED_DAYS_SQL, rs -> {
+            YearMonth month = YearMonth.from(rs.getDate(1).toLocalDate());
+            long count = rs.getLong(2);
+            BigDecimal value = rs.getBigDecimal(3);
+            months.computeIfPresent(month, (key, sum) -> new Finished(sum.count() + count, sum.value().add(value)));
+        }, scopeType, scopeId, Date.valueOf(start.atDay(1)), Date.valueOf(end.plusMonths(1).atDay(1)));
+        return months;
+    }
+
+    /**
+     * Platform user counts. New-user windows end on {@code today}; the previous month is
+     * {@code [startOfPreviousMonth, startOfMonth)}.
+     */
+    public UserTotals userTotals(LocalDate today, LocalDate startOfWeek, LocalDate startOfMonth,
+                                 LocalDate startOfPreviousMonth) {
+        Date day = Date.valueOf(today);
+        return jdbcTemplate.queryForObject(USER_TOTALS_SQL, (rs, i) -> new UserTotals(
+                        rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5),
+                        rs.getLong(6), rs.getLong(7), rs.getLong(8), rs.getLong(9), rs.getLong(10),
+                        rs.getLong(11)),
+                day,
+                Date.valueOf(startOfWeek), day,
+                Date.valueOf(startOfMonth), day,
+                Date.valueOf(startOfPreviousMonth), Date.valueOf(startOfMonth));
+    }
+
+    /**
+     * Wallet days of one transport in {@code [from, to)} that had ledger entries, oldest first.
+     */
+    public List<WalletDay> walletDays(Long transportId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(WALLET_DAYS_SQL, (rs, i) -> new WalletDay(
+                        rs.getDate(1).toLocalDate(), rs.getLong(2), rs.getLong(3), rs.getLong(4)),
+                transportId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Closing balance of the last day with ledger entries before {@code day}, 0 if none.
+     */
+    public long walletClosingBalanceBefore(Long transportId, LocalDate day) {
+        List<Long> balances = jdbcTemplate.queryForList(WALLET_CLOSING_BEFORE_SQL, Long.class,
+                transportId, Date.valueOf(day));
+        return balances.isEmpty() || balances.get(0) == null ? 0L : balances.get(0);
+    }
+
+    public record BookingTotals(long created, long pending, long active, long completed, long cancelled,
+                                BigDecimal completedValue) {
+    }
+
+    public record Finished(long count, BigDecimal value) {
+    }
+
+    public record UserTotals(long totalUsers, long customers, long transports, long managers, long active,
+                             long verified, long newToday, long newThisWeek, long newThisMonth,
+                             long newPreviousMonth, long pendingTransportVerifications) {
+    }
+
+    public record WalletDay(LocalDate day, long creditVnd, long debitVnd, long closingBalanceVnd) {
+    }
+}
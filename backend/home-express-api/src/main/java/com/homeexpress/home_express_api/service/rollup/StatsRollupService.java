@@ -0,0 +1,642 @@
+package com.homeexpress.home_express_api.service.rollup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains the daily rollup tables read by the dashboards ({@link StatsRollupReader}):
+ * <ul>
+ *   <li>{@code booking_daily_stats}: per customer and per transport, bookings by status and
+ *       value by the day they were created, completed bookings by the day they finished;</li>
+ *   <li>{@code user_daily_stats}: platform-wide new users by role and their current
+ *       active / verified / pending-verification state, by the day they signed up;</li>
+ *   <li>{@code wallet_daily_stats}: per transport, ledger credits and debits and the
+ *       closing balance of each day.</li>
+ * </ul>
+ * A row is never incremented: refreshing a day deletes it and recomputes it from the source rows
+ * of that day in one transaction, so replaying a change (the outbox delivers at least once) or
+ * refreshing twice is harmless.
+ * <ul>
+ *   <li>Services queue a refresh through the outbox when a booking, user or ledger entry changes
+ *       ({@link #refreshBooking}, {@link #refreshUser}, {@link #refreshWallet}).</li>
+ *   <li>{@link #reconcile()} refreshes every day touched by rows changed within the lookback
+ *       window, repairing bulk updates that queued nothing.</li>
+ *   <li>The backfill rebuilds a rollup month by month from the full history. Progress is kept in
+ *       {@code stats_rollup_backfill}, so a backfill that fails or is cut short by a restart
+ *       resumes at the next reconcile until every rollup is marked complete;
+ *       {@link #startBackfill()} starts a full rebuild again.</li>
+ * </ul>
+ * Reconcile and backfill only run on the node holding the Redis lock, and the backfill runs on
+ * its own thread ({@code statsRollupExecutor}) so it never holds a scheduler thread. If Redis is
+ * unreachable they run anyway; every refresh is idempotent.
+ */
+@Service
+public class StatsRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatsRollupService.class);
+
+    public static final String SCOPE_CUSTOMER = "CUSTOMER";
+    public static final String SCOPE_TRANSPORT = "TRANSPORT";
+
+    // Refresh = xoa cac dong cua khoang ngay roi tinh lai tu bang goc, trong cung 1 transaction
+
+    // %s = optional " AND scope_id = ?"
+    private static final String DELETE_BOOKING_DAYS_SQL =
+            "DELETE FROM booking_daily_stats WHERE scope_type = ? AND stat_date >= ? AND stat_date < ?%s";
+
+    // %1$s = customer_id | transport_id, %2$s = optional " AND b.<column> = ?".
+    // Booking dem vao ngay tao (theo status hien tai) va vao ngay hoan thanh (finished_*)
+    private static final String INSERT_BOOKING_DAYS_SQL =
+            "INSERT INTO booking_daily_stats (scope_type, scope_id, stat_date, created_count, pending_count, "
+                    + "active_count, completed_count, cancelled_count, completed_value_vnd, "
+                    + "finished_count, finished_value_vnd, refreshed_at) "
+                    + "SELECT ?, x.scope_id, x.stat_date, SUM(x.created_count), SUM(x.pending_count), "
+                    + "SUM(x.active_count), SUM(x.completed_count), SUM(x.cancelled_count), "
+                    + "SUM(x.completed_value_vnd), SUM(x.finished_count), SUM(x.finished_value_vnd), ? "
+                    + "FROM (SELECT b.%1$s AS scope_id, CAST(b.created_at AS DATE) AS stat_date, "
+                    + "1 AS created_count, "
+                    + "CASE WHEN b.status = 'PENDING' THEN 1 ELSE 0 END AS pending_count, "
+                    + "CASE WHEN b.status IN ('CONFIRMED', 'IN_PROGRESS') THEN 1 ELSE 0 END AS active_count, "
+                    + "CASE WHEN b.status = 'COMPLETED' THEN 1 ELSE 0 END AS completed_count, "
+                    + "CASE WHEN b.status = 'CANCELLED' THEN 1 ELSE 0 END AS cancelled_count, "
+                    + "CASE WHEN b.status = 'COMPLETED' THEN COALESCE(b.final_price, 0) ELSE 0 END AS completed_value_vnd, "
+                    + "0 AS finished_count, 0 AS finished_value_vnd "
+                    + "FROM bookings b "
+                    + "WHERE b.%1$s IS NOT NULL AND b.created_at >= ? AND b.created_at < ?%2$s "
+                    + "UNION ALL "
+                    + "SELECT b.%1$s, CAST(b.actual_end_time AS DATE), 0, 0, 0, 0, 0, 0, 1, COALESCE(b.final_price, 0) "
+                    + "FROM bookings b "
+                    + "WHERE b.%1$s IS NOT NULL AND b.status = 'COMPLETED' "
+                    + "AND b.actual_end_time >= ? AND b.actual_end_time < ?%2$s) x "
+                    + "GROUP BY x.scope_id, x.stat_date";
+
+    private static final String DELETE_USER_DAYS_SQL =
+            "DELETE FROM user_daily_stats WHERE stat_date >= ? AND stat_date < ?";
+
+    private static final String INSERT_USER_DAYS_SQL =
+            "INSERT INTO user_daily_stats (stat_date, new_users, new_customers, new_transports, new_managers, "
+                    + "active_users, verified_users, pending_transports, refreshed_at) "
+                    + "SELECT CAST(u.created_at AS DATE), COUNT(*), "
+                    + "SUM(CASE WHEN u.role = 'CUSTOMER' THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN u.role = 'TRANSPORT' THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN u.role = 'MANAGER' THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN u.is_active = TRUE THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN u.is_verified = TRUE THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN t.verification_status = 'PENDING' THEN 1 ELSE 0 END), ? "
+                    + "FROM users u LEFT JOIN transports t ON t.transport_id = u.user_id "
+                    + "WHERE u.created_at >= ? AND u.created_at < ? "
+                    + "GROUP BY CAST(u.created_at AS DATE)";
+
+    // %s = optional " AND transport_id = ?"
+    private static final String DELETE_WALLET_DAYS_SQL =
+            "DELETE FROM wallet_daily_stats WHERE stat_date >= ? AND stat_date < ?%s";
+
+    // closing balance = so du sau giao dich cuoi ngay (transaction_id lon nhat); %s = optional " AND w.transport_id = ?"
+    private static final String INSERT_WALLET_DAYS_SQL =
+            "INSERT INTO wallet_daily_stats (transport_id, stat_date, credit_vnd, debit_vnd, credit_count, "
+                    + "debit_count, closing_balance_vnd, refreshed_at) "
+                    + "SELECT d.transport_id, d.stat_date, d.credit_vnd, d.debit_vnd, d.credit_count, d.debit_count, "
+                    + "last_tx.running_balance_vnd, ? "
+                    + "FROM (SELECT w.transport_id AS transport_id, CAST(t.created_at AS DATE) AS stat_date, "
+                    + "SUM(CASE WHEN t.transaction_type IN ('PAYOUT_DEBIT', 'ADJUSTMENT_DEBIT') THEN 0 ELSE t.amount END) AS credit_vnd, "
+                    + "SUM(CASE WHEN t.transaction_type IN ('PAYOUT_DEBIT', 'ADJUSTMENT_DEBIT') THEN t.amount ELSE 0 END) AS debit_vnd, "
+                    + "SUM(CASE WHEN t.transaction_type IN ('PAYOUT_DEBIT', 'ADJUSTMENT_DEBIT') THEN 0 ELSE 1 END) AS credit_count, "
+                    + "SUM(CASE WHEN t.transaction_type IN ('PAYOUT_DEBIT', 'ADJUSTMENT_DEBIT') THEN 1 ELSE 0 END) AS debit_count, "
+                    + "MAX(t.transaction_id) AS last_id "
+                    + "FROM transport_wallet_transactions t JOIN transport_wallets w ON w.wallet_id = t.wallet_id "
+                    + "WHERE t.created_at >= ? AND t.created_at < ?%s "
+                    + "GROUP BY w.transport_id, CAST(t.created_at AS DATE)) d "
+                    + "JOIN transport_wallet_transactions last_tx ON last_tx.transaction_id = d.last_id";
+
+    private static final String BOOKING_KEYS_SQL =
+            "SELECT customer_id, transport_id, created_at, actual_end_time FROM bookings WHERE booking_id = ?";
+
+    private static final String CHANGED_BOOKING_KEYS_SQL =
+            "SELECT customer_id, transport_id, created_at, actual_end_time FROM bookings WHERE updated_at >= ?";
+
+    private static final String USER_CREATED_SQL = "SELECT created_at FROM users WHERE user_id = ?";
+
+    private static final String CHANGED_USER_DAYS_SQL =
+            "SELECT DISTINCT CAST(u.created_at AS DATE) FROM users u "
+                    + "WHERE u.updated_at >= ? AND u.created_at IS NOT NULL "
+                    + "UNION "
+                    + "SELECT DISTINCT CAST(u.created_at AS DATE) FROM transports t JOIN users u ON u.user_id = t.transport_id "
+                    + "WHERE t.updated_at >= ? AND u.created_at IS NOT NULL";
+
+    private static final String CHANGED_WALLET_DAYS_SQL =
+            "SELECT DISTINCT w.transport_id, CAST(t.created_at AS DATE) "
+                    + "FROM transport_wallet_transactions t JOIN transport_wallets w ON w.wallet_id = t.wallet_id "
+                    + "WHERE t.created_at >= ?";
+
+    private static final String BACKFILL_PENDING_SQL =
+            "SELECT COUNT(*) FROM stats_rollup_backfill WHERE completed_at IS NULL";
+
+    private static final String BACKFILL_COMPLETED_SQL =
+            "SELECT COUNT(*) FROM stats_rollup_backfill WHERE rollup = ? AND completed_at IS NOT NULL";
+
+    private static final String BACKFILL_STATE_SQL =
+            "SELECT next_month, completed_at FROM stats_rollup_backfill WHERE rollup = ?";
+
+    private static final String BACKFILL_INSERT_SQL =
+            "INSERT INTO stats_rollup_backfill (rollup, updated_at) VALUES (?, ?)";
+
+    private static final String BACKFILL_PROGRESS_SQL =
+            "UPDATE stats_rollup_backfill SET next_month = ?, updated_at = ? WHERE rollup = ?";
+
+    private static final String BACKFILL_DONE_SQL =
+            "UPDATE stats_rollup_backfill SET completed_at = ?, updated_at = ? WHERE rollup = ?";
+
+    private static final String BACKFILL_RESET_SQL =
+            "UPDATE stats_rollup_backfill SET next_month = NULL, completed_at = NULL, updated_at = ?";
+
+    private static final String FIRST_BOOKING_SQL = "SELECT MIN(created_at) FROM bookings";
+    private static final String FIRST_USER_SQL = "SELECT MIN(created_at) FROM users";
+    private static final String FIRST_LEDGER_SQL = "SELECT MIN(created_at) FROM transport_wallet_transactions";
+
+    public static final String ROLLUP_BOOKING = "BOOKING";
+    public static final String ROLLUP_USER = "USER";
+    public static final String ROLLUP_WALLET = "WALLET";
+
+    private static final String LOCK_KEY = "stats-rollup:lock";
+
+    // KEYS: lock. ARGV: owner token. Only the owner may release.
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
+    // KEYS: lock. ARGV: owner token, ttl ms. Keeps the lock while a long backfill makes progress.
+    private static final DefaultRedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end return 0",
+            Long.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final TaskExecutor backfillExecutor;
+    private final boolean enabled;
+    private final long lookbackMs;
+    private final boolean backfillOnStartup;
+    private final Duration lockTtl;
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    // Moi rollup da backfill xong: khong can hoi lai DB moi lan reconcile
+    private volatile boolean backfillComplete;
+    // Rollup da backfill xong it nhat 1 lan -> doc duoc
+    private final Set<String> readableRollups = ConcurrentHashMap.newKeySet();
+
+    public StatsRollupService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            StringRedisTemplate redisTemplate,
+            @Qualifier("statsRollupExecutor") TaskExecutor backfillExecutor,
+            @Value("${stats.rollup.enabled:true}") boolean enabled,
+            @Value("${stats.rollup.reconcile-lookback-ms:3600000}") long lookbackMs,
+            @Value("${stats.rollup.backfill-on-startup:true}") boolean backfillOnStartup,
+            @Value("${stats.rollup.lock-ttl-ms:900000}") long lockTtlMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.redisTemplate = redisTemplate;
+        this.backfillExecutor = backfillExecutor;
+        this.enabled = enabled;
+        this.lookbackMs = lookbackMs;
+        this.backfillOnStartup = backfillOnStartup;
+        this.lockTtl = Duration.ofMillis(lockTtlMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether dashboards may read the rollup: maintenance is enabled and its first backfill has
+     * completed. Until then readers must fall back to aggregating the source tables, since the
+     * rollup holds no or only part of the history. A later rebuild ({@link #startBackfill()})
+     * keeps it readable, because each month is replaced in one transaction.
+     */
+    public boolean isReadable(String rollup) {
+        if (!enabled) {
+            return false;
+        }
+        if (readableRollups.contains(rollup)) {
+            return true;
+        }
+        Long completed = jdbcTemplate.queryForObject(BACKFILL_COMPLETED_SQL, Long.class, rollup);
+        if (completed != null && completed > 0) {
+            readableRollups.add(rollup);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Recompute the customer and transport rows of the days the booking was created and
+     * completed, from the booking's current state.
+     */
+    @Transactional
+    public void refreshBooking(Long bookingId) {
+        refreshBooking(bookingId, null);
+    }
+
+    /**
+     * Same, also recomputing {@code previousTransportId}'s rows of those days when the booking
+     * was moved off that transport.
+     */
+    @Transactional
+    public void refreshBooking(Long bookingId, Long previousTransportId) {
+        if (!enabled) {
+            return;
+        }
+        List<BookingKey> keys = jdbcTemplate.query(BOOKING_KEYS_SQL, (rs, i) -> new BookingKey(
+                rs.getObject("customer_id", Long.class),
+                rs.getObject("transport_id", Long.class),
+                toDate(rs.getTimestamp("created_at")),
+                toDate(rs.getTimestamp("actual_end_time"))), bookingId);
+        Set<ScopeDay> days = scopeDays(keys);
+        if (previousTransportId != null) {
+            for (BookingKey key : keys) {
+                addDays(days, SCOPE_TRANSPORT, previousTransportId, key.createdOn(), key.finishedOn());
+            }
+        }
+        for (ScopeDay day : days) {
+            refreshBookingDay(day);
+        }
+    }
+
+    /**
+     * Recompute the platform row of the day the user signed up.
+     */
+    @Transactional
+    public void refreshUser(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        List<LocalDate> days = jdbcTemplate.query(USER_CREATED_SQL,
+                (rs, i) -> toDate(rs.getTimestamp("created_at")), userId);
+        for (LocalDate day : days) {
+            if (day != null) {
+                refreshUserDays(day, day.plusDays(1));
+            }
+        }
+    }
+
+    /**
+     * Recompute one transport's wallet row for one day.
+     */
+    @Transactional
+    public void refreshWallet(Long transportId, LocalDate day) {
+        if (!enabled) {
+            return;
+        }
+        refreshWalletDays(transportId, day, day.plusDays(1));
+    }
+
+    /**
+     * Refresh every day touched by rows changed within the lookback window, on the node holding
+     * the lock. Also resumes the backfill while any rollup has not been backfilled completely.
+     */
+    @Scheduled(fixedDelayString = "${stats.rollup.reconcile-interval-ms:600000}",
+            initialDelayString = "${stats.rollup.reconcile-initial-delay-ms:60000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        if (backfillOnStartup && !backfillComplete) {
+            submitBackfill();
+        }
+
+        String token = UUID.randomUUID().toString();
+        if (!acquireLock(token)) {
+            log.debug("Stats rollup reconcile or backfill already running on another node");
+            return;
+        }
+        try {
+            reconcileChanges();
+        } finally {
+            releaseLock(token);
+        }
+    }
+
+    private void reconcileChanges() {
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minus(Duration.ofMillis(lookbackMs)));
+        int failed = 0;
+
+        List<BookingKey> bookingKeys = jdbcTemplate.query(CHANGED_BOOKING_KEYS_SQL, (rs, i) -> new BookingKey(
+                rs.getObject("customer_id", Long.class),
+                rs.getObject("transport_id", Long.class),
+                toDate(rs.getTimestamp("created_at")),
+                toDate(rs.getTimestamp("actual_end_time"))), since);
+        Set<ScopeDay> customerDays = new LinkedHashSet<>();
+        Set<LocalDate> transportDays = new LinkedHashSet<>();
+        for (BookingKey key : bookingKeys) {
+            addDays(customerDays, SCOPE_CUSTOMER, key.customerId(), key.createdOn(), key.finishedOn());
+            // Transport cu cua booking (doi / bo transport) khong con biet duoc: tinh lai moi transport cua ngay
+            addDay(transportDays, key.createdOn());
+            addDay(transportDays, key.finishedOn());
+        }
+        for (ScopeDay day : customerDays) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> refreshBookingDay(day));
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Stats rollup reconcile failed for {} {} on {}: {}",
+                        day.scopeType(), day.scopeId(), day.day(), e.getMessage());
+            }
+        }
+        for (LocalDate day : transportDays) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        refreshBookingDays(SCOPE_TRANSPORT, "transport_id", null, day, day.plusDays(1)));
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Stats rollup reconcile failed for transports on {}: {}", day, e.getMessage());
+            }
+        }
+
+        List<LocalDate> userDays = jdbcTemplate.query(CHANGED_USER_DAYS_SQL,
+                (rs, i) -> rs.getDate(1).toLocalDate(), since, since);
+        for (LocalDate day : userDays) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> refreshUserDays(day, day.plusDays(1)));
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Stats rollup reconcile failed for users of {}: {}", day, e.getMessage());
+            }
+        }
+
+        List<Object[]> walletDays = jdbcTemplate.query(CHANGED_WALLET_DAYS_SQL,
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getDate(2).toLocalDate()}, since);
+        for (Object[] row : walletDays) {
+            try {
+                LocalDate day = (LocalDate) row[1];
+                transactionTemplate.executeWithoutResult(status -> refreshWalletDays((Long) row[0], day, day.plusDays(1)));
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Stats rollup reconcile failed for wallet of transport {}: {}", row[0], e.getMessage());
+            }
+        }
+
+        log.debug("Stats rollups reconciled {} customer days, {} transport days, {} user days, {} wallet days ({} failed)",
+                customerDays.size(), transportDays.size(), userDays.size(), walletDays.size(), failed);
+    }
+
+    /**
+     * Rebuild every rollup from the full history in the background, one calendar month per
+     * transaction so no statement scans more than a month of source rows and readers never see a
+     * half-built month.
+     *
+     * @return false if a reconcile or backfill is already running
+     */
+    public boolean startBackfill() {
+        if (!enabled) {
+            return false;
+        }
+        String token = UUID.randomUUID().toString();
+        if (backfillRunning.get() || !acquireLock(token)) {
+            return false;
+        }
+        try {
+            jdbcTemplate.update(BACKFILL_RESET_SQL, Timestamp.valueOf(LocalDateTime.now()));
+            backfillComplete = false;
+        } finally {
+            releaseLock(token);
+        }
+        return submitBackfill();
+    }
+
+    private boolean submitBackfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            backfillExecutor.execute(this::runBackfill);
+            return true;
+        } catch (TaskRejectedException e) {
+            backfillRunning.set(false);
+            return false;
+        }
+    }
+
+    void runBackfill() {
+        try {
+            Long pending = jdbcTemplate.queryForObject(BACKFILL_PENDING_SQL, Long.class);
+            if (pending == null || pending == 0) {
+                backfillComplete = true;
+                return;
+            }
+            String token = UUID.randomUUID().toString();
+            if (!acquireLock(token)) {
+                log.debug("Stats rollup backfill running on another node");
+                return;
+            }
+            try {
+                resumeBackfill(ROLLUP_BOOKING, FIRST_BOOKING_SQL, token, (from, to) -> {
+                    refreshBookingDays(SCOPE_CUSTOMER, "customer_id", null, from, to);
+                    refreshBookingDays(SCOPE_TRANSPORT, "transport_id", null, from, to);
+                });
+                resumeBackfill(ROLLUP_USER, FIRST_USER_SQL, token, this::refreshUserDays);
+                resumeBackfill(ROLLUP_WALLET, FIRST_LEDGER_SQL, token, (from, to) -> refreshWalletDays(null, from, to));
+            } finally {
+                releaseLock(token);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Stats rollup backfill stopped, resuming at the next reconcile: {}", e.getMessage());
+        } finally {
+            backfillRunning.set(false);
+        }
+    }
+
+    /**
+     * Rebuild one rollup from the first month not yet done, recording progress with each month.
+     */
+    private void resumeBackfill(String rollup, String firstSql, String token, DayRange action) {
+        List<BackfillState> states = jdbcTemplate.query(BACKFILL_STATE_SQL, (rs, i) -> new BackfillState(
+                rs.getDate("next_month") != null ? rs.getDate("next_month").toLocalDate() : null,
+                rs.getTimestamp("completed_at") != null), rollup);
+        if (states.isEmpty()) {
+            jdbcTemplate.update(BACKFILL_INSERT_SQL, rollup, Timestamp.valueOf(LocalDateTime.now()));
+        } else if (states.get(0).completed()) {
+            return;
+        }
+
+        YearMonth month = null;
+        if (!states.isEmpty() && states.get(0).nextMonth() != null) {
+            month = YearMonth.from(states.get(0).nextMonth());
+        } else {
+            Timestamp first = jdbcTemplate.queryForObject(firstSql, Timestamp.class);
+            if (first != null) {
+                month = YearMonth.from(first.toLocalDateTime());
+            }
+        }
+
+        int months = 0;
+        YearMonth last = YearMonth.now();
+        while (month != null && !month.isAfter(last)) {
+            if (Thread.currentThread().isInterrupted()) {
+                log.info("Stats rollup backfill of {} interrupted at {}", rollup, month);
+                return;
+            }
+            LocalDate from = month.atDay(1);
+            LocalDate to = month.plusMonths(1).atDay(1);
+            transactionTemplate.executeWithoutResult(status -> {
+                action.apply(from, to);
+                jdbcTemplate.update(BACKFILL_PROGRESS_SQL, Date.valueOf(to), Timestamp.valueOf(LocalDateTime.now()), rollup);
+            });
+            renewLock(token);
+            month = month.plusMonths(1);
+            months++;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(BACKFILL_DONE_SQL, now, now, rollup);
+        log.info("Backfilled {} rollups ({} months)", rollup.toLowerCase(), months);
+    }
+
+    private static Set<ScopeDay> scopeDays(List<BookingKey> keys) {
+        Set<ScopeDay> days = new LinkedHashSet<>();
+        for (BookingKey key : keys) {
+            addDays(days, SCOPE_CUSTOMER, key.customerId(), key.createdOn(), key.finishedOn());
+            addDays(days, SCOPE_TRANSPORT, key.transportId(), key.createdOn(), key.finishedOn());
+        }
+        return days;
+    }
+
+    private void refreshBookingDay(ScopeDay day) {
+        String column = SCOPE_CUSTOMER.equals(day.scopeType()) ? "customer_id" : "transport_id";
+        refreshBookingDays(day.scopeType(), column, day.scopeId(), day.day(), day.day().plusDays(1));
+    }
+
+    private static void addDays(Set<ScopeDay> days, String scopeType, Long scopeId, LocalDate createdOn, LocalDate finishedOn) {
+        if (scopeId == null) {
+            return;
+        }
+        if (createdOn != null) {
+            days.add(new ScopeDay(scopeType, scopeId, createdOn));
+        }
+        if (finishedOn != null) {
+            days.add(new ScopeDay(scopeType, scopeId, finishedOn));
+        }
+    }
+
+    private static void addDay(Set<LocalDate> days, LocalDate day) {
+        if (day != null) {
+            days.add(day);
+        }
+    }
+
+    /**
+     * Recompute the booking rows of {@code [from, to)} for one scope id, or for every id of the
+     * scope type when {@code scopeId} is null.
+     */
+    private void refreshBookingDays(String scopeType, String column, Long scopeId, LocalDate from, LocalDate to) {
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.atStartOfDay());
+        boolean one = scopeId != null;
+
+        List<Object> deleteArgs = new ArrayList<>(List.of(scopeType, Date.valueOf(from), Date.valueOf(to)));
+        List<Object> insertArgs = new ArrayList<>(List.of(scopeType, Timestamp.valueOf(LocalDateTime.now()), start, end));
+        if (one) {
+            deleteArgs.add(scopeId);
+            insertArgs.add(scopeId);
+        }
+        insertArgs.add(start);
+        insertArgs.add(end);
+        if (one) {
+            insertArgs.add(scopeId);
+        }
+        jdbcTemplate.update(String.format(DELETE_BOOKING_DAYS_SQL, one ? " AND scope_id = ?" : ""),
+                deleteArgs.toArray());
+        jdbcTemplate.update(String.format(INSERT_BOOKING_DAYS_SQL, column, one ? " AND b." + column + " = ?" : ""),
+                insertArgs.toArray());
+    }
+
+    private void refreshUserDays(LocalDate from, LocalDate to) {
+        jdbcTemplate.update(DELETE_USER_DAYS_SQL, Date.valueOf(from), Date.valueOf(to));
+        jdbcTemplate.update(INSERT_USER_DAYS_SQL, Timestamp.valueOf(LocalDateTime.now()),
+                Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()));
+    }
+
+    private void refreshWalletDays(Long transportId, LocalDate from, LocalDate to) {
+        boolean one = transportId != null;
+        List<Object> deleteArgs = new ArrayList<>(List.of(Date.valueOf(from), Date.valueOf(to)));
+        List<Object> insertArgs = new ArrayList<>(List.of(Timestamp.valueOf(LocalDateTime.now()),
+                Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay())));
+        if (one) {
+            deleteArgs.add(transportId);
+            insertArgs.add(transportId);
+        }
+        jdbcTemplate.update(String.format(DELETE_WALLET_DAYS_SQL, one ? " AND transport_id = ?" : ""),
+                deleteArgs.toArray());
+        jdbcTemplate.update(String.format(INSERT_WALLET_DAYS_SQL, one ? " AND w.transport_id = ?" : ""),
+                insertArgs.toArray());
+    }
+
+    private boolean acquireLock(String token) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, lockTtl));
+        } catch (Exception e) {
+            log.warn("Redis unavailable for the stats rollup lock, running without it: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void renewLock(String token) {
+        try {
+            redisTemplate.execute(RENEW_SCRIPT, List.of(LOCK_KEY), token, String.valueOf(lockTtl.toMillis()));
+        } catch (Exception e) {
+            log.debug("Failed to renew the stats rollup lock: {}", e.getMessage());
+        }
+    }
+
+    private void releaseLock(String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(LOCK_KEY), token);
+        } catch (Exception e) {
+            // Expires on its own after stats.rollup.lock-ttl-ms
+            log.warn("Failed to release the stats rollup lock: {}", e.getMessage());
+        }
+    }
+
+    private static LocalDate toDate(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toLocalDate() : null;
+    }
+
+    @FunctionalInterface
+    private interface DayRange {
+        void apply(LocalDate from, LocalDate to);
+    }
+
+    private record BookingKey(Long customerId, Long transportId, LocalDate createdOn, LocalDate finishedOn) {
+    }
+
+    private record ScopeDay(String scopeType, Long scopeId, LocalDate day) {
+    }
+
+    private record BackfillState(LocalDate nextMonth, boolean completed) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.homeexpress.home_express_api.service.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivers SSE events to the node holding the connection. Clients connect to whichever node
+ * the load balancer picks, so an event raised on one node is published on a Redis pub/sub
+ * channel and every node (the publisher included) writes it to its own connections of that
+ * scope. If Redis cannot be reached the event is delivered on this node only.
+ * Also sends the heartbeat for every {@link SseEmitterRegistry}.
+ */
+@Slf4j
+@Component
+public class SseBroker {
+
+    static final String CHANNEL = "sse:events";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final ObjectMapper objectMapper;
+    private final boolean fanoutEnabled;
+
+    // stream name -> registry
+    private final Map<String, SseEmitterRegistry> registries = new ConcurrentHashMap<>();
+
+    private RedisMessageListenerContainer listenerContainer;
+
+    public SseBroker(
+            StringRedisTemplate redisTemplate,
+            RedisConnectionFactory connectionFactory,
+            ObjectMapper objectMapper,
+            @Value("${sse.fanout.enabled:true}") boolean fanoutEnabled) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.objectMapper = objectMapper;
+        this.fanoutEnabled = fanoutEnabled;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (!fanoutEnabled) {
+            return;
+        }
+        try {
+            listenerContainer = new RedisMessageListenerContainer();
+            listenerContainer.setConnectionFactory(connectionFactory);
+            listenerContainer.addMessageListener((message, pattern) -> onMessage(message), new ChannelTopic(CHANNEL));
+            listenerContainer.afterPropertiesSet();
+            listenerContainer.start();
+        } catch (Exception e) {
+            // The container keeps retrying the subscription; until then events stay on this node
+            log.warn("SSE fan-out subscription failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void unsubscribe() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    void register(SseEmitterRegistry registry) {
+        if (registries.putIfAbsent(registry.stream(), registry) != null) {
+            throw new IllegalStateException("Duplicate SSE stream " + registry.stream());
+        }
+    }
+
+    /**
+     * Send an event to every connection of the scope, on every node.
+     */
+    public void publish(String stream, Long scopeId, String eventName, String data) {
+        if (fanoutEnabled) {
+            try {
+                String message = objectMapper.writeValueAsString(new Event(stream, scopeId, eventName, data));
+                redisTemplate.convertAndSend(CHANNEL, message);
+                return;
+            } catch (Exception e) {
+                log.warn("SSE fan-out unavailable, delivering '{}' on this node only: {}", eventName, e.getMessage());
+            }
+        }
+        deliver(new Event(stream, scopeId, eventName, data));
+    }
+
+    @Scheduled(fixedDelayString = "${sse.heartbeat.interval-ms:15000}",
+               initialDelayString = "${sse.heartbeat.interval-ms:15000}")
+    public void sendHeartbeats() {
+        registries.values().forEach(registry -> {
+            int reaped = registry.heartbeat();
+            if (reaped > 0) {
+                log.info("Heartbeat reaped {} dead {} SSE connections ({} still active)",
+                        reaped, registry.stream(), registry.totalConnections());
+            }
+        });
+    }
+
+    void onMessage(Message message) {
+        try {
+            deliver(objectMapper.readValue(new String(message.getBody(), StandardCharsets.UTF_8), Event.class));
+        } catch (Exception e) {
+            log.warn("Dropping malformed SSE fan-out message: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(Event event) {
+        SseEmitterRegistry registry = registries.get(event.stream());
+        if (registry != null) {
+            registry.deliver(event.scopeId(), event.eventName(), event.data());
+        }
+    }
+
+    /**
+     * An event as published on {@link #CHANNEL}; {@code data} is the SSE data line, already JSON.
+     */
+    record Event(String stream, Long scopeId, String eventName, String data) {
+    }
+}
@@ -0,0 +1,237 @@
+package com.homeexpress.home_express_api.service.sse;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The open SSE connections of one stream (booking, notification, transport), keyed by scope
+ * (booking, user or transport ID) and then by connection key.
+ * <p>
+ * {@link #publish} goes through the {@link SseBroker}, which fans the event out to every node
+ * so a client gets it whichever node holds its connection. Heartbeats for all registries are
+ * sent by the broker. Dead connections are dropped when a write to them fails.
+ */
+@Slf4j
+public class SseEmitterRegistry {
+
+    private final String stream;
+    private final SseBroker broker;
+    private final long emitterTimeoutMs;
+
+    // scope ID -> connection key -> emitter
+    private final Map<Long, Map<String, SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+
+    // Heartbeat comment frame, built once and reused for every emitter
+    private final Set<ResponseBodyEmitter.DataWithMediaType> heartbeatFrame =
+            SseEmitter.event().comment("heartbeat").build();
+
+    /**
+     * @param stream name carried by fanned-out events; unique per registry
+     * @param gaugeName gauge exporting the number of open connections on this node
+     */
+    public SseEmitterRegistry(String stream, SseBroker broker, MeterRegistry meterRegistry,
+                              String gaugeName, String gaugeDescription, long emitterTimeoutMs) {
+        this.stream = stream;
+        this.broker = broker;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+
+        Gauge.builder(gaugeName, activeConnections, AtomicInteger::get)
+                .description(gaugeDescription)
+                .register(meterRegistry);
+        broker.register(this);
+    }
+
+    public String stream() {
+        return stream;
+    }
+
+    /**
+     * Open a connection. A connection key already in use for the scope replaces the old
+     * emitter, which is completed so its socket is released.
+     */
+    public SseEmitter open(Long scopeId, String connectionKey) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        register(scopeId, connectionKey, emitter);
+        return emitter;
+    }
+
+    void register(Long scopeId, String connectionKey, SseEmitter emitter) {
+        SseEmitter[] previous = new SseEmitter[1];
+        emitters.compute(scopeId, (k, connections) -> {
+            Map<String, SseEmitter> target = connections != null ? connections : new ConcurrentHashMap<>();
+            previous[0] = target.put(connectionKey, emitter);
+            return target;
+        });
+        if (previous[0] == null) {
+            activeConnections.incrementAndGet();
+        } else {
+            completeQuietly(previous[0]);
+        }
+
+        emitter.onCompletion(() -> remove(scopeId, connectionKey, emitter));
+        emitter.onTimeout(() -> remove(scopeId, connectionKey, emitter));
+        emitter.onError(ex -> remove(scopeId, connectionKey, emitter));
+    }
+
+    /**
+     * Send an event to one connection, such as the first event after {@link #open}.
+     *
+     * @return false if the connection was dead and has been dropped
+     */
+    public boolean send(Long scopeId, String connectionKey, SseEmitter emitter, String eventName, String data) {
+        if (write(emitter, eventName, data)) {
+            return true;
+        }
+        remove(scopeId, connectionKey, emitter);
+        return false;
+    }
+
+    /**
+     * Send an event to every connection of the scope, on every node.
+     */
+    public void publish(Long scopeId, String eventName, String data) {
+        broker.publish(stream, scopeId, eventName, data);
+    }
+
+    /**
+     * Send an event to this node's connections of the scope. Called by the broker.
+     *
+     * @return number of connections written to
+     */
+    int deliver(Long scopeId, String eventName, String data) {
+        Map<String, SseEmitter> connections = emitters.get(scopeId);
+        if (connections == null || connections.isEmpty()) {
+            return 0;
+        }
+
+        AtomicInteger sent = new AtomicInteger();
+        connections.forEach((key, emitter) -> {
+            if (write(emitter, eventName, data)) {
+                sent.incrementAndGet();
+            } else {
+                remove(scopeId, key, emitter);
+            }
+        });
+        log.debug("Sent SSE event '{}' to {} {} connections of {}", eventName, sent.get(), stream, scopeId);
+        return sent.get();
+    }
+
+    /**
+     * Write a comment frame to every open connection (ignored by EventSource clients) so that
+     * proxies keep idle connections open, dropping the connections whose socket is dead.
+     *
+     * @return number of dead connections dropped
+     */
+    int heartbeat() {
+        if (activeConnections.get() == 0) {
+            return 0;
+        }
+
+        List<Connection> snapshot = new ArrayList<>(activeConnections.get());
+        emitters.forEach((scopeId, connections) ->
+                connections.forEach((key, emitter) -> snapshot.add(new Connection(scopeId, key, emitter))));
+
+        int reaped = 0;
+        for (Connection connection : snapshot) {
+            try {
+                connection.emitter().send(heartbeatFrame);
+            } catch (IOException | IllegalStateException e) {
+                completeQuietly(connection.emitter(), e);
+                remove(connection.scopeId(), connection.key(), connection.emitter());
+                reaped++;
+            }
+        }
+        return reaped;
+    }
+
+    /**
+     * Whether this node holds a connection for the scope.
+     */
+    public boolean hasLocalConnections(Long scopeId) {
+        Map<String, SseEmitter> connections = emitters.get(scopeId);
+        return connections != null && !connections.isEmpty();
+    }
+
+    /**
+     * Connections for the scope on this node.
+     */
+    public int connectionCount(Long scopeId) {
+        Map<String, SseEmitter> connections = emitters.get(scopeId);
+        return connections != null ? connections.size() : 0;
+    }
+
+    /**
+     * Connections of this stream on this node.
+     */
+    public int totalConnections() {
+        return activeConnections.get();
+    }
+
+    /**
+     * Close this node's connections for the scope.
+     *
+     * @return number of connections closed
+     */
+    public int closeAll(Long scopeId) {
+        Map<String, SseEmitter> connections = emitters.remove(scopeId);
+        if (connections == null) {
+            return 0;
+        }
+        activeConnections.addAndGet(-connections.size());
+        connections.values().forEach(this::completeQuietly);
+        return connections.size();
+    }
+
+    private boolean write(SseEmitter emitter, String eventName, String data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            completeQuietly(emitter, e);
+            return false;
+        }
+    }
+
+    /**
+     * Only removes the given instance, so a stale callback cannot drop a newer emitter
+     * registered under the same key.
+     */
+    private void remove(Long scopeId, String connectionKey, SseEmitter emitter) {
+        Map<String, SseEmitter> connections = emitters.get(scopeId);
+        if (connections != null && connections.remove(connectionKey, emitter)) {
+            activeConnections.decrementAndGet();
+            emitters.computeIfPresent(scopeId, (k, v) -> v.isEmpty() ? null : v);
+        }
+    }
+
+    private void completeQuietly(SseEmitter emitter) {
+        try {
+            emitter.complete();
+        } catch (Exception e) {
+            // Ignore
+        }
+    }
+
+    private void completeQuietly(SseEmitter emitter, Exception cause) {
+        try {
+            emitter.completeWithError(cause);
+        } catch (Exception e) {
+            // Ignore
+        }
+    }
+
+    private record Connection(Long scopeId, String key, SseEmitter emitter) {
+    }
+}
@@ -1,12 +1,18 @@
 package com.homeexpress.home_express_api.util;
 
+import com.homeexpress.home_express_api.config.AuthenticatedUser;
 import com.homeexpress.home_express_api.entity.Customer;
 import com.homeexpress.home_express_api.entity.Transport;
 import com.homeexpress.home_express_api.entity.User;
+import com.homeexpress.home_express_api.entity.UserRole;
+import com.homeexpress.home_express_api.repository.CustomerRepository;
+import com.homeexpress.home_express_api.repository.TransportRepository;
 import com.homeexpress.home_express_api.repository.UserRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.util.StringUtils;
 
+import java.util.Optional;
+
 /**
  * Utility helpers for extracting the currently authenticated user from the
  * Spring Security {@link Authentication} object. Several existing controllers
@@ -14,6 +20,9 @@ import org.springframework.util.StringUtils;
  * but the JWT filter stores the numeric user id as the principal. Centralising
  * the resolution logic avoids those incorrect assumptions and prevents 500s
  * caused by failed lookups.
+ * <p>
+ * Entity lookups go through {@link RequestIdentityContext}, so each of User, Customer and
+ * Transport is loaded at most once per request no matter how many callers ask for it.
  */
 public final class AuthenticationUtils {
 
@@ -32,6 +41,10 @@ public final class AuthenticationUtils {
         }
 
         Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser.userId();
+        }
+
         if (principal instanceof Long id) {
             return id;
         }
@@ -65,6 +78,20 @@ public final class AuthenticationUtils {
         return null;
     }
 
+    /**
+     * The principal set by the JWT filter, if the request was authenticated with a token.
+     *
+     * @param authentication the authentication context
+     * @return the principal, or {@code null} for anonymous or other authentication types
+     */
+    public static AuthenticatedUser getPrincipal(Authentication authentication) {
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal;
+        }
+        return null;
+    }
+
     /**
      * Resolve the authenticated {@link User}, using the provided repository as needed.
      *
@@ -80,7 +107,7 @@ public final class AuthenticationUtils {
 
         Long userId = getUserId(authentication);
         if (userId != null) {
-            return userRepository.findById(userId)
+            return RequestIdentityContext.resolve(User.class, userId, userRepository::findById)
                     .orElseThrow(() -> new RuntimeException("Authenticated user not found"));
         }
 
@@ -92,4 +119,60 @@ public final class AuthenticationUtils {
 
         throw new RuntimeException("Authenticated user not found");
     }
+
+    /**
+     * Check the role carried by the access token, without loading the user.
+     *
+     * @param authentication the authentication context
+     * @param role           the expected role
+     * @return true if the authenticated user has the role
+     */
+    public static boolean hasRole(Authentication authentication, UserRole role) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        AuthenticatedUser principal = getPrincipal(authentication);
+        if (principal != null) {
+            return principal.role() == role;
+        }
+        String authority = "ROLE_" + role.name();
+        return authentication.getAuthorities().stream()
+                .anyMatch(granted -> authority.equals(granted.getAuthority()));
+    }
+
+    /**
+     * Resolve the authenticated user's {@link Customer} profile.
+     *
+     * @param authentication     the authentication context
+     * @param customerRepository repository used to load the profile
+     * @return the profile, or empty if the user is not a customer or has no profile
+     */
+    public static Optional<Customer> getCustomer(Authentication authentication,
+                                                 CustomerRepository customerRepository) {
+        AuthenticatedUser principal = getPrincipal(authentication);
+        Long customerId = principal != null ? principal.customerId() : getUserId(authentication);
+        if (customerId == null) {
+            return Optional.empty();
+        }
+        // customer_id dung chung khoa chinh voi user_id
+        return RequestIdentityContext.resolve(Customer.class, customerId, customerRepository::findById);
+    }
+
+    /**
+     * Resolve the authenticated user's {@link Transport} profile.
+     *
+     * @param authentication      the authentication context
+     * @param transportRepository repository used to load the profile
+     * @return the profile, or empty if the user is not a transport or has no profile
+     */
+    public static Optional<Transport> getTransport(Authentication authentication,
+                                                   TransportRepository transportRepository) {
+        AuthenticatedUser principal = getPrincipal(authentication);
+        Long transportId = principal != null ? principal.transportId() : getUserId(authentication);
+        if (transportId == null) {
+            return Optional.empty();
+        }
+        // transport_id dung chung khoa chinh voi user_id
+        return RequestIdentityContext.resolve(Transport.class, transportId, transportRepository::findById);
+    }
 }
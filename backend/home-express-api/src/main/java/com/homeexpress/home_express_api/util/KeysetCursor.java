@@ -0,0 +1,41 @@
+package com.homeexpress.home_express_api.util;
+
+import com.homeexpress.home_express_api.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a list ordered by {@code (timestamp DESC, id DESC)}: the last row of the
+ * previous page. The next page is every row strictly after it, so no OFFSET scan is needed
+ * and rows inserted meanwhile do not shift the page.
+ * <p>
+ * Sent to clients as an opaque URL-safe token.
+ */
+public record KeysetCursor(LocalDateTime timestamp, Long id) {
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or null for a blank token
+     * @throws BadRequestException if the token was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.homeexpress.home_express_api.util;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Identity entities (User, Customer, Transport) already loaded for the current HTTP request.
+ * Stored as a request attribute so controllers, helpers and services asking for the same
+ * entity share one lookup. Outside a request (scheduled jobs, async workers) every call
+ * goes straight to the loader.
+ * <p>
+ * Entities are detached once the loading repository call returns (open-in-view is off);
+ * treat them as read-only snapshots and reload inside a transaction before modifying.
+ */
+public final class RequestIdentityContext {
+
+    private static final String ATTRIBUTE = RequestIdentityContext.class.getName();
+
+    private final Map<Key, Optional<?>> resolved = new HashMap<>();
+
+    private RequestIdentityContext() {
+    }
+
+    /**
+     * Load an entity at most once per request.
+     *
+     * @param type   entity type, part of the cache key
+     * @param id     entity id, part of the cache key
+     * @param loader called on the first lookup of this type and id in the request
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<T> resolve(Class<T> type, Long id, Function<Long, Optional<T>> loader) {
+        RequestIdentityContext context = current();
+        if (context == null || id == null) {
+            return loader.apply(id);
+        }
+        Key key = new Key(type, id);
+        Optional<?> cached = context.resolved.get(key);
+        if (cached == null) {
+            cached = loader.apply(id);
+            context.resolved.put(key, cached);
+        }
+        return (Optional<T>) cached;
+    }
+
+    private static RequestIdentityContext current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object context = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (context == null) {
+            context = new RequestIdentityContext();
+            attributes.setAttribute(ATTRIBUTE, context, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (RequestIdentityContext) context;
+    }
+
+    private record Key(Class<?> type, Long id) {
+    }
+}
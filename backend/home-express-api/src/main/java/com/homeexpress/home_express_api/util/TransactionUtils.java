@@ -0,0 +1,31 @@
+package com.homeexpress.home_express_api.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helpers for side effects that must only happen once the surrounding transaction
+ * has committed (cache updates, handing work to background threads, ...).
+ */
+public final class TransactionUtils {
+
+    private TransactionUtils() {
+    }
+
+    /**
+     * Run the action after the current transaction commits, or immediately when
+     * no transaction is active. Nothing runs if the transaction rolls back.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- Migration: Indexes for retention sweeps
+-- Description: Retention sweeps walk each table in (time column, primary key) order.
+--              user_sessions, otp_codes, login_attempts and intake_sessions.expires_at are
+--              already covered; these two were not.
+-- Date: 2025-12-17
+
+CREATE INDEX idx_notifications_created_at ON notifications (created_at);
+
+CREATE INDEX idx_intake_sessions_status_updated ON intake_sessions (status, updated_at);
@@ -0,0 +1,6 @@
+-- Migration: Index for the transport job board
+-- Description: Open bookings (no transport yet, PENDING/QUOTED) are listed newest first and
+--              paged by keyset on (created_at, booking_id).
+-- Date: 2025-12-18
+
+CREATE INDEX idx_bookings_open_board ON bookings (transport_id, status, created_at, booking_id);
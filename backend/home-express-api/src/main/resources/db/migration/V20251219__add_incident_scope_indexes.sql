@@ -0,0 +1,8 @@
+-- Migration: Index for customer / transport incident lists
+-- Description: Incident lists for a customer or transport join incidents to that user's
+--              bookings and page by keyset on (reported_at, incident_id). bookings already has
+--              (customer_id) and (transport_id) indexes, which carry booking_id as the key
+--              suffix; this covers the incidents side of the join.
+-- Date: 2025-12-19
+
+CREATE INDEX idx_incidents_booking_reported ON incidents (booking_id, reported_at, incident_id);
@@ -0,0 +1,130 @@
+-- Migration: Daily statistics rollups for dashboards
+-- Description: One row per scope and day, recomputed from the source tables whenever a
+--              booking, user or wallet ledger entry of that day changes (see StatsRollupService).
+--              Status and flag columns count the rows *created* that day by their current
+--              state; finished_* columns count bookings completed that day (actual_end_time).
+--              Dashboards sum these rows instead of scanning bookings, users and the ledger.
+-- Date: 2025-12-20
+
+CREATE TABLE IF NOT EXISTS booking_daily_stats (
+    scope_type          VARCHAR(20)   NOT NULL COMMENT 'CUSTOMER or TRANSPORT',
+    scope_id            BIGINT        NOT NULL COMMENT 'customer_id or transport_id',
+    stat_date           DATE          NOT NULL,
+    created_count       INT           NOT NULL DEFAULT 0,
+    pending_count       INT           NOT NULL DEFAULT 0,
+    active_count        INT           NOT NULL DEFAULT 0 COMMENT 'CONFIRMED or IN_PROGRESS',
+    completed_count     INT           NOT NULL DEFAULT 0,
+    cancelled_count     INT           NOT NULL DEFAULT 0,
+    completed_value_vnd DECIMAL(18,0) NOT NULL DEFAULT 0 COMMENT 'final_price of completed bookings created that day',
+    finished_count      INT           NOT NULL DEFAULT 0,
+    finished_value_vnd  DECIMAL(18,0) NOT NULL DEFAULT 0 COMMENT 'final_price of bookings completed that day',
+    refreshed_at        DATETIME      NOT NULL,
+    PRIMARY KEY (scope_type, scope_id, stat_date)
+);
+
+CREATE TABLE IF NOT EXISTS user_daily_stats (
+    stat_date           DATE     NOT NULL,
+    new_users           INT      NOT NULL DEFAULT 0,
+    new_customers       INT      NOT NULL DEFAULT 0,
+    new_transports      INT      NOT NULL DEFAULT 0,
+    new_managers        INT      NOT NULL DEFAULT 0,
+    active_users        INT      NOT NULL DEFAULT 0,
+    verified_users      INT      NOT NULL DEFAULT 0,
+    pending_transports  INT      NOT NULL DEFAULT 0 COMMENT 'transports awaiting verification',
+    refreshed_at        DATETIME NOT NULL,
+    PRIMARY KEY (stat_date)
+);
+
+CREATE TABLE IF NOT EXISTS wallet_daily_stats (
+    transport_id        BIGINT   NOT NULL,
+    stat_date           DATE     NOT NULL,
+    credit_vnd          BIGINT   NOT NULL DEFAULT 0,
+    debit_vnd           BIGINT   NOT NULL DEFAULT 0,
+    credit_count        INT      NOT NULL DEFAULT 0,
+    debit_count         INT      NOT NULL DEFAULT 0,
+    closing_balance_vnd BIGINT   NOT NULL DEFAULT 0 COMMENT 'running balance after the last entry of the day',
+    refreshed_at        DATETIME NOT NULL,
+    PRIMARY KEY (transport_id, stat_date)
+);
+
+-- Progress of the one-off backfill from history, one row per rollup. next_month is the first
+-- month not yet rebuilt; a backfill that stops (failure, restart) resumes there until completed_at is set.
+CREATE TABLE IF NOT EXISTS stats_rollup_backfill (
+    rollup              VARCHAR(20) NOT NULL COMMENT 'BOOKING, USER or WALLET',
+    next_month          DATE        DEFAULT NULL,
+    completed_at        DATETIME    DEFAULT NULL,
+    updated_at          DATETIME    DEFAULT NULL,
+    PRIMARY KEY (rollup)
+);
+
+INSERT IGNORE INTO stats_rollup_backfill (rollup) VALUES ('BOOKING'), ('USER'), ('WALLET');
+
+-- Indexes for recomputing one scope and day, backfilling by month and finding rows changed since
+-- the last reconcile. bookings is a hot table, so existing indexes are reused where they serve:
+--   * one customer's days: the existing customer_id indexes (a customer has few bookings)
+--   * one transport's days: (transport_id, created_at), which replaces idx_bookings_transport
+--   * every scope of a day or month: created_at (bootstrap idx_bookings_created where present)
+--     and actual_end_time
+SET @schema := DATABASE();
+
+CREATE INDEX idx_bookings_transport_created ON bookings (transport_id, created_at);
+
+-- Superseded by idx_bookings_transport_created, which also backs fk_bookings_transport
+SET @sql := (
+    SELECT IF(
+        EXISTS (
+            SELECT 1
+            FROM INFORMATION_SCHEMA.STATISTICS
+            WHERE TABLE_SCHEMA = @schema
+              AND TABLE_NAME = 'bookings'
+              AND INDEX_NAME = 'idx_bookings_transport'
+        ),
+        'DROP INDEX idx_bookings_transport ON bookings',
+        'DO 0'
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- V20251102_1 already created idx_bookings_created (created_at); only add one where it is missing
+SET @sql := (
+    SELECT IF(
+        EXISTS (
+            SELECT 1
+            FROM INFORMATION_SCHEMA.STATISTICS
+            WHERE TABLE_SCHEMA = @schema
+              AND TABLE_NAME = 'bookings'
+              AND COLUMN_NAME = 'created_at'
+              AND SEQ_IN_INDEX = 1
+        ),
+        'DO 0',
+        'CREATE INDEX idx_bookings_created ON bookings (created_at)'
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+CREATE INDEX idx_bookings_actual_end ON bookings (actual_end_time);
+CREATE INDEX idx_bookings_updated_at ON bookings (updated_at);
+CREATE INDEX idx_users_created_at ON users (created_at);
+CREATE INDEX idx_users_updated_at ON users (updated_at);
+CREATE INDEX idx_transports_updated_at ON transports (updated_at);
+
+-- The wallet ledger table is created by Hibernate in some environments; only index it if present
+SET @sql := (
+    SELECT IF(
+        EXISTS (
+            SELECT 1
+            FROM INFORMATION_SCHEMA.TABLES
+            WHERE TABLE_SCHEMA = @schema
+              AND TABLE_NAME = 'transport_wallet_transactions'
+        ),
+        'CREATE INDEX idx_wallet_tx_created_at ON transport_wallet_transactions (created_at)',
+        'DO 0'
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
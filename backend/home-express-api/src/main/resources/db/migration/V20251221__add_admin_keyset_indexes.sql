@@ -0,0 +1,10 @@
+-- Migration: Indexes for the unfiltered admin keyset lists and exports
+-- Description: The admin settlement list / export pages by (created_at, settlement_id) and the
+--              incident list / export by (reported_at, incident_id), newest first. Without a
+--              leading created_at / reported_at index every page sorted the whole table.
+--              transport_payouts already has idx_transport_payouts_created_at and bookings
+--              idx_bookings_created.
+-- Date: 2025-12-21
+
+CREATE INDEX idx_booking_settlements_created ON booking_settlements (created_at, settlement_id);
+CREATE INDEX idx_incidents_reported ON incidents (reported_at, incident_id);
@@ -0,0 +1,10 @@
+-- Migration: Outbox retention
+-- Description: Retention sweeps delete SENT and FAILED outbox messages by processed_at.
+--              FAILED messages now get processed_at when they give up; older ones are
+--              stamped with their created_at so they age out too.
+-- Date: 2025-12-22
+
+UPDATE outbox_messages SET processed_at = created_at
+WHERE status = 'FAILED' AND processed_at IS NULL;
+
+CREATE INDEX idx_outbox_status_processed ON outbox_messages (status, processed_at);
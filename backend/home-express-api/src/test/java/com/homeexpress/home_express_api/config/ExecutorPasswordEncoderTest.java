@@ -0,0 +1,87 @@
+package com.homeexpress.home_express_api.config;
+
+import com.homeexpress.home_express_api.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_RunOnHashWorkers() {
+        executor = executor(1, 10);
+        ExecutorPasswordEncoder encoder =
+                new ExecutorPasswordEncoder(new BCryptPasswordEncoder(4), executor, 5000, meterRegistry);
+
+        String hash = encoder.encode("password123");
+
+        assertTrue(encoder.matches("password123", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(1, meterRegistry.get("password.hash.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password.hash.duration").tag("operation", "matches").timer().count());
+        assertEquals(3, meterRegistry.get("password.hash.queue.wait").timer().count());
+    }
+
+    @Test
+    void saturatedWorkers_RejectWithRetryAfter() throws Exception {
+        executor = executor(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        ExecutorPasswordEncoder encoder = new ExecutorPasswordEncoder(blocking, executor, 200, meterRegistry);
+
+        // One running, one queued: the next hash is refused at once
+        executor.execute(() -> blocking.encode("busy"));
+        executor.execute(() -> { });
+        TooManyRequestsException rejected = assertThrows(TooManyRequestsException.class, () -> encoder.encode("x"));
+        assertEquals(1, rejected.getRetryAfterSeconds());
+
+        release.countDown();
+        assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+    }
+
+    @Test
+    void calibrateCost_StaysWithinBounds() {
+        assertEquals(4, ExecutorPasswordEncoder.calibrateCost(4, 4, 10_000));
+        assertEquals(4, ExecutorPasswordEncoder.calibrateCost(4, 12, 0));
+
+        int cost = ExecutorPasswordEncoder.calibrateCost(4, 8, 10_000);
+        assertEquals(8, cost);
+    }
+
+    private ThreadPoolTaskExecutor executor(int workers, int queueCapacity) {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(workers);
+        pool.setMaxPoolSize(workers);
+        pool.setQueueCapacity(queueCapacity);
+        pool.initialize();
+        return pool;
+    }
+}
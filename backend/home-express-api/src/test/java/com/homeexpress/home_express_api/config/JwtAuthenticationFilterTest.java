@@ -0,0 +1,188 @@
+package com.homeexpress.home_express_api.config;
+
+import com.homeexpress.home_express_api.entity.UserRole;
+import com.homeexpress.home_express_api.service.TokenRevocationService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private VerifiedTokenCache tokenCache;
+    private JwtTokenProvider tokenProvider;
+    private TokenRevocationService revocationService;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenCache = new VerifiedTokenCache(100);
+        tokenProvider = new JwtTokenProvider(tokenCache);
+        revocationService = mock(TokenRevocationService.class);
+        filter = new JwtAuthenticationFilter(tokenProvider, revocationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void transportToken_BuildsPrincipalFromClaims() throws Exception {
+        String token = tokenProvider.generateAccessToken(42L, "t@test.com", "TRANSPORT");
+
+        Authentication authentication = runFilter("Bearer " + token);
+
+        assertNotNull(authentication);
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        assertEquals(42L, principal.userId());
+        assertEquals(UserRole.TRANSPORT, principal.role());
+        assertEquals(42L, principal.transportId());
+        assertNull(principal.customerId());
+        assertEquals("t@test.com", principal.email());
+        assertTrue(authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_TRANSPORT")));
+    }
+
+    @Test
+    void customerToken_SetsCustomerId() throws Exception {
+        String token = tokenProvider.generateAccessToken(7L, "c@test.com", "CUSTOMER");
+
+        AuthenticatedUser principal = (AuthenticatedUser) runFilter("Bearer " + token).getPrincipal();
+
+        assertEquals(7L, principal.customerId());
+        assertNull(principal.transportId());
+    }
+
+    @Test
+    void sessionToken_CarriesSessionId() throws Exception {
+        String token = tokenProvider.generateAccessToken(7L, "c@test.com", "CUSTOMER", "session-1");
+
+        AuthenticatedUser principal = (AuthenticatedUser) runFilter("Bearer " + token).getPrincipal();
+
+        assertEquals("session-1", principal.sessionId());
+        verify(revocationService).isRevoked(principal);
+    }
+
+    @Test
+    void revokedToken_IsRejected() throws Exception {
+        String token = tokenProvider.generateAccessToken(7L, "c@test.com", "CUSTOMER", "session-1");
+        when(revocationService.isRevoked(any())).thenReturn(true);
+
+        assertNull(runFilter("Bearer " + token));
+    }
+
+    @Test
+    void refreshToken_IsNotAcceptedAsAccessToken() throws Exception {
+        String refreshToken = tokenProvider.generateRefreshToken(7L);
+
+        assertNull(runFilter("Bearer " + refreshToken));
+    }
+
+    @Test
+    void tamperedToken_IsRejected() throws Exception {
+        String token = tokenProvider.generateAccessToken(7L, "c@test.com", "CUSTOMER");
+
+        assertNull(runFilter("Bearer " + token.substring(0, token.length() - 2) + "xx"));
+    }
+
+    @Test
+    void repeatedToken_IsServedFromCacheUntilUserIsEvicted() throws Exception {
+        String token = tokenProvider.generateAccessToken(7L, "c@test.com", "CUSTOMER");
+        String other = tokenProvider.generateAccessToken(8L, "d@test.com", "CUSTOMER");
+
+        Object first = runFilter("Bearer " + token).getPrincipal();
+        SecurityContextHolder.clearContext();
+        Object second = runFilter("Bearer " + token).getPrincipal();
+        tokenProvider.authenticate(other);
+
+        assertSame(first, second);
+        assertEquals(2, tokenCache.size());
+
+        tokenProvider.evictCachedTokens(7L);
+
+        assertEquals(1, tokenCache.size());
+        assertNull(tokenCache.get(token));
+        assertNotNull(tokenCache.get(other));
+    }
+
+    @Test
+    void revokedToken_IsNotCachedAgainAfterEviction() throws Exception {
+        String token = tokenProvider.generateAccessToken(7L, "c@test.com", "CUSTOMER", "session-1");
+        assertNotNull(runFilter("Bearer " + token));
+        SecurityContextHolder.clearContext();
+
+        // Session revoked: cache evicted, revocation check now says revoked
+        tokenProvider.evictCachedTokens(7L);
+        when(revocationService.isRevoked(any())).thenReturn(true);
+
+        assertNull(runFilter("Bearer " + token));
+        assertNull(tokenCache.get(token));
+    }
+
+    @Test
+    void cachedToken_RevokedLater_IsDroppedFromCache() throws Exception {
+        String token = tokenProvider.generateAccessToken(7L, "c@test.com", "CUSTOMER", "session-1");
+        assertNotNull(runFilter("Bearer " + token));
+        SecurityContextHolder.clearContext();
+
+        when(revocationService.isRevoked(any())).thenReturn(true);
+
+        assertNull(runFilter("Bearer " + token));
+        assertEquals(0, tokenCache.size());
+    }
+
+    @Test
+    void cachedEntry_ExpiresAtTokenExp() {
+        AuthenticatedUser principal = new AuthenticatedUser(7L, "c@test.com", UserRole.CUSTOMER, 7L, null, null);
+        tokenCache.put("expired", principal, System.currentTimeMillis() - 1);
+        tokenCache.put("valid", principal, System.currentTimeMillis() + 60_000);
+
+        assertNull(tokenCache.get("expired"));
+        assertSame(principal, tokenCache.get("valid"));
+    }
+
+    @Test
+    void fullCache_EvictsLeastRecentlyUsedToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        long exp = System.currentTimeMillis() + 60_000;
+        AuthenticatedUser first = new AuthenticatedUser(1L, "a@test.com", UserRole.CUSTOMER, 1L, null, null);
+        AuthenticatedUser second = new AuthenticatedUser(2L, "b@test.com", UserRole.CUSTOMER, 2L, null, null);
+        AuthenticatedUser third = new AuthenticatedUser(3L, "c@test.com", UserRole.CUSTOMER, 3L, null, null);
+        cache.put("first", first, exp);
+        cache.put("second", second, exp);
+        cache.get("first");
+
+        cache.put("third", third, exp);
+
+        assertEquals(2, cache.size());
+        assertSame(first, cache.get("first"));
+        assertNull(cache.get("second"));
+        assertSame(third, cache.get("third"));
+
+        // evicted token no longer indexed under its user
+        cache.evictUser(2L);
+        assertEquals(2, cache.size());
+        cache.evictUser(1L);
+        assertEquals(1, cache.size());
+        assertNull(cache.get("first"));
+    }
+
+    private Authentication runFilter(String authorizationHeader) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/bookings");
+        request.addHeader("Authorization", authorizationHeader);
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,63 @@
+package com.homeexpress.home_express_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homeexpress.home_express_api.service.RateLimitService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private final RateLimitService rateLimitService = mock(RateLimitService.class);
+    private final RateLimitFilter filter = new RateLimitFilter(rateLimitService, new ObjectMapper());
+
+    @Test
+    void emptyBucket_Returns429WithRetryAfter() throws Exception {
+        when(rateLimitService.tryConsume("/api/v1/map/autocomplete", "ip:10.0.0.1"))
+                .thenReturn(new RateLimitService.Decision(false, 0, 42));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/map/autocomplete");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("42", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("\"status\":429"));
+        verify(chain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    void allowed_PassesThroughWithRemainingHeader() throws Exception {
+        when(rateLimitService.tryConsume("/api/v1/estimation/auto", "ip:10.0.0.1"))
+                .thenReturn(new RateLimitService.Decision(true, 4, 0));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/estimation/auto");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals("4", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    void forwardedForHeader_IsIgnoredForTheSubject() throws Exception {
+        when(rateLimitService.tryConsume("/api/v1/map/autocomplete", "ip:10.0.0.1"))
+                .thenReturn(new RateLimitService.Decision(true, 9, 0));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/map/autocomplete");
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("X-Forwarded-For", "6.6.6.6");
+
+        filter.doFilter(request, new MockHttpServletResponse(), mock(FilterChain.class));
+
+        verify(rateLimitService).tryConsume("/api/v1/map/autocomplete", "ip:10.0.0.1");
+    }
+}
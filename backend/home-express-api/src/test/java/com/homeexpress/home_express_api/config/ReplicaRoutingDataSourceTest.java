@@ -0,0 +1,159 @@
+package com.homeexpress.home_express_api.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransaction_RoundRobinsOverReplicasWithinLagLimit() throws Exception {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                List.of(replicaLagging(0), replicaLagging(2)), 5000, "SHOW REPLICA STATUS");
+        routing.refreshReplicaLag();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransaction_SkipsLaggingOrUnreachableReplicas() throws Exception {
+        DataSource unreachable = mock(DataSource.class);
+        when(unreachable.getConnection()).thenThrow(new SQLException("connection refused"));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                List.of(replicaLagging(30), unreachable, replicaLagging(1)), 5000, "SHOW REPLICA STATUS");
+        routing.refreshReplicaLag();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(List.of("replica-2"), routing.availableReplicas());
+        assertEquals("replica-2", routing.determineCurrentLookupKey());
+        assertEquals("replica-2", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransaction_FallsBackToPrimaryWhenReplicationStoppedOrUnmeasured() throws Exception {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                List.of(replicaLagging(null)), 5000, "SHOW REPLICA STATUS");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // chua do lag lan nao
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        routing.refreshReplicaLag();
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransaction_SkipsReplicaWithoutReplicationStatus() throws Exception {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                List.of(replicaWithoutStatus(), replicaLagging(1)), 5000, "SHOW REPLICA STATUS");
+        routing.refreshReplicaLag();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(List.of("replica-1"), routing.availableReplicas());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readWriteTransaction_UsesPrimaryAndPinsRestOfRequestAfterCommit() throws Exception {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                List.of(replicaLagging(0)), 5000, "SHOW REPLICA STATUS");
+        routing.refreshReplicaLag();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        // request moi doc replica lai
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readWriteTransaction_RolledBackDoesNotPinPrimary() throws Exception {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                List.of(replicaLagging(0)), 5000, "SHOW REPLICA STATUS");
+        routing.refreshReplicaLag();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+    }
+
+    // SHOW REPLICA STATUS tra ve 0 dong (server khong phai replica)
+    private DataSource replicaWithoutStatus() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(mock(ResultSet.class));
+        return dataSource;
+    }
+
+    private DataSource replicaLagging(Integer seconds) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet rs = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnLabel(1)).thenReturn("Replica_IO_State");
+        when(metaData.getColumnLabel(2)).thenReturn("Seconds_Behind_Source");
+        when(rs.getObject(2)).thenReturn(seconds);
+        return dataSource;
+    }
+}
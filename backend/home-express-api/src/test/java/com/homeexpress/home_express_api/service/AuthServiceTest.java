@@ -5,9 +5,11 @@ import com.homeexpress.home_express_api.dto.request.LoginRequest;
 import com.homeexpress.home_express_api.dto.request.RegisterRequest;
 import com.homeexpress.home_express_api.dto.response.AuthResponse;
 import com.homeexpress.home_express_api.entity.*;
+import com.homeexpress.home_express_api.exception.TooManyRequestsException;
 import com.homeexpress.home_express_api.repository.CustomerRepository;
 import com.homeexpress.home_express_api.repository.TransportRepository;
 import com.homeexpress.home_express_api.repository.UserRepository;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +18,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Optional;
 
@@ -44,9 +47,21 @@ class AuthServiceTest {
     @Mock
     private UserSessionService userSessionService;
 
+    @Mock
+    private LoginThrottleService loginThrottleService;
+
+    @Mock
+    private UserActivityBuffer activityBuffer;
+
     @Mock
     private HttpServletRequest httpRequest;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private AuthService authService;
 
@@ -126,7 +141,7 @@ class AuthServiceTest {
         when(passwordEncoder.encode(anyString())).thenReturn("$2a$10$hashedPassword");
         when(userRepository.save(any(User.class))).thenReturn(mockUser);
         when(customerRepository.save(any(Customer.class))).thenReturn(mockCustomer);
-        when(jwtTokenProvider.generateAccessToken(anyLong(), anyString(), anyString()))
+        when(jwtTokenProvider.generateAccessToken(anyLong(), anyString(), anyString(), nullable(String.class)))
                 .thenReturn("mock-access-token");
         when(userSessionService.createSession(any(User.class), anyString(), anyString(), nullable(String.class)))
                 .thenReturn(mockSession);
@@ -145,7 +160,7 @@ class AuthServiceTest {
         verify(userRepository, times(1)).existsByEmail("customer@test.com");
         verify(userRepository, times(1)).save(any(User.class));
         verify(customerRepository, times(1)).save(any(Customer.class));
-        verify(jwtTokenProvider, times(1)).generateAccessToken(anyLong(), anyString(), anyString());
+        verify(jwtTokenProvider, times(1)).generateAccessToken(1L, "customer@test.com", "CUSTOMER", "session-uuid-1");
     }
 
     @Test
@@ -167,7 +182,7 @@ class AuthServiceTest {
         when(passwordEncoder.encode(anyString())).thenReturn("$2a$10$hashedPassword");
         when(userRepository.save(any(User.class))).thenReturn(transportUser);
         when(transportRepository.save(any(Transport.class))).thenReturn(mockTransport);
-        when(jwtTokenProvider.generateAccessToken(anyLong(), anyString(), anyString()))
+        when(jwtTokenProvider.generateAccessToken(anyLong(), anyString(), anyString(), nullable(String.class)))
                 .thenReturn("transport-access-token");
         when(userSessionService.createSession(any(User.class), anyString(), anyString(), nullable(String.class)))
                 .thenReturn(transportSession);
@@ -191,8 +206,7 @@ class AuthServiceTest {
         // Given
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(mockUser));
         when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
-        when(userRepository.save(any(User.class))).thenReturn(mockUser);
-        lenient().when(jwtTokenProvider.generateAccessToken(anyLong(), anyString(), anyString()))
+        lenient().when(jwtTokenProvider.generateAccessToken(anyLong(), anyString(), anyString(), nullable(String.class)))
                 .thenReturn("login-access-token");
         when(userSessionService.createSession(any(User.class), anyString(), anyString(), nullable(String.class)))
                 .thenReturn(mockSession);
@@ -210,7 +224,8 @@ class AuthServiceTest {
 
         verify(userRepository, times(1)).findByEmail("customer@test.com");
         verify(passwordEncoder, times(1)).matches("password123", "$2a$10$hashedPassword");
-        verify(userRepository, times(1)).save(mockUser);
+        verify(activityBuffer, times(1)).recordLogin(eq(1L), any());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -234,8 +249,7 @@ class AuthServiceTest {
 
         when(userRepository.findByEmail("transport@test.com")).thenReturn(Optional.of(transportUser));
         when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
-        when(userRepository.save(any(User.class))).thenReturn(transportUser);
-        lenient().when(jwtTokenProvider.generateAccessToken(anyLong(), anyString(), anyString()))
+        lenient().when(jwtTokenProvider.generateAccessToken(anyLong(), anyString(), anyString(), nullable(String.class)))
                 .thenReturn("transport-login-access");
         when(userSessionService.createSession(any(User.class), anyString(), anyString(), nullable(String.class)))
                 .thenReturn(transportSession);
@@ -274,8 +288,7 @@ class AuthServiceTest {
 
         when(userRepository.findByEmail("manager@test.com")).thenReturn(Optional.of(managerUser));
         when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
-        when(userRepository.save(any(User.class))).thenReturn(managerUser);
-        lenient().when(jwtTokenProvider.generateAccessToken(anyLong(), anyString(), anyString()))
+        lenient().when(jwtTokenProvider.generateAccessToken(anyLong(), anyString(), anyString(), nullable(String.class)))
                 .thenReturn("manager-access-token");
         when(userSessionService.createSession(any(User.class), anyString(), anyString(), nullable(String.class)))
                 .thenReturn(managerSession);
@@ -292,4 +305,25 @@ class AuthServiceTest {
 
         verify(userRepository, times(1)).findByEmail("manager@test.com");
     }
+
+    @Test
+    void testLogin_Throttled_SkipsPasswordCheck() {
+        doThrow(new TooManyRequestsException("Too many login attempts", 60))
+                .when(loginThrottleService).checkAllowed("customer@test.com", "127.0.0.1");
+
+        assertThrows(TooManyRequestsException.class, () -> authService.login(loginRequest));
+
+        verifyNoInteractions(userRepository, passwordEncoder);
+    }
+
+    @Test
+    void testLogin_WrongPassword_RecordsFailure() {
+        when(userRepository.findByEmail("customer@test.com")).thenReturn(Optional.of(mockUser));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
+
+        assertThrows(RuntimeException.class, () -> authService.login(loginRequest));
+
+        verify(loginThrottleService).recordFailure("customer@test.com", "127.0.0.1", 1L, "invalid_password");
+        verify(loginThrottleService, never()).recordSuccess(anyString(), anyString(), anyLong());
+    }
 }
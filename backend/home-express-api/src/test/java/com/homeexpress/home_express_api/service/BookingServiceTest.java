@@ -3,12 +3,16 @@ package com.homeexpress.home_express_api.service;
 import com.homeexpress.home_express_api.dto.booking.*;
 import com.homeexpress.home_express_api.entity.*;
 import com.homeexpress.home_express_api.repository.*;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -45,7 +49,7 @@ class BookingServiceTest {
     private BookingItemRepository bookingItemRepository;
 
     @Mock
-    private NotificationService notificationService;
+    private OutboxService outboxService;
 
     @Mock
     private UserRepository userRepository;
@@ -54,7 +58,7 @@ class BookingServiceTest {
     private TransportRepository transportRepository;
 
     @Mock
-    private CustomerEventService customerEventService;
+    private JdbcTemplate jdbcTemplate;
 
     @InjectMocks
     private BookingService bookingService;
@@ -135,10 +139,8 @@ class BookingServiceTest {
         when(districtRepository.existsById(anyString())).thenReturn(true);
         when(wardRepository.existsById(anyString())).thenReturn(true);
         when(bookingRepository.save(any(Booking.class))).thenReturn(mockBooking);
-        when(bookingItemRepository.save(any(BookingItem.class))).thenReturn(new BookingItem());
         when(statusHistoryRepository.save(any(BookingStatusHistory.class)))
                 .thenReturn(new BookingStatusHistory());
-        when(userRepository.findById(customerId)).thenReturn(Optional.of(mockUser));
 
         // When
         BookingResponse response = bookingService.createBooking(bookingRequest, customerId);
@@ -150,11 +152,16 @@ class BookingServiceTest {
         assertEquals(customerId, response.getCustomerId());
         
         verify(bookingRepository, times(1)).save(any(Booking.class));
-        verify(bookingItemRepository, times(1)).save(any(BookingItem.class));
+        // items go in one JDBC batch, not one save() per item
+        verify(jdbcTemplate, times(1)).batchUpdate(contains("booking_items"), eq(bookingRequest.getItems()), eq(1),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<BookingRequest.ItemDto>>any());
+        verify(bookingItemRepository, never()).save(any(BookingItem.class));
         verify(statusHistoryRepository, times(1)).save(argThat(history ->
             history.getNewStatus() == BookingStatus.PENDING &&
             history.getChangedByRole() == ActorRole.CUSTOMER
         ));
+        // notifications address the customer by id, no user lookup
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -206,7 +213,6 @@ class BookingServiceTest {
         });
         when(statusHistoryRepository.save(any(BookingStatusHistory.class)))
                 .thenReturn(new BookingStatusHistory());
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(mockUser));
 
         // When
         BookingResponse response = bookingService.updateBooking(
@@ -276,7 +282,6 @@ class BookingServiceTest {
         });
         when(statusHistoryRepository.save(any(BookingStatusHistory.class)))
                 .thenReturn(new BookingStatusHistory());
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(mockUser));
 
         // When
         BookingResponse response = bookingService.updateBooking(
@@ -390,7 +395,6 @@ class BookingServiceTest {
         });
         when(statusHistoryRepository.save(any(BookingStatusHistory.class)))
                 .thenReturn(new BookingStatusHistory());
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(mockUser));
 
         // When
         bookingService.cancelBooking(bookingId, reason, customerId, UserRole.CUSTOMER);
@@ -5,7 +5,8 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.homeexpress.home_express_api.dto.response.AdminDashboardStatsResponse;
@@ -23,16 +25,29 @@ import com.homeexpress.home_express_api.entity.UserRole;
 import com.homeexpress.home_express_api.entity.VerificationStatus;
 import com.homeexpress.home_express_api.repository.TransportRepository;
 import com.homeexpress.home_express_api.repository.UserRepository;
+import com.homeexpress.home_express_api.repository.projection.UserStatsView;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupReader;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupReader.UserTotals;
+import com.homeexpress.home_express_api.service.rollup.StatsRollupService;
 
 @ExtendWith(MockitoExtension.class)
 class DashboardServiceTest {
 
     @Mock
-    private UserRepository userRepository;
+    private StatsRollupReader statsRollupReader;
+
+    @Mock
+    private StatsRollupService statsRollupService;
 
     @Mock
     private TransportRepository transportRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private DashboardStatsCache dashboardStatsCache = new DashboardStatsCache(60_000, 10);
+
     @InjectMocks
     private DashboardService dashboardService;
 
@@ -59,19 +74,10 @@ class DashboardServiceTest {
 
     @Test
     void getAdminDashboardStats_Success() {
-        when(userRepository.count()).thenReturn(1000L);
-        when(userRepository.countByRole(UserRole.CUSTOMER)).thenReturn(800L);
-        when(userRepository.countByRole(UserRole.TRANSPORT)).thenReturn(150L);
-        when(userRepository.countByRole(UserRole.MANAGER)).thenReturn(50L);
-        when(userRepository.countByIsActive(true)).thenReturn(900L);
-        when(userRepository.countByIsVerified(true)).thenReturn(850L);
-        when(userRepository.countByCreatedAtBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(10L)
-                .thenReturn(50L)
-                .thenReturn(100L)
-                .thenReturn(80L);
-        when(transportRepository.countByVerificationStatus(VerificationStatus.PENDING)).thenReturn(15L);
-        when(transportRepository.findByVerificationStatusOrderByAverageRatingDesc(VerificationStatus.APPROVED))
+        when(statsRollupService.isReadable(StatsRollupService.ROLLUP_USER)).thenReturn(true);
+        when(statsRollupReader.userTotals(any(), any(), any(), any()))
+                .thenReturn(userTotals(1000L, 800L, 150L, 50L, 900L, 850L, 10L, 50L, 100L, 80L, 15L));
+        when(transportRepository.findTop5ByVerificationStatusOrderByAverageRatingDesc(VerificationStatus.APPROVED))
                 .thenReturn(topTransports);
 
         AdminDashboardStatsResponse result = dashboardService.getAdminDashboardStats();
@@ -90,25 +96,18 @@ class DashboardServiceTest {
         assertEquals(15L, result.getPendingTransportVerifications());
         assertNotNull(result.getTopTransports());
         assertEquals(2, result.getTopTransports().size());
-        verify(userRepository).count();
-        verify(transportRepository).findByVerificationStatusOrderByAverageRatingDesc(VerificationStatus.APPROVED);
+        LocalDate today = LocalDate.now();
+        verify(statsRollupReader).userTotals(today, today.with(DayOfWeek.MONDAY), today.withDayOfMonth(1),
+                today.withDayOfMonth(1).minusMonths(1));
+        verify(transportRepository).findTop5ByVerificationStatusOrderByAverageRatingDesc(VerificationStatus.APPROVED);
     }
 
     @Test
     void getPlatformStatistics_Success() {
-        when(userRepository.count()).thenReturn(500L);
-        when(userRepository.countByRole(UserRole.CUSTOMER)).thenReturn(400L);
-        when(userRepository.countByRole(UserRole.TRANSPORT)).thenReturn(80L);
-        when(userRepository.countByRole(UserRole.MANAGER)).thenReturn(20L);
-        when(userRepository.countByIsActive(true)).thenReturn(450L);
-        when(userRepository.countByIsVerified(true)).thenReturn(420L);
-        when(userRepository.countByCreatedAtBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(5L)
-                .thenReturn(25L)
-                .thenReturn(50L)
-                .thenReturn(40L);
-        when(transportRepository.countByVerificationStatus(VerificationStatus.PENDING)).thenReturn(10L);
-        when(transportRepository.findByVerificationStatusOrderByAverageRatingDesc(VerificationStatus.APPROVED))
+        when(statsRollupService.isReadable(StatsRollupService.ROLLUP_USER)).thenReturn(true);
+        when(statsRollupReader.userTotals(any(), any(), any(), any()))
+                .thenReturn(userTotals(500L, 400L, 80L, 20L, 450L, 420L, 5L, 25L, 50L, 40L, 10L));
+        when(transportRepository.findTop5ByVerificationStatusOrderByAverageRatingDesc(VerificationStatus.APPROVED))
                 .thenReturn(topTransports);
 
         Map<String, Object> result = dashboardService.getPlatformStatistics();
@@ -130,19 +129,10 @@ class DashboardServiceTest {
 
     @Test
     void getAdminDashboardStats_WithZeroGrowthRate() {
-        when(userRepository.count()).thenReturn(100L);
-        when(userRepository.countByRole(UserRole.CUSTOMER)).thenReturn(80L);
-        when(userRepository.countByRole(UserRole.TRANSPORT)).thenReturn(15L);
-        when(userRepository.countByRole(UserRole.MANAGER)).thenReturn(5L);
-        when(userRepository.countByIsActive(true)).thenReturn(90L);
-        when(userRepository.countByIsVerified(true)).thenReturn(85L);
-        when(userRepository.countByCreatedAtBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(0L)
-                .thenReturn(0L)
-                .thenReturn(0L)
-                .thenReturn(0L);
-        when(transportRepository.countByVerificationStatus(VerificationStatus.PENDING)).thenReturn(0L);
-        when(transportRepository.findByVerificationStatusOrderByAverageRatingDesc(VerificationStatus.APPROVED))
+        when(statsRollupService.isReadable(StatsRollupService.ROLLUP_USER)).thenReturn(true);
+        when(statsRollupReader.userTotals(any(), any(), any(), any()))
+                .thenReturn(userTotals(100L, 80L, 15L, 5L, 90L, 85L, 0L, 0L, 0L, 0L, 0L));
+        when(transportRepository.findTop5ByVerificationStatusOrderByAverageRatingDesc(VerificationStatus.APPROVED))
                 .thenReturn(new ArrayList<>());
 
         AdminDashboardStatsResponse result = dashboardService.getAdminDashboardStats();
@@ -155,4 +145,54 @@ class DashboardServiceTest {
         assertEquals("0.0%", result.getUserGrowthRate());
         assertTrue(result.getTopTransports().isEmpty());
     }
+
+    @Test
+    void getAdminDashboardStats_ReusesCachedStatsWithinTtl() {
+        when(statsRollupService.isReadable(StatsRollupService.ROLLUP_USER)).thenReturn(true);
+        when(statsRollupReader.userTotals(any(), any(), any(), any()))
+                .thenReturn(userTotals(10L, 8L, 1L, 1L, 9L, 9L, 1L, 2L, 3L, 3L, 0L));
+        when(transportRepository.findTop5ByVerificationStatusOrderByAverageRatingDesc(VerificationStatus.APPROVED))
+                .thenReturn(topTransports);
+
+        AdminDashboardStatsResponse first = dashboardService.getAdminDashboardStats();
+        Map<String, Object> second = dashboardService.getPlatformStatistics();
+
+        assertEquals(10L, first.getTotalUsers());
+        assertEquals(10L, second.get("totalUsers"));
+        verify(statsRollupReader, times(1)).userTotals(any(), any(), any(), any());
+        verify(transportRepository, times(1)).findTop5ByVerificationStatusOrderByAverageRatingDesc(VerificationStatus.APPROVED);
+    }
+
+    @Test
+    void getAdminDashboardStats_FallsBackToLiveAggregateUntilRollupIsReadable() {
+        UserStatsView stats = mock(UserStatsView.class);
+        when(stats.getTotalUsers()).thenReturn(200L);
+        when(stats.getTotalCustomers()).thenReturn(150L);
+        when(stats.getActiveUsers()).thenReturn(180L);
+        when(stats.getNewUsersThisMonth()).thenReturn(20L);
+        when(stats.getNewUsersPreviousMonth()).thenReturn(10L);
+        when(statsRollupService.isReadable(StatsRollupService.ROLLUP_USER)).thenReturn(false);
+        when(userRepository.aggregateDashboardStats(eq(UserRole.CUSTOMER), eq(UserRole.TRANSPORT), eq(UserRole.MANAGER),
+                any(), any(), any(), any(), any(), eq(VerificationStatus.PENDING)))
+                .thenReturn(stats);
+        when(transportRepository.findTop5ByVerificationStatusOrderByAverageRatingDesc(VerificationStatus.APPROVED))
+                .thenReturn(topTransports);
+
+        AdminDashboardStatsResponse result = dashboardService.getAdminDashboardStats();
+
+        assertEquals(200L, result.getTotalUsers());
+        assertEquals(150L, result.getTotalCustomers());
+        assertEquals(0L, result.getTotalTransports());
+        assertEquals(20L, result.getInactiveUsers());
+        assertEquals(20L, result.getNewUsersThisMonth());
+        assertEquals("100.0%", result.getUserGrowthRate());
+        verifyNoInteractions(statsRollupReader);
+    }
+
+    private UserTotals userTotals(long totalUsers, long customers, long transports, long managers, long active,
+                                  long verified, long today, long week, long month, long previousMonth,
+                                  long pendingVerifications) {
+        return new UserTotals(totalUsers, customers, transports, managers, active, verified, today, week, month,
+                previousMonth, pendingVerifications);
+    }
 }
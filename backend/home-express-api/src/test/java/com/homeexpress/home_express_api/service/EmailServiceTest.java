@@ -0,0 +1,209 @@
+package com.homeexpress.home_express_api.service;
+
+import com.homeexpress.home_express_api.entity.EmailLog;
+import com.homeexpress.home_express_api.repository.EmailLogRepository;
+import com.homeexpress.home_express_api.service.email.SmtpConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailServiceTest {
+
+    @Mock
+    private EmailLogRepository emailLogRepository;
+
+    private LocalSmtpServer smtpServer;
+    private ThreadPoolTaskExecutor executor;
+    private ThreadPoolTaskScheduler scheduler;
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new LocalSmtpServer();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.port());
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.initialize();
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+
+        AtomicLong ids = new AtomicLong();
+        lenient().when(emailLogRepository.save(any(EmailLog.class))).thenAnswer(inv -> {
+            EmailLog log = inv.getArgument(0);
+            log.setLogId(ids.incrementAndGet());
+            return log;
+        });
+
+        emailService = new EmailService(new SmtpConnectionPool(mailSender, 2, 30000, 5000),
+                emailLogRepository, executor, scheduler, 3, 20, 100, 3_600_000);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        executor.shutdown();
+        scheduler.shutdown();
+        smtpServer.close();
+    }
+
+    @Test
+    void queueEmail_ReturnsBeforeSendingAndReusesOneConnection() {
+        Long first = emailService.queueEmail(1L, "a@test.com", "Subject A", "Body A", null);
+        emailService.sendOtpEmail("b@test.com", "123456");
+        emailService.queueEmail(2L, "c@test.com", "Subject C", "Body C", null);
+
+        verify(emailLogRepository, timeout(5000).times(3)).markSent(anyLong(), any());
+        verify(emailLogRepository).markSent(eq(first), any());
+        assertEquals(3, smtpServer.messages.size());
+        assertTrue(smtpServer.messages.stream().anyMatch(m -> m.contains("123456")));
+        assertEquals(1, smtpServer.connections.get());
+    }
+
+    @Test
+    void queueEmail_TransientFailure_IsRetried() {
+        smtpServer.rejectNextMessages.set(1);
+
+        Long logId = emailService.queueEmail(1L, "a@test.com", "Subject", "Body", null);
+
+        verify(emailLogRepository, timeout(5000)).markSent(eq(logId), any());
+        verify(emailLogRepository).recordAttemptError(eq(logId), anyString(), anyString());
+        verify(emailLogRepository, never()).markFailed(anyLong(), any(), any(), any());
+        assertEquals(1, smtpServer.messages.size());
+    }
+
+    @Test
+    void queueEmail_RetriesExhausted_IsMarkedFailed() {
+        smtpServer.rejectNextMessages.set(10);
+
+        Long logId = emailService.queueEmail(1L, "a@test.com", "Subject", "Body", null);
+
+        verify(emailLogRepository, timeout(5000)).markFailed(eq(logId), any(), anyString(), anyString());
+        verify(emailLogRepository, times(2)).recordAttemptError(eq(logId), anyString(), anyString());
+        verify(emailLogRepository, never()).markSent(anyLong(), any());
+    }
+
+    /**
+     * Just enough SMTP to accept plain messages. Counts connections and can reject
+     * the next N messages with a transient 451 reply.
+     */
+    @Test
+    void failStrandedEmails_FailsOnlyRowsQueuedBeforeTheRetryWindow() {
+        when(emailLogRepository.failQueuedBefore(any(), any(), anyString(), anyString())).thenReturn(2);
+        LocalDateTime before = LocalDateTime.now();
+
+        emailService.failStrandedEmails();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(emailLogRepository).failQueuedBefore(cutoff.capture(), any(), eq("STRANDED"), anyString());
+        assertFalse(cutoff.getValue().isBefore(before.minusHours(1)));
+        assertTrue(cutoff.getValue().isBefore(before.minusMinutes(59)));
+    }
+
+    private static class LocalSmtpServer implements AutoCloseable {
+
+        private final ServerSocket serverSocket = new ServerSocket(0);
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        final AtomicInteger connections = new AtomicInteger();
+        final AtomicInteger rejectNextMessages = new AtomicInteger();
+
+        LocalSmtpServer() throws IOException {
+            Thread acceptor = new Thread(this::acceptLoop, "local-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread session = new Thread(() -> serve(socket), "local-smtp-session");
+                    session.setDaemon(true);
+                    session.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(
+                         new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+                reply(out, "220 localhost ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                        reply(out, "250 localhost");
+                    } else if (command.startsWith("MAIL FROM")) {
+                        if (rejectNextMessages.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                            reply(out, "451 4.3.0 Try again later");
+                        } else {
+                            reply(out, "250 OK");
+                        }
+                    } else if (command.startsWith("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line).append('\n');
+                        }
+                        messages.add(data.toString());
+                        reply(out, "250 OK");
+                    } else if (command.startsWith("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        // RCPT, RSET, NOOP
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away
+            }
+        }
+
+        private void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.homeexpress.home_express_api.service;
+
+import com.homeexpress.home_express_api.dto.incident.IncidentResponse;
+import com.homeexpress.home_express_api.dto.response.CursorPageResponse;
+import com.homeexpress.home_express_api.entity.Booking;
+import com.homeexpress.home_express_api.entity.Incident;
+import com.homeexpress.home_express_api.entity.IncidentStatus;
+import com.homeexpress.home_express_api.entity.UserRole;
+import com.homeexpress.home_express_api.exception.UnauthorizedException;
+import com.homeexpress.home_express_api.repository.BookingRepository;
+import com.homeexpress.home_express_api.repository.IncidentRepository;
+import com.homeexpress.home_express_api.util.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IncidentServiceTest {
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private IncidentService incidentService;
+
+    @Test
+    void getIncidents_TransportReadsOnlyItsOwnBookingsThroughJoin() {
+        LocalDateTime reportedAt = LocalDateTime.of(2025, 12, 1, 10, 0);
+        when(incidentRepository.findTransportViewsPage(7L, null, IncidentStatus.REPORTED, null,
+                null, null, PageRequest.of(0, 3)))
+                .thenReturn(List.of(incident(3L, reportedAt), incident(2L, reportedAt), incident(1L, reportedAt)));
+
+        CursorPageResponse<IncidentResponse> page = incidentService.getIncidents(
+                null, IncidentStatus.REPORTED, null, 7L, UserRole.TRANSPORT, null, 2);
+
+        assertEquals(List.of(3L, 2L), page.getData().stream().map(IncidentResponse::getIncidentId).toList());
+        assertEquals(new KeysetCursor(reportedAt, 2L), KeysetCursor.decode(page.getNextCursor()));
+        verifyNoInteractions(bookingRepository);
+        verify(incidentRepository, never()).findAllByOrderByReportedAtDesc();
+    }
+
+    @Test
+    void getIncidents_CustomerCannotFilterBySomeoneElsesBooking() {
+        Booking booking = new Booking();
+        booking.setBookingId(5L);
+        booking.setCustomerId(99L);
+        when(bookingRepository.findById(5L)).thenReturn(Optional.of(booking));
+
+        assertThrows(UnauthorizedException.class, () -> incidentService.getIncidents(
+                5L, null, null, 1L, UserRole.CUSTOMER, null, 20));
+        verify(incidentRepository, never()).findCustomerViewsPage(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    private Incident incident(Long id, LocalDateTime reportedAt) {
+        Incident incident = new Incident();
+        incident.setIncidentId(id);
+        incident.setBookingId(40L);
+        incident.setStatus(IncidentStatus.REPORTED);
+        incident.setReportedAt(reportedAt);
+        return incident;
+    }
+}
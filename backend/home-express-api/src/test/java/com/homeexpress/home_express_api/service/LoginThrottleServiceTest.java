@@ -0,0 +1,119 @@
+package com.homeexpress.home_express_api.service;
+
+import com.homeexpress.home_express_api.config.SecurityConfigProperties;
+import com.homeexpress.home_express_api.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginThrottleServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ThreadPoolTaskExecutor auditExecutor;
+
+    private LoginThrottleService throttleService;
+
+    @BeforeEach
+    void setUp() {
+        SecurityConfigProperties properties = new SecurityConfigProperties();
+        properties.getLoginAttempt().setMaxFailedAttempts(3);
+        properties.getLoginAttempt().setMaxAttemptsPerIp(5);
+        // Run audit writes inline
+        lenient().doAnswer(inv -> {
+            new SyncTaskExecutor().execute(inv.getArgument(0));
+            return null;
+        }).when(auditExecutor).execute(any(Runnable.class));
+
+        throttleService = new LoginThrottleService(redisTemplate, jdbcTemplate, auditExecutor, properties, 60000);
+    }
+
+    @Test
+    void checkAllowed_RedisReportsWait_RejectsWithRetryAfter() {
+        when(redisTemplate.execute(anyScript(), eq(List.of("login:lock:a@test.com", "login:ip:1.2.3.4")),
+                any(), any(), any(), any())).thenReturn(1500L);
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> throttleService.checkAllowed("a@test.com", "1.2.3.4"));
+
+        assertEquals(2, ex.getRetryAfterSeconds());
+        verify(jdbcTemplate).update(anyString(), isNull(), eq("a@test.com"), eq("1.2.3.4"), eq(false),
+                eq("throttled"), any());
+    }
+
+    @Test
+    void redisDown_FailuresLockAccountLocally() {
+        when(redisTemplate.execute(anyScript(), anyList(), any(), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        throttleService.checkAllowed("a@test.com", "1.2.3.4");
+        for (int i = 0; i < 3; i++) {
+            throttleService.recordFailure("a@test.com", "1.2.3.4", 1L, "invalid_password");
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> throttleService.checkAllowed("a@test.com", "1.2.3.4"));
+        // Other accounts from another IP are unaffected
+        assertDoesNotThrow(() -> throttleService.checkAllowed("b@test.com", "5.6.7.8"));
+        verify(jdbcTemplate, times(4)).update(anyString(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void redisStillDownAtRetry_KeepsLocalLockout() {
+        SecurityConfigProperties properties = new SecurityConfigProperties();
+        properties.getLoginAttempt().setMaxFailedAttempts(3);
+        // Retry on every call, so each check probes Redis
+        throttleService = new LoginThrottleService(redisTemplate, jdbcTemplate, auditExecutor, properties, 0);
+        when(redisTemplate.execute(anyScript(), anyList(), any(), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        when(redisTemplate.execute(anyCallback())).thenThrow(new RedisConnectionFailureException("down"));
+
+        throttleService.checkAllowed("a@test.com", "1.2.3.4");
+        for (int i = 0; i < 3; i++) {
+            throttleService.recordFailure("a@test.com", "1.2.3.4", 1L, "invalid_password");
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> throttleService.checkAllowed("a@test.com", "1.2.3.4"));
+    }
+
+    @Test
+    void redisDown_IpWindowLimitsAttempts() {
+        when(redisTemplate.execute(anyScript(), anyList(), any(), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        for (int i = 0; i < 5; i++) {
+            throttleService.checkAllowed("user" + i + "@test.com", "1.2.3.4");
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> throttleService.checkAllowed("x@test.com", "1.2.3.4"));
+    }
+
+    // Typed matchers: any(RedisScript.class) is a raw type and trips -Xlint:unchecked
+    private static RedisScript<Long> anyScript() {
+        return any();
+    }
+
+    private static RedisCallback<String> anyCallback() {
+        return any();
+    }
+}
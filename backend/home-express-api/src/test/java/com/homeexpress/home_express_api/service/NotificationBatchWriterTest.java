@@ -0,0 +1,76 @@
+package com.homeexpress.home_express_api.service;
+
+import com.homeexpress.home_express_api.entity.Notification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationBatchWriterTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    private NotificationBatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        // wide flush window so everything submitted below lands in one batch
+        writer = new NotificationBatchWriter(notificationService, 100, 50, 200, 1000);
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.stop();
+    }
+
+    @Test
+    void submit_CoalescesConcurrentRowsIntoOneBatch() throws Exception {
+        when(notificationService.createNotifications(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        CompletableFuture<Void> first = writer.submit(notification(1L));
+        CompletableFuture<Void> second = writer.submit(notification(2L));
+        CompletableFuture<Void> third = writer.submit(notification(3L));
+
+        CompletableFuture.allOf(first, second, third).get(2, TimeUnit.SECONDS);
+
+        verify(notificationService, times(1)).createNotifications(argThat(batch -> batch.size() == 3));
+    }
+
+    @Test
+    void submit_FailedBatch_RetriesRowByRowAndIsolatesBadRow() throws Exception {
+        when(notificationService.createNotifications(anyList())).thenAnswer(inv -> {
+            List<NotificationService.NewNotification> batch = inv.getArgument(0);
+            if (batch.stream().anyMatch(n -> n.userId() == 99L)) {
+                throw new IllegalStateException("FK violation");
+            }
+            return batch.size();
+        });
+
+        CompletableFuture<Void> good = writer.submit(notification(1L));
+        CompletableFuture<Void> bad = writer.submit(notification(99L));
+
+        good.get(2, TimeUnit.SECONDS);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> bad.get(2, TimeUnit.SECONDS));
+        assertEquals("FK violation", error.getCause().getMessage());
+    }
+
+    private NotificationService.NewNotification notification(Long userId) {
+        return new NotificationService.NewNotification(userId, Notification.NotificationType.BOOKING_UPDATE,
+                "Booking Status Updated", "Booking #1 status has changed", Notification.ReferenceType.BOOKING, 1L,
+                Notification.Priority.MEDIUM);
+    }
+}
@@ -0,0 +1,88 @@
+package com.homeexpress.home_express_api.service;
+
+import com.homeexpress.home_express_api.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationCounterServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationStreamService streamService;
+
+    private NotificationCounterService counterService;
+
+    @BeforeEach
+    void setUp() {
+        counterService = new NotificationCounterService(redisTemplate, notificationRepository, streamService,
+                3600, 30000);
+    }
+
+    @Test
+    void getUnreadCount_CachedInRedis_SkipsCountQuery() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("notif:unread:1")).thenReturn("4");
+
+        assertEquals(4L, counterService.getUnreadCount(1L));
+        verify(notificationRepository, never()).countUnreadByUserId(anyLong());
+    }
+
+    @Test
+    void getUnreadCount_Miss_LoadsFromTableAndCaches() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("notif:unread:1")).thenReturn(null);
+        when(notificationRepository.countUnreadByUserId(1L)).thenReturn(7L);
+
+        assertEquals(7L, counterService.getUnreadCount(1L));
+        verify(valueOperations).setIfAbsent(eq("notif:unread:1"), eq("7"), any(Duration.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void adjust_PushesNewCountToSubscribers() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("notif:unread:1")), eq("1"))).thenReturn(5L);
+
+        counterService.adjust(1L, 1);
+
+        verify(streamService).sendUnreadCount(1L, 5L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisDown_FallsBackToInProcessCounter() {
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("refused"));
+        when(notificationRepository.countUnreadByUserId(1L)).thenReturn(2L);
+
+        assertEquals(2L, counterService.getUnreadCount(1L));
+        counterService.adjust(1L, 1);
+        counterService.adjust(1L, -5);
+
+        // Counted locally, clamped at zero, no further Redis calls or count queries
+        assertEquals(0L, counterService.getUnreadCount(1L));
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+        verify(notificationRepository, times(1)).countUnreadByUserId(1L);
+    }
+}
@@ -1,17 +1,17 @@
 package com.homeexpress.home_express_api.service;
 
 import com.homeexpress.home_express_api.config.SecurityConfigProperties;
-import com.homeexpress.home_express_api.entity.OtpCode;
-import com.homeexpress.home_express_api.repository.OtpRepository;
-import org.junit.jupiter.api.BeforeEach;
+import com.homeexpress.home_express_api.service.otp.OtpStore;
+import com.homeexpress.home_express_api.service.otp.OtpStore.VerifyResult;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.time.LocalDateTime;
-import java.util.Optional;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -21,28 +21,17 @@ import static org.mockito.Mockito.*;
 class OtpServiceTest {
 
     @Mock
-    private OtpRepository otpRepository;
+    private OtpStore otpStore;
 
     @Mock
     private EmailService emailService;
 
+    @Spy
+    private SecurityConfigProperties securityConfig = new SecurityConfigProperties();
+
     @InjectMocks
     private OtpService otpService;
 
-    private OtpCode mockOtpCode;
-
-    @BeforeEach
-    void setUp() {
-        // Setup mock OTP code
-        mockOtpCode = new OtpCode(
-                "test@example.com",
-                "123456",
-                LocalDateTime.now().plusMinutes(5)
-        );
-        mockOtpCode.setOtpId(1L);
-        mockOtpCode.setIsUsed(false);
-    }
-
     @Test
     void testGenerateOtp_Success() {
         // When
@@ -63,19 +52,15 @@ class OtpServiceTest {
     void testCreateAndSendOtp_Success() {
         // Given
         String email = "customer@test.com";
-        when(otpRepository.save(any(OtpCode.class))).thenReturn(mockOtpCode);
 
         // When
         otpService.createAndSendOtp(email);
 
         // Then
-        verify(otpRepository, times(1)).save(argThat(otp -> 
-            otp.getEmail().equals(email) &&
-            otp.getCode() != null &&
-            otp.getCode().length() == 6 &&
-            otp.getExpiresAt() != null &&
-            otp.getExpiresAt().isAfter(LocalDateTime.now())
-        ));
+        ArgumentCaptor<String> code = ArgumentCaptor.forClass(String.class);
+        verify(otpStore, times(1)).save(eq(email), code.capture(), eq(Duration.ofMinutes(5)));
+        assertTrue(code.getValue().matches("\\d{6}"));
+        verify(emailService, times(1)).sendOtpEmail(email, code.getValue());
     }
 
     @Test
@@ -83,82 +68,52 @@ class OtpServiceTest {
         // Given
         String email = "test@example.com";
         String code = "123456";
-        
-        // Create OTP that is not expired
-        OtpCode validOtp = new OtpCode(
-                email,
-                code,
-                LocalDateTime.now().plusMinutes(3) // Expires in 3 minutes
-        );
-        validOtp.setIsUsed(false);
-
-        when(otpRepository.findByEmailAndCodeAndIsUsedFalse(email, code))
-                .thenReturn(Optional.of(validOtp));
-        when(otpRepository.save(any(OtpCode.class))).thenReturn(validOtp);
+        when(otpStore.verifyAndConsume(email, code)).thenReturn(VerifyResult.VALID);
 
         // When
         boolean result = otpService.verifyOtp(email, code);
 
         // Then
         assertTrue(result);
-        assertTrue(validOtp.getIsUsed()); // Should be marked as used
-        verify(otpRepository, times(1)).findByEmailAndCodeAndIsUsedFalse(email, code);
-        verify(otpRepository, times(1)).save(validOtp);
+        verify(otpStore, times(1)).verifyAndConsume(email, code);
     }
 
     @Test
     void testVerifyOtp_InvalidCode() {
         // Given
-        String email = "test@example.com";
-        String code = "999999";
-
-        when(otpRepository.findByEmailAndCodeAndIsUsedFalse(email, code))
-                .thenReturn(Optional.empty());
+        when(otpStore.verifyAndConsume("test@example.com", "999999")).thenReturn(VerifyResult.INVALID);
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            otpService.verifyOtp(email, code);
+            otpService.verifyOtp("test@example.com", "999999");
         });
 
         assertEquals("Invalid OTP code", exception.getMessage());
-        verify(otpRepository, times(1)).findByEmailAndCodeAndIsUsedFalse(email, code);
-        verify(otpRepository, never()).save(any(OtpCode.class));
     }
 
     @Test
     void testVerifyOtp_ExpiredCode() {
         // Given
-        String email = "test@example.com";
-        String code = "123456";
-
-        // Create OTP that is already expired
-        OtpCode expiredOtp = new OtpCode(
-                email,
-                code,
-                LocalDateTime.now().minusMinutes(1) // Expired 1 minute ago
-        );
-        expiredOtp.setIsUsed(false);
-
-        when(otpRepository.findByEmailAndCodeAndIsUsedFalse(email, code))
-                .thenReturn(Optional.of(expiredOtp));
+        when(otpStore.verifyAndConsume("test@example.com", "123456")).thenReturn(VerifyResult.EXPIRED);
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            otpService.verifyOtp(email, code);
+            otpService.verifyOtp("test@example.com", "123456");
         });
 
         assertEquals("OTP code has expired", exception.getMessage());
-        assertFalse(expiredOtp.getIsUsed()); // Should NOT be marked as used
-        verify(otpRepository, times(1)).findByEmailAndCodeAndIsUsedFalse(email, code);
-        verify(otpRepository, never()).save(any(OtpCode.class));
     }
 
     @Test
-    void testCleanupExpiredOtps_Success() {
-        // When
-        otpService.cleanupExpiredOtps();
+    void testVerifyOtp_TooManyAttempts() {
+        // Given
+        when(otpStore.verifyAndConsume("test@example.com", "000000")).thenReturn(VerifyResult.TOO_MANY_ATTEMPTS);
 
-        // Then
-        verify(otpRepository, times(1)).deleteByExpiresAtBefore(any(LocalDateTime.class));
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            otpService.verifyOtp("test@example.com", "000000");
+        });
+
+        assertTrue(exception.getMessage().startsWith("Too many incorrect attempts"));
     }
 }
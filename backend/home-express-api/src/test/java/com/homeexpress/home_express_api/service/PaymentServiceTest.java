@@ -9,6 +9,7 @@ import com.homeexpress.home_express_api.dto.request.PaymentMethodRequest;
 import com.homeexpress.home_express_api.dto.response.InitiateDepositResponse;
 import com.homeexpress.home_express_api.entity.*;
 import com.homeexpress.home_express_api.repository.*;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -43,13 +44,7 @@ class PaymentServiceTest {
     private PaymentConfig paymentConfig;
 
     @Mock
-    private NotificationService notificationService;
-
-    @Mock
-    private UserRepository userRepository;
-
-    @Mock
-    private TransportRepository transportRepository;
+    private OutboxService outboxService;
 
     @Mock
     private BookingSettlementRepository settlementRepository;
@@ -57,9 +52,6 @@ class PaymentServiceTest {
     @Mock
     private CommissionService commissionService;
 
-    @Mock
-    private CustomerEventService customerEventService;
-
     @Mock
     private WalletService walletService;
 
@@ -8,6 +8,7 @@ import static org.mockito.Mockito.lenient;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +19,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.homeexpress.home_express_api.dto.payout.PayoutDTO;
+import com.homeexpress.home_express_api.dto.response.CursorPageResponse;
 import com.homeexpress.home_express_api.entity.BookingSettlement;
 import com.homeexpress.home_express_api.entity.PayoutStatus;
 import com.homeexpress.home_express_api.entity.SettlementStatus;
@@ -30,6 +32,13 @@ import com.homeexpress.home_express_api.repository.BookingSettlementRepository;
 import com.homeexpress.home_express_api.repository.TransportPayoutItemRepository;
 import com.homeexpress.home_express_api.repository.TransportPayoutRepository;
 import com.homeexpress.home_express_api.repository.TransportRepository;
+import com.homeexpress.home_express_api.repository.projection.PayoutView;
+import com.homeexpress.home_express_api.util.KeysetCursor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
 
 @ExtendWith(MockitoExtension.class)
 class PayoutServiceTest {
@@ -52,6 +61,9 @@ class PayoutServiceTest {
     @Mock
     private ExternalPayoutGateway externalPayoutGateway;
 
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
     @InjectMocks
     private PayoutService payoutService;
 
@@ -133,7 +145,15 @@ class PayoutServiceTest {
                 .thenReturn(readySettlements);
         when(walletService.getOrCreateWallet(100L)).thenReturn(wallet);
         when(payoutRepository.save(any(TransportPayout.class))).thenReturn(payout);
-        when(payoutItemRepository.saveAll(anyList())).thenReturn(payoutItems);
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenAnswer(invocation -> {
+                    BatchPreparedStatementSetter setter = invocation.getArgument(1);
+                    KeyHolder keyHolder = invocation.getArgument(2);
+                    for (int i = 0; i < setter.getBatchSize(); i++) {
+                        keyHolder.getKeyList().add(Map.of("GENERATED_KEY", 500L + i));
+                    }
+                    return new int[setter.getBatchSize()];
+                });
         when(settlementRepository.saveAll(anyList())).thenReturn(readySettlements);
 
         PayoutDTO result = payoutService.createPayoutBatch(100L);
@@ -147,11 +167,33 @@ class PayoutServiceTest {
         assertEquals("VIETCOMBANK", result.getBankCode());
         assertNotNull(result.getItems());
         assertEquals(2, result.getItems().size());
+        assertEquals(500L, result.getItems().get(0).getPayoutItemId());
+        assertEquals(501L, result.getItems().get(1).getPayoutItemId());
         verify(payoutRepository).save(any(TransportPayout.class));
-        verify(payoutItemRepository).saveAll(anyList());
+        verify(payoutItemRepository, never()).saveAll(anyList());
         verify(settlementRepository).saveAll(anyList());
     }
 
+    @Test
+    void createPayoutBatch_MissingGeneratedKeys_Fails() {
+        when(transportRepository.findById(100L)).thenReturn(Optional.of(transport));
+        when(settlementRepository.findByTransportIdAndStatus(100L, SettlementStatus.READY))
+                .thenReturn(readySettlements);
+        when(walletService.getOrCreateWallet(100L)).thenReturn(wallet);
+        when(payoutRepository.save(any(TransportPayout.class))).thenReturn(payout);
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenAnswer(invocation -> {
+                    BatchPreparedStatementSetter setter = invocation.getArgument(1);
+                    KeyHolder keyHolder = invocation.getArgument(2);
+                    // Driver returned a key for the first row only
+                    keyHolder.getKeyList().add(Map.of("GENERATED_KEY", 500L));
+                    return new int[setter.getBatchSize()];
+                });
+
+        assertThrows(IllegalStateException.class, () -> payoutService.createPayoutBatch(100L));
+        verify(settlementRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void updatePayoutStatus_ToCompleted() {
         payout.setStatus(PayoutStatus.PROCESSING);
@@ -194,4 +236,39 @@ class PayoutServiceTest {
         verify(payoutRepository).findById(1L);
         verify(payoutItemRepository).findByPayoutId(1L);
     }
+
+    @Test
+    void getPayouts_ReadsOneExtraRowToDecideNextCursor() {
+        LocalDateTime base = LocalDateTime.of(2025, 12, 1, 9, 0);
+        List<PayoutView> window = List.of(payoutAt(30L, base.plusMinutes(3)),
+                payoutAt(20L, base.plusMinutes(2)), payoutAt(10L, base.plusMinutes(1)));
+        when(payoutRepository.findViewsPage(PayoutStatus.PENDING, null, null, null, PageRequest.of(0, 3)))
+                .thenReturn(window);
+
+        CursorPageResponse<PayoutDTO> page = payoutService.getPayouts(PayoutStatus.PENDING, null, null, 2);
+
+        assertEquals(List.of(30L, 20L), page.getData().stream().map(PayoutDTO::getPayoutId).toList());
+        assertEquals(new KeysetCursor(base.plusMinutes(2), 20L), KeysetCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getPayouts_LastPageHasNoCursor() {
+        LocalDateTime after = LocalDateTime.of(2025, 12, 1, 9, 2);
+        when(payoutRepository.findViewsPage(null, 100L, after, 20L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(payoutAt(10L, after.minusMinutes(1))));
+
+        CursorPageResponse<PayoutDTO> page = payoutService.getPayouts(null, 100L,
+                new KeysetCursor(after, 20L).encode(), 2);
+
+        assertEquals(1, page.getData().size());
+        assertNull(page.getNextCursor());
+    }
+
+    private TransportPayout payoutAt(Long id, LocalDateTime createdAt) {
+        TransportPayout view = new TransportPayout();
+        view.setPayoutId(id);
+        view.setTransportId(100L);
+        view.setCreatedAt(createdAt);
+        return view;
+    }
 }
@@ -0,0 +1,153 @@
+package com.homeexpress.home_express_api.service;
+
+import com.homeexpress.home_express_api.dto.response.QuotationDetailResponse;
+import com.homeexpress.home_express_api.dto.response.QuotationResponse;
+import com.homeexpress.home_express_api.dto.response.TransportQuotationSummaryResponse;
+import com.homeexpress.home_express_api.entity.Booking;
+import com.homeexpress.home_express_api.entity.Quotation;
+import com.homeexpress.home_express_api.entity.QuotationStatus;
+import com.homeexpress.home_express_api.entity.Transport;
+import com.homeexpress.home_express_api.entity.Vehicle;
+import com.homeexpress.home_express_api.repository.BookingRepository;
+import com.homeexpress.home_express_api.repository.QuotationRepository;
+import com.homeexpress.home_express_api.repository.TransportRepository;
+import com.homeexpress.home_express_api.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuotationAssemblerTest {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Mock
+    private QuotationRepository quotationRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private TransportRepository transportRepository;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @InjectMocks
+    private QuotationAssembler quotationAssembler;
+
+    @Test
+    void toResponses_LoadsVehiclesForWholePageInOneQuery() {
+        List<Quotation> page = page();
+        when(vehicleRepository.findAllById(anyCollection())).thenReturn(LongStream.rangeClosed(1, PAGE_SIZE)
+                .mapToObj(this::vehicle).toList());
+
+        List<QuotationResponse> responses = quotationAssembler.toResponses(page);
+
+        assertEquals(PAGE_SIZE, responses.size());
+        assertEquals("51A-000.07", responses.get(6).getVehicleLicensePlate());
+        assertEquals(1, queryCount());
+    }
+
+    @Test
+    void toDetailResponses_LoadsTransportsForWholePageInOneQuery() {
+        List<Quotation> page = page();
+        when(transportRepository.findAllById(anyCollection())).thenReturn(LongStream.rangeClosed(1, PAGE_SIZE)
+                .mapToObj(this::transport).toList());
+
+        List<QuotationDetailResponse> responses = quotationAssembler.toDetailResponses(page);
+
+        assertEquals(PAGE_SIZE, responses.size());
+        assertEquals("Transport 12", responses.get(11).getTransporterName());
+        assertEquals(1, queryCount());
+    }
+
+    @Test
+    void toTransportSummaries_RanksAgainstCompetitorsWithTwoQueries() {
+        List<Quotation> mine = page();
+        List<Quotation> all = new ArrayList<>(mine);
+        // 1 bao gia re hon cho booking dau tien
+        Quotation cheaper = quotation(1000L, 1L, 99L);
+        cheaper.setQuotedPrice(new BigDecimal("500000"));
+        all.add(cheaper);
+        when(bookingRepository.findAllById(anyCollection())).thenReturn(LongStream.rangeClosed(1, PAGE_SIZE)
+                .mapToObj(this::booking).toList());
+        when(quotationRepository.findByBookingIdIn(anySet())).thenReturn(all);
+
+        List<TransportQuotationSummaryResponse> summaries = quotationAssembler.toTransportSummaries(mine);
+
+        assertEquals(PAGE_SIZE, summaries.size());
+        assertEquals(1, summaries.get(0).getCompetitorQuotesCount());
+        assertEquals(500000d, summaries.get(0).getLowestCompetitorPrice());
+        assertEquals(2, summaries.get(0).getMyRank());
+        assertEquals(1, summaries.get(1).getMyRank());
+        assertNull(summaries.get(1).getLowestCompetitorPrice());
+        assertEquals(2, queryCount());
+    }
+
+    @Test
+    void emptyPage_RunsNoQueries() {
+        assertTrue(quotationAssembler.toResponses(List.of()).isEmpty());
+        assertTrue(quotationAssembler.toDetailResponses(List.of()).isEmpty());
+        assertTrue(quotationAssembler.toTransportSummaries(List.of()).isEmpty());
+        assertEquals(0, queryCount());
+    }
+
+    // Moi lan goi repository = 1 cau SQL
+    private int queryCount() {
+        return mockingDetails(quotationRepository).getInvocations().size()
+                + mockingDetails(bookingRepository).getInvocations().size()
+                + mockingDetails(transportRepository).getInvocations().size()
+                + mockingDetails(vehicleRepository).getInvocations().size();
+    }
+
+    private List<Quotation> page() {
+        return LongStream.rangeClosed(1, PAGE_SIZE)
+                .mapToObj(id -> quotation(id, id, id))
+                .toList();
+    }
+
+    private Quotation quotation(Long id, Long bookingId, Long transportId) {
+        Quotation quotation = new Quotation();
+        quotation.setQuotationId(id);
+        quotation.setBookingId(bookingId);
+        quotation.setTransportId(transportId);
+        quotation.setVehicleId(transportId);
+        quotation.setQuotedPrice(new BigDecimal("1000000"));
+        quotation.setStatus(QuotationStatus.PENDING);
+        return quotation;
+    }
+
+    private Vehicle vehicle(long id) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setVehicleId(id);
+        vehicle.setLicensePlate(String.format("51A-000.%02d", id));
+        return vehicle;
+    }
+
+    private Transport transport(long id) {
+        Transport transport = new Transport();
+        transport.setTransportId(id);
+        transport.setCompanyName("Transport " + id);
+        return transport;
+    }
+
+    private Booking booking(long id) {
+        Booking booking = new Booking();
+        booking.setBookingId(id);
+        booking.setPreferredDate(LocalDate.of(2025, 12, 20));
+        return booking;
+    }
+}
@@ -6,6 +6,7 @@ import com.homeexpress.home_express_api.dto.response.AcceptQuotationResponse;
 import com.homeexpress.home_express_api.dto.response.QuotationResponse;
 import com.homeexpress.home_express_api.entity.*;
 import com.homeexpress.home_express_api.repository.*;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -43,7 +44,7 @@ class QuotationServiceTest {
     private VehicleRepository vehicleRepository;
 
     @Mock
-    private NotificationService notificationService;
+    private OutboxService outboxService;
 
     @Mock
     private UserRepository userRepository;
@@ -51,9 +52,6 @@ class QuotationServiceTest {
     @Mock
     private BookingItemRepository bookingItemRepository;
 
-    @Mock
-    private CustomerEventService customerEventService;
-
     @Mock
     private RateCardService rateCardService;
 
@@ -260,7 +258,6 @@ class QuotationServiceTest {
         when(contractRepository.count()).thenReturn(0L);
         when(customerRepository.findById(customerId)).thenReturn(Optional.of(mockCustomer));
         when(transportRepository.findById(5L)).thenReturn(Optional.of(mockTransport));
-        when(userRepository.findById(customerId)).thenReturn(Optional.of(mockUser));
 
         // When
         AcceptQuotationResponse response = quotationService.acceptQuotation(quotationId, customerId, ipAddress);
@@ -0,0 +1,83 @@
+package com.homeexpress.home_express_api.service;
+
+import com.homeexpress.home_express_api.config.SecurityConfigProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private SecurityConfigProperties properties;
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SecurityConfigProperties();
+        properties.getRateLimit().getRoutes().put("map",
+                new SecurityConfigProperties.RouteLimit(List.of("/api/v1/map/**"), 3, 1));
+        rateLimitService = new RateLimitService(redisTemplate, properties, 60000);
+    }
+
+    @Test
+    void localStore_EmptyBucket_RejectsWithRetryAfter() {
+        properties.getRateLimit().setStore("local");
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimitService.tryConsume("/api/v1/map/autocomplete", "ip:1.2.3.4").allowed());
+        }
+        RateLimitService.Decision rejected = rateLimitService.tryConsume("/api/v1/map/details", "ip:1.2.3.4");
+
+        assertFalse(rejected.allowed());
+        // 1 token per minute
+        assertTrue(rejected.retryAfterSeconds() > 0 && rejected.retryAfterSeconds() <= 60);
+        // Separate bucket per subject
+        assertTrue(rateLimitService.tryConsume("/api/v1/map/details", "u:7").allowed());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void unmatchedPath_IsNotLimited() {
+        assertNull(rateLimitService.tryConsume("/api/v1/bookings", "u:7"));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void redisStore_UsesScriptResult() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("ratelimit:map:u:7")), any(), any()))
+                .thenReturn(List.of(0L, 0L, 1500L));
+
+        RateLimitService.Decision decision = rateLimitService.tryConsume("/api/v1/map/reverse", "u:7");
+
+        assertFalse(decision.allowed());
+        assertEquals(2, decision.retryAfterSeconds());
+    }
+
+    @Test
+    void redisDown_FallsBackToLocalBuckets() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimitService.tryConsume("/api/v1/map/autocomplete", "u:7").allowed());
+        }
+
+        assertFalse(rateLimitService.tryConsume("/api/v1/map/autocomplete", "u:7").allowed());
+        // Redis is skipped until the retry interval passes
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any());
+    }
+}
@@ -0,0 +1,108 @@
+package com.homeexpress.home_express_api.service;
+
+import com.homeexpress.home_express_api.config.AuthenticatedUser;
+import com.homeexpress.home_express_api.config.JwtTokenProvider;
+import com.homeexpress.home_express_api.entity.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtTokenProvider.getAccessTokenExpiration()).thenReturn(86_400_000L);
+        revocationService = new TokenRevocationService(jdbcTemplate, redisTemplate, jwtTokenProvider,
+                1000, 0.01, 30_000, 30_000);
+    }
+
+    @Test
+    void isRevoked_NothingRevoked_NoDatabaseQuery() {
+        assertFalse(revocationService.isRevoked(principal(1L, "session-1")));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void revokeSession_PublishesAndRejectsThatSession() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of(true));
+
+        revocationService.revokeSession("session-1");
+
+        assertTrue(revocationService.isRevoked(principal(1L, "session-1")));
+        assertFalse(revocationService.isRevoked(principal(1L, "session-2")));
+        verify(zSetOperations).add(eq("revocation:entries"), eq("s:session-1"), anyDouble());
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    void revokeUser_DatabaseAnswerIsCached() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of(true));
+
+        revocationService.revokeUser(5L);
+
+        assertTrue(revocationService.isRevoked(principal(5L, "a")));
+        assertTrue(revocationService.isRevoked(principal(5L, "a")));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    void sync_AppliesRevocationsFromOtherNodes() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.rangeByScoreWithScores(eq("revocation:entries"), anyDouble(), anyDouble()))
+                .thenReturn(Set.of(ZSetOperations.TypedTuple.of("u:9", (double) System.currentTimeMillis() + 1)));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of(true));
+
+        assertFalse(revocationService.isRevoked(principal(9L, null)));
+        revocationService.sync();
+
+        assertTrue(revocationService.isRevoked(principal(9L, null)));
+    }
+
+    @Test
+    void revokeUser_RedisDown_StillRevokedLocally() {
+        when(redisTemplate.opsForZSet()).thenThrow(new RedisConnectionFailureException("refused"));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of(true));
+
+        revocationService.revokeUser(5L);
+        revocationService.sync();
+
+        assertTrue(revocationService.isRevoked(principal(5L, null)));
+        verify(redisTemplate, times(1)).opsForZSet();
+    }
+
+    private AuthenticatedUser principal(Long userId, String sessionId) {
+        return new AuthenticatedUser(userId, "u@test.com", UserRole.CUSTOMER, userId, null, sessionId);
+    }
+}
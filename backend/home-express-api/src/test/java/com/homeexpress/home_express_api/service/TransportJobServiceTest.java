@@ -0,0 +1,200 @@
+package com.homeexpress.home_express_api.service;
+
+import com.homeexpress.home_express_api.dto.response.SuggestedPriceResponse;
+import com.homeexpress.home_express_api.dto.transport.TransportAvailableBookingDto;
+import com.homeexpress.home_express_api.dto.transport.TransportPaginatedResponse;
+import com.homeexpress.home_express_api.entity.*;
+import com.homeexpress.home_express_api.repository.*;
+import com.homeexpress.home_express_api.service.jobboard.JobBoardService;
+import com.homeexpress.home_express_api.service.outbox.OutboxService;
+import com.homeexpress.home_express_api.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransportJobServiceTest {
+
+    private static final List<BookingStatus> OPEN = List.of(BookingStatus.PENDING, BookingStatus.QUOTED);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingItemRepository bookingItemRepository;
+
+    @Mock
+    private BookingStatusHistoryRepository statusHistoryRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private TransportRepository transportRepository;
+
+    @Mock
+    private TransportSettingsRepository transportSettingsRepository;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private PricingService pricingService;
+
+    @Mock
+    private JobBoardService jobBoardService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @InjectMocks
+    private TransportJobService transportJobService;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 12, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        Transport transport = new Transport();
+        transport.setTransportId(5L);
+        transport.setVerificationStatus(VerificationStatus.APPROVED);
+        when(transportRepository.findById(5L)).thenReturn(Optional.of(transport));
+        when(vehicleRepository.existsByTransportTransportIdAndStatus(5L, VehicleStatus.ACTIVE)).thenReturn(true);
+    }
+
+    @Test
+    void getAvailableBookings_FiltersInQueryAndBatchesPage() {
+        TransportSettings settings = new TransportSettings();
+        settings.setSearchRadiusKm(new BigDecimal("30"));
+        settings.setMinJobValueVnd(500_000L);
+        when(transportSettingsRepository.findById(5L)).thenReturn(Optional.of(settings));
+
+        Booking first = booking(11L, now);
+        Booking second = booking(10L, now.minusHours(1));
+        when(bookingRepository.countAvailableForTransport(OPEN, null, new BigDecimal("30"), BigDecimal.valueOf(500_000L)))
+                .thenReturn(3L);
+        when(bookingRepository.findAvailableForTransport(OPEN, null, new BigDecimal("30"), BigDecimal.valueOf(500_000L),
+                null, null, PageRequest.of(0, 2)))
+                .thenReturn(List.of(first, second));
+        when(bookingRepository.aggregateJobBoardStats(List.of(11L, 10L), 5L)).thenReturn(List.of(
+                new Object[]{11L, 4L, new BigDecimal("80.5"), 1, 2L, 1L},
+                new Object[]{10L, 0L, BigDecimal.ZERO, 0, 0L, 0L}));
+        BookingItem item = new BookingItem();
+        item.setBookingId(11L);
+        when(bookingItemRepository.findByBookingIdIn(List.of(11L, 10L))).thenReturn(List.of(item));
+        SuggestedPriceResponse price = new SuggestedPriceResponse();
+        price.setSuggestedPrice(new BigDecimal("1200000"));
+        when(pricingService.calculateSuggestedPrices(eq(List.of(first, second)), anyMap(), eq(5L)))
+                .thenReturn(Map.of(11L, price));
+
+        TransportPaginatedResponse<TransportAvailableBookingDto> response =
+                transportJobService.getAvailableBookings(5L, 1, 2, 50, null, null);
+
+        assertEquals(3L, response.getPagination().getTotalItems());
+        assertEquals(2, response.getPagination().getTotalPages());
+        assertEquals(new KeysetCursor(second.getCreatedAt(), 10L).encode(), response.getPagination().getNextCursor());
+
+        TransportAvailableBookingDto dto = response.getData().get(0);
+        assertEquals(4, dto.getItemsCount());
+        assertEquals(80.5, dto.getTotalWeight());
+        assertTrue(dto.getHasFragileItems());
+        assertEquals(2, dto.getQuotationsCount());
+        assertTrue(dto.getHasQuoted());
+        assertEquals(1_200_000L, dto.getSuggestedPrice());
+        assertNull(response.getData().get(1).getSuggestedPrice());
+
+        verify(bookingItemRepository, never()).findByBookingId(anyLong());
+        verify(pricingService, never()).calculateSuggestedPrice(anyLong(), anyLong());
+    }
+
+    @Test
+    void getAvailableBookings_WithCursor_ReadsNextWindowWithoutCount() {
+        when(transportSettingsRepository.findById(5L)).thenReturn(Optional.empty());
+        KeysetCursor cursor = new KeysetCursor(now, 10L);
+        Booking older = booking(9L, now.minusDays(1));
+        LocalDate date = LocalDate.of(2025, 12, 20);
+        when(bookingRepository.findAvailableForTransport(OPEN, date, null, null, now, 10L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(older));
+        when(bookingRepository.aggregateJobBoardStats(List.of(9L), 5L)).thenReturn(List.of());
+        when(bookingItemRepository.findByBookingIdIn(List.of(9L))).thenReturn(List.of());
+        when(pricingService.calculateSuggestedPrices(anyList(), anyMap(), eq(5L))).thenReturn(Map.of());
+
+        TransportPaginatedResponse<TransportAvailableBookingDto> response =
+                transportJobService.getAvailableBookings(5L, 1, 2, null, date, cursor.encode());
+
+        assertEquals(1, response.getData().size());
+        assertEquals(0, response.getData().get(0).getItemsCount());
+        assertNull(response.getPagination().getNextCursor());
+        verify(bookingRepository, never()).countAvailableForTransport(any(), any(), any(), any());
+    }
+
+    @Test
+    void getAvailableBookings_WithoutFilters_ReadsPageFromFeed() {
+        when(jobBoardService.isEnabled()).thenReturn(true);
+        when(jobBoardService.feedSize(5L)).thenReturn(5L);
+        when(jobBoardService.feedPage(5L, 2L, 2)).thenReturn(List.of(12L, 11L));
+        Booking open = booking(12L, now);
+        open.setStatus(BookingStatus.PENDING);
+        Booking taken = booking(11L, now.minusHours(1));
+        taken.setStatus(BookingStatus.CONFIRMED);
+        taken.setTransportId(8L);
+        when(bookingRepository.findAllById(List.of(12L, 11L))).thenReturn(List.of(taken, open));
+        when(bookingRepository.aggregateJobBoardStats(List.of(12L), 5L)).thenReturn(List.of());
+        when(bookingItemRepository.findByBookingIdIn(List.of(12L))).thenReturn(List.of());
+        when(pricingService.calculateSuggestedPrices(eq(List.of(open)), anyMap(), eq(5L))).thenReturn(Map.of());
+
+        TransportPaginatedResponse<TransportAvailableBookingDto> response =
+                transportJobService.getAvailableBookings(5L, 2, 2, null, null, null);
+
+        assertEquals(5L, response.getPagination().getTotalItems());
+        assertEquals(2, response.getPagination().getCurrentPage());
+        assertEquals(List.of(12L), response.getData().stream().map(TransportAvailableBookingDto::getBookingId).toList());
+        assertEquals(new KeysetCursor(taken.getCreatedAt(), 11L).encode(), response.getPagination().getNextCursor());
+        verifyNoInteractions(transportSettingsRepository);
+        verify(bookingRepository, never()).countAvailableForTransport(any(), any(), any(), any());
+    }
+
+    @Test
+    void getAvailableBookings_FeedUnavailable_FallsBackToSql() {
+        when(jobBoardService.isEnabled()).thenReturn(true);
+        when(jobBoardService.feedSize(5L)).thenThrow(new RedisConnectionFailureException("down"));
+        when(transportSettingsRepository.findById(5L)).thenReturn(Optional.empty());
+        Booking open = booking(12L, now);
+        when(bookingRepository.countAvailableForTransport(OPEN, null, null, null)).thenReturn(1L);
+        when(bookingRepository.findAvailableForTransport(OPEN, null, null, null, null, null, PageRequest.of(0, 2)))
+                .thenReturn(List.of(open));
+        when(bookingRepository.aggregateJobBoardStats(List.of(12L), 5L)).thenReturn(List.of());
+        when(bookingItemRepository.findByBookingIdIn(List.of(12L))).thenReturn(List.of());
+        when(pricingService.calculateSuggestedPrices(anyList(), anyMap(), eq(5L))).thenReturn(Map.of());
+
+        TransportPaginatedResponse<TransportAvailableBookingDto> response =
+                transportJobService.getAvailableBookings(5L, 1, 2, null, null, null);
+
+        assertEquals(1L, response.getPagination().getTotalItems());
+        assertEquals(List.of(12L), response.getData().stream().map(TransportAvailableBookingDto::getBookingId).toList());
+    }
+
+    private Booking booking(Long id, LocalDateTime createdAt) {
+        Booking booking = new Booking();
+        booking.setBookingId(id);
+        booking.setCreatedAt(createdAt);
+        booking.setPreferredDate(LocalDate.of(2025, 12, 20));
+        booking.setEstimatedPrice(new BigDecimal("900000"));
+        return booking;
+    }
+}
@@ -0,0 +1,68 @@
+package com.homeexpress.home_express_api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserActivityBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private UserActivityBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new UserActivityBuffer(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_CoalescesPerSessionAndKeepsLatest() {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+        buffer.recordSessionSeen("s1", base);
+        buffer.recordSessionSeen("s1", base.plusMinutes(5));
+        buffer.recordSessionSeen("s1", base.plusMinutes(2));
+        buffer.recordSessionSeen("s2", base);
+
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("user_sessions"), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        Object[] s1 = rows.getValue().stream().filter(r -> "s1".equals(r[1])).findFirst().orElseThrow();
+        assertEquals(Timestamp.valueOf(base.plusMinutes(5)), s1[0]);
+        verify(jdbcTemplate, never()).batchUpdate(contains("users"), anyList());
+
+        // Nothing pending any more
+        buffer.flush();
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void flush_Failure_KeepsUpdatesForNextFlush() {
+        buffer.recordLogin(1L, LocalDateTime.now());
+        when(jdbcTemplate.batchUpdate(contains("users"), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("db down"))
+                .thenReturn(new int[]{1});
+
+        buffer.flush();
+        buffer.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(contains("users"), anyList());
+    }
+}
@@ -0,0 +1,82 @@
+package com.homeexpress.home_express_api.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.homeexpress.home_express_api.exception.TooManyRequestsException;
+import com.homeexpress.home_express_api.repository.BookingRepository;
+import com.homeexpress.home_express_api.repository.BookingSettlementRepository;
+import com.homeexpress.home_express_api.repository.IncidentRepository;
+import com.homeexpress.home_express_api.repository.TransportPayoutRepository;
+import com.homeexpress.home_express_api.repository.projection.PayoutView;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AdminExportServiceTest {
+
+    private final TransportPayoutRepository payoutRepository = mock(TransportPayoutRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final LocalDateTime now = LocalDateTime.of(2025, 12, 1, 10, 0);
+
+    private AdminExportService service(int maxConcurrent) {
+        return new AdminExportService(mock(BookingRepository.class), mock(BookingSettlementRepository.class),
+                payoutRepository, mock(IncidentRepository.class), new ObjectMapper().registerModule(new JavaTimeModule()),
+                transactionManager, 2, maxConcurrent);
+    }
+
+    @Test
+    void export_ReadsKeysetChunksEachInItsOwnTransaction() throws Exception {
+        PayoutView first = payout(3L, now);
+        PayoutView second = payout(2L, now.minusHours(1));
+        PayoutView third = payout(1L, now.minusHours(2));
+        when(payoutRepository.findViewsPage(null, null, null, null, PageRequest.of(0, 2)))
+                .thenReturn(List.of(first, second));
+        when(payoutRepository.findViewsPage(null, null, now.minusHours(1), 2L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(third));
+
+        long rows = service(2).export(ExportDataset.PAYOUTS, ExportFormat.NDJSON, new ByteArrayOutputStream());
+
+        assertEquals(3, rows);
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void export_RejectsWhenTheConcurrencyCapIsReached() throws Exception {
+        AdminExportService service = service(1);
+        when(payoutRepository.findViewsPage(any(), any(), any(), any(), any())).thenReturn(List.of());
+        OutputStream reentrant = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void flush() {
+                // A second export while the first one still holds the only slot
+                assertThrows(TooManyRequestsException.class,
+                        () -> service.export(ExportDataset.PAYOUTS, ExportFormat.CSV, new ByteArrayOutputStream()));
+            }
+        };
+
+        service.export(ExportDataset.PAYOUTS, ExportFormat.CSV, reentrant);
+
+        // The slot is free again afterwards
+        assertDoesNotThrow(() -> service.export(ExportDataset.PAYOUTS, ExportFormat.CSV, new ByteArrayOutputStream()));
+    }
+
+    private PayoutView payout(Long id, LocalDateTime createdAt) {
+        PayoutView view = mock(PayoutView.class);
+        when(view.getPayoutId()).thenReturn(id);
+        when(view.getCreatedAt()).thenReturn(createdAt);
+        return view;
+    }
+}
@@ -0,0 +1,81 @@
+package com.homeexpress.home_express_api.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.homeexpress.home_express_api.dto.incident.IncidentResponse;
+import com.homeexpress.home_express_api.entity.IncidentStatus;
+import com.homeexpress.home_express_api.entity.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void csv_WritesHeaderFromFirstRowAndQuotesSpecialCharacters() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = new ExportWriter(objectMapper, ExportFormat.CSV, out);
+
+        writer.write(incident(1L, "Vo \"kinh\", mat 1 goc"));
+        writer.write(incident(2L, "Tre\nhen"));
+        writer.finish();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("incidentId,bookingId,"));
+        assertTrue(lines[1].startsWith("1,10,"));
+        assertTrue(lines[1].contains(",\"Vo \"\"kinh\"\", mat 1 goc\","));
+        assertTrue(lines[1].contains(",2025-12-01T09:30:00,"));
+        assertTrue(lines[2].contains(",\"Tre\nhen\","));
+        assertEquals(2, writer.getRows());
+    }
+
+    @Test
+    void csv_PrefixesFormulaLikeText() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = new ExportWriter(objectMapper, ExportFormat.CSV, out);
+
+        writer.write(incident(1L, "=HYPERLINK(\"http://x\")"));
+        writer.write(incident(2L, "@SUM(A1)"));
+        writer.finish();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertTrue(lines[1].contains(",\"'=HYPERLINK(\"\"http://x\"\")\","));
+        assertTrue(lines[2].contains(",'@SUM(A1),"));
+    }
+
+    @Test
+    void ndjson_WritesOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = new ExportWriter(objectMapper, ExportFormat.NDJSON, out);
+
+        writer.write(incident(1L, "a"));
+        writer.write(incident(2L, "b"));
+        writer.finish();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("incidentId").asLong());
+        assertEquals("HIGH", objectMapper.readTree(lines[0]).get("severity").asText());
+    }
+
+    private IncidentResponse incident(Long id, String description) {
+        IncidentResponse incident = new IncidentResponse();
+        incident.setIncidentId(id);
+        incident.setBookingId(10L);
+        incident.setSeverity(Severity.HIGH);
+        incident.setStatus(IncidentStatus.REPORTED);
+        incident.setDescription(description);
+        incident.setReportedAt(LocalDateTime.of(2025, 12, 1, 9, 30));
+        return incident;
+    }
+}
@@ -0,0 +1,150 @@
+package com.homeexpress.home_express_api.service.jobboard;
+
+import com.homeexpress.home_express_api.entity.Booking;
+import com.homeexpress.home_express_api.entity.BookingStatus;
+import com.homeexpress.home_express_api.entity.TransportSettings;
+import com.homeexpress.home_express_api.entity.VehicleStatus;
+import com.homeexpress.home_express_api.entity.VerificationStatus;
+import com.homeexpress.home_express_api.repository.BookingRepository;
+import com.homeexpress.home_express_api.repository.TransportRepository;
+import com.homeexpress.home_express_api.repository.TransportSettingsRepository;
+import com.homeexpress.home_express_api.service.TransportEventService;
+import com.homeexpress.home_express_api.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobBoardServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private TransportRepository transportRepository;
+
+    @Mock
+    private TransportSettingsRepository transportSettingsRepository;
+
+    @Mock
+    private TransportEventService transportEventService;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private InMemoryJobBoardFeedStore store;
+    private JobBoardService jobBoardService;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 12, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryJobBoardFeedStore();
+        jobBoardService = new JobBoardService(store, bookingRepository, transportRepository,
+                transportSettingsRepository, transportEventService, redisTemplate, true, 600_000L);
+    }
+
+    @Test
+    void refreshBooking_MovesBookingBetweenFeedsAndPushesChanges() {
+        Booking booking = booking(20L, now);
+        booking.setDistanceKm(new BigDecimal("12.5"));
+        when(bookingRepository.findById(20L)).thenReturn(Optional.of(booking));
+        when(transportRepository.findJobBoardMatches(VerificationStatus.APPROVED, VehicleStatus.ACTIVE,
+                new BigDecimal("12.5"), 900_000L))
+                .thenReturn(List.of(1L, 2L), List.of(2L, 3L));
+
+        jobBoardService.refreshBooking(20L);
+        jobBoardService.refreshBooking(20L);
+
+        assertEquals(0, store.size(1L));
+        assertEquals(List.of(20L), jobBoardService.feedPage(2L, 0, 10));
+        assertEquals(List.of(20L), jobBoardService.feedPage(3L, 0, 10));
+        verify(transportEventService).sendMatchAdded(1L, 20L);
+        verify(transportEventService).sendMatchAdded(2L, 20L);
+        verify(transportEventService).sendMatchAdded(3L, 20L);
+        verify(transportEventService).sendMatchRemoved(1L, 20L);
+
+        // Assigned: leaves every feed without matching again
+        booking.setTransportId(2L);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        jobBoardService.refreshBooking(20L);
+
+        assertTrue(store.transportIds().isEmpty());
+        verify(transportEventService).sendMatchRemoved(2L, 20L);
+        verify(transportEventService).sendMatchRemoved(3L, 20L);
+        verify(transportRepository, times(2)).findJobBoardMatches(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void reconcile_RebuildsEligibleFeedsAndClearsOthers() {
+        store.place(99L, 1L, List.of(7L));
+        when(transportRepository.findJobBoardEligibleIds(VerificationStatus.APPROVED, VehicleStatus.ACTIVE))
+                .thenReturn(List.of(5L));
+        TransportSettings settings = new TransportSettings();
+        settings.setSearchRadiusKm(new BigDecimal("30"));
+        settings.setMinJobValueVnd(0L);
+        when(transportSettingsRepository.findById(5L)).thenReturn(Optional.of(settings));
+        when(bookingRepository.findAvailableKeysForTransport(anyList(), eq(new BigDecimal("30")), isNull()))
+                .thenReturn(List.of(new Object[]{10L, now.minusHours(1)}, new Object[]{11L, now}));
+
+        jobBoardService.reconcile();
+
+        assertEquals(List.of(11L, 10L), jobBoardService.feedPage(5L, 0, 10));
+        assertEquals(0, store.size(7L));
+        assertEquals(Set.of(5L), store.transportIds());
+    }
+
+    @Test
+    void rebuildTransport_ChecksOnlyThatTransportAndClearsIneligibleFeed() {
+        store.place(99L, 1L, List.of(7L));
+        when(transportRepository.isJobBoardEligible(7L, VerificationStatus.APPROVED, VehicleStatus.ACTIVE))
+                .thenReturn(false);
+
+        jobBoardService.rebuildTransport(7L);
+
+        assertEquals(0, store.size(7L));
+        verify(transportRepository, never()).findJobBoardEligibleIds(any(), any());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void feedAfter_ContinuesPastBookingsSharingTheCursorTimestamp() {
+        for (long id = 30; id < 40; id++) {
+            store.place(id, epochMillis(now), List.of(5L));
+        }
+        store.place(1L, epochMillis(now.minusDays(1)), List.of(5L));
+
+        List<Long> page = jobBoardService.feedAfter(5L, new KeysetCursor(now, 32L), 3);
+
+        assertEquals(List.of(31L, 30L, 1L), page);
+        assertEquals(List.of(39L, 38L), jobBoardService.feedPage(5L, 0, 2));
+        assertEquals(11, jobBoardService.feedSize(5L));
+    }
+
+    private Booking booking(Long id, LocalDateTime createdAt) {
+        Booking booking = new Booking();
+        booking.setBookingId(id);
+        booking.setStatus(BookingStatus.PENDING);
+        booking.setCreatedAt(createdAt);
+        booking.setEstimatedPrice(new BigDecimal("900000"));
+        return booking;
+    }
+
+    private long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,66 @@
+package com.homeexpress.home_express_api.service.otp;
+
+import com.homeexpress.home_express_api.entity.OtpCode;
+import com.homeexpress.home_express_api.repository.OtpRepository;
+import com.homeexpress.home_express_api.service.otp.OtpStore.VerifyResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseOtpStoreTest {
+
+    @Mock
+    private OtpRepository otpRepository;
+
+    @InjectMocks
+    private DatabaseOtpStore store;
+
+    @Test
+    void save_StoresCodeWithExpiry() {
+        store.save("customer@test.com", "123456", Duration.ofMinutes(5));
+
+        verify(otpRepository).save(argThat(otp ->
+                otp.getEmail().equals("customer@test.com")
+                        && otp.getCode().equals("123456")
+                        && otp.getExpiresAt().isAfter(LocalDateTime.now().plusMinutes(4))));
+    }
+
+    @Test
+    void verifyAndConsume_ValidCode_ConsumedInOneStatement() {
+        when(otpRepository.consume(eq("test@example.com"), eq("123456"), any(LocalDateTime.class))).thenReturn(1);
+
+        assertEquals(VerifyResult.VALID, store.verifyAndConsume("test@example.com", "123456"));
+        verify(otpRepository, never()).findByEmailAndCodeAndIsUsedFalse(anyString(), anyString());
+    }
+
+    @Test
+    void verifyAndConsume_ExpiredCode() {
+        OtpCode expired = new OtpCode("test@example.com", "123456", LocalDateTime.now().minusMinutes(1));
+        when(otpRepository.consume(eq("test@example.com"), eq("123456"), any(LocalDateTime.class))).thenReturn(0);
+        when(otpRepository.findByEmailAndCodeAndIsUsedFalse("test@example.com", "123456"))
+                .thenReturn(Optional.of(expired));
+
+        assertEquals(VerifyResult.EXPIRED, store.verifyAndConsume("test@example.com", "123456"));
+        assertFalse(expired.getIsUsed());
+    }
+
+    @Test
+    void verifyAndConsume_UnknownCode() {
+        when(otpRepository.consume(eq("test@example.com"), eq("999999"), any(LocalDateTime.class))).thenReturn(0);
+        when(otpRepository.findByEmailAndCodeAndIsUsedFalse("test@example.com", "999999"))
+                .thenReturn(Optional.empty());
+
+        assertEquals(VerifyResult.INVALID, store.verifyAndConsume("test@example.com", "999999"));
+    }
+}
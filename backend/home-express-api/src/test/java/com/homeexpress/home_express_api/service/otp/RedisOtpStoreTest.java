@@ -0,0 +1,63 @@
+package com.homeexpress.home_express_api.service.otp;
+
+import com.homeexpress.home_express_api.config.SecurityConfigProperties;
+import com.homeexpress.home_express_api.service.otp.OtpStore.VerifyResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisOtpStoreTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private RedisOtpStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RedisOtpStore(redisTemplate, new SecurityConfigProperties());
+    }
+
+    @Test
+    void saveAndVerify_SendSameDigestNeverThePlainCode() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("otp:test@example.com")), any(Object[].class)))
+                .thenReturn(1L);
+
+        store.save("test@example.com", "123456", Duration.ofMinutes(5));
+        VerifyResult result = store.verifyAndConsume("test@example.com", "123456");
+
+        assertEquals(VerifyResult.VALID, result);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), args.capture());
+        Object[] saveArgs = args.getAllValues().get(0);
+        Object[] verifyArgs = args.getAllValues().get(1);
+        assertEquals(saveArgs[0], verifyArgs[0]);
+        assertEquals(64, ((String) saveArgs[0]).length());
+        assertFalse(((String) saveArgs[0]).contains("123456"));
+        assertEquals("300000", saveArgs[1]);
+        assertEquals("5", verifyArgs[1]);
+    }
+
+    @Test
+    void verifyAndConsume_MapsScriptResults() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(0L, 2L, 3L);
+
+        assertEquals(VerifyResult.INVALID, store.verifyAndConsume("a@test.com", "111111"));
+        assertEquals(VerifyResult.INVALID, store.verifyAndConsume("a@test.com", "111111"));
+        assertEquals(VerifyResult.TOO_MANY_ATTEMPTS, store.verifyAndConsume("a@test.com", "111111"));
+    }
+}
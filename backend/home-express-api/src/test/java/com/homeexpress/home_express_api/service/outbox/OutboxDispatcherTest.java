@@ -0,0 +1,93 @@
+package com.homeexpress.home_express_api.service.outbox;
+
+import com.homeexpress.home_express_api.entity.OutboxMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxService outboxService;
+
+    // real default deliver(), so handle() runs on the executor
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
+    private OutboxHandler notificationHandler;
+
+    private ThreadPoolTaskExecutor executor;
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+
+        when(notificationHandler.eventType()).thenReturn(NotificationOutboxHandler.EVENT_TYPE);
+        dispatcher = new OutboxDispatcher(outboxService, executor, List.of(notificationHandler),
+                10, 60000, 1000, 60000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void dispatch_DeliversBatchAndAcknowledgesInOneCall() throws Exception {
+        when(outboxService.claimBatch(eq(10), any(Duration.class)))
+                .thenReturn(List.of(message(1L, NotificationOutboxHandler.EVENT_TYPE, 0),
+                        message(2L, NotificationOutboxHandler.EVENT_TYPE, 0)));
+
+        dispatcher.dispatch();
+
+        verify(notificationHandler, times(2)).handle("{}");
+        verify(outboxService).markSent(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 2L))));
+        verify(outboxService, never()).markFailed(anyLong(), any(), any());
+    }
+
+    @Test
+    void dispatch_HandlerFailure_SchedulesRetryWithBackoff() throws Exception {
+        when(outboxService.claimBatch(eq(10), any(Duration.class)))
+                .thenReturn(List.of(message(1L, NotificationOutboxHandler.EVENT_TYPE, 2)));
+        doThrow(new RuntimeException("SMTP down")).when(notificationHandler).handle(any());
+
+        dispatcher.dispatch();
+
+        // third attempt: base 1000ms << 2 = 4000ms, plus up to 25% jitter
+        verify(outboxService).markFailed(eq(1L), eq("SMTP down"),
+                argThat(backoff -> backoff.toMillis() >= 4000 && backoff.toMillis() <= 5000));
+        verify(outboxService).markSent(List.of());
+    }
+
+    @Test
+    void dispatch_UnknownEventType_IsMarkedFailed() {
+        when(outboxService.claimBatch(eq(10), any(Duration.class)))
+                .thenReturn(List.of(message(7L, "Unknown", 0)));
+
+        dispatcher.dispatch();
+
+        verify(outboxService).markFailed(eq(7L), contains("No outbox handler"), any(Duration.class));
+    }
+
+    private OutboxMessage message(Long id, String eventType, int retryCount) {
+        OutboxMessage message = new OutboxMessage();
+        message.setId(id);
+        message.setEventType(eventType);
+        message.setPayload("{}");
+        message.setRetryCount(retryCount);
+        return message;
+    }
+}
@@ -0,0 +1,116 @@
+package com.homeexpress.home_express_api.service.retention;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetentionServiceTest {
+
+    private static final RetentionPolicy POLICY =
+            RetentionPolicy.delete("otp_codes", "otp_codes", "otp_id", "expires_at", Duration.ofDays(1));
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RetentionService service(int chunkSize, int maxChunks) {
+        return new RetentionService(jdbcTemplate, redisTemplate, List.of(POLICY), meterRegistry,
+                chunkSize, 0, maxChunks, 60_000);
+    }
+
+    @Test
+    void sweep_DeletesInKeysetChunksUntilDrained() {
+        Timestamp t1 = Timestamp.valueOf(LocalDateTime.now().minusDays(3));
+        Timestamp t2 = Timestamp.valueOf(LocalDateTime.now().minusDays(2));
+        when(jdbcTemplate.queryForList(eq(POLICY.firstChunkSql()), any(Object[].class)))
+                .thenReturn(List.of(row(1L, t1), row(2L, t2)));
+        when(jdbcTemplate.queryForList(eq(POLICY.nextChunkSql()), any(Object[].class)))
+                .thenReturn(List.of(row(3L, t2)));
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(2, 1);
+        when(jdbcTemplate.queryForObject(eq(POLICY.oldestSql()), eq(Timestamp.class), any(Object[].class)))
+                .thenReturn(null);
+
+        RetentionService.SweepResult result = service(2, 100).sweep(POLICY);
+
+        assertEquals(3, result.rows());
+        assertEquals(2, result.chunks());
+        assertEquals(0, result.lagSeconds());
+
+        // The second chunk continues after the last (time, key) of the first
+        ArgumentCaptor<Object[]> nextArgs = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).queryForList(eq(POLICY.nextChunkSql()), nextArgs.capture());
+        assertArrayEquals(new Object[]{t2, t2, 2L, 2}, List.of(nextArgs.getValue()).subList(1, 5).toArray());
+
+        ArgumentCaptor<Object[]> deleteArgs = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(eq(POLICY.applySql(2)), deleteArgs.capture());
+        assertEquals(List.of(1L, 2L), List.of(deleteArgs.getValue()).subList(0, 2));
+
+        assertEquals(3.0, meterRegistry.get("retention.rows").tag("policy", "otp_codes").counter().count());
+    }
+
+    @Test
+    void sweep_StopsAtChunkLimitAndReportsLag() {
+        Timestamp t1 = Timestamp.valueOf(LocalDateTime.now().minusDays(3));
+        when(jdbcTemplate.queryForList(eq(POLICY.firstChunkSql()), any(Object[].class)))
+                .thenReturn(List.of(row(1L, t1), row(2L, t1)));
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(2);
+        when(jdbcTemplate.queryForObject(eq(POLICY.oldestSql()), eq(Timestamp.class), any(Object[].class)))
+                .thenReturn(Timestamp.valueOf(LocalDateTime.now().minusDays(1).minusHours(1)));
+
+        RetentionService.SweepResult result = service(2, 1).sweep(POLICY);
+
+        assertEquals(2, result.rows());
+        assertEquals(1, result.chunks());
+        assertTrue(result.lagSeconds() >= 3590 && result.lagSeconds() <= 3600, "lag " + result.lagSeconds());
+        verify(jdbcTemplate, never()).queryForList(eq(POLICY.nextChunkSql()), any(Object[].class));
+        assertEquals(result.lagSeconds(),
+                meterRegistry.get("retention.lag.seconds").tag("policy", "otp_codes").gauge().value());
+    }
+
+    @Test
+    void runAll_LockHeldElsewhere_DoesNothing() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("retention:lock"), anyString(), any(Duration.class))).thenReturn(false);
+
+        service(2, 10).runAll();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void updatePolicy_RechecksConditionWhenApplying() {
+        RetentionPolicy expire = RetentionPolicy.update("intake", "intake_sessions", "session_id", "expires_at",
+                Duration.ZERO, "status = 'expired'").where("status = 'active'");
+
+        assertEquals("UPDATE intake_sessions SET status = 'expired' WHERE session_id IN (?, ?) "
+                + "AND expires_at < ? AND (status = 'active')", expire.applySql(2));
+    }
+
+    private static Map<String, Object> row(Long id, Timestamp expiresAt) {
+        return Map.of("otp_id", id, "expires_at", expiresAt);
+    }
+}
@@ -0,0 +1,174 @@
+package com.homeexpress.home_express_api.service.rollup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatsRollupServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private StatsRollupService service(boolean enabled, boolean backfillOnStartup) {
+        return new StatsRollupService(jdbcTemplate, transactionManager, redisTemplate, new SyncTaskExecutor(),
+                enabled, 3_600_000, backfillOnStartup, 900_000);
+    }
+
+    @Test
+    void refreshBooking_RecomputesBothScopesOnCreatedAndFinishedDays() throws Exception {
+        StatsRollupService service = service(true, false);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("customer_id", Long.class)).thenReturn(5L);
+        when(rs.getObject("transport_id", Long.class)).thenReturn(9L);
+        when(rs.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(LocalDateTime.of(2025, 1, 5, 10, 0)));
+        when(rs.getTimestamp("actual_end_time")).thenReturn(Timestamp.valueOf(LocalDateTime.of(2025, 2, 1, 8, 0)));
+        when(jdbcTemplate.query(contains("FROM bookings WHERE booking_id"), any(RowMapper.class), eq(42L)))
+                .thenAnswer(invocation -> List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(rs, 0)));
+
+        service.refreshBooking(42L);
+
+        ArgumentCaptor<Object[]> deletes = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(4)).update(startsWith("DELETE FROM booking_daily_stats"), deletes.capture());
+        List<String> rows = deletes.getAllValues().stream()
+                .map(args -> args[0] + ":" + args[3] + ":" + args[1])
+                .toList();
+        assertEquals(List.of("CUSTOMER:5:2025-01-05", "CUSTOMER:5:2025-02-01",
+                "TRANSPORT:9:2025-01-05", "TRANSPORT:9:2025-02-01"), rows);
+        verify(jdbcTemplate, times(2)).update(contains("b.customer_id = ?"), any(Object[].class));
+        verify(jdbcTemplate, times(2)).update(contains("b.transport_id = ?"), any(Object[].class));
+    }
+
+    @Test
+    void refreshBooking_AlsoRecomputesPreviousTransportAfterReassignment() throws Exception {
+        StatsRollupService service = service(true, false);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("customer_id", Long.class)).thenReturn(5L);
+        when(rs.getObject("transport_id", Long.class)).thenReturn(9L);
+        when(rs.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(LocalDateTime.of(2025, 1, 5, 10, 0)));
+        when(rs.getTimestamp("actual_end_time")).thenReturn(null);
+        when(jdbcTemplate.query(contains("FROM bookings WHERE booking_id"), any(RowMapper.class), eq(42L)))
+                .thenAnswer(invocation -> List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(rs, 0)));
+
+        service.refreshBooking(42L, 7L);
+
+        ArgumentCaptor<Object[]> deletes = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(3)).update(startsWith("DELETE FROM booking_daily_stats"), deletes.capture());
+        List<String> rows = deletes.getAllValues().stream()
+                .map(args -> args[0] + ":" + args[3] + ":" + args[1])
+                .toList();
+        assertEquals(List.of("CUSTOMER:5:2025-01-05", "TRANSPORT:9:2025-01-05", "TRANSPORT:7:2025-01-05"), rows);
+    }
+
+    @Test
+    void refreshWallet_RecomputesOneTransportDay() {
+        StatsRollupService service = service(true, false);
+
+        service.refreshWallet(9L, LocalDate.of(2025, 2, 1));
+
+        verify(jdbcTemplate).update("DELETE FROM wallet_daily_stats WHERE stat_date >= ? AND stat_date < ? AND transport_id = ?",
+                Date.valueOf(LocalDate.of(2025, 2, 1)), Date.valueOf(LocalDate.of(2025, 2, 2)), 9L);
+        verify(jdbcTemplate).update(contains("AND w.transport_id = ?"), any(Object[].class));
+    }
+
+    @Test
+    void disabled_TouchesNothing() {
+        StatsRollupService service = service(false, true);
+
+        service.refreshBooking(42L);
+        service.refreshUser(1L);
+        service.refreshWallet(9L, LocalDate.of(2025, 2, 1));
+        service.reconcile();
+
+        verifyNoInteractions(jdbcTemplate, transactionManager, redisTemplate);
+    }
+
+    @Test
+    void isReadable_OnlyOnceBackfillCompleted() {
+        StatsRollupService service = service(true, false);
+        when(jdbcTemplate.queryForObject(contains("FROM stats_rollup_backfill"), eq(Long.class), eq("BOOKING")))
+                .thenReturn(0L, 1L);
+
+        assertFalse(service.isReadable("BOOKING"));
+        assertTrue(service.isReadable("BOOKING"));
+        // da hoan thanh thi khong hoi lai DB
+        assertTrue(service.isReadable("BOOKING"));
+        verify(jdbcTemplate, times(2)).queryForObject(contains("FROM stats_rollup_backfill"), eq(Long.class), eq("BOOKING"));
+
+        assertFalse(service(false, false).isReadable("BOOKING"));
+    }
+
+    @Test
+    void runBackfill_ResumesFromRecordedMonthAndMarksComplete() throws Exception {
+        StatsRollupService service = service(true, true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("stats-rollup:lock"), anyString(), any(Duration.class))).thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("WHERE completed_at IS NULL"), eq(Long.class))).thenReturn(1L);
+        LocalDate previousMonth = YearMonth.now().minusMonths(1).atDay(1);
+        stubBackfillState("BOOKING", previousMonth, null);
+        stubBackfillState("USER", null, Timestamp.valueOf(LocalDateTime.now()));
+        stubBackfillState("WALLET", null, Timestamp.valueOf(LocalDateTime.now()));
+
+        service.runBackfill();
+
+        // thang truoc va thang nay, khong quet lai lich su da xong
+        verify(jdbcTemplate, never()).queryForObject(eq("SELECT MIN(created_at) FROM bookings"), eq(Timestamp.class));
+        ArgumentCaptor<Object> nextMonths = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, times(2)).update(startsWith("UPDATE stats_rollup_backfill SET next_month"),
+                nextMonths.capture(), any(), eq("BOOKING"));
+        assertEquals(List.of(Date.valueOf(YearMonth.now().atDay(1)), Date.valueOf(YearMonth.now().plusMonths(1).atDay(1))),
+                nextMonths.getAllValues());
+        verify(jdbcTemplate).update(startsWith("UPDATE stats_rollup_backfill SET completed_at"), any(), any(), eq("BOOKING"));
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE stats_rollup_backfill"), any(), any(), eq("USER"));
+        verify(jdbcTemplate, never()).update(startsWith("DELETE FROM user_daily_stats"), any(Object[].class));
+    }
+
+    @Test
+    void reconcile_SkipsWhileAnotherNodeHoldsTheLock() {
+        StatsRollupService service = service(true, false);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("stats-rollup:lock"), anyString(), any(Duration.class))).thenReturn(false);
+
+        service.reconcile();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private void stubBackfillState(String rollup, LocalDate nextMonth, Timestamp completedAt) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        lenient().when(rs.getDate("next_month")).thenReturn(nextMonth != null ? Date.valueOf(nextMonth) : null);
+        lenient().when(rs.getTimestamp("completed_at")).thenReturn(completedAt);
+        when(jdbcTemplate.query(startsWith("SELECT next_month"), any(RowMapper.class), eq(rollup)))
+                .thenAnswer(invocation -> List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(rs, 0)));
+    }
+}
@@ -0,0 +1,114 @@
+package com.homeexpress.home_express_api.service.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SseBrokerTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SseBroker broker;
+    private SseEmitterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        broker = new SseBroker(redisTemplate, mock(RedisConnectionFactory.class), objectMapper, true);
+        registry = new SseEmitterRegistry("booking", broker, new SimpleMeterRegistry(),
+                "sse.test.connections.active", "test", 60_000L);
+    }
+
+    @Test
+    void publish_GoesThroughRedisAndEachNodeDeliversToItsOwnConnections() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        registry.register(7L, "42", emitter);
+
+        registry.publish(7L, "booking:status_changed", "{\"a\":1}");
+
+        // Nothing is written until the message comes back from the channel
+        assertEquals(0, emitter.sent);
+        String[] message = new String[1];
+        verify(redisTemplate).convertAndSend(eq(SseBroker.CHANNEL), argThat((String m) -> (message[0] = m) != null));
+
+        broker.onMessage(new DefaultMessage(SseBroker.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                message[0].getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, emitter.sent);
+    }
+
+    @Test
+    void publish_RedisDown_DeliversOnThisNode() {
+        doThrow(new RedisConnectionFailureException("down")).when(redisTemplate).convertAndSend(anyString(), anyString());
+        RecordingEmitter emitter = new RecordingEmitter();
+        registry.register(7L, "42", emitter);
+
+        registry.publish(7L, "booking:status_changed", "{}");
+
+        assertEquals(1, emitter.sent);
+    }
+
+    @Test
+    void heartbeat_DropsDeadConnections() {
+        RecordingEmitter alive = new RecordingEmitter();
+        RecordingEmitter dead = new RecordingEmitter();
+        dead.failing = true;
+        registry.register(7L, "1", alive);
+        registry.register(8L, "2", dead);
+
+        broker.sendHeartbeats();
+
+        assertEquals(1, alive.sent);
+        assertEquals(1, registry.totalConnections());
+        assertFalse(registry.hasLocalConnections(8L));
+    }
+
+    @Test
+    void register_SameKeyReplacesPreviousEmitter() {
+        registry.register(7L, "42", new RecordingEmitter());
+        registry.register(7L, "42", new RecordingEmitter());
+
+        assertEquals(1, registry.connectionCount(7L));
+        assertEquals(1, registry.totalConnections());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        final List<Object> frames = new ArrayList<>();
+        int sent;
+        boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            record(builder.build());
+        }
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+            record(items);
+        }
+
+        private void record(Object frame) throws IOException {
+            if (failing) {
+                throw new IOException("broken pipe");
+            }
+            frames.add(frame);
+            sent++;
+        }
+    }
+}
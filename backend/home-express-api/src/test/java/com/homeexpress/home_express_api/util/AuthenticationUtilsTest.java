@@ -0,0 +1,103 @@
+package com.homeexpress.home_express_api.util;
+
+import com.homeexpress.home_express_api.config.AuthenticatedUser;
+import com.homeexpress.home_express_api.entity.Transport;
+import com.homeexpress.home_express_api.entity.User;
+import com.homeexpress.home_express_api.entity.UserRole;
+import com.homeexpress.home_express_api.repository.CustomerRepository;
+import com.homeexpress.home_express_api.repository.TransportRepository;
+import com.homeexpress.home_express_api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationUtilsTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransportRepository transportRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private Authentication transportAuth;
+
+    @BeforeEach
+    void setUp() {
+        AuthenticatedUser principal = new AuthenticatedUser(5L, "t@test.com", UserRole.TRANSPORT, null, 5L, null);
+        transportAuth = new UsernamePasswordAuthenticationToken(principal, null,
+                List.of(new SimpleGrantedAuthority("ROLE_TRANSPORT")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void withinRequest_EachEntityIsLoadedOnce() {
+        startRequest();
+        User user = new User();
+        user.setUserId(5L);
+        Transport transport = new Transport();
+        transport.setTransportId(5L);
+        when(userRepository.findById(5L)).thenReturn(Optional.of(user));
+        when(transportRepository.findById(5L)).thenReturn(Optional.of(transport));
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(user, AuthenticationUtils.getUser(transportAuth, userRepository));
+            assertSame(transport, AuthenticationUtils.getTransport(transportAuth, transportRepository).orElseThrow());
+        }
+
+        verify(userRepository, times(1)).findById(5L);
+        verify(transportRepository, times(1)).findById(5L);
+        verifyNoMoreInteractions(userRepository, transportRepository);
+    }
+
+    @Test
+    void newRequest_LoadsAgain() {
+        when(userRepository.findById(5L)).thenReturn(Optional.of(new User()));
+
+        startRequest();
+        AuthenticationUtils.getUser(transportAuth, userRepository);
+        startRequest();
+        AuthenticationUtils.getUser(transportAuth, userRepository);
+
+        verify(userRepository, times(2)).findById(5L);
+    }
+
+    @Test
+    void roleAndIdChecks_DoNotQuery() {
+        startRequest();
+
+        assertTrue(AuthenticationUtils.hasRole(transportAuth, UserRole.TRANSPORT));
+        assertFalse(AuthenticationUtils.hasRole(transportAuth, UserRole.CUSTOMER));
+        assertEquals(5L, AuthenticationUtils.getUserId(transportAuth));
+        // Transport token has no customer profile
+        assertTrue(AuthenticationUtils.getCustomer(transportAuth, customerRepository).isEmpty());
+
+        verifyNoInteractions(userRepository, customerRepository);
+    }
+
+    private void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+}